@@ -1,6 +1,11 @@
 package com.siyamuddin.blog.blogappapis;
 
+import com.siyamuddin.blog.blogappapis.Entity.User;
+import com.siyamuddin.blog.blogappapis.Payloads.UserPayload.UserDto;
+import com.siyamuddin.blog.blogappapis.Services.Storage.FileStorageService;
+import com.siyamuddin.blog.blogappapis.Services.Storage.ImageVariantService;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
@@ -13,7 +18,18 @@ public class BlogAppApisApplication {
 	}
 
 	@Bean
-	public ModelMapper modelMapper() {
-		return new ModelMapper();
+	public ModelMapper modelMapper(ObjectProvider<FileStorageService> fileStorageService) {
+		ModelMapper modelMapper = new ModelMapper();
+		// Users store photo variant keys; the DTO exposes their URLs
+		modelMapper.typeMap(User.class, UserDto.class).setPostConverter(context -> {
+			FileStorageService storage = fileStorageService.getIfAvailable();
+			if (storage != null) {
+				ImageVariantService.decodeKeys(context.getSource().getProfileImageVariants())
+						.forEach((size, key) -> context.getDestination().getProfileImageVariantUrls()
+								.put(size, storage.publicUrl(key)));
+			}
+			return context.getDestination();
+		});
+		return modelMapper;
 	}
 }
@@ -0,0 +1,39 @@
+package com.siyamuddin.blog.blogappapis.Config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siyamuddin.blog.blogappapis.Config.Properties.AuditExportProperties;
+import com.siyamuddin.blog.blogappapis.Config.Properties.DataSourceRoutingProperties;
+import com.siyamuddin.blog.blogappapis.Services.Audit.AuditExportService;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+/**
+ * Builds the export pool. It is deliberately not a {@code DataSource} bean, so it never
+ * replaces or competes with the application datasource.
+ */
+@Configuration
+public class AuditExportConfig {
+
+    static final String POOL_NAME = "audit-export";
+
+    @Bean(destroyMethod = "close")
+    public AuditExportService auditExportService(AuditExportProperties properties,
+                                                 DataSourceProperties dataSourceProperties,
+                                                 ObjectMapper objectMapper,
+                                                 MeterRegistry meterRegistry) {
+        DataSourceRoutingProperties.Pool pool = properties.getPool();
+        if (!StringUtils.hasText(pool.getUrl())) {
+            pool.setUrl(dataSourceProperties.determineUrl());
+            pool.setUsername(dataSourceProperties.determineUsername());
+            pool.setPassword(dataSourceProperties.determinePassword());
+        }
+        HikariDataSource dataSource = DataSourceRoutingConfig.buildPool(POOL_NAME, pool,
+                new MicrometerMetricsTrackerFactory(meterRegistry));
+        return new AuditExportService(dataSource, properties.getFetchSize(), objectMapper, meterRegistry);
+    }
+}
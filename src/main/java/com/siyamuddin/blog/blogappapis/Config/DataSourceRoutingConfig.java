@@ -0,0 +1,81 @@
+package com.siyamuddin.blog.blogappapis.Config;
+
+import com.siyamuddin.blog.blogappapis.Config.Properties.DataSourceRoutingProperties;
+import com.siyamuddin.blog.blogappapis.Config.Routing.ReadWriteRoutingDataSource;
+import com.siyamuddin.blog.blogappapis.Config.Routing.ReplicaLagMonitor;
+import com.siyamuddin.blog.blogappapis.Config.Routing.RoutingPools;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured single pool with a primary/replica routing datasource
+ * when {@code app.datasource.routing.enabled=true}. Each pool gets its own Hikari settings
+ * and Micrometer pool metrics (tagged by pool name).
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.routing.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean(destroyMethod = "close")
+    public RoutingPools routingPools(DataSourceRoutingProperties properties, MeterRegistry meterRegistry) {
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+        HikariDataSource primary = buildPool(RoutingPools.PRIMARY, properties.getPrimary(), metrics);
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            String name = "replica-" + (i + 1);
+            replicas.put(name, buildPool(name, properties.getReplicas().get(i), metrics));
+        }
+        return new RoutingPools(primary, replicas);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(RoutingPools pools, DataSourceRoutingProperties properties,
+                                               MeterRegistry meterRegistry) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(pools.getPrimary(), pools.getReplicas(),
+                properties.getMaxReplicaLag(), Clock.systemUTC(), meterRegistry);
+        monitor.checkLag();
+        return monitor;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(RoutingPools pools, ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(pools, lagMonitor, meterRegistry);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    static HikariDataSource buildPool(String name, DataSourceRoutingProperties.Pool pool,
+                                      MicrometerMetricsTrackerFactory metrics) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(pool.getUrl());
+        dataSource.setUsername(pool.getUsername());
+        dataSource.setPassword(pool.getPassword());
+        if (StringUtils.hasText(pool.getDriverClassName())) {
+            dataSource.setDriverClassName(pool.getDriverClassName());
+        }
+        dataSource.setMaximumPoolSize(pool.getMaximumPoolSize());
+        dataSource.setMinimumIdle(pool.getMinimumIdle());
+        dataSource.setConnectionTimeout(pool.getConnectionTimeout());
+        dataSource.setIdleTimeout(pool.getIdleTimeout());
+        dataSource.setMaxLifetime(pool.getMaxLifetime());
+        pool.getDataSourceProperties().forEach(dataSource::addDataSourceProperty);
+        if (metrics != null) {
+            dataSource.setMetricsTrackerFactory(metrics);
+        }
+        return dataSource;
+    }
+}
@@ -0,0 +1,170 @@
+package com.siyamuddin.blog.blogappapis.Config;
+
+import com.siyamuddin.blog.blogappapis.Config.Properties.ExecutorProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.MDC;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One bounded executor per async workload (bulkheads), sized by {@link ExecutorProperties}.
+ * <p>
+ * Spring Boot's actuator binds {@code executor.active}, {@code executor.queued},
+ * {@code executor.pool.size} and {@code executor.completed} for every ThreadPoolTaskExecutor bean,
+ * tagged with the bean name. Each executor here adds {@code app.executor.rejected},
+ * {@code app.executor.queue.wait} and {@code app.executor.task} under the same {@code name} tag.
+ * Use {@code @Async(ExecutorConfig.MAIL_EXECUTOR)} etc. to pick one; plain {@code @Async} runs on
+ * {@code taskExecutor}.
+ * <p>
+ * With {@code spring.threads.virtual.enabled=true} on Java 21 the executors keep their bounds but
+ * run tasks on virtual threads, matching what Spring Boot does for Tomcat and the task scheduler.
+ * Tasks inherit the submitter's MDC; they never inherit its SecurityContext, so work running on
+ * a shared thread cannot act as the user who happened to submit it.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    public static final String MAIL_EXECUTOR = "mailExecutor";
+    public static final String AUDIT_EXECUTOR = "auditExecutor";
+    public static final String STORAGE_EXECUTOR = "storageExecutor";
+    public static final String UPLOAD_EXECUTOR = "uploadExecutor";
+    public static final String CACHE_EXECUTOR = "cacheExecutor";
+    public static final String HASHING_EXECUTOR = "hashingExecutor";
+    public static final String IMAGE_EXECUTOR = "imageExecutor";
+
+    @Bean(name = "taskExecutor")
+    public ThreadPoolTaskExecutor taskExecutor(ExecutorProperties properties, MeterRegistry meterRegistry,
+                                               Environment environment) {
+        return executor("taskExecutor", "async-", properties.getAsync(), properties, meterRegistry,
+                Threading.VIRTUAL.isActive(environment));
+    }
+
+    @Bean(name = MAIL_EXECUTOR)
+    public ThreadPoolTaskExecutor mailExecutor(ExecutorProperties properties, MeterRegistry meterRegistry,
+                                               Environment environment) {
+        return executor(MAIL_EXECUTOR, "mail-", properties.getMail(), properties, meterRegistry,
+                Threading.VIRTUAL.isActive(environment));
+    }
+
+    @Bean(name = AUDIT_EXECUTOR)
+    public ThreadPoolTaskExecutor auditExecutor(ExecutorProperties properties, MeterRegistry meterRegistry,
+                                                Environment environment) {
+        return executor(AUDIT_EXECUTOR, "audit-", properties.getAudit(), properties, meterRegistry,
+                Threading.VIRTUAL.isActive(environment));
+    }
+
+    @Bean(name = STORAGE_EXECUTOR)
+    public ThreadPoolTaskExecutor storageExecutor(ExecutorProperties properties, MeterRegistry meterRegistry,
+                                                  Environment environment) {
+        return executor(STORAGE_EXECUTOR, "storage-", properties.getStorage(), properties, meterRegistry,
+                Threading.VIRTUAL.isActive(environment));
+    }
+
+    @Bean(name = UPLOAD_EXECUTOR)
+    public ThreadPoolTaskExecutor uploadExecutor(ExecutorProperties properties, MeterRegistry meterRegistry,
+                                                 Environment environment) {
+        return executor(UPLOAD_EXECUTOR, "upload-", properties.getUpload(), properties, meterRegistry,
+                Threading.VIRTUAL.isActive(environment));
+    }
+
+    @Bean(name = CACHE_EXECUTOR)
+    public ThreadPoolTaskExecutor cacheExecutor(ExecutorProperties properties, MeterRegistry meterRegistry,
+                                                Environment environment) {
+        return executor(CACHE_EXECUTOR, "cache-", properties.getCache(), properties, meterRegistry,
+                Threading.VIRTUAL.isActive(environment));
+    }
+
+    @Bean(name = HASHING_EXECUTOR)
+    public ThreadPoolTaskExecutor hashingExecutor(ExecutorProperties properties, MeterRegistry meterRegistry) {
+        // CPU-bound: platform threads even in virtual-thread mode, one per core
+        return executor(HASHING_EXECUTOR, "hashing-", properties.getHashing(), properties, meterRegistry, false);
+    }
+
+    @Bean(name = IMAGE_EXECUTOR)
+    public ThreadPoolTaskExecutor imageExecutor(ExecutorProperties properties, MeterRegistry meterRegistry) {
+        // CPU-bound like hashing: platform threads even in virtual-thread mode
+        return executor(IMAGE_EXECUTOR, "image-", properties.getImage(), properties, meterRegistry, false);
+    }
+
+    /**
+     * Build an uninitialized executor; the container initializes and shuts it down.
+     */
+    static ThreadPoolTaskExecutor executor(String name, String threadNamePrefix, ExecutorProperties.Pool pool,
+                                           ExecutorProperties properties, MeterRegistry meterRegistry,
+                                           boolean virtualThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(pool.getCoreSize());
+        executor.setMaxPoolSize(pool.getMaxSize());
+        executor.setQueueCapacity(pool.getQueueCapacity());
+        executor.setKeepAliveSeconds(pool.getKeepAliveSeconds());
+        executor.setThreadNamePrefix(threadNamePrefix);
+        if (virtualThreads) {
+            // Same bounds and rejection policy, but a blocked task parks instead of holding an OS thread
+            executor.setThreadFactory(new VirtualThreadTaskExecutor(threadNamePrefix).getVirtualThreadFactory());
+        }
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(properties.getAwaitTerminationSeconds());
+        executor.setRejectedExecutionHandler(countingRejections(name, pool.getRejection().handler(), meterRegistry));
+        executor.setTaskDecorator(instrument(name, meterRegistry));
+        return executor;
+    }
+
+    private static RejectedExecutionHandler countingRejections(String name, RejectedExecutionHandler policy,
+                                                               MeterRegistry meterRegistry) {
+        Counter rejected = Counter.builder("app.executor.rejected")
+                .description("Tasks refused because the executor's threads and queue were full")
+                .tag("name", name)
+                .register(meterRegistry);
+        return (task, threadPool) -> {
+            rejected.increment();
+            policy.rejectedExecution(task, threadPool);
+        };
+    }
+
+    private static TaskDecorator instrument(String name, MeterRegistry meterRegistry) {
+        Timer queueWait = Timer.builder("app.executor.queue.wait")
+                .description("Time from submission until a thread picks the task up")
+                .tag("name", name)
+                .register(meterRegistry);
+        Timer execution = Timer.builder("app.executor.task")
+                .description("Task run time on the executor")
+                .tag("name", name)
+                .register(meterRegistry);
+        return task -> {
+            long submitted = System.nanoTime();
+            // Carry the submitter's MDC (request ID) into the task, and never leave it on the worker
+            Map<String, String> mdc = MDC.getCopyOfContextMap();
+            return () -> {
+                long started = System.nanoTime();
+                queueWait.record(started - submitted, TimeUnit.NANOSECONDS);
+                Map<String, String> previous = MDC.getCopyOfContextMap();
+                setMdc(mdc);
+                try {
+                    task.run();
+                } finally {
+                    setMdc(previous);
+                    execution.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            };
+        };
+    }
+
+    private static void setMdc(Map<String, String> context) {
+        if (context == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(context);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.siyamuddin.blog.blogappapis.Config.Properties.FileStorageProperties;
 import com.siyamuddin.blog.blogappapis.Services.Storage.FileStorageService;
 import com.siyamuddin.blog.blogappapis.Services.Storage.LocalFileStorageService;
 import com.siyamuddin.blog.blogappapis.Services.Storage.S3FileStorageService;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.util.StringUtils;
@@ -15,13 +16,16 @@ import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3ClientBuilder;
 
+import java.util.concurrent.Executor;
+
 @Configuration
 public class FileStorageConfig {
 
     @Bean
-    public FileStorageService fileStorageService(FileStorageProperties properties) {
+    public FileStorageService fileStorageService(FileStorageProperties properties,
+                                                 @Qualifier(ExecutorConfig.UPLOAD_EXECUTOR) Executor uploadExecutor) {
         return switch (properties.getMode()) {
-            case S3 -> new S3FileStorageService(buildS3Client(properties), properties);
+            case S3 -> new S3FileStorageService(buildS3Client(properties), properties, uploadExecutor);
             case LOCAL -> new LocalFileStorageService(properties);
         };
     }
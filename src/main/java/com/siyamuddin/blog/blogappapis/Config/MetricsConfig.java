@@ -49,7 +49,7 @@ public class MetricsConfig {
         private final Timer passwordResetTimer;
         private final Timer emailVerificationTimer;
         
-        // Gauges for current state
+        // Gauges for current state, set by StateGaugeRefresher from aggregate queries
         private final AtomicInteger activeSessions = new AtomicInteger(0);
         private final AtomicInteger lockedAccounts = new AtomicInteger(0);
         
@@ -203,26 +203,10 @@ public class MetricsConfig {
         }
         
         // Gauge methods
-        public void incrementActiveSessions() {
-            activeSessions.incrementAndGet();
-        }
-        
-        public void decrementActiveSessions() {
-            activeSessions.decrementAndGet();
-        }
-        
         public void setActiveSessions(int count) {
             activeSessions.set(count);
         }
         
-        public void incrementLockedAccounts() {
-            lockedAccounts.incrementAndGet();
-        }
-        
-        public void decrementLockedAccounts() {
-            lockedAccounts.decrementAndGet();
-        }
-        
         public void setLockedAccounts(int count) {
             lockedAccounts.set(count);
         }
@@ -0,0 +1,53 @@
+package com.siyamuddin.blog.blogappapis.Config.Properties;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Write-behind settings for session activity and last-login timestamps.
+ * A stored timestamp lags the real one by at most
+ * {@code drift-threshold-seconds + flush-interval-ms}, including after a crash.
+ */
+@Slf4j
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.activity-buffer")
+public class ActivityBufferProperties {
+    /**
+     * Activity closer than this to the stored value is not written at all.
+     */
+    private Integer driftThresholdSeconds = 60;
+
+    /**
+     * How often drifted timestamps are written in one batch.
+     */
+    private Long flushIntervalMs = 15000L;
+
+    /**
+     * Pending entries that trigger an immediate flush instead of waiting for the schedule.
+     */
+    private Integer maxPending = 10000;
+
+    public long stalenessBoundMillis() {
+        return driftThresholdSeconds * 1000L + flushIntervalMs;
+    }
+
+    @PostConstruct
+    public void validate() {
+        if (driftThresholdSeconds == null || driftThresholdSeconds < 0) {
+            throw new IllegalStateException("app.activity-buffer.drift-threshold-seconds must be non-negative");
+        }
+        if (flushIntervalMs == null || flushIntervalMs <= 0) {
+            throw new IllegalStateException("app.activity-buffer.flush-interval-ms must be greater than 0");
+        }
+        if (maxPending == null || maxPending <= 0) {
+            throw new IllegalStateException("app.activity-buffer.max-pending must be greater than 0");
+        }
+        log.info("Activity write-behind configured: drift {}s, flush every {} ms", driftThresholdSeconds, flushIntervalMs);
+    }
+}
@@ -0,0 +1,57 @@
+package com.siyamuddin.blog.blogappapis.Config.Properties;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Streaming audit-log export. Exports use their own small pool so a long export holds none of
+ * the connections user traffic needs; point {@code pool.url} at a replica where one exists.
+ * Without a URL the pool connects to {@code spring.datasource.*}.
+ */
+@Slf4j
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.audit.export")
+public class AuditExportProperties {
+
+    private final DataSourceRoutingProperties.Pool pool = new DataSourceRoutingProperties.Pool();
+
+    /**
+     * Rows fetched per round trip. MySQL needs {@code useCursorFetch=true} on the pool for this
+     * to stream instead of buffering the whole result.
+     */
+    private Integer fetchSize = 1000;
+
+    /**
+     * How long one export may stream. Applies to the export endpoint only; other async handlers
+     * keep {@code spring.mvc.async.request-timeout}.
+     */
+    private Duration requestTimeout = Duration.ofHours(1);
+
+    public AuditExportProperties() {
+        pool.setMaximumPoolSize(2);
+        pool.setMinimumIdle(0);
+    }
+
+    @PostConstruct
+    public void validate() {
+        if (fetchSize == null || fetchSize <= 0) {
+            throw new IllegalStateException("app.audit.export.fetch-size must be greater than 0");
+        }
+        if (requestTimeout == null || requestTimeout.isNegative() || requestTimeout.isZero()) {
+            throw new IllegalStateException("app.audit.export.request-timeout must be positive");
+        }
+        if (pool.getMaximumPoolSize() <= 0) {
+            throw new IllegalStateException("app.audit.export.pool.maximum-pool-size must be greater than 0");
+        }
+        log.info("Audit export configured: pool size {}, fetch size {}, request timeout {}",
+                pool.getMaximumPoolSize(), fetchSize, requestTimeout);
+    }
+}
@@ -0,0 +1,59 @@
+package com.siyamuddin.blog.blogappapis.Config.Properties;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Local write-ahead journal in front of the audit pipeline (see AuditJournal).
+ */
+@Slf4j
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.audit.journal")
+public class AuditJournalProperties {
+    private Boolean enabled = false;
+
+    private String directory = "audit-journal";
+
+    /**
+     * Size of each memory-mapped segment file.
+     */
+    private Integer segmentBytes = 64 * 1024 * 1024;
+
+    /**
+     * Segments kept on disk at most, shipped or not. When every segment holds unshipped events,
+     * new events bypass the journal and go straight to the in-memory buffer.
+     */
+    private Integer maxSegments = 16;
+
+    /**
+     * How often appended records are forced to disk; 0 forces on every append.
+     */
+    private Long fsyncIntervalMs = 100L;
+
+    @PostConstruct
+    public void validate() {
+        if (segmentBytes == null || segmentBytes < 64 * 1024) {
+            throw new IllegalStateException("app.audit.journal.segment-bytes must be at least 65536");
+        }
+        if (maxSegments == null || maxSegments < 2) {
+            throw new IllegalStateException("app.audit.journal.max-segments must be at least 2");
+        }
+        if (fsyncIntervalMs == null || fsyncIntervalMs < 0) {
+            throw new IllegalStateException("app.audit.journal.fsync-interval-ms must be non-negative");
+        }
+        if (Boolean.TRUE.equals(enabled) && !StringUtils.hasText(directory)) {
+            throw new IllegalStateException("app.audit.journal.directory is required when the journal is enabled");
+        }
+        if (Boolean.TRUE.equals(enabled)) {
+            log.info("Audit journal enabled: {} x {} bytes in {}, fsync every {} ms",
+                    maxSegments, segmentBytes, directory, fsyncIntervalMs);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.siyamuddin.blog.blogappapis.Config.Properties;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maintenance of the monthly audit_log partitions (see V8__partition_audit_log.sql).
+ */
+@Slf4j
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.audit.partitions")
+public class AuditPartitionProperties {
+    private Boolean enabled = true;
+
+    /**
+     * Whole months of audit history kept besides the current one; older partitions are dropped.
+     */
+    private Integer retentionMonths = 12;
+
+    /**
+     * Future months that must always have a partition, so p_future stays empty.
+     */
+    private Integer monthsAhead = 3;
+
+    @PostConstruct
+    public void validate() {
+        if (retentionMonths == null || retentionMonths < 1) {
+            throw new IllegalStateException("app.audit.partitions.retention-months must be at least 1");
+        }
+        if (monthsAhead == null || monthsAhead < 1) {
+            throw new IllegalStateException("app.audit.partitions.months-ahead must be at least 1");
+        }
+        log.info("Audit partitions: keep {} months, create {} months ahead", retentionMonths, monthsAhead);
+    }
+}
@@ -0,0 +1,78 @@
+package com.siyamuddin.blog.blogappapis.Config.Properties;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Settings for the audit-log pipeline: a bounded ring buffer drained by a single writer thread.
+ */
+@Slf4j
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.audit.pipeline")
+public class AuditPipelineProperties {
+    /**
+     * Ring buffer slots; must be a power of two.
+     */
+    private Integer capacity = 8192;
+
+    /**
+     * Maximum audit rows written per transaction.
+     */
+    private Integer batchSize = 500;
+
+    /**
+     * How long the writer sleeps when the buffer is empty.
+     */
+    private Long idleWaitMs = 50L;
+
+    /**
+     * What producers do when the buffer is full.
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+    /**
+     * With BLOCK, how long a producer waits for space before the event is dropped.
+     */
+    private Long blockTimeoutMs = 1000L;
+
+    /**
+     * With SPILL, where overflow events (and batches that failed to write) are appended.
+     */
+    private String spillDirectory = "audit-spill";
+
+    public enum OverflowPolicy {
+        BLOCK,
+        DROP,
+        SPILL
+    }
+
+    @PostConstruct
+    public void validate() {
+        if (capacity == null || capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalStateException("app.audit.pipeline.capacity must be a power of two");
+        }
+        if (batchSize == null || batchSize <= 0) {
+            throw new IllegalStateException("app.audit.pipeline.batch-size must be greater than 0");
+        }
+        if (idleWaitMs == null || idleWaitMs <= 0) {
+            throw new IllegalStateException("app.audit.pipeline.idle-wait-ms must be greater than 0");
+        }
+        if (overflowPolicy == null) {
+            throw new IllegalStateException("app.audit.pipeline.overflow-policy must be one of BLOCK, DROP, SPILL");
+        }
+        if (blockTimeoutMs == null || blockTimeoutMs < 0) {
+            throw new IllegalStateException("app.audit.pipeline.block-timeout-ms must be non-negative");
+        }
+        if (overflowPolicy == OverflowPolicy.SPILL && !StringUtils.hasText(spillDirectory)) {
+            throw new IllegalStateException("app.audit.pipeline.spill-directory is required when overflow-policy=SPILL");
+        }
+        log.info("Audit pipeline configured: capacity {}, batch {}, overflow {}", capacity, batchSize, overflowPolicy);
+    }
+}
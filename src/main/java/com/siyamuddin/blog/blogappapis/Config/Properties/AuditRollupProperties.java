@@ -0,0 +1,38 @@
+package com.siyamuddin.blog.blogappapis.Config.Properties;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hourly audit rollups (see V9__create_audit_rollup.sql).
+ */
+@Slf4j
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.audit.rollup")
+public class AuditRollupProperties {
+    private Boolean enabled = true;
+
+    /**
+     * Also keep per-user counters besides the all-users totals.
+     */
+    private Boolean perUser = true;
+
+    /**
+     * Longest range a single rollup query may cover.
+     */
+    private Integer maxQueryDays = 92;
+
+    @PostConstruct
+    public void validate() {
+        if (maxQueryDays == null || maxQueryDays < 1) {
+            throw new IllegalStateException("app.audit.rollup.max-query-days must be at least 1");
+        }
+        log.info("Audit rollups: enabled={}, per-user={}", enabled, perUser);
+    }
+}
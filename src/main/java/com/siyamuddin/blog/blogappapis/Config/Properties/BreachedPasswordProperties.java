@@ -0,0 +1,45 @@
+package com.siyamuddin.blog.blogappapis.Config.Properties;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Screening of new passwords against a local index of breached password hashes
+ * (see BreachedPasswordService; the index is built with BreachedPasswordIndexBuilder).
+ */
+@Slf4j
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.breached-passwords")
+public class BreachedPasswordProperties {
+
+    private Boolean enabled = false;
+
+    /**
+     * Index file to memory-map. Required when enabled.
+     */
+    private String indexFile;
+
+    @PostConstruct
+    public void validate() {
+        if (!Boolean.TRUE.equals(enabled)) {
+            log.info("Breached-password screening: disabled");
+            return;
+        }
+        if (indexFile == null || indexFile.isBlank()) {
+            throw new IllegalStateException("app.breached-passwords.index-file is required when screening is enabled");
+        }
+        if (!Files.isReadable(Path.of(indexFile))) {
+            throw new IllegalStateException("app.breached-passwords.index-file is not readable: " + indexFile);
+        }
+        log.info("Breached-password screening: enabled, index {}", indexFile);
+    }
+}
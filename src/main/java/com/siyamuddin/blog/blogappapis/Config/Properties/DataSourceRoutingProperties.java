@@ -0,0 +1,88 @@
+package com.siyamuddin.blog.blogappapis.Config.Properties;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read/write datasource routing.
+ * When enabled, {@code @Transactional(readOnly = true)} work is sent to the replica pools
+ * and everything else to the primary. When disabled the regular {@code spring.datasource.*}
+ * single pool is used.
+ */
+@Slf4j
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.datasource.routing")
+public class DataSourceRoutingProperties {
+
+    private boolean enabled = false;
+
+    private final Pool primary = new Pool();
+
+    private List<Pool> replicas = new ArrayList<>();
+
+    /**
+     * A replica whose heartbeat is older than this is skipped until it catches up.
+     */
+    private Duration maxReplicaLag = Duration.ofSeconds(5);
+
+    /**
+     * How often the primary heartbeat is written and replica lag is measured.
+     */
+    private long lagCheckIntervalMs = 2000;
+
+    @Getter
+    @Setter
+    public static class Pool {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+        private int minimumIdle = 2;
+        private long connectionTimeout = 30000;
+        private long idleTimeout = 600000;
+        private long maxLifetime = 1800000;
+        /**
+         * Driver properties, e.g. rewriteBatchedStatements or cachePrepStmts for MySQL.
+         */
+        private Map<String, String> dataSourceProperties = new HashMap<>();
+    }
+
+    @PostConstruct
+    public void validate() {
+        if (!enabled) {
+            return;
+        }
+        if (!StringUtils.hasText(primary.getUrl())) {
+            throw new IllegalStateException("app.datasource.routing.primary.url is required when routing is enabled");
+        }
+        for (int i = 0; i < replicas.size(); i++) {
+            if (!StringUtils.hasText(replicas.get(i).getUrl())) {
+                throw new IllegalStateException("app.datasource.routing.replicas[" + i + "].url must not be empty");
+            }
+        }
+        if (maxReplicaLag == null || maxReplicaLag.isNegative()) {
+            throw new IllegalStateException("app.datasource.routing.max-replica-lag must not be negative");
+        }
+        if (lagCheckIntervalMs <= 0) {
+            throw new IllegalStateException("app.datasource.routing.lag-check-interval-ms must be positive");
+        }
+        if (replicas.isEmpty()) {
+            log.warn("Datasource routing enabled without replicas. Read-only transactions will use the primary.");
+        }
+        log.info("Datasource routing configured with {} replica(s), max lag {}", replicas.size(), maxReplicaLag);
+    }
+}
@@ -0,0 +1,75 @@
+package com.siyamuddin.blog.blogappapis.Config.Properties;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Dispatch of the email outbox (see V10__create_email_outbox.sql).
+ */
+@Slf4j
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.email.outbox")
+public class EmailOutboxProperties {
+    /**
+     * Messages claimed and sent over one SMTP connection.
+     */
+    private Integer batchSize = 50;
+
+    /**
+     * Per-node send rate cap.
+     */
+    private Integer maxPerSecond = 20;
+
+    /**
+     * Attempts before a message is marked FAILED.
+     */
+    private Integer maxAttempts = 8;
+
+    /**
+     * Delay before the first retry; doubled on each further attempt up to max-backoff-ms.
+     */
+    private Long initialBackoffMs = 30_000L;
+
+    private Long maxBackoffMs = 3_600_000L;
+
+    /**
+     * How long a claimed batch is reserved for its dispatcher before other nodes may take it.
+     */
+    private Integer leaseSeconds = 300;
+
+    /**
+     * Days sent messages are kept before being purged.
+     */
+    private Integer retentionDays = 7;
+
+    @PostConstruct
+    public void validate() {
+        if (batchSize == null || batchSize <= 0) {
+            throw new IllegalStateException("app.email.outbox.batch-size must be greater than 0");
+        }
+        if (maxPerSecond == null || maxPerSecond <= 0) {
+            throw new IllegalStateException("app.email.outbox.max-per-second must be greater than 0");
+        }
+        if (maxAttempts == null || maxAttempts <= 0) {
+            throw new IllegalStateException("app.email.outbox.max-attempts must be greater than 0");
+        }
+        if (initialBackoffMs == null || initialBackoffMs <= 0
+                || maxBackoffMs == null || maxBackoffMs < initialBackoffMs) {
+            throw new IllegalStateException(
+                    "app.email.outbox backoff requires 0 < initial-backoff-ms <= max-backoff-ms");
+        }
+        if (leaseSeconds == null || leaseSeconds <= 0) {
+            throw new IllegalStateException("app.email.outbox.lease-seconds must be greater than 0");
+        }
+        if (retentionDays == null || retentionDays < 1) {
+            throw new IllegalStateException("app.email.outbox.retention-days must be at least 1");
+        }
+        log.info("Email outbox: batch {}, {} msg/s, {} attempts", batchSize, maxPerSecond, maxAttempts);
+    }
+}
@@ -0,0 +1,159 @@
+package com.siyamuddin.blog.blogappapis.Config.Properties;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Sizing of the per-workload executors built by ExecutorConfig. Each workload gets its own
+ * threads and queue so that a stalled one (e.g. a slow SMTP server) cannot starve the others.
+ */
+@Slf4j
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.executors")
+public class ExecutorProperties {
+
+    private static final int CPUS = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * What an executor does with a task when its threads are busy and its queue is full.
+     */
+    public enum Rejection {
+        /** Throw to the submitting thread. */
+        ABORT,
+        /** Run the task on the submitting thread, slowing the producer down. */
+        CALLER_RUNS,
+        /** Drop the task; for periodic work where the next run covers the skipped one. */
+        DISCARD;
+
+        public RejectedExecutionHandler handler() {
+            return switch (this) {
+                case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+                case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+                case DISCARD -> new ThreadPoolExecutor.DiscardPolicy();
+            };
+        }
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Pool {
+        private Integer coreSize;
+        private Integer maxSize;
+        private Integer queueCapacity;
+        private Integer keepAliveSeconds = 60;
+        private Rejection rejection;
+
+        public Pool(int coreSize, int maxSize, int queueCapacity, Rejection rejection) {
+            this.coreSize = coreSize;
+            this.maxSize = maxSize;
+            this.queueCapacity = queueCapacity;
+            this.rejection = rejection;
+        }
+    }
+
+    /**
+     * Default executor for @Async methods that do not name one.
+     */
+    private Pool async = new Pool(5, 10, 100, Rejection.CALLER_RUNS);
+
+    /**
+     * Email outbox dispatch. The dispatcher submits only when no dispatch is in flight, so one thread
+     * and a one-slot queue never overflow.
+     */
+    private Pool mail = new Pool(1, 1, 1, Rejection.DISCARD);
+
+    /**
+     * Audit maintenance such as rollup backfills. Overflow is refused so the caller can report it.
+     */
+    private Pool audit = new Pool(1, 1, 4, Rejection.ABORT);
+
+    /**
+     * Deletion of replaced files. Overflow runs inline so no cleanup is lost.
+     */
+    private Pool storage = new Pool(1, 4, 500, Rejection.CALLER_RUNS);
+
+    /**
+     * Parallel S3 multipart part uploads. Overflow runs the part on the uploading request thread,
+     * which also stops it reading further parts, so memory stays bounded.
+     */
+    private Pool upload = new Pool(4, 8, 16, Rejection.CALLER_RUNS);
+
+    /**
+     * Refresh of cached counts (state gauges). Like mail, an overlapping refresh is dropped.
+     */
+    private Pool cache = new Pool(1, 1, 1, Rejection.DISCARD);
+
+    /**
+     * Password hashing (CPU-bound): one thread per core. Overflow is refused so a login storm
+     * fails fast instead of queueing behind minutes of hashing.
+     */
+    private Pool hashing = new Pool(CPUS, CPUS, CPUS * 8, Rejection.ABORT);
+
+    /**
+     * Profile photo variant generation (CPU-bound): half the cores. ImageVariantService drops and
+     * counts rejected jobs; the photo is then served without variants and clients fall back to the
+     * original.
+     */
+    private Pool image = new Pool(Math.max(1, CPUS / 2), Math.max(1, CPUS / 2), 64, Rejection.ABORT);
+
+    /**
+     * How long shutdown waits for queued tasks to finish.
+     */
+    private Integer awaitTerminationSeconds = 30;
+
+    public Map<String, Pool> pools() {
+        Map<String, Pool> pools = new LinkedHashMap<>();
+        pools.put("async", async);
+        pools.put("mail", mail);
+        pools.put("audit", audit);
+        pools.put("storage", storage);
+        pools.put("upload", upload);
+        pools.put("cache", cache);
+        pools.put("hashing", hashing);
+        pools.put("image", image);
+        return pools;
+    }
+
+    @PostConstruct
+    public void validate() {
+        pools().forEach((name, pool) -> {
+            String prefix = "app.executors." + name;
+            if (pool.getCoreSize() == null || pool.getCoreSize() < 1) {
+                throw new IllegalStateException(prefix + ".core-size must be at least 1");
+            }
+            if (pool.getMaxSize() == null || pool.getMaxSize() < pool.getCoreSize()) {
+                throw new IllegalStateException(prefix + ".max-size must be at least core-size");
+            }
+            if (pool.getQueueCapacity() == null || pool.getQueueCapacity() < 0) {
+                throw new IllegalStateException(prefix + ".queue-capacity must not be negative");
+            }
+            if (pool.getKeepAliveSeconds() == null || pool.getKeepAliveSeconds() < 0) {
+                throw new IllegalStateException(prefix + ".keep-alive-seconds must not be negative");
+            }
+            if (pool.getRejection() == null) {
+                throw new IllegalStateException(prefix + ".rejection is required");
+            }
+        });
+        if (awaitTerminationSeconds == null || awaitTerminationSeconds < 0) {
+            throw new IllegalStateException("app.executors.await-termination-seconds must not be negative");
+        }
+        StringBuilder summary = new StringBuilder();
+        pools().forEach((name, pool) -> summary.append(summary.isEmpty() ? "" : ", ")
+                .append(name).append(' ').append(pool.getCoreSize()).append('-').append(pool.getMaxSize())
+                .append('/').append(pool.getQueueCapacity()).append(' ').append(pool.getRejection()));
+        log.info("Executors: {}", summary);
+    }
+}
@@ -7,6 +7,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Configuration holder for file storage.
@@ -24,6 +25,11 @@ public class FileStorageProperties {
     private final S3 s3 = new S3();
     private final Cleanup cleanup = new Cleanup();
 
+    /**
+     * Largest file accepted by the streaming upload path, enforced while the body is read.
+     */
+    private DataSize maxUploadSize = DataSize.ofMegabytes(10);
+
     @Getter
     @Setter
     public static class Local {
@@ -53,6 +59,16 @@ public class FileStorageProperties {
          * Folder inside the bucket under which files will be stored. Helps namespacing per environment.
          */
         private String rootFolder = "uploads";
+        /**
+         * Part size for multipart uploads; files up to one part are sent with a single PUT.
+         * S3 requires at least 5MB for every part but the last.
+         */
+        private DataSize partSize = DataSize.ofMegabytes(8);
+        /**
+         * Parts of one upload in flight at once. Bounds the buffered memory per upload to
+         * (upload-concurrency + 1) x part-size.
+         */
+        private int uploadConcurrency = 4;
     }
 
     @Getter
@@ -78,7 +94,18 @@ public class FileStorageProperties {
             throw new IllegalStateException("filestorage.local.public-uri-prefix must not be empty");
         }
 
+        if (maxUploadSize == null || maxUploadSize.toBytes() <= 0) {
+            throw new IllegalStateException("filestorage.max-upload-size must be greater than 0");
+        }
+
         if (mode == StorageMode.S3) {
+            if (s3.getPartSize() == null || s3.getPartSize().toBytes() < DataSize.ofMegabytes(5).toBytes()
+                    || s3.getPartSize().toBytes() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("filestorage.s3.part-size must be between 5MB and 2GB");
+            }
+            if (s3.getUploadConcurrency() < 1) {
+                throw new IllegalStateException("filestorage.s3.upload-concurrency must be at least 1");
+            }
             if (!StringUtils.hasText(s3.getBucketName())) {
                 throw new IllegalStateException("filestorage.s3.bucket-name is required when mode=S3");
             }
@@ -89,7 +116,7 @@ public class FileStorageProperties {
                 log.warn("S3 access/secret keys are missing. Default AWS credential chain will be used.");
             }
         }
-        log.info("File storage configured to use mode {}", mode);
+        log.info("File storage configured to use mode {}, max upload size {}", mode, maxUploadSize);
     }
 }
 
@@ -0,0 +1,54 @@
+package com.siyamuddin.blog.blogappapis.Config.Properties;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resized copies of uploaded profile photos (see ImageVariantService). Worker threads are sized
+ * by app.executors.image.
+ */
+@Slf4j
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.image-variants")
+public class ImageVariantProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Longest side of each variant in pixels. Sizes at or above the original's are skipped.
+     */
+    private List<Integer> sizes = new ArrayList<>(List.of(64, 256, 1024));
+
+    /**
+     * JPEG quality (0-1) for opaque images; images with transparency are written as PNG.
+     */
+    private Float jpegQuality = 0.85f;
+
+    /**
+     * Originals with more pixels are not decoded at all (decompression-bomb guard).
+     */
+    private Long maxSourcePixels = 50_000_000L;
+
+    @PostConstruct
+    public void validate() {
+        if (sizes == null || sizes.isEmpty() || sizes.stream().anyMatch(size -> size == null || size < 16 || size > 4096)) {
+            throw new IllegalStateException("app.image-variants.sizes must list sizes between 16 and 4096");
+        }
+        if (jpegQuality == null || jpegQuality <= 0 || jpegQuality > 1) {
+            throw new IllegalStateException("app.image-variants.jpeg-quality must be in (0, 1]");
+        }
+        if (maxSourcePixels == null || maxSourcePixels <= 0) {
+            throw new IllegalStateException("app.image-variants.max-source-pixels must be greater than 0");
+        }
+        log.info("Image variants: {}, sizes {}", enabled ? "enabled" : "disabled", sizes);
+    }
+}
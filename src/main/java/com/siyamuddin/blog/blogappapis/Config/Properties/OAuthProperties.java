@@ -0,0 +1,41 @@
+package com.siyamuddin.blog.blogappapis.Config.Properties;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * OAuth account linking (see OAuthServiceImpl).
+ */
+@Slf4j
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.oauth")
+public class OAuthProperties {
+
+    /**
+     * Provider identities whose user id is kept in memory per node.
+     */
+    private Integer linkCacheMaxSize = 10_000;
+
+    /**
+     * How long a cached link is kept. Every hit is confirmed against oauth_account, so an unlink
+     * takes effect at once; this only bounds how long idle entries stay in memory.
+     */
+    private Integer linkCacheTtlSeconds = 600;
+
+    @PostConstruct
+    public void validate() {
+        if (linkCacheMaxSize == null || linkCacheMaxSize < 0) {
+            throw new IllegalStateException("app.oauth.link-cache-max-size must not be negative");
+        }
+        if (linkCacheTtlSeconds == null || linkCacheTtlSeconds <= 0) {
+            throw new IllegalStateException("app.oauth.link-cache-ttl-seconds must be greater than 0");
+        }
+        log.info("OAuth link cache: {} entries, {}s TTL", linkCacheMaxSize, linkCacheTtlSeconds);
+    }
+}
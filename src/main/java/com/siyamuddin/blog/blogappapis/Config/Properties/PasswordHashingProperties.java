@@ -0,0 +1,75 @@
+package com.siyamuddin.blog.blogappapis.Config.Properties;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Password hashing (see PasswordHashingService). Hashing threads are sized by app.executors.hashing.
+ */
+@Slf4j
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.password-hashing")
+public class PasswordHashingProperties {
+
+    public static final Set<String> ALGORITHMS = Set.of("bcrypt", "pbkdf2");
+
+    /**
+     * Algorithm for new hashes; stored hashes of any supported algorithm still match and are
+     * rehashed with this one on the next successful login.
+     */
+    private String algorithm = "bcrypt";
+
+    /**
+     * Fixed BCrypt cost. When unset, the cost is calibrated at startup to target-millis.
+     * Pin it in production so every node hashes at the same cost.
+     */
+    private Integer bcryptStrength;
+
+    /**
+     * Hash time the startup calibration aims for (it picks the highest cost at or below it).
+     */
+    private Integer targetMillis = 250;
+
+    /**
+     * Calibration bounds. The minimum is the cost of hashes created before calibration existed,
+     * so calibration never produces weaker hashes than those.
+     */
+    private Integer minStrength = 10;
+
+    private Integer maxStrength = 14;
+
+    /**
+     * How long a request waits for a hashing thread before it is answered with 503.
+     */
+    private Long maxWaitMs = 5_000L;
+
+    @PostConstruct
+    public void validate() {
+        if (algorithm == null || !ALGORITHMS.contains(algorithm)) {
+            throw new IllegalStateException("app.password-hashing.algorithm must be one of " + ALGORITHMS);
+        }
+        if (minStrength == null || maxStrength == null || minStrength < 4 || maxStrength > 31 || minStrength > maxStrength) {
+            throw new IllegalStateException(
+                    "app.password-hashing requires 4 <= min-strength <= max-strength <= 31");
+        }
+        if (bcryptStrength != null && (bcryptStrength < 4 || bcryptStrength > 31)) {
+            throw new IllegalStateException("app.password-hashing.bcrypt-strength must be between 4 and 31");
+        }
+        if (targetMillis == null || targetMillis <= 0) {
+            throw new IllegalStateException("app.password-hashing.target-millis must be greater than 0");
+        }
+        if (maxWaitMs == null || maxWaitMs <= 0) {
+            throw new IllegalStateException("app.password-hashing.max-wait-ms must be greater than 0");
+        }
+        log.info("Password hashing: {}, bcrypt strength {}", algorithm,
+                bcryptStrength != null ? bcryptStrength : "calibrated to " + targetMillis + "ms");
+    }
+}
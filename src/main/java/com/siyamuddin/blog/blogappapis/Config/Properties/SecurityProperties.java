@@ -27,6 +27,7 @@ public class SecurityProperties {
     private Boolean passwordRequireSpecialChar = true;
     private Integer passwordHistoryCount = 5; // Prevent reuse of last N passwords
     private Integer sessionTimeoutMinutes = 30;
+    private SessionStoreType sessionStore = SessionStoreType.JPA;
     
     // Token expiry settings (in hours)
     private Integer emailVerificationTokenExpiryHours = 24;
@@ -35,6 +36,11 @@ public class SecurityProperties {
     // Email verification requirement for login
     private Boolean requireEmailVerificationForLogin = true;
     
+    public enum SessionStoreType {
+        JPA,
+        REDIS
+    }
+    
     @PostConstruct
     public void validate() {
         if (maxFailedLoginAttempts == null || maxFailedLoginAttempts <= 0) {
@@ -62,6 +68,16 @@ public class SecurityProperties {
                 "app.security.password-history-count must be non-negative"
             );
         }
+        if (sessionTimeoutMinutes == null || sessionTimeoutMinutes <= 0) {
+            throw new IllegalStateException(
+                "app.security.session-timeout-minutes must be greater than 0"
+            );
+        }
+        if (sessionStore == null) {
+            throw new IllegalStateException(
+                "app.security.session-store must be one of JPA, REDIS"
+            );
+        }
         if (emailVerificationTokenExpiryHours == null || emailVerificationTokenExpiryHours <= 0) {
             throw new IllegalStateException(
                 "app.security.email-verification-token-expiry-hours must be greater than 0"
@@ -0,0 +1,71 @@
+package com.siyamuddin.blog.blogappapis.Config.Routing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for read-only transactions to a healthy replica (round robin) and
+ * everything else to the primary. Must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the read-only
+ * flag is only bound after the transaction manager asks for its connection.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final List<String> replicaKeys;
+    private final ReplicaLagMonitor lagMonitor;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Map<String, Counter> routeCounters = new HashMap<>();
+    private final Counter fallbackCounter;
+
+    public ReadWriteRoutingDataSource(RoutingPools pools, ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        this.replicaKeys = new ArrayList<>(pools.getReplicas().keySet());
+        this.lagMonitor = lagMonitor;
+
+        Map<Object, Object> targets = new HashMap<>(pools.getReplicas());
+        targets.put(RoutingPools.PRIMARY, pools.getPrimary());
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(pools.getPrimary());
+        setLenientFallback(false);
+
+        for (Object key : targets.keySet()) {
+            routeCounters.put((String) key, Counter.builder("app.datasource.route")
+                    .description("Connections handed out per datasource route")
+                    .tag("route", (String) key)
+                    .register(meterRegistry));
+        }
+        this.fallbackCounter = Counter.builder("app.datasource.route.fallback")
+                .description("Read-only connections sent to the primary because no replica was healthy")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String key = RoutingPools.PRIMARY;
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !replicaKeys.isEmpty()) {
+            key = pickReplica();
+        }
+        routeCounters.get(key).increment();
+        return key;
+    }
+
+    private String pickReplica() {
+        int size = replicaKeys.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            String candidate = replicaKeys.get((start + i) % size);
+            if (lagMonitor.isHealthy(candidate)) {
+                return candidate;
+            }
+        }
+        fallbackCounter.increment();
+        return RoutingPools.PRIMARY;
+    }
+}
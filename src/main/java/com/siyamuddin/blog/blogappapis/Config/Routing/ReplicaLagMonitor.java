@@ -0,0 +1,109 @@
+package com.siyamuddin.blog.blogappapis.Config.Routing;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measures replica lag with a heartbeat row: the primary's {@code replica_heartbeat} row is
+ * stamped with the current time and each replica's copy is read back. A replica is usable
+ * while {@code now - heartbeat <= maxLag}; unreachable replicas and replicas without the
+ * heartbeat table count as lagging. The effective bound is {@code maxLag} plus one check interval.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    static final String WRITE_HEARTBEAT = "UPDATE replica_heartbeat SET beat_at_ms = ? WHERE id = 1";
+    static final String INSERT_HEARTBEAT = "INSERT INTO replica_heartbeat (id, beat_at_ms) VALUES (1, ?)";
+    static final String READ_HEARTBEAT = "SELECT beat_at_ms FROM replica_heartbeat WHERE id = 1";
+
+    private final DataSource primary;
+    private final Map<String, ? extends DataSource> replicas;
+    private final Duration maxLag;
+    private final Clock clock;
+    private final Map<String, Long> lagMillis = new ConcurrentHashMap<>();
+
+    public ReplicaLagMonitor(DataSource primary, Map<String, ? extends DataSource> replicas,
+                             Duration maxLag, Clock clock, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.maxLag = maxLag;
+        this.clock = clock;
+        replicas.keySet().forEach(name -> {
+            lagMillis.put(name, Long.MAX_VALUE);
+            Gauge.builder("app.datasource.replica.lag", lagMillis,
+                            m -> m.get(name) == Long.MAX_VALUE ? Double.NaN : m.get(name) / 1000.0)
+                    .description("Replica heartbeat lag in seconds (NaN while unreachable)")
+                    .tag("replica", name)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        });
+    }
+
+    public boolean isHealthy(String replica) {
+        Long lag = lagMillis.get(replica);
+        return lag != null && lag <= maxLag.toMillis();
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.routing.lag-check-interval-ms:2000}")
+    public void checkLag() {
+        writeHeartbeat();
+        long now = clock.millis();
+        replicas.forEach((name, dataSource) -> {
+            long lag = readLag(name, dataSource, now);
+            Long previous = lagMillis.put(name, lag);
+            boolean healthy = lag <= maxLag.toMillis();
+            if (previous != null && (previous <= maxLag.toMillis()) != healthy) {
+                if (healthy) {
+                    log.info("Replica {} caught up (lag {} ms), routing reads to it again", name, lag);
+                } else {
+                    log.warn("Replica {} is lagging or unreachable, routing its reads to the primary", name);
+                }
+            }
+        });
+    }
+
+    private void writeHeartbeat() {
+        try (Connection connection = primary.getConnection()) {
+            long now = clock.millis();
+            int updated;
+            try (PreparedStatement ps = connection.prepareStatement(WRITE_HEARTBEAT)) {
+                ps.setLong(1, now);
+                updated = ps.executeUpdate();
+            }
+            if (updated == 0) {
+                try (PreparedStatement ps = connection.prepareStatement(INSERT_HEARTBEAT)) {
+                    ps.setLong(1, now);
+                    ps.executeUpdate();
+                }
+            }
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        } catch (SQLException e) {
+            log.warn("Failed to write replica heartbeat on primary: {}", e.getMessage());
+        }
+    }
+
+    private long readLag(String name, DataSource dataSource, long now) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(READ_HEARTBEAT);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? Math.max(0, now - rs.getLong(1)) : Long.MAX_VALUE;
+        } catch (SQLException e) {
+            log.debug("Failed to read heartbeat from replica {}: {}", name, e.getMessage());
+            return Long.MAX_VALUE;
+        }
+    }
+}
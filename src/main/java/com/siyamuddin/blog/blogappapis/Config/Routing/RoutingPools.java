@@ -0,0 +1,32 @@
+package com.siyamuddin.blog.blogappapis.Config.Routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Owns the primary and replica Hikari pools behind the routing datasource so they are
+ * closed together on shutdown.
+ */
+@Getter
+public class RoutingPools implements AutoCloseable {
+
+    public static final String PRIMARY = "primary";
+
+    private final HikariDataSource primary;
+    private final Map<String, HikariDataSource> replicas;
+
+    public RoutingPools(HikariDataSource primary, Map<String, HikariDataSource> replicas) {
+        this.primary = primary;
+        this.replicas = Collections.unmodifiableMap(new LinkedHashMap<>(replicas));
+    }
+
+    @Override
+    public void close() {
+        replicas.values().forEach(HikariDataSource::close);
+        primary.close();
+    }
+}
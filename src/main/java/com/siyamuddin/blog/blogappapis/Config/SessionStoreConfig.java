@@ -0,0 +1,30 @@
+package com.siyamuddin.blog.blogappapis.Config;
+
+import com.siyamuddin.blog.blogappapis.Config.Properties.SecurityProperties;
+import com.siyamuddin.blog.blogappapis.Repository.UserSessionRepo;
+import com.siyamuddin.blog.blogappapis.Services.ActivityWriteBehindService;
+import com.siyamuddin.blog.blogappapis.Services.Session.JpaSessionStore;
+import com.siyamuddin.blog.blogappapis.Services.Session.RedisSessionStore;
+import com.siyamuddin.blog.blogappapis.Services.Session.SessionStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class SessionStoreConfig {
+
+    @Bean
+    public SessionStore sessionStore(SecurityProperties properties,
+                                     UserSessionRepo sessionRepo,
+                                     ActivityWriteBehindService activityWriteBehindService,
+                                     ObjectProvider<StringRedisTemplate> redisTemplate) {
+        return switch (properties.getSessionStore()) {
+            case REDIS -> new RedisSessionStore(redisTemplate.getObject(),
+                    Duration.ofMinutes(properties.getSessionTimeoutMinutes()));
+            case JPA -> new JpaSessionStore(sessionRepo, activityWriteBehindService);
+        };
+    }
+}
@@ -0,0 +1,133 @@
+package com.siyamuddin.blog.blogappapis.Controllers;
+
+import com.siyamuddin.blog.blogappapis.Config.Properties.AuditExportProperties;
+import com.siyamuddin.blog.blogappapis.Entity.User;
+import com.siyamuddin.blog.blogappapis.Payloads.ApiResponse;
+import com.siyamuddin.blog.blogappapis.Services.Audit.AuditExportFilter;
+import com.siyamuddin.blog.blogappapis.Services.Audit.AuditExportFormat;
+import com.siyamuddin.blog.blogappapis.Services.Audit.AuditExportService;
+import com.siyamuddin.blog.blogappapis.Services.Audit.AuditRollupBucket;
+import com.siyamuddin.blog.blogappapis.Services.Audit.AuditRollupService;
+import com.siyamuddin.blog.blogappapis.Services.AuditService;
+import com.siyamuddin.blog.blogappapis.Services.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/audit")
+@SecurityRequirement(name = "JWT-Auth")
+@Tag(name = "Audit", description = "Audit log endpoints")
+public class AuditController {
+
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private final AuditExportService auditExportService;
+    private final AuditExportProperties auditExportProperties;
+    private final AuditRollupService auditRollupService;
+    private final AuditService auditService;
+    private final UserService userService;
+
+    public AuditController(AuditExportService auditExportService,
+                           AuditExportProperties auditExportProperties,
+                           AuditRollupService auditRollupService,
+                           AuditService auditService,
+                           UserService userService) {
+        this.auditExportService = auditExportService;
+        this.auditExportProperties = auditExportProperties;
+        this.auditRollupService = auditRollupService;
+        this.auditService = auditService;
+        this.userService = userService;
+    }
+
+    @Operation(
+        summary = "Export audit log",
+        description = "Stream audit rows in [from, to) as NDJSON or CSV. Requires admin role."
+    )
+    @PreAuthorize("@authz.isAdmin(authentication)")
+    @GetMapping("/export")
+    public WebAsyncTask<Void> export(
+            @Parameter(description = "Start of range (inclusive), ISO date-time", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "End of range (exclusive), ISO date-time", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "format", defaultValue = "NDJSON") AuditExportFormat format,
+            @RequestParam(value = "userId", required = false) Integer userId,
+            @RequestParam(value = "action", required = false) String action,
+            @RequestParam(value = "resourceType", required = false) String resourceType,
+            @RequestParam(value = "success", required = false) Boolean success,
+            HttpServletResponse response) {
+        AuditExportFilter filter = new AuditExportFilter(from, to, userId, action, resourceType, success);
+
+        auditService.logUserAction(currentUser(), "AUDIT_EXPORT", "AUDIT", from + "/" + to);
+
+        String fileName = "audit-" + from.format(FILE_STAMP) + "-" + to.format(FILE_STAMP) + "." + format.extension();
+        response.setContentType(format.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        // Written straight to the response, like StreamingResponseBody, but with the export's own
+        // timeout instead of spring.mvc.async.request-timeout
+        return new WebAsyncTask<>(auditExportProperties.getRequestTimeout().toMillis(), () -> {
+            auditExportService.export(filter, format, response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
+    }
+
+    @Operation(
+        summary = "Hourly audit counts",
+        description = "Event counts per hour, action and outcome in [from, to), read from the rollup table. " +
+                "Without userId the counts cover all users. Requires admin role."
+    )
+    @PreAuthorize("@authz.isAdmin(authentication)")
+    @GetMapping("/rollups")
+    public ResponseEntity<List<AuditRollupBucket>> rollups(
+            @Parameter(description = "Start of range (inclusive), ISO date-time", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "End of range (exclusive), ISO date-time", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "action", required = false) String action,
+            @RequestParam(value = "userId", required = false) Integer userId) {
+        return ResponseEntity.ok(auditRollupService.hourly(from, to, action, userId));
+    }
+
+    @Operation(
+        summary = "Backfill audit rollups",
+        description = "Rebuild the hourly rollups of [from, to) from the audit log in the background. " +
+                "The current hour is never rebuilt. Requires admin role."
+    )
+    @PreAuthorize("@authz.isAdmin(authentication)")
+    @PostMapping("/rollups/backfill")
+    public ResponseEntity<ApiResponse> backfillRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (!auditRollupService.startBackfill(from, to)) {
+            return new ResponseEntity<>(new ApiResponse("A rollup backfill is already running", false),
+                    HttpStatus.CONFLICT);
+        }
+        auditService.logUserAction(currentUser(), "AUDIT_ROLLUP_BACKFILL", "AUDIT", from + "/" + to);
+        return new ResponseEntity<>(new ApiResponse("Rollup backfill started", true), HttpStatus.ACCEPTED);
+    }
+
+    private User currentUser() {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userService.getUserEntityByEmail(email);
+    }
+}
@@ -12,20 +12,19 @@ import com.siyamuddin.blog.blogappapis.Security.JwtHelper;
 import com.siyamuddin.blog.blogappapis.Services.AccountSecurityService;
 import com.siyamuddin.blog.blogappapis.Services.AuditService;
 import com.siyamuddin.blog.blogappapis.Services.EmailVerificationService;
+import com.siyamuddin.blog.blogappapis.Services.LoginService;
 import com.siyamuddin.blog.blogappapis.Services.PasswordResetService;
+import com.siyamuddin.blog.blogappapis.Services.PasswordValidationService;
 import com.siyamuddin.blog.blogappapis.Services.SessionService;
 import com.siyamuddin.blog.blogappapis.Services.TokenBlacklistService;
 import com.siyamuddin.blog.blogappapis.Services.UserService;
-import com.siyamuddin.blog.blogappapis.Config.Properties.SecurityProperties;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.bind.annotation.*;
@@ -46,49 +45,49 @@ import java.time.LocalDateTime;
 public class AuthController {
     
     private final UserDetailsService userDetailsService;
-    private final AuthenticationManager manager;
+    private final LoginService loginService;
     private final UserService userService;
     private final JwtHelper helper;
     private final SecurityEventLogger securityEventLogger;
     private final EmailVerificationService emailVerificationService;
     private final PasswordResetService passwordResetService;
+    private final PasswordValidationService passwordValidationService;
     private final SessionService sessionService;
     private final TokenBlacklistService tokenBlacklistService;
     private final RefreshTokenRepo refreshTokenRepo;
     private final AuditService auditService;
     private final AccountSecurityService accountSecurityService;
     private final com.siyamuddin.blog.blogappapis.Config.MetricsConfig.BusinessMetrics businessMetrics;
-    private final SecurityProperties securityProperties;
 
     public AuthController(
             UserDetailsService userDetailsService,
-            AuthenticationManager manager,
+            LoginService loginService,
             UserService userService,
             JwtHelper helper,
             SecurityEventLogger securityEventLogger,
             EmailVerificationService emailVerificationService,
             PasswordResetService passwordResetService,
+            PasswordValidationService passwordValidationService,
             SessionService sessionService,
             TokenBlacklistService tokenBlacklistService,
             RefreshTokenRepo refreshTokenRepo,
             AuditService auditService,
             AccountSecurityService accountSecurityService,
-            com.siyamuddin.blog.blogappapis.Config.MetricsConfig.BusinessMetrics businessMetrics,
-            SecurityProperties securityProperties) {
+            com.siyamuddin.blog.blogappapis.Config.MetricsConfig.BusinessMetrics businessMetrics) {
         this.userDetailsService = userDetailsService;
-        this.manager = manager;
+        this.loginService = loginService;
         this.userService = userService;
         this.helper = helper;
         this.securityEventLogger = securityEventLogger;
         this.emailVerificationService = emailVerificationService;
         this.passwordResetService = passwordResetService;
+        this.passwordValidationService = passwordValidationService;
         this.sessionService = sessionService;
         this.tokenBlacklistService = tokenBlacklistService;
         this.refreshTokenRepo = refreshTokenRepo;
         this.auditService = auditService;
         this.accountSecurityService = accountSecurityService;
         this.businessMetrics = businessMetrics;
-        this.securityProperties = securityProperties;
     }
 
     @Operation(
@@ -115,40 +114,8 @@ public class AuthController {
         businessMetrics.incrementLoginAttempts();
         io.micrometer.core.instrument.Timer.Sample sample = businessMetrics.startLoginTimer();
         try {
-            this.doAuthenticate(request.getEmail(), request.getPassword());
-
-            UserDetails userDetails = userDetailsService.loadUserByUsername(request.getEmail());
-            User user = userService.getUserEntityByEmail(request.getEmail());
-
-            // Check if account is locked
-            if (!user.isAccountNonLocked()) {
-                throw new BadCredentialsException("Account is locked. Please try again later.");
-            }
-
-            // Check if email is verified (only if required by configuration)
-            if (securityProperties.getRequireEmailVerificationForLogin() != null && 
-                securityProperties.getRequireEmailVerificationForLogin() &&
-                (user.getEmailVerified() == null || !user.getEmailVerified())) {
-                throw new BadCredentialsException("Email not verified. Please verify your email before logging in.");
-            }
-
-            // Generate tokens
-            String accessToken = this.helper.generateToken(userDetails);
-            String refreshTokenString = this.helper.generateRefreshTokenString();
-
-            // Save refresh token
-            RefreshToken refreshToken = new RefreshToken();
-            refreshToken.setToken(refreshTokenString);
-            refreshToken.setUser(user);
-            refreshToken.setExpiresAt(LocalDateTime.now().plusDays(7));
-            refreshToken.setIsRevoked(false);
-            refreshTokenRepo.save(refreshToken);
-
-            // Create session
-            sessionService.createSession(user, httpRequest);
-
-            // Update last login
-            userService.updateUserLastLogin(user);
+            LoginService.LoginResult result = loginService.login(request.getEmail(), request.getPassword(), httpRequest);
+            User user = result.user();
 
             // Log successful login
             securityEventLogger.logLoginAttempt(request.getEmail(), getClientIP(httpRequest), true);
@@ -156,13 +123,12 @@ public class AuthController {
             
             // Metrics
             businessMetrics.incrementLoginSuccess();
-            businessMetrics.incrementActiveSessions();
             businessMetrics.recordLoginDuration(sample);
 
             JwtResponse response = JwtResponse.builder()
-                    .jwtToken(accessToken)
-                    .refreshToken(refreshTokenString)
-                    .username(userDetails.getUsername())
+                    .jwtToken(result.accessToken())
+                    .refreshToken(result.refreshToken())
+                    .username(user.getUsername())
                     .build();
             return new ResponseEntity<>(response, HttpStatus.OK);
 
@@ -194,21 +160,6 @@ public class AuthController {
         return com.siyamuddin.blog.blogappapis.Utils.HttpUtils.getClientIP(request);
     }
 
-    private void doAuthenticate(String email, String password) {
-        log.debug("Attempting authentication for email: {}", email);
-        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(email, password);
-        try {
-            manager.authenticate(authentication);
-            log.debug("Authentication successful for email: {}", email);
-        } catch (BadCredentialsException e) {
-            log.warn("Authentication failed for email: {} - {}", email, e.getMessage());
-            throw new BadCredentialsException(" Invalid Username or Password  !!");
-        } catch (Exception e) {
-            log.error("Unexpected error during authentication for email: {}", email, e);
-            throw new BadCredentialsException(" Invalid Username or Password  !!");
-        }
-    }
-
     @Operation(
         summary = "User registration",
         description = "Register a new user account. Verification email will be sent."
@@ -231,12 +182,11 @@ public class AuthController {
     @PostMapping("/register")
     public ResponseEntity<UserDto> registerUser(@Valid @org.springframework.validation.annotation.Validated(com.siyamuddin.blog.blogappapis.Payloads.UserPayload.ValidationGroups.Create.class) @RequestBody UserDto userDto, HttpServletRequest request) {
         io.micrometer.core.instrument.Timer.Sample sample = businessMetrics.startRegistrationTimer();
+        // Policy from app.security plus the breached-password index; the DTO only checks the pattern
+        passwordValidationService.validatePassword(userDto.getPassword());
+        // Registration inserts the user with its verification token and sends the email
         UserDto registeredUser = this.userService.registerNewUser(userDto);
         
-        // Send verification email
-        User user = userService.getUserEntityByEmail(registeredUser.getEmail());
-        emailVerificationService.sendVerificationEmail(user);
-        
         // Metrics
         businessMetrics.incrementRegistration();
         businessMetrics.recordRegistrationDuration(sample);
@@ -3,13 +3,16 @@ package com.siyamuddin.blog.blogappapis.Controllers;
 import com.siyamuddin.blog.blogappapis.Config.AppConstants;
 import com.siyamuddin.blog.blogappapis.Entity.User;
 import com.siyamuddin.blog.blogappapis.Entity.UserSession;
+import com.siyamuddin.blog.blogappapis.Exceptions.InvalidFileException;
 import com.siyamuddin.blog.blogappapis.Payloads.ApiResponse;
 import com.siyamuddin.blog.blogappapis.Payloads.PagedResponse;
+import com.siyamuddin.blog.blogappapis.Payloads.SessionRevocationRequest;
 import com.siyamuddin.blog.blogappapis.Payloads.UserPayload.UserDto;
 import com.siyamuddin.blog.blogappapis.Payloads.UserPayload.ValidationGroups;
 import com.siyamuddin.blog.blogappapis.Services.AuditService;
 import com.siyamuddin.blog.blogappapis.Services.PasswordValidationService;
 import com.siyamuddin.blog.blogappapis.Services.SessionService;
+import com.siyamuddin.blog.blogappapis.Services.Storage.MultipartStreamReader;
 import com.siyamuddin.blog.blogappapis.Services.UserProfilePhotoService;
 import com.siyamuddin.blog.blogappapis.Services.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -19,6 +22,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -29,6 +33,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -321,6 +326,48 @@ public class UserController {
         );
     }
 
+    @Operation(
+        summary = "Revoke all sessions",
+        description = "Revoke all sessions of the current user, optionally keeping the current one"
+    )
+    @DeleteMapping("/me/sessions")
+    public ResponseEntity<ApiResponse> revokeAllSessions(
+            @Parameter(description = "Session ID to keep active")
+            @RequestParam(value = "keep", required = false) String keepSessionId) {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = userService.getUserEntityByEmail(email);
+        int revoked = keepSessionId == null
+                ? sessionService.invalidateAllUserSessions(user.getId())
+                : sessionService.invalidateOtherUserSessions(user.getId(), keepSessionId);
+        return new ResponseEntity<>(
+            new ApiResponse(revoked + " sessions revoked", true),
+            HttpStatus.OK
+        );
+    }
+
+    @Operation(
+        summary = "Bulk revoke sessions",
+        description = "Revoke sessions and refresh tokens for a batch of users and/or all sessions from an IP address. Requires admin role."
+    )
+    @PreAuthorize("@authz.isAdmin(authentication)")
+    @PostMapping("/sessions/revoke")
+    public ResponseEntity<ApiResponse> bulkRevokeSessions(@Valid @RequestBody SessionRevocationRequest request) {
+        int sessions = 0;
+        int tokens = 0;
+        // An explicit "userIds": null replaces the empty-list default
+        if (request.getUserIds() != null && !request.getUserIds().isEmpty()) {
+            sessions += sessionService.invalidateSessionsForUsers(request.getUserIds());
+            tokens += sessionService.revokeRefreshTokensForUsers(request.getUserIds());
+        }
+        if (request.getIpAddress() != null && !request.getIpAddress().isBlank()) {
+            sessions += sessionService.invalidateSessionsByIp(request.getIpAddress());
+        }
+        return new ResponseEntity<>(
+            new ApiResponse(sessions + " sessions and " + tokens + " refresh tokens revoked", true),
+            HttpStatus.OK
+        );
+    }
+
     @Operation(
         summary = "Upload user profile photo",
         description = "Upload or replace a user's profile photo."
@@ -374,4 +421,72 @@ public class UserController {
         auditService.logUserAction(user, "PROFILE_PHOTO_UPDATED", "USER", user.getId());
         return ResponseEntity.ok(updated);
     }
+
+    @Operation(
+        summary = "Stream user profile photo",
+        description = "Same as the profile-photo upload, but the multipart body is copied to storage while it "
+                + "arrives instead of being buffered first. Send the file as the part named 'file'."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Profile photo updated",
+            content = @Content(schema = @Schema(implementation = UserDto.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "Invalid file provided"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "413",
+            description = "File exceeds filestorage.max-upload-size"
+        )
+    })
+    @PreAuthorize("@authz.canModifyUser(authentication,#userId)")
+    @PostMapping(
+        value = "/{userId}/profile-photo/stream",
+        consumes = MediaType.MULTIPART_FORM_DATA_VALUE
+    )
+    public ResponseEntity<UserDto> streamProfilePhoto(
+            @Parameter(description = "User ID", required = true)
+            @PathVariable Integer userId,
+            HttpServletRequest request) throws IOException {
+
+        UserDto updated = storeStreamedPhoto(userId, request);
+        try {
+            User user = userService.getUserEntityById(userId);
+            auditService.logUserAction(user, "PROFILE_PHOTO_UPDATED", "USER", userId);
+        } catch (Exception e) {
+            // Best-effort auditing
+        }
+        return ResponseEntity.ok(updated);
+    }
+
+    @Operation(
+        summary = "Stream current user's profile photo",
+        description = "Streaming variant of the authenticated user's profile-photo upload."
+    )
+    @PostMapping(
+        value = "/me/profile-photo/stream",
+        consumes = MediaType.MULTIPART_FORM_DATA_VALUE
+    )
+    public ResponseEntity<UserDto> streamMyProfilePhoto(HttpServletRequest request) throws IOException {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = userService.getUserEntityByEmail(email);
+        UserDto updated = storeStreamedPhoto(user.getId(), request);
+        auditService.logUserAction(user, "PROFILE_PHOTO_UPDATED", "USER", user.getId());
+        return ResponseEntity.ok(updated);
+    }
+
+    private UserDto storeStreamedPhoto(Integer userId, HttpServletRequest request) throws IOException {
+        MultipartStreamReader reader = new MultipartStreamReader(
+                request.getInputStream(), MultipartStreamReader.boundary(request.getContentType()));
+        for (MultipartStreamReader.Part part = reader.next(); part != null; part = reader.next()) {
+            if ("file".equals(part.name())) {
+                return userProfilePhotoService.uploadProfilePhoto(
+                        userId, part.contentType(), part.fileName(), part.content());
+            }
+        }
+        throw new InvalidFileException("File is required");
+    }
 }
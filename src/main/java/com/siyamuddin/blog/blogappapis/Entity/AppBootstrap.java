@@ -0,0 +1,23 @@
+package com.siyamuddin.blog.blogappapis.Entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Single-row marker recording one-time bootstrap decisions,
+ * such as whether the first (admin) user has already been assigned.
+ */
+@Entity
+@Table(name = "app_bootstrap")
+@NoArgsConstructor
+@Getter
+@Setter
+public class AppBootstrap {
+    @Id
+    private Integer id;
+
+    @Column(name = "admin_assigned", nullable = false)
+    private Boolean adminAssigned = false;
+}
@@ -8,13 +8,21 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "audit_log")
+@Table(name = "audit_log", indexes = {
+        @Index(name = "idx_audit_log_user_timestamp", columnList = "user_id, timestamp"),
+        @Index(name = "idx_audit_log_action_timestamp", columnList = "action, timestamp"),
+        @Index(name = "idx_audit_log_resource", columnList = "resource_type, resource_id"),
+        @Index(name = "idx_audit_log_timestamp", columnList = "timestamp")
+})
 @NoArgsConstructor
 @Getter
 @Setter
 public class AuditLog {
+    // Pooled table ids keep inserts batchable; IDENTITY forces one round trip per row.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "audit_log_id")
+    @TableGenerator(name = "audit_log_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "audit_log", initialValue = 1, allocationSize = 50)
     private Long id;
     
     @Column(name = "user_id")
@@ -0,0 +1,53 @@
+package com.siyamuddin.blog.blogappapis.Entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Hourly audit event counter, maintained by the audit pipeline (see V9__create_audit_rollup.sql).
+ * Rows with {@link #ALL_USERS} as user id count every event of the hour; the others count one user.
+ */
+@Entity
+@Table(name = "audit_rollup_hourly", indexes = {
+        @Index(name = "idx_audit_rollup_user_hour", columnList = "user_id, bucket_hour"),
+        @Index(name = "idx_audit_rollup_hour", columnList = "bucket_hour")
+})
+@NoArgsConstructor
+@Getter
+@Setter
+public class AuditRollup {
+    public static final int ALL_USERS = 0;
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "event_count", nullable = false)
+    private Long eventCount;
+
+    @Embeddable
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        @Column(name = "user_id", nullable = false)
+        private Integer userId;
+
+        @Column(name = "action", nullable = false, length = 100)
+        private String action;
+
+        @Column(name = "bucket_hour", nullable = false)
+        private LocalDateTime bucketHour;
+
+        @Column(name = "success", nullable = false)
+        private Boolean success;
+    }
+}
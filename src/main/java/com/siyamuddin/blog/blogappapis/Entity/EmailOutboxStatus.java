@@ -0,0 +1,7 @@
+package com.siyamuddin.blog.blogappapis.Entity;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
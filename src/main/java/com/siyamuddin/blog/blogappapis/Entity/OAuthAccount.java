@@ -0,0 +1,39 @@
+package com.siyamuddin.blog.blogappapis.Entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Link between an external identity (provider + the provider's subject id) and a local user.
+ * Rows are written by OAuthAccountRepo.link, an INSERT that is a no-op when the identity is
+ * already linked.
+ */
+@Entity
+@Table(name = "oauth_account",
+        uniqueConstraints = @UniqueConstraint(name = "uk_oauth_account_provider", columnNames = {"provider", "provider_id"}),
+        indexes = @Index(name = "idx_oauth_account_user_provider", columnList = "user_id, provider"))
+@NoArgsConstructor
+@Getter
+@Setter
+public class OAuthAccount {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "provider", nullable = false, length = 32)
+    private String provider;
+
+    @Column(name = "provider_id", nullable = false)
+    private String providerId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "linked_at", nullable = false)
+    private LocalDateTime linkedAt = LocalDateTime.now();
+}
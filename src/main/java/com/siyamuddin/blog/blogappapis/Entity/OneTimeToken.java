@@ -0,0 +1,64 @@
+package com.siyamuddin.blog.blogappapis.Entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Single-use token for email verification or password reset. Only the SHA-256 of the token is
+ * stored; the token itself exists in the email alone.
+ */
+@Entity
+@Table(name = "one_time_token", indexes = {
+        @Index(name = "idx_one_time_token_user_purpose", columnList = "user_id, purpose"),
+        @Index(name = "idx_one_time_token_expires_at", columnList = "expires_at")
+})
+@NoArgsConstructor
+@Getter
+@Setter
+public class OneTimeToken implements Persistable<String> {
+    @Id
+    @Column(name = "token_hash", length = 64)
+    private String tokenHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "purpose", nullable = false, length = 32)
+    private OneTimeTokenPurpose purpose;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // The id is assigned, so without this save() would merge and SELECT before the INSERT
+    @Transient
+    private boolean isNew = true;
+
+    @Override
+    public String getId() {
+        return tokenHash;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    public boolean isExpired(LocalDateTime now) {
+        return !expiresAt.isAfter(now);
+    }
+}
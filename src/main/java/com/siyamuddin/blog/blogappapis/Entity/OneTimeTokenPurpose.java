@@ -0,0 +1,6 @@
+package com.siyamuddin.blog.blogappapis.Entity;
+
+public enum OneTimeTokenPurpose {
+    EMAIL_VERIFICATION,
+    PASSWORD_RESET
+}
@@ -8,13 +8,19 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "refresh_token")
+@Table(name = "refresh_token", indexes = {
+        @Index(name = "idx_refresh_token_user_expires", columnList = "user_id, expires_at"),
+        @Index(name = "idx_refresh_token_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_refresh_token_revoked", columnList = "is_revoked")
+})
 @NoArgsConstructor
 @Getter
 @Setter
 public class RefreshToken {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "refresh_token_id")
+    @TableGenerator(name = "refresh_token_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "refresh_token", initialValue = 1, allocationSize = 50)
     private Long id;
     
     @Column(name = "token", unique = true, nullable = false, length = 500)
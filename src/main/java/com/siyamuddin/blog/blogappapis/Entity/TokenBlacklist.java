@@ -8,13 +8,17 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "token_blacklist")
+@Table(name = "token_blacklist", indexes = {
+        @Index(name = "idx_token_blacklist_expires_at", columnList = "expires_at")
+})
 @NoArgsConstructor
 @Getter
 @Setter
 public class TokenBlacklist {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "token_blacklist_id")
+    @TableGenerator(name = "token_blacklist_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "token_blacklist", initialValue = 1, allocationSize = 50)
     private Long id;
     
     @Column(name = "token", unique = true, nullable = false, length = 500)
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -12,11 +14,20 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 @Entity
-@Table(name = "user")
+@Table(name = "user", indexes = {
+        @Index(name = "idx_user_account_locked_until", columnList = "account_locked_until")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = User.EMAIL_UNIQUE_KEY, columnNames = "email")
+})
 @NoArgsConstructor
 @Getter
 @Setter
 public class User implements UserDetails {
+    /**
+     * Name of the unique key on email, as created by the Flyway baseline.
+     */
+    public static final String EMAIL_UNIQUE_KEY = "uk_user_email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
@@ -24,7 +35,7 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private String name;
     
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
     
     @Column(nullable = false)
@@ -36,18 +47,7 @@ public class User implements UserDetails {
     @Column(name = "email_verified")
     private Boolean emailVerified = false;
     
-    @Column(name = "email_verification_token")
-    private String emailVerificationToken;
-    
-    @Column(name = "email_verification_token_expiry")
-    private Date emailVerificationTokenExpiry;
-    
-    // Password reset fields
-    @Column(name = "password_reset_token")
-    private String passwordResetToken;
-    
-    @Column(name = "password_reset_token_expiry")
-    private Date passwordResetTokenExpiry;
+    // Verification and reset tokens live in one_time_token (see OneTimeTokenService)
     
     // Account security fields
     @Column(name = "failed_login_attempts")
@@ -65,6 +65,13 @@ public class User implements UserDetails {
 
     @Column(name = "profile_image_storage_key")
     private String profileImageStorageKey;
+
+    /**
+     * Storage keys of the resized copies of the photo, encoded as {@code size=key;size=key}
+     * (see ImageVariantService). Null until the variants are generated.
+     */
+    @Column(name = "profile_image_variants", length = 1024)
+    private String profileImageVariants;
     
     @Column(name = "phone_number")
     private String phoneNumber;
@@ -73,7 +80,9 @@ public class User implements UserDetails {
     
     private String locale;
     
-    @ManyToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    // Roles are reference data: never cascade persist/merge/remove from a user to its roles
+    @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user_roles")
     @JoinTable(name="user_role",
     joinColumns = @JoinColumn(name="user",referencedColumnName = "id"),inverseJoinColumns = @JoinColumn(name="role",referencedColumnName = "id"))
     private Set<Role> roles=new HashSet<>();
@@ -9,13 +9,19 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "user_session")
+@Table(name = "user_session", indexes = {
+        @Index(name = "idx_user_session_user_active", columnList = "user_id, is_active"),
+        @Index(name = "idx_user_session_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_user_session_ip_address", columnList = "ip_address")
+})
 @NoArgsConstructor
 @Getter
 @Setter
 public class UserSession {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "user_session_id")
+    @TableGenerator(name = "user_session_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "user_session", initialValue = 1, allocationSize = 50)
     private Long id;
     
     @Column(name = "session_id", unique = true, nullable = false)
@@ -25,6 +25,7 @@ public enum ErrorCode {
     VALIDATION_PASSWORD_WEAK("VAL_3002", "Password does not meet strength requirements"),
     VALIDATION_EMAIL_INVALID("VAL_3003", "Invalid email format"),
     VALIDATION_REQUIRED_FIELD("VAL_3004", "Required field is missing"),
+    VALIDATION_FILE_TOO_LARGE("VAL_3005", "File exceeds the upload size limit"),
     
     // Password Errors (4000-4999)
     PASSWORD_RESET_TOKEN_INVALID("PWD_4001", "Invalid or expired password reset token"),
@@ -45,7 +46,8 @@ public enum ErrorCode {
     RESOURCE_NOT_FOUND("GEN_9002", "Resource not found"),
     BAD_REQUEST("GEN_9003", "Bad request"),
     UNAUTHORIZED("GEN_9004", "Unauthorized"),
-    FORBIDDEN("GEN_9005", "Forbidden");
+    FORBIDDEN("GEN_9005", "Forbidden"),
+    SERVICE_BUSY("GEN_9006", "Service busy");
     
     private final String code;
     private final String message;
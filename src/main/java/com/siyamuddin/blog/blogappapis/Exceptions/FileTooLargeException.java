@@ -0,0 +1,19 @@
+package com.siyamuddin.blog.blogappapis.Exceptions;
+
+/**
+ * An upload passed the configured size limit. Raised while the body is still being read, so
+ * the rest of it is never stored.
+ */
+public class FileTooLargeException extends InvalidFileException {
+
+    private final long maxBytes;
+
+    public FileTooLargeException(long maxBytes) {
+        super("File exceeds the maximum upload size of " + maxBytes + " bytes");
+        this.maxBytes = maxBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+}
@@ -187,6 +187,15 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(apiResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(FileTooLargeException.class)
+    public ResponseEntity<ApiResponse> handleFileTooLargeException(FileTooLargeException ex, WebRequest request) {
+        log.warn("Upload over the size limit: {} - Request: {}",
+                ex.getMessage(),
+                request.getDescription(false));
+        ApiResponse apiResponse = new ApiResponse(ex.getMessage(), false, ErrorCode.VALIDATION_FILE_TOO_LARGE);
+        return new ResponseEntity<>(apiResponse, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
     @ExceptionHandler(InvalidFileException.class)
     public ResponseEntity<ApiResponse> handleInvalidFileException(InvalidFileException ex, WebRequest request) {
         log.warn("Invalid file upload: {} - Request: {}",
@@ -196,6 +205,15 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(apiResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(WeakPasswordException.class)
+    public ResponseEntity<ApiResponse> handleWeakPasswordException(WeakPasswordException ex, WebRequest request) {
+        log.info("Password refused: {} - Request: {}",
+                ex.getMessage(),
+                request.getDescription(false));
+        ApiResponse apiResponse = new ApiResponse(ex.getMessage(), false, ErrorCode.VALIDATION_PASSWORD_WEAK);
+        return new ResponseEntity<>(apiResponse, HttpStatus.BAD_REQUEST);
+    }
+
     // ========== RATE LIMITING EXCEPTIONS ==========
 
     @ExceptionHandler(RateLimitExceededException.class)
@@ -224,6 +242,20 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(apiResponse, HttpStatus.TOO_MANY_REQUESTS);
     }
 
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<ApiResponse> handlePasswordHashingBusyException(PasswordHashingBusyException ex, WebRequest request) {
+        log.warn("Password hashing saturated for request: {} - {}", request.getDescription(false), ex.getMessage());
+
+        ApiResponse apiResponse = new ApiResponse(
+                "The service is busy. Please try again shortly.",
+                false,
+                ErrorCode.SERVICE_BUSY
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(apiResponse);
+    }
+
     // ========== GENERAL EXCEPTIONS ==========
 
     @ExceptionHandler(Exception.class)
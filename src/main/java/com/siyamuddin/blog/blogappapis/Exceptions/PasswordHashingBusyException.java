@@ -0,0 +1,12 @@
+package com.siyamuddin.blog.blogappapis.Exceptions;
+
+/**
+ * Thrown when every password-hashing thread is busy and the queue is full, or the wait ran out.
+ * Not a credentials failure: it must not count as a failed login.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.siyamuddin.blog.blogappapis.Exceptions;
+
+/**
+ * A new password was refused by the password policy or found in the breached-password index.
+ * Extends IllegalArgumentException so existing callers that catch that keep working.
+ */
+public class WeakPasswordException extends IllegalArgumentException {
+
+    public WeakPasswordException(String message) {
+        super(message);
+    }
+}
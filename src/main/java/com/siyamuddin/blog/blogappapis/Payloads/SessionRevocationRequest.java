@@ -0,0 +1,26 @@
+package com.siyamuddin.blog.blogappapis.Payloads;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Admin incident-response request: revoke sessions and refresh tokens for a batch of users,
+ * and/or every session opened from one IP address.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionRevocationRequest {
+    @Size(max = 1000, message = "At most 1000 user ids per request")
+    private List<Integer> userIds = new ArrayList<>();
+
+    @Size(max = 45, message = "IP address must not exceed 45 characters")
+    private String ipAddress;
+}
@@ -7,7 +7,9 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 @NoArgsConstructor
 @Getter
@@ -45,4 +47,10 @@ public class UserDto {
     private Set<Role> roles = new HashSet<>();
 
     private String profileImageUrl;
+
+    /**
+     * Resized copies of the profile photo by longest side in pixels (e.g. 64, 256, 1024). Empty
+     * until they are generated, and for formats without variants; use profileImageUrl then.
+     */
+    private Map<Integer, String> profileImageVariantUrls = new TreeMap<>();
 }
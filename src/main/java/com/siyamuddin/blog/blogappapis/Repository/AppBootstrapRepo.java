@@ -0,0 +1,27 @@
+package com.siyamuddin.blog.blogappapis.Repository;
+
+import com.siyamuddin.blog.blogappapis.Entity.AppBootstrap;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AppBootstrapRepo extends JpaRepository<AppBootstrap, Integer> {
+
+    /**
+     * Atomically claims the first-admin slot. Returns 1 for the single caller that wins, 0 otherwise.
+     */
+    @Modifying
+    @Query("UPDATE AppBootstrap b SET b.adminAssigned = true WHERE b.id = :id AND b.adminAssigned = false")
+    int claimFirstAdmin(@Param("id") Integer id);
+
+    /**
+     * Plain insert of the marker; a marker that already exists fails it with a unique violation,
+     * unlike save(), which would merge over the existing row.
+     */
+    @Modifying
+    @Query("INSERT INTO AppBootstrap (id, adminAssigned) VALUES (:id, :adminAssigned)")
+    int insertMarker(@Param("id") Integer id, @Param("adminAssigned") boolean adminAssigned);
+}
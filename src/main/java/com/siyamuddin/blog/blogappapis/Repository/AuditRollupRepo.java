@@ -0,0 +1,34 @@
+package com.siyamuddin.blog.blogappapis.Repository;
+
+import com.siyamuddin.blog.blogappapis.Entity.AuditRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AuditRollupRepo extends JpaRepository<AuditRollup, AuditRollup.Key> {
+
+    @Query("SELECT r FROM AuditRollup r WHERE r.id.userId = :userId " +
+           "AND r.id.bucketHour >= :from AND r.id.bucketHour < :to " +
+           "ORDER BY r.id.bucketHour, r.id.action, r.id.success")
+    List<AuditRollup> findHourly(@Param("userId") Integer userId,
+                                 @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to);
+
+    @Query("SELECT r FROM AuditRollup r WHERE r.id.userId = :userId AND r.id.action = :action " +
+           "AND r.id.bucketHour >= :from AND r.id.bucketHour < :to " +
+           "ORDER BY r.id.bucketHour, r.id.success")
+    List<AuditRollup> findHourlyForAction(@Param("userId") Integer userId,
+                                          @Param("action") String action,
+                                          @Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM AuditRollup r WHERE r.id.bucketHour >= :from AND r.id.bucketHour < :to")
+    int deleteHours(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,60 @@
+package com.siyamuddin.blog.blogappapis.Repository;
+
+import com.siyamuddin.blog.blogappapis.Entity.EmailOutbox;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepo extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Claim up to {@code limit} due rows for one dispatch: tag them with the token and push
+     * next_attempt_at to the end of the lease, so no other dispatcher picks them up meanwhile.
+     * The query space is declared because a native update without one makes Hibernate evict
+     * every second-level cache region, and this runs every poll on every node.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "email_outbox"))
+    @Query(value = "UPDATE email_outbox SET claim_token = :token, next_attempt_at = :leaseUntil " +
+                   "WHERE status = 'PENDING' AND next_attempt_at <= :now LIMIT :limit", nativeQuery = true)
+    int claim(@Param("token") String token,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil,
+              @Param("limit") int limit);
+
+    List<EmailOutbox> findByClaimToken(String claimToken);
+
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = com.siyamuddin.blog.blogappapis.Entity.EmailOutboxStatus.SENT, " +
+           "e.sentAt = :sentAt, e.attempts = e.attempts + 1, e.claimToken = null, e.lastError = null " +
+           "WHERE e.id IN :ids AND e.claimToken = :token")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("token") String token,
+                 @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.attempts = e.attempts + 1, e.nextAttemptAt = :nextAttemptAt, " +
+           "e.claimToken = null, e.lastError = :error WHERE e.id = :id AND e.claimToken = :token")
+    int markRetry(@Param("id") Long id, @Param("token") String token,
+                  @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = com.siyamuddin.blog.blogappapis.Entity.EmailOutboxStatus.FAILED, " +
+           "e.attempts = e.attempts + 1, e.claimToken = null, e.lastError = :error " +
+           "WHERE e.id = :id AND e.claimToken = :token")
+    int markFailed(@Param("id") Long id, @Param("token") String token, @Param("error") String error);
+
+    @Modifying
+    @Query("DELETE FROM EmailOutbox e WHERE e.sentAt < :cutoff " +
+           "AND e.status = com.siyamuddin.blog.blogappapis.Entity.EmailOutboxStatus.SENT")
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,51 @@
+package com.siyamuddin.blog.blogappapis.Repository;
+
+import com.siyamuddin.blog.blogappapis.Entity.OAuthAccount;
+import com.siyamuddin.blog.blogappapis.Entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OAuthAccountRepo extends JpaRepository<OAuthAccount, Long> {
+
+    /**
+     * The linked user, resolved through the unique (provider, provider_id) index in one statement.
+     */
+    @Query("SELECT a.user FROM OAuthAccount a WHERE a.provider = :provider AND a.providerId = :providerId")
+    Optional<User> findUserByProvider(@Param("provider") String provider, @Param("providerId") String providerId);
+
+    @Query("SELECT a.user.id FROM OAuthAccount a WHERE a.provider = :provider AND a.providerId = :providerId")
+    Optional<Integer> findUserIdByProvider(@Param("provider") String provider, @Param("providerId") String providerId);
+
+    @Query("SELECT a.providerId FROM OAuthAccount a WHERE a.user.id = :userId AND a.provider = :provider")
+    List<String> findProviderIds(@Param("userId") Integer userId, @Param("provider") String provider);
+
+    /**
+     * Links the identity unless it is already linked, in which case the existing row (possibly
+     * another user's) is kept. Concurrent first logins therefore cannot create two links.
+     * <p>
+     * Returns 0 when the row already existed. INSERT IGNORE rather than ON DUPLICATE KEY UPDATE,
+     * whose no-op update still counts as 1 under Connector/J's default CLIENT_FOUND_ROWS. The
+     * query space keeps Hibernate from evicting every second-level cache region.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "oauth_account"))
+    @Query(value = "INSERT IGNORE INTO oauth_account (provider, provider_id, user_id, linked_at) " +
+                   "VALUES (:provider, :providerId, :userId, :linkedAt)", nativeQuery = true)
+    int link(@Param("provider") String provider, @Param("providerId") String providerId,
+             @Param("userId") Integer userId, @Param("linkedAt") LocalDateTime linkedAt);
+
+    @Modifying
+    @Query("DELETE FROM OAuthAccount a WHERE a.user.id = :userId AND a.provider = :provider")
+    int unlink(@Param("userId") Integer userId, @Param("provider") String provider);
+}
@@ -0,0 +1,34 @@
+package com.siyamuddin.blog.blogappapis.Repository;
+
+import com.siyamuddin.blog.blogappapis.Entity.OneTimeToken;
+import com.siyamuddin.blog.blogappapis.Entity.OneTimeTokenPurpose;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface OneTimeTokenRepo extends JpaRepository<OneTimeToken, String> {
+
+    @Query("SELECT t FROM OneTimeToken t WHERE t.tokenHash = :tokenHash AND t.purpose = :purpose")
+    Optional<OneTimeToken> findByHash(@Param("tokenHash") String tokenHash, @Param("purpose") OneTimeTokenPurpose purpose);
+
+    /**
+     * Deletes the token if it has not expired. Returns 1 for the single caller that consumes it, 0 otherwise.
+     */
+    @Modifying
+    @Query("DELETE FROM OneTimeToken t WHERE t.tokenHash = :tokenHash AND t.expiresAt > :now")
+    int consume(@Param("tokenHash") String tokenHash, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM OneTimeToken t WHERE t.userId = :userId AND t.purpose = :purpose")
+    int deleteByUserAndPurpose(@Param("userId") Integer userId, @Param("purpose") OneTimeTokenPurpose purpose);
+
+    @Modifying
+    @Query("DELETE FROM OneTimeToken t WHERE t.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,8 +20,12 @@ public interface RefreshTokenRepo extends JpaRepository<RefreshToken, Long> {
     List<RefreshToken> findByUser(User user);
     
     @Modifying
-    @Query("UPDATE RefreshToken r SET r.isRevoked = true WHERE r.user = :user")
-    void revokeAllUserTokens(@Param("user") User user);
+    @Query("UPDATE RefreshToken r SET r.isRevoked = true WHERE r.user = :user AND r.isRevoked = false")
+    int revokeAllUserTokens(@Param("user") User user);
+    
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.isRevoked = true WHERE r.user.id IN :userIds AND r.isRevoked = false")
+    int revokeAllForUserIds(@Param("userIds") Collection<Integer> userIds);
     
     @Modifying
     @Query("DELETE FROM RefreshToken r WHERE r.expiresAt < :now OR r.isRevoked = true")
@@ -2,10 +2,12 @@ package com.siyamuddin.blog.blogappapis.Repository;
 
 import com.siyamuddin.blog.blogappapis.Entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +15,8 @@ import java.util.Optional;
 public interface UserRepo extends JpaRepository<User,Integer> {
     List<User> findByNameContaining(String title);
     Optional<User> findByEmail(String email);
+
+    boolean existsByEmail(String email);
     
     /**
      * Find user by email with roles eagerly fetched to avoid LazyInitializationException.
@@ -21,6 +25,79 @@ public interface UserRepo extends JpaRepository<User,Integer> {
     @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.roles WHERE u.email = :email")
     Optional<User> findByEmailWithRoles(@Param("email") String email);
     
-    Optional<User> findByEmailVerificationToken(String token);
-    Optional<User> findByPasswordResetToken(String token);
+
+    /**
+     * Cheap "any user exists" check (LIMIT 1 probe instead of a full-table COUNT).
+     */
+    boolean existsByIdIsNotNull();
+
+    /**
+     * Narrow read of the fields needed to notify and audit a user (no roles, no password hash).
+     */
+    @Query("SELECT u.id AS id, u.name AS name, u.email AS email FROM User u WHERE u.email = :email")
+    Optional<UserContact> findContactByEmail(@Param("email") String email);
+
+    @Query("SELECT u.failedLoginAttempts FROM User u WHERE u.email = :email")
+    Optional<Integer> findFailedLoginAttemptsByEmail(@Param("email") String email);
+
+    long countByAccountLockedUntilAfter(Date now);
+
+    // Partial updates: each statement writes only the columns it names and needs no prior SELECT.
+    // They bypass the persistence context, so callers must not also mutate a managed User.
+
+    @Modifying
+    @Query("UPDATE User u SET u.lastLoginDate = :loginDate, u.failedLoginAttempts = 0 WHERE u.id = :id")
+    int updateLastLogin(@Param("id") Integer id, @Param("loginDate") Date loginDate);
+
+    @Modifying
+    @Query("UPDATE User u SET u.failedLoginAttempts = COALESCE(u.failedLoginAttempts, 0) + 1 WHERE u.email = :email")
+    int incrementFailedLoginAttempts(@Param("email") String email);
+
+    @Modifying
+    @Query("UPDATE User u SET u.failedLoginAttempts = 0 WHERE u.email = :email")
+    int resetFailedLoginAttempts(@Param("email") String email);
+
+    @Modifying
+    @Query("UPDATE User u SET u.accountLockedUntil = :lockedUntil WHERE u.email = :email")
+    int lockAccount(@Param("email") String email, @Param("lockedUntil") Date lockedUntil);
+
+    @Modifying
+    @Query("UPDATE User u SET u.accountLockedUntil = null, u.failedLoginAttempts = 0 WHERE u.email = :email")
+    int unlockAccount(@Param("email") String email);
+
+    /**
+     * Records generated photo variants, unless the photo was replaced while they were generated.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.profileImageVariants = :variants " +
+            "WHERE u.id = :id AND u.profileImageStorageKey = :storageKey")
+    int setProfileImageVariants(@Param("id") Integer id, @Param("storageKey") String storageKey,
+                                @Param("variants") String variants);
+
+    /**
+     * Sets the new password and clears the lock state. Single use is enforced by consuming the
+     * reset token (OneTimeTokenService) in the same transaction.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password, u.failedLoginAttempts = 0, u.accountLockedUntil = null " +
+            "WHERE u.id = :id")
+    int completePasswordReset(@Param("id") Integer id, @Param("password") String password);
+
+    /**
+     * Replaces an outdated password hash with a stronger one for the same password. Matching on the
+     * old hash keeps a concurrent password change from being overwritten.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :oldHash")
+    int upgradePasswordHash(@Param("id") Integer id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+
+    @Modifying
+    @Query("UPDATE User u SET u.emailVerified = true WHERE u.id = :id")
+    int markEmailVerified(@Param("id") Integer id);
+
+    interface UserContact {
+        Integer getId();
+        String getName();
+        String getEmail();
+    }
 }
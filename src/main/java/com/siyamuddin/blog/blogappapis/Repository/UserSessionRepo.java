@@ -3,9 +3,13 @@ package com.siyamuddin.blog.blogappapis.Repository;
 import com.siyamuddin.blog.blogappapis.Entity.User;
 import com.siyamuddin.blog.blogappapis.Entity.UserSession;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +18,34 @@ public interface UserSessionRepo extends JpaRepository<UserSession, Long> {
     Optional<UserSession> findBySessionId(String sessionId);
     List<UserSession> findByUserAndIsActiveTrue(User user);
     List<UserSession> findByUser(User user);
+
+    // Filter on the foreign key column; derived user_Id queries join the user table
+    @Query("SELECT s FROM UserSession s WHERE s.user.id = :userId AND s.isActive = true AND s.expiresAt > :now")
+    List<UserSession> findActiveByUserId(@Param("userId") Integer userId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE UserSession s SET s.isActive = false WHERE s.sessionId = :sessionId")
+    int deactivateBySessionId(@Param("sessionId") String sessionId);
+
+    @Modifying
+    @Query("UPDATE UserSession s SET s.isActive = false WHERE s.user.id = :userId AND s.isActive = true")
+    int deactivateByUserId(@Param("userId") Integer userId);
+
+    @Modifying
+    @Query("UPDATE UserSession s SET s.isActive = false " +
+           "WHERE s.user.id = :userId AND s.isActive = true AND s.sessionId <> :keepSessionId")
+    int deactivateByUserIdExcept(@Param("userId") Integer userId, @Param("keepSessionId") String keepSessionId);
+
+    @Modifying
+    @Query("UPDATE UserSession s SET s.isActive = false WHERE s.ipAddress = :ipAddress AND s.isActive = true")
+    int deactivateByIpAddress(@Param("ipAddress") String ipAddress);
+
+    @Modifying
+    @Query("UPDATE UserSession s SET s.isActive = false WHERE s.user.id IN :userIds AND s.isActive = true")
+    int deactivateByUserIds(@Param("userIds") Collection<Integer> userIds);
+
+    long countByIsActiveTrueAndExpiresAtAfter(LocalDateTime now);
+
     void deleteByExpiresAtBefore(LocalDateTime now);
     void deleteByUser(User user);
 }
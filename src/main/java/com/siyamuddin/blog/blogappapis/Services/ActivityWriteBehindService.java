@@ -0,0 +1,182 @@
+package com.siyamuddin.blog.blogappapis.Services;
+
+import com.siyamuddin.blog.blogappapis.Config.Properties.ActivityBufferProperties;
+import com.siyamuddin.blog.blogappapis.Config.Properties.SecurityProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Write-behind buffer for session activity and last-login timestamps.
+ * <p>
+ * Activity closer than the drift threshold to the stored value is dropped. Drifted values are
+ * kept in memory (latest wins) and written in one batched transaction per flush interval and at
+ * shutdown. A crash loses at most the pending entries, so stored timestamps lag reality by at
+ * most {@link ActivityBufferProperties#stalenessBoundMillis()}. That bound must stay below the
+ * session timeout, otherwise an active session could expire in the database.
+ */
+@Slf4j
+@Service
+public class ActivityWriteBehindService {
+
+    // Guarded on the stored value so a late flush (or another node) never moves a timestamp backwards
+    static final String UPDATE_SESSION_ACTIVITY = "UPDATE user_session SET last_activity = ?, expires_at = ? " +
+            "WHERE session_id = ? AND (last_activity IS NULL OR last_activity < ?)";
+    static final String UPDATE_LAST_LOGIN = "UPDATE `user` SET last_login_date = ? " +
+            "WHERE id = ? AND (last_login_date IS NULL OR last_login_date < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ActivityBufferProperties properties;
+    private final ConcurrentMap<String, SessionActivity> pendingSessions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Date> pendingLogins = new ConcurrentHashMap<>();
+    private final Counter flushedRows;
+
+    public record SessionActivity(LocalDateTime lastActivity, LocalDateTime expiresAt) {
+    }
+
+    public ActivityWriteBehindService(JdbcTemplate jdbcTemplate,
+                                      PlatformTransactionManager transactionManager,
+                                      ActivityBufferProperties properties,
+                                      SecurityProperties securityProperties,
+                                      MeterRegistry meterRegistry) {
+        long sessionTimeoutMillis = securityProperties.getSessionTimeoutMinutes() * 60_000L;
+        if (properties.stalenessBoundMillis() >= sessionTimeoutMillis) {
+            throw new IllegalStateException(
+                    "app.activity-buffer drift threshold + flush interval must be shorter than " +
+                    "app.security.session-timeout-minutes");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+
+        Gauge.builder("app.activity.pending", this, s -> s.pendingSessions.size() + s.pendingLogins.size())
+                .description("Activity timestamps waiting for the next write-behind flush")
+                .register(meterRegistry);
+        this.flushedRows = Counter.builder("app.activity.flushed")
+                .description("Activity timestamps written by the write-behind flush")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record session activity.
+     * @param storedLastActivity last_activity as currently stored (null if never written)
+     */
+    public void recordSessionActivity(String sessionId, LocalDateTime storedLastActivity,
+                                      LocalDateTime now, LocalDateTime expiresAt) {
+        if (storedLastActivity != null
+                && Duration.between(storedLastActivity, now).getSeconds() < properties.getDriftThresholdSeconds()) {
+            return;
+        }
+        pendingSessions.merge(sessionId, new SessionActivity(now, expiresAt),
+                (current, next) -> next.lastActivity().isAfter(current.lastActivity()) ? next : current);
+        flushIfFull();
+    }
+
+    /**
+     * Activity recorded for a session but not yet written, if any.
+     */
+    public Optional<SessionActivity> pendingSessionActivity(String sessionId) {
+        return Optional.ofNullable(pendingSessions.get(sessionId));
+    }
+
+    /**
+     * Record a successful login.
+     * @param storedLastLogin last_login_date as currently stored (null if never written)
+     */
+    public void recordLogin(Integer userId, Date storedLastLogin, Date now) {
+        if (storedLastLogin != null
+                && now.getTime() - storedLastLogin.getTime() < properties.getDriftThresholdSeconds() * 1000L) {
+            return;
+        }
+        pendingLogins.merge(userId, now, (current, next) -> next.after(current) ? next : current);
+        flushIfFull();
+    }
+
+    @Scheduled(fixedDelayString = "${app.activity-buffer.flush-interval-ms:15000}")
+    public void flush() {
+        Map<String, SessionActivity> sessions = drain(pendingSessions);
+        Map<Integer, Date> logins = drain(pendingLogins);
+        if (sessions.isEmpty() && logins.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!sessions.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPDATE_SESSION_ACTIVITY, sessionArgs(sessions));
+                }
+                if (!logins.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN, loginArgs(logins));
+                }
+            });
+            flushedRows.increment(sessions.size() + logins.size());
+            log.debug("Flushed {} session activity and {} last-login timestamps", sessions.size(), logins.size());
+        } catch (RuntimeException e) {
+            // Put the entries back (keeping anything newer recorded meanwhile) and retry next interval
+            sessions.forEach((id, activity) -> pendingSessions.merge(id, activity,
+                    (current, previous) -> current.lastActivity().isAfter(previous.lastActivity()) ? current : previous));
+            logins.forEach((id, at) -> pendingLogins.merge(id, at,
+                    (current, previous) -> current.after(previous) ? current : previous));
+            log.warn("Activity write-behind flush failed, {} entries re-queued: {}",
+                    sessions.size() + logins.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void flushIfFull() {
+        if (pendingSessions.size() + pendingLogins.size() >= properties.getMaxPending()) {
+            flush();
+        }
+    }
+
+    private static <K, V> Map<K, V> drain(ConcurrentMap<K, V> pending) {
+        Map<K, V> drained = new ConcurrentHashMap<>();
+        for (K key : pending.keySet()) {
+            V value = pending.remove(key);
+            if (value != null) {
+                drained.put(key, value);
+            }
+        }
+        return drained;
+    }
+
+    private static List<Object[]> sessionArgs(Map<String, SessionActivity> sessions) {
+        List<Object[]> args = new ArrayList<>(sessions.size());
+        sessions.forEach((id, activity) -> {
+            Timestamp lastActivity = Timestamp.valueOf(activity.lastActivity());
+            args.add(new Object[]{lastActivity, Timestamp.valueOf(activity.expiresAt()), id, lastActivity});
+        });
+        return args;
+    }
+
+    private static List<Object[]> loginArgs(Map<Integer, Date> logins) {
+        List<Object[]> args = new ArrayList<>(logins.size());
+        logins.forEach((id, at) -> {
+            Timestamp loginAt = new Timestamp(at.getTime());
+            args.add(new Object[]{loginAt, id, loginAt});
+        });
+        return args;
+    }
+}
@@ -0,0 +1,109 @@
+package com.siyamuddin.blog.blogappapis.Services;
+
+import com.siyamuddin.blog.blogappapis.Entity.AppBootstrap;
+import com.siyamuddin.blog.blogappapis.Repository.AppBootstrapRepo;
+import com.siyamuddin.blog.blogappapis.Repository.UserRepo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Decides whether a new sign-up becomes the first admin.
+ * Uses the one-row app_bootstrap marker instead of counting users on every registration.
+ */
+@Slf4j
+@Service
+public class AdminBootstrapService implements SmartInitializingSingleton {
+
+    static final int MARKER_ID = 1;
+
+    private final AppBootstrapRepo appBootstrapRepo;
+    private final UserRepo userRepo;
+    private final TransactionTemplate newTransaction;
+
+    // Once set the marker never flips back, so later sign-ups skip the claim query entirely
+    private final AtomicBoolean adminAssigned = new AtomicBoolean(false);
+
+    public AdminBootstrapService(AppBootstrapRepo appBootstrapRepo,
+                                 UserRepo userRepo,
+                                 PlatformTransactionManager transactionManager) {
+        this.appBootstrapRepo = appBootstrapRepo;
+        this.userRepo = userRepo;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Runs before the web server starts, so no sign-up can reach {@link #claimFirstAdmin()}
+     * ahead of the marker.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        ensureMarker();
+    }
+
+    /**
+     * Create the marker row on first start if V15 has not seeded it (e.g. Flyway disabled).
+     * Existing installations that already have users are marked as bootstrapped so no later
+     * sign-up is promoted to admin.
+     * <p>
+     * The insert runs in its own transaction, so on the node that loses a concurrent insert only
+     * that transaction rolls back; the winner's marker is then read in a fresh one.
+     */
+    public void ensureMarker() {
+        AppBootstrap marker = newTransaction.execute(status -> appBootstrapRepo.findById(MARKER_ID).orElse(null));
+        if (marker == null) {
+            try {
+                newTransaction.executeWithoutResult(status ->
+                        appBootstrapRepo.insertMarker(MARKER_ID, userRepo.existsByIdIsNotNull()));
+                log.info("Bootstrap marker created");
+            } catch (DataIntegrityViolationException e) {
+                // Another node created the marker concurrently; its value is authoritative
+                log.debug("Bootstrap marker already created by another node");
+            }
+            marker = newTransaction.execute(status -> appBootstrapRepo.findById(MARKER_ID).orElseThrow());
+            log.info("Bootstrap marker adminAssigned={}", marker.getAdminAssigned());
+        }
+        adminAssigned.set(Boolean.TRUE.equals(marker.getAdminAssigned()));
+    }
+
+    /**
+     * Try to claim the first-admin slot. Must run inside the registering transaction
+     * so that a failed registration rolls the claim back.
+     * @return true if the caller should receive the admin role
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean claimFirstAdmin() {
+        if (adminAssigned.get()) {
+            return false;
+        }
+        boolean claimed = appBootstrapRepo.claimFirstAdmin(MARKER_ID) == 1;
+        if (!claimed) {
+            // No row updated: the slot is taken, or the marker is missing. Only the former is final.
+            if (appBootstrapRepo.findById(MARKER_ID).map(AppBootstrap::getAdminAssigned).orElse(false)) {
+                adminAssigned.set(true);
+            } else {
+                log.warn("Bootstrap marker missing; sign-up not considered for the admin role");
+            }
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                adminAssigned.set(true);
+            }
+        });
+        log.info("First registered user will be assigned the admin role");
+        return true;
+    }
+}
@@ -0,0 +1,36 @@
+package com.siyamuddin.blog.blogappapis.Services.Audit;
+
+import com.siyamuddin.blog.blogappapis.Entity.AuditLog;
+
+import java.time.LocalDateTime;
+
+/**
+ * An audit entry captured on the calling thread, before it is handed to the writer.
+ *
+ * @param enqueuedAtMillis wall-clock time the event entered the pipeline, for the lag metric
+ */
+public record AuditEvent(Integer userId,
+                         String action,
+                         String resourceType,
+                         String resourceId,
+                         String ipAddress,
+                         String userAgent,
+                         boolean success,
+                         String errorMessage,
+                         LocalDateTime timestamp,
+                         long enqueuedAtMillis) {
+
+    AuditLog toEntity() {
+        AuditLog auditLog = new AuditLog();
+        auditLog.setUserId(userId);
+        auditLog.setAction(action);
+        auditLog.setResourceType(resourceType);
+        auditLog.setResourceId(resourceId);
+        auditLog.setIpAddress(ipAddress);
+        auditLog.setUserAgent(userAgent);
+        auditLog.setSuccess(success);
+        auditLog.setErrorMessage(errorMessage);
+        auditLog.setTimestamp(timestamp);
+        return auditLog;
+    }
+}
@@ -0,0 +1,20 @@
+package com.siyamuddin.blog.blogappapis.Services.Audit;
+
+import java.time.LocalDateTime;
+
+/**
+ * Rows to export: a required half-open time range {@code [from, to)} plus optional filters.
+ */
+public record AuditExportFilter(LocalDateTime from,
+                                LocalDateTime to,
+                                Integer userId,
+                                String action,
+                                String resourceType,
+                                Boolean success) {
+
+    public AuditExportFilter {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("Export range requires from < to");
+        }
+    }
+}
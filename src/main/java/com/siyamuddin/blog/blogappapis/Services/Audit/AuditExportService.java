@@ -0,0 +1,196 @@
+package com.siyamuddin.blog.blogappapis.Services.Audit;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams audit rows to an output stream as NDJSON or CSV.
+ * <p>
+ * Rows are read through a forward-only, read-only cursor with a bounded fetch size and written
+ * one at a time, so memory use does not depend on how many rows match. Queries run on a
+ * dedicated pool that this service owns and closes.
+ */
+@Slf4j
+public class AuditExportService implements AutoCloseable {
+
+    private static final String[] COLUMNS = {"id", "timestamp", "user_id", "action", "resource_type",
+            "resource_id", "ip_address", "user_agent", "success", "error_message"};
+
+    private final HikariDataSource pool;
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+    private final ObjectMapper objectMapper;
+    private final Counter exportedRows;
+    private final Timer exportDuration;
+
+    public AuditExportService(HikariDataSource pool, int fetchSize, ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry) {
+        this.pool = pool;
+        this.jdbcTemplate = new JdbcTemplate(pool);
+        this.fetchSize = fetchSize;
+        this.objectMapper = objectMapper;
+        this.exportedRows = Counter.builder("app.audit.export.rows")
+                .description("Audit rows written by exports")
+                .register(meterRegistry);
+        this.exportDuration = Timer.builder("app.audit.export.duration")
+                .description("Time taken to stream an audit export")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Write every matching row, oldest first, to {@code out}. The stream is flushed, not closed.
+     *
+     * @return number of rows written
+     */
+    public long export(AuditExportFilter filter, AuditExportFormat format, OutputStream out) {
+        List<Object> args = new ArrayList<>();
+        String sql = buildQuery(filter, args);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        Timer.Sample sample = Timer.start();
+        Long rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            connection.setReadOnly(true);
+            // Cursor-based fetching (PostgreSQL, MySQL useCursorFetch) only streams outside auto-commit
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(fetchSize);
+                for (int i = 0; i < args.size(); i++) {
+                    statement.setObject(i + 1, args.get(i));
+                }
+                try (ResultSet rs = statement.executeQuery()) {
+                    return format == AuditExportFormat.CSV ? writeCsv(rs, writer) : writeNdjson(rs, writer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Audit export aborted while writing", e);
+            } finally {
+                connection.rollback();
+            }
+        });
+        sample.stop(exportDuration);
+        long count = rows == null ? 0 : rows;
+        exportedRows.increment(count);
+        log.info("Exported {} audit rows as {} for {} - {}", count, format, filter.from(), filter.to());
+        return count;
+    }
+
+    static String buildQuery(AuditExportFilter filter, List<Object> args) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(String.join(", ", quoted()))
+                .append(" FROM audit_log WHERE `timestamp` >= ? AND `timestamp` < ?");
+        args.add(Timestamp.valueOf(filter.from()));
+        args.add(Timestamp.valueOf(filter.to()));
+        if (filter.userId() != null) {
+            sql.append(" AND user_id = ?");
+            args.add(filter.userId());
+        }
+        if (filter.action() != null) {
+            sql.append(" AND action = ?");
+            args.add(filter.action());
+        }
+        if (filter.resourceType() != null) {
+            sql.append(" AND resource_type = ?");
+            args.add(filter.resourceType());
+        }
+        if (filter.success() != null) {
+            sql.append(" AND success = ?");
+            args.add(filter.success());
+        }
+        return sql.append(" ORDER BY `timestamp`, id").toString();
+    }
+
+    private long writeNdjson(ResultSet rs, Writer writer) throws SQLException, IOException {
+        long count = 0;
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(writer)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            while (rs.next()) {
+                json.writeStartObject();
+                json.writeNumberField("id", rs.getLong("id"));
+                json.writeStringField("timestamp", rs.getTimestamp("timestamp").toLocalDateTime().toString());
+                int userId = rs.getInt("user_id");
+                if (rs.wasNull()) {
+                    json.writeNullField("userId");
+                } else {
+                    json.writeNumberField("userId", userId);
+                }
+                json.writeStringField("action", rs.getString("action"));
+                json.writeStringField("resourceType", rs.getString("resource_type"));
+                json.writeStringField("resourceId", rs.getString("resource_id"));
+                json.writeStringField("ipAddress", rs.getString("ip_address"));
+                json.writeStringField("userAgent", rs.getString("user_agent"));
+                json.writeBooleanField("success", rs.getBoolean("success"));
+                json.writeStringField("errorMessage", rs.getString("error_message"));
+                json.writeEndObject();
+                json.writeRaw('\n');
+                count++;
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private long writeCsv(ResultSet rs, Writer writer) throws SQLException, IOException {
+        writer.write(String.join(",", COLUMNS));
+        writer.write("\r\n");
+        long count = 0;
+        while (rs.next()) {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = rs.getObject(i + 1);
+                if (value instanceof Timestamp timestamp) {
+                    value = timestamp.toLocalDateTime();
+                }
+                writer.write(csvField(value));
+            }
+            writer.write("\r\n");
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private static List<String> quoted() {
+        List<String> columns = new ArrayList<>(COLUMNS.length);
+        for (String column : COLUMNS) {
+            columns.add("`" + column + "`");
+        }
+        return columns;
+    }
+
+    @Override
+    public void close() {
+        pool.close();
+    }
+}
@@ -0,0 +1,472 @@
+package com.siyamuddin.blog.blogappapis.Services.Audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only audit journal on memory-mapped segment files, written before the database.
+ * <p>
+ * A record is {@code [int length][int crc32c][length bytes of JSON]}. Segments are preallocated
+ * zero-filled, so a zero length marks the end of written data. Producers append under a lock and
+ * publish the new end offset through a volatile field, so the shipper never reads a half-written
+ * record. Dirty pages are forced every {@code fsync-interval-ms} (or on every append when 0): a
+ * process crash loses nothing that was appended, an OS crash at most that interval. On open, the
+ * last segment is cut at the first record whose checksum fails.
+ * <p>
+ * A single shipper thread {@link #read}s from a persisted checkpoint and {@link #commit}s once the
+ * batch is stored; segments behind the checkpoint are deleted. Delivery is at least once: a crash
+ * between the database commit and the checkpoint write ships that batch again.
+ */
+@Slf4j
+public class AuditJournal implements Closeable {
+
+    static final String SEGMENT_SUFFIX = ".journal";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final int HEADER_BYTES = 8;
+
+    /**
+     * Offset of a record within a numbered segment.
+     */
+    record Position(long segment, int offset) {
+    }
+
+    /**
+     * Events read from the journal and the position just past them.
+     */
+    record Batch(List<AuditEvent> events, Position next) {
+    }
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final long fsyncIntervalMs;
+    private final ObjectMapper objectMapper;
+    private final ScheduledExecutorService syncer;
+
+    private final Counter appended;
+    private final Counter rejected;
+    private final Counter corrupt;
+    private final Timer fsync;
+
+    // Writer state, guarded by writeLock. Not a monitor: rotation creates and maps a file, and
+    // blocking I/O inside synchronized pins a virtual thread to its carrier.
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private MappedByteBuffer writeBuffer;
+    private boolean closed;
+    private volatile Position end;
+    private volatile boolean dirty;
+
+    // Shipper state, only touched by the shipper thread (volatile for the gauges)
+    private volatile Position readPosition;
+    private long readSegment = -1;
+    private MappedByteBuffer readBuffer;
+
+    public AuditJournal(Path directory, int segmentBytes, int maxSegments, long fsyncIntervalMs,
+                        ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = maxSegments;
+        this.fsyncIntervalMs = fsyncIntervalMs;
+        this.objectMapper = objectMapper;
+        open();
+
+        this.appended = Counter.builder("app.audit.journal.appended")
+                .description("Audit events appended to the local journal")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("app.audit.journal.rejected")
+                .description("Audit events that bypassed the journal because it was full or failing")
+                .register(meterRegistry);
+        this.corrupt = Counter.builder("app.audit.journal.corrupt")
+                .description("Journal records skipped because their checksum or payload was invalid")
+                .register(meterRegistry);
+        this.fsync = Timer.builder("app.audit.journal.fsync")
+                .description("Time to force journal pages to disk")
+                .register(meterRegistry);
+        Gauge.builder("app.audit.journal.backlog", this, AuditJournal::backlogBytes)
+                .description("Journal bytes not yet shipped to the database")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        if (fsyncIntervalMs > 0) {
+            this.syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "audit-journal-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            syncer.scheduleWithFixedDelay(this::syncIfDirty, fsyncIntervalMs, fsyncIntervalMs,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            this.syncer = null;
+        }
+    }
+
+    /**
+     * Append one event. Never throws.
+     *
+     * @return false if the event was not journaled (journal full, closed or failing)
+     */
+    public boolean append(AuditEvent event) {
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(event);
+        } catch (IOException e) {
+            return reject("cannot serialize event: " + e.getMessage());
+        }
+        int recordBytes = HEADER_BYTES + payload.length;
+        if (recordBytes > segmentBytes) {
+            return reject("record of " + recordBytes + " bytes exceeds the segment size");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        writeLock.lock();
+        try {
+            if (closed) {
+                return reject("journal closed");
+            }
+            int offset = end.offset();
+            if (offset + recordBytes > segmentBytes) {
+                try {
+                    if (!rotate()) {
+                        return reject("all " + maxSegments + " segments hold unshipped events");
+                    }
+                } catch (UncheckedIOException e) {
+                    return reject(e.getMessage());
+                }
+                offset = 0;
+            }
+            // Length last: until it is set the slot still reads as end-of-data
+            writeBuffer.putInt(offset + 4, (int) crc.getValue());
+            writeBuffer.put(offset + HEADER_BYTES, payload);
+            writeBuffer.putInt(offset, payload.length);
+            end = new Position(end.segment(), offset + recordBytes);
+        } finally {
+            writeLock.unlock();
+        }
+        appended.increment();
+        if (fsyncIntervalMs == 0) {
+            force();
+        } else {
+            dirty = true;
+        }
+        return true;
+    }
+
+    /**
+     * Read up to {@code max} events after the checkpoint. Shipper thread only.
+     */
+    Batch read(int max) {
+        List<AuditEvent> events = new ArrayList<>(Math.min(max, 1024));
+        Position position = readPosition;
+        while (events.size() < max) {
+            Position limit = end;
+            boolean active = position.segment() == limit.segment();
+            int boundary = active ? limit.offset() : segmentBytes;
+            if (position.offset() + HEADER_BYTES > boundary) {
+                if (active) {
+                    break;
+                }
+                position = new Position(position.segment() + 1, 0);
+                continue;
+            }
+            MappedByteBuffer buffer = readerFor(position.segment());
+            int length = buffer.getInt(position.offset());
+            if (length == 0 && !active) {
+                position = new Position(position.segment() + 1, 0);
+                continue;
+            }
+            int next = position.offset() + HEADER_BYTES + length;
+            if (length <= 0 || next > boundary) {
+                position = skipCorrupt(position, limit, "invalid length " + length);
+                continue;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(position.offset() + HEADER_BYTES, payload);
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(position.offset() + 4)) {
+                position = skipCorrupt(position, limit, "checksum mismatch");
+                continue;
+            }
+            try {
+                events.add(objectMapper.readValue(payload, AuditEvent.class));
+            } catch (IOException e) {
+                corrupt.increment();
+                log.warn("Skipping unreadable audit journal record at {}: {}", position, e.getMessage());
+            }
+            position = new Position(position.segment(), next);
+        }
+        return new Batch(events, position);
+    }
+
+    /**
+     * Persist {@code next} as the checkpoint and delete segments wholly behind it. Shipper thread only.
+     */
+    void commit(Position next) {
+        Position previous = readPosition;
+        if (next.equals(previous)) {
+            return;
+        }
+        writeCheckpoint(next);
+        readPosition = next;
+        for (long segment = previous.segment(); segment < next.segment(); segment++) {
+            if (segment == readSegment) {
+                readSegment = -1;
+                readBuffer = null;
+            }
+            try {
+                Files.deleteIfExists(segmentPath(segment));
+            } catch (IOException e) {
+                log.warn("Failed to delete shipped audit journal segment {}: {}", segment, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Whether events are waiting to be shipped.
+     */
+    boolean hasBacklog() {
+        return !readPosition.equals(end);
+    }
+
+    long backlogBytes() {
+        Position from = readPosition;
+        Position to = end;
+        return (to.segment() - from.segment()) * (long) segmentBytes + to.offset() - from.offset();
+    }
+
+    /**
+     * Force appended records to disk.
+     */
+    public void force() {
+        MappedByteBuffer buffer;
+        writeLock.lock();
+        try {
+            buffer = writeBuffer;
+        } finally {
+            writeLock.unlock();
+        }
+        dirty = false;
+        fsync.record(() -> {
+            buffer.force();
+        });
+    }
+
+    @Override
+    public void close() {
+        if (syncer != null) {
+            syncer.shutdownNow();
+        }
+        writeLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            writeLock.unlock();
+        }
+        force();
+    }
+
+    private void syncIfDirty() {
+        try {
+            if (dirty) {
+                force();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Audit journal fsync failed: {}", e.getMessage());
+        }
+    }
+
+    private boolean reject(String reason) {
+        rejected.increment();
+        log.debug("Audit event not journaled: {}", reason);
+        return false;
+    }
+
+    /**
+     * Seal the active segment and start the next one, unless that would exceed max-segments.
+     * Caller holds the lock.
+     */
+    private boolean rotate() {
+        long segment = end.segment();
+        if (segment + 2 - readPosition.segment() > maxSegments) {
+            return false;
+        }
+        writeBuffer.force();
+        writeBuffer = map(segment + 1, true);
+        end = new Position(segment + 1, 0);
+        return true;
+    }
+
+    private Position skipCorrupt(Position position, Position limit, String reason) {
+        corrupt.increment();
+        log.warn("Skipping rest of audit journal segment {} from offset {}: {}",
+                position.segment(), position.offset(), reason);
+        return position.segment() < limit.segment() ? new Position(position.segment() + 1, 0) : limit;
+    }
+
+    private MappedByteBuffer readerFor(long segment) {
+        if (segment != readSegment) {
+            readBuffer = map(segment, false);
+            readSegment = segment;
+        }
+        return readBuffer;
+    }
+
+    private void open() {
+        try {
+            Files.createDirectories(directory);
+            List<Long> segments = listSegments();
+            Position checkpoint = readCheckpoint(segments.isEmpty() ? 1 : segments.get(0));
+            for (long segment : segments) {
+                if (segment < checkpoint.segment()) {
+                    Files.deleteIfExists(segmentPath(segment));
+                }
+            }
+            long last = segments.isEmpty()
+                    ? checkpoint.segment()
+                    : Math.max(checkpoint.segment(), segments.get(segments.size() - 1));
+            writeBuffer = map(last, true);
+            end = new Position(last, recover(writeBuffer));
+            readPosition = checkpoint.segment() == last && checkpoint.offset() > end.offset()
+                    ? end
+                    : checkpoint;
+            if (!readPosition.equals(end)) {
+                log.info("Audit journal has {} unshipped bytes from segment {}", backlogBytes(), readPosition.segment());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open audit journal in " + directory, e);
+        }
+    }
+
+    /**
+     * Find the end of valid data in the active segment and clear any torn record after it.
+     */
+    private int recover(MappedByteBuffer buffer) {
+        int offset = 0;
+        while (offset + HEADER_BYTES <= segmentBytes) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + HEADER_BYTES + length > segmentBytes) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(offset + HEADER_BYTES, payload);
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+                break;
+            }
+            offset += HEADER_BYTES + length;
+        }
+        if (offset + HEADER_BYTES <= segmentBytes && buffer.getInt(offset) != 0) {
+            int length = buffer.getInt(offset);
+            int tornEnd = length > 0
+                    ? (int) Math.min(segmentBytes, (long) offset + HEADER_BYTES + length)
+                    : offset + HEADER_BYTES;
+            log.warn("Truncating torn audit journal record at offset {}", offset);
+            for (int i = offset; i < tornEnd; i++) {
+                buffer.put(i, (byte) 0);
+            }
+            buffer.force();
+        }
+        return offset;
+    }
+
+    private MappedByteBuffer map(long segment, boolean writable) {
+        Path path = segmentPath(segment);
+        try (FileChannel channel = writable
+                ? FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+                    0, segmentBytes);
+        } catch (NoSuchFileException e) {
+            throw new UncheckedIOException("Audit journal segment " + path + " is missing", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map audit journal segment " + path, e);
+        }
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Position readCheckpoint(long defaultSegment) throws IOException {
+        Path path = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(path)) {
+            return new Position(defaultSegment, 0);
+        }
+        String content = Files.readString(path, StandardCharsets.UTF_8).trim();
+        String[] parts = content.split(" ");
+        try {
+            if (parts.length == 2) {
+                long segment = Long.parseLong(parts[0]);
+                int offset = Integer.parseInt(parts[1]);
+                if (segment > 0 && offset >= 0) {
+                    return new Position(segment, offset);
+                }
+            }
+        } catch (NumberFormatException e) {
+            // Fall through to the oldest segment
+        }
+        // Replaying from the oldest segment may ship some events twice, which delivery already allows
+        log.warn("Malformed audit journal checkpoint '{}', replaying from segment {}", content, defaultSegment);
+        return new Position(defaultSegment, 0);
+    }
+
+    private void writeCheckpoint(Position position) {
+        Path target = directory.resolve(CHECKPOINT_FILE);
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        byte[] content = (position.segment() + " " + position.offset()).getBytes(StandardCharsets.UTF_8);
+        try {
+            // Sync before the rename, or a power loss can leave the renamed checkpoint empty
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(content);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write audit journal checkpoint " + target, e);
+        }
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%020d%s", segment, SEGMENT_SUFFIX));
+    }
+}
@@ -0,0 +1,331 @@
+package com.siyamuddin.blog.blogappapis.Services.Audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siyamuddin.blog.blogappapis.Config.Properties.AuditJournalProperties;
+import com.siyamuddin.blog.blogappapis.Config.Properties.AuditPipelineProperties;
+import com.siyamuddin.blog.blogappapis.Config.Properties.AuditPipelineProperties.OverflowPolicy;
+import com.siyamuddin.blog.blogappapis.Entity.AuditLog;
+import com.siyamuddin.blog.blogappapis.Repository.AuditLogRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Audit-log pipeline: request threads {@link #submit} events into a bounded ring buffer and a
+ * single writer thread drains it, storing each batch in one transaction (JDBC-batched inserts)
+ * together with its hourly rollup counters ({@link AuditRollupService}).
+ * <p>
+ * The writer holds at most one connection, so audit writes can no longer starve user traffic.
+ * When the buffer is full the configured {@link OverflowPolicy} applies: BLOCK waits up to
+ * {@code block-timeout-ms} and then drops, DROP drops at once, SPILL appends to a local file
+ * that the writer replays when it is idle. Batches that fail to write are spilled under SPILL
+ * and dropped otherwise; every drop is counted.
+ * <p>
+ * With {@code app.audit.journal.enabled} events are appended to a local {@link AuditJournal}
+ * instead, and the writer ships them from there, retrying until the database accepts them. The
+ * ring buffer then only takes events the journal rejects (all segments full of unshipped events).
+ */
+@Slf4j
+@Service
+public class AuditPipeline implements SmartLifecycle {
+
+    private static final long REPLAY_INTERVAL_MS = 5000;
+    private static final long SHIP_RETRY_MS = 1000;
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final AuditLogRepo auditLogRepo;
+    private final AuditRollupService auditRollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditPipelineProperties properties;
+    private final AuditRingBuffer<AuditEvent> buffer;
+    private final AuditSpillFile spillFile;
+    private final AuditJournal journal;
+
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter spilled;
+    private final Counter failedBatches;
+    private final DistributionSummary batchSize;
+    private final Timer lag;
+
+    private volatile boolean running;
+    private volatile Thread writer;
+    private long nextReplayAtMillis;
+    private long nextShipAtMillis;
+
+    public AuditPipeline(AuditLogRepo auditLogRepo,
+                         AuditRollupService auditRollupService,
+                         PlatformTransactionManager transactionManager,
+                         AuditPipelineProperties properties,
+                         AuditJournalProperties journalProperties,
+                         ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry) {
+        this.auditLogRepo = auditLogRepo;
+        this.auditRollupService = auditRollupService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.buffer = new AuditRingBuffer<>(properties.getCapacity());
+        this.spillFile = properties.getOverflowPolicy() == OverflowPolicy.SPILL
+                ? new AuditSpillFile(Path.of(properties.getSpillDirectory()), objectMapper)
+                : null;
+        this.journal = journalProperties.getEnabled()
+                ? new AuditJournal(Path.of(journalProperties.getDirectory()), journalProperties.getSegmentBytes(),
+                        journalProperties.getMaxSegments(), journalProperties.getFsyncIntervalMs(),
+                        objectMapper, meterRegistry)
+                : null;
+
+        Gauge.builder("app.audit.queue.depth", buffer, AuditRingBuffer::size)
+                .description("Audit events waiting for the writer")
+                .register(meterRegistry);
+        this.written = outcomeCounter(meterRegistry, "written");
+        this.dropped = outcomeCounter(meterRegistry, "dropped");
+        this.spilled = outcomeCounter(meterRegistry, "spilled");
+        this.failedBatches = Counter.builder("app.audit.batch.failures")
+                .description("Audit batches that failed to write")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("app.audit.batch.size")
+                .description("Audit events stored per writer transaction")
+                .register(meterRegistry);
+        this.lag = Timer.builder("app.audit.lag")
+                .description("Time from submitting an audit event to its commit")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue an event for storage. Never throws; see the class comment for overflow behaviour.
+     */
+    public void submit(AuditEvent event) {
+        if (journal != null && journal.append(event)) {
+            return;
+        }
+        if (buffer.offer(event)) {
+            return;
+        }
+        switch (properties.getOverflowPolicy()) {
+            case BLOCK -> {
+                if (!offerWithin(event, properties.getBlockTimeoutMs())) {
+                    drop(1, "buffer full after waiting " + properties.getBlockTimeoutMs() + " ms");
+                }
+            }
+            case DROP -> drop(1, "buffer full");
+            case SPILL -> spill(List.of(event));
+        }
+    }
+
+    /**
+     * Drain and store one batch on the calling thread.
+     *
+     * @return number of events taken from the buffer
+     */
+    int drainOnce() {
+        List<AuditEvent> batch = new ArrayList<>(Math.min(properties.getBatchSize(), buffer.capacity()));
+        int drained = buffer.drainTo(batch, properties.getBatchSize());
+        if (drained > 0) {
+            write(batch);
+        }
+        return drained;
+    }
+
+    /**
+     * Store every spilled event, in batches.
+     *
+     * @return number of events replayed
+     */
+    int replaySpilled() {
+        if (spillFile == null) {
+            return 0;
+        }
+        int replayed = 0;
+        for (Path file : spillFile.claimForReplay()) {
+            List<AuditEvent> events = spillFile.read(file);
+            // Delete first: a failed batch is spilled again rather than replayed twice
+            spillFile.delete(file);
+            for (int from = 0; from < events.size(); from += properties.getBatchSize()) {
+                write(events.subList(from, Math.min(events.size(), from + properties.getBatchSize())));
+            }
+            replayed += events.size();
+        }
+        if (replayed > 0) {
+            log.info("Replayed {} spilled audit events", replayed);
+        }
+        return replayed;
+    }
+
+    /**
+     * Store one batch from the journal and advance its checkpoint. A failed batch stays in the
+     * journal and is retried after {@link #SHIP_RETRY_MS}.
+     *
+     * @return number of events shipped
+     */
+    int shipJournal() {
+        if (journal == null || !journal.hasBacklog() || System.currentTimeMillis() < nextShipAtMillis) {
+            return 0;
+        }
+        AuditJournal.Batch batch = journal.read(properties.getBatchSize());
+        List<AuditEvent> events = batch.events();
+        if (!events.isEmpty()) {
+            try {
+                store(events);
+            } catch (RuntimeException e) {
+                failedBatches.increment();
+                nextShipAtMillis = System.currentTimeMillis() + SHIP_RETRY_MS;
+                log.warn("Failed to ship {} journaled audit events, retrying: {}", events.size(), e.getMessage());
+                return 0;
+            }
+            recordWritten(events);
+        }
+        journal.commit(batch.next());
+        return events.size();
+    }
+
+    int queueDepth() {
+        return buffer.size();
+    }
+
+    private void write(List<AuditEvent> batch) {
+        try {
+            store(batch);
+        } catch (RuntimeException e) {
+            failedBatches.increment();
+            log.warn("Failed to write {} audit events: {}", batch.size(), e.getMessage());
+            if (spillFile != null) {
+                spill(batch);
+            } else {
+                drop(batch.size(), "write failed");
+            }
+            return;
+        }
+        recordWritten(batch);
+    }
+
+    private void store(List<AuditEvent> batch) {
+        List<AuditLog> entities = new ArrayList<>(batch.size());
+        batch.forEach(event -> entities.add(event.toEntity()));
+        transactionTemplate.executeWithoutResult(status -> {
+            auditLogRepo.saveAll(entities);
+            auditRollupService.record(batch);
+        });
+    }
+
+    private void recordWritten(List<AuditEvent> batch) {
+        long now = System.currentTimeMillis();
+        batch.forEach(event -> lag.record(Duration.ofMillis(Math.max(0, now - event.enqueuedAtMillis()))));
+        batchSize.record(batch.size());
+        written.increment(batch.size());
+    }
+
+    private boolean offerWithin(AuditEvent event, long timeoutMs) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+            if (buffer.offer(event)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void spill(List<AuditEvent> events) {
+        try {
+            spillFile.append(events);
+            spilled.increment(events.size());
+        } catch (RuntimeException e) {
+            drop(events.size(), e.getMessage());
+        }
+    }
+
+    private void drop(int count, String reason) {
+        dropped.increment(count);
+        log.warn("Dropped {} audit events: {}", count, reason);
+    }
+
+    private void runWriter() {
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(properties.getIdleWaitMs());
+        while (running || buffer.size() > 0) {
+            try {
+                if (drainOnce() + shipJournal() == 0) {
+                    if (running && spillFile != null && System.currentTimeMillis() >= nextReplayAtMillis) {
+                        nextReplayAtMillis = System.currentTimeMillis() + REPLAY_INTERVAL_MS;
+                        replaySpilled();
+                    }
+                    LockSupport.parkNanos(idleNanos);
+                }
+            } catch (RuntimeException e) {
+                log.error("Audit writer iteration failed", e);
+                LockSupport.parkNanos(idleNanos);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::runWriter, "audit-writer");
+        thread.setDaemon(true);
+        thread.start();
+        writer = thread;
+    }
+
+    /**
+     * Lets the writer drain what is already queued (for up to 10 s) before returning.
+     */
+    @Override
+    public synchronized void stop() {
+        running = false;
+        Thread thread = writer;
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (buffer.size() > 0) {
+            log.warn("Audit writer stopped with {} events still queued", buffer.size());
+        }
+        writer = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Unshipped journal records stay on disk and are shipped after the next start.
+     */
+    @PreDestroy
+    public void closeJournal() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("app.audit.events")
+                .description("Audit events by pipeline outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
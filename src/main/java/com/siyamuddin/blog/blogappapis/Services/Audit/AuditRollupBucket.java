@@ -0,0 +1,9 @@
+package com.siyamuddin.blog.blogappapis.Services.Audit;
+
+import java.time.LocalDateTime;
+
+/**
+ * Number of audit events with one action and outcome in one hour.
+ */
+public record AuditRollupBucket(LocalDateTime hour, String action, boolean success, long count) {
+}
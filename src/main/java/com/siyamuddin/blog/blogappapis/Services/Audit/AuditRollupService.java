@@ -0,0 +1,199 @@
+package com.siyamuddin.blog.blogappapis.Services.Audit;
+
+import com.siyamuddin.blog.blogappapis.Config.ExecutorConfig;
+import com.siyamuddin.blog.blogappapis.Config.Properties.AuditRollupProperties;
+import com.siyamuddin.blog.blogappapis.Entity.AuditRollup;
+import com.siyamuddin.blog.blogappapis.Repository.AuditRollupRepo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hourly audit counters for dashboards.
+ * <p>
+ * The audit pipeline calls {@link #record} inside each batch transaction, so counters commit
+ * atomically with the raw rows. A batch is folded into one upsert per (user, action, hour,
+ * outcome) cell, sent in primary-key order so concurrent writers on other nodes lock rows in
+ * the same order. {@link #backfill} recomputes whole hours from audit_log, for history written
+ * before rollups existed or after counters were lost.
+ */
+@Slf4j
+@Service
+public class AuditRollupService {
+
+    static final String UPSERT = "INSERT INTO audit_rollup_hourly (user_id, action, bucket_hour, success, event_count) " +
+            "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE event_count = event_count + VALUES(event_count)";
+    static final String BACKFILL_TOTALS = "INSERT INTO audit_rollup_hourly (user_id, action, bucket_hour, success, event_count) " +
+            "SELECT 0, action, CAST(? AS DATETIME), success, COUNT(*) FROM audit_log " +
+            "WHERE `timestamp` >= ? AND `timestamp` < ? GROUP BY action, success";
+    static final String BACKFILL_USERS = "INSERT INTO audit_rollup_hourly (user_id, action, bucket_hour, success, event_count) " +
+            "SELECT user_id, action, CAST(? AS DATETIME), success, COUNT(*) FROM audit_log " +
+            "WHERE `timestamp` >= ? AND `timestamp` < ? AND user_id IS NOT NULL GROUP BY user_id, action, success";
+
+    private static final Comparator<Cell> KEY_ORDER = Comparator.comparingInt(Cell::userId)
+            .thenComparing(Cell::action)
+            .thenComparing(Cell::hour)
+            .thenComparing(Cell::success);
+
+    private final AuditRollupRepo auditRollupRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditRollupProperties properties;
+    private final Executor executor;
+    private final AtomicBoolean backfillRunning = new AtomicBoolean();
+
+    private record Cell(int userId, String action, LocalDateTime hour, boolean success) {
+    }
+
+    public AuditRollupService(AuditRollupRepo auditRollupRepo,
+                              JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              AuditRollupProperties properties,
+                              @Qualifier(ExecutorConfig.AUDIT_EXECUTOR) Executor executor) {
+        this.auditRollupRepo = auditRollupRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.executor = executor;
+    }
+
+    /**
+     * Add a batch of events to the hourly counters. Joins the caller's transaction.
+     */
+    void record(List<AuditEvent> events) {
+        if (!properties.getEnabled() || events.isEmpty()) {
+            return;
+        }
+        Map<Cell, Long> counts = new TreeMap<>(KEY_ORDER);
+        for (AuditEvent event : events) {
+            LocalDateTime hour = event.timestamp().truncatedTo(ChronoUnit.HOURS);
+            counts.merge(new Cell(AuditRollup.ALL_USERS, event.action(), hour, event.success()), 1L, Long::sum);
+            if (properties.getPerUser() && event.userId() != null) {
+                counts.merge(new Cell(event.userId(), event.action(), hour, event.success()), 1L, Long::sum);
+            }
+        }
+        List<Object[]> args = new ArrayList<>(counts.size());
+        counts.forEach((cell, count) -> args.add(new Object[]{
+                cell.userId(), cell.action(), Timestamp.valueOf(cell.hour()), cell.success(), count}));
+        jdbcTemplate.batchUpdate(UPSERT, args);
+    }
+
+    /**
+     * Hourly counts in {@code [from, to)}, oldest first.
+     *
+     * @param action only this action, or every action when null
+     * @param userId only this user's events, or all users when null
+     */
+    @Transactional(readOnly = true)
+    public List<AuditRollupBucket> hourly(LocalDateTime from, LocalDateTime to, String action, Integer userId) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("Rollup range requires from < to");
+        }
+        if (Duration.between(from, to).toDays() > properties.getMaxQueryDays()) {
+            throw new IllegalArgumentException("Rollup range may span at most " + properties.getMaxQueryDays() + " days");
+        }
+        int user = userId != null ? userId : AuditRollup.ALL_USERS;
+        List<AuditRollup> rows = action != null
+                ? auditRollupRepo.findHourlyForAction(user, action, from, to)
+                : auditRollupRepo.findHourly(user, from, to);
+        return rows.stream()
+                .map(row -> new AuditRollupBucket(row.getId().getBucketHour(), row.getId().getAction(),
+                        row.getId().getSuccess(), row.getEventCount()))
+                .toList();
+    }
+
+    /**
+     * Run {@link #backfill} on the audit executor.
+     *
+     * @return false if a backfill is already running on this node
+     */
+    public boolean startBackfill(LocalDateTime from, LocalDateTime to) {
+        completedHours(from, to);
+        if (!backfillRunning.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    backfill(from, to);
+                } catch (RuntimeException e) {
+                    log.error("Audit rollup backfill {} - {} failed", from, to, e);
+                } finally {
+                    backfillRunning.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            backfillRunning.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Recompute the counters of every whole hour overlapping {@code [from, to)} from audit_log,
+     * one transaction per hour. The current hour is never rebuilt: the pipeline is still adding
+     * to it, and replacing its counters would lose those increments.
+     *
+     * @return number of hours rebuilt
+     */
+    public int backfill(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime[] range = completedHours(from, to);
+        int hours = 0;
+        for (LocalDateTime hour = range[0]; hour.isBefore(range[1]); hour = hour.plusHours(1)) {
+            rebuildHour(hour);
+            hours++;
+        }
+        log.info("Rebuilt audit rollups for {} hours from {} to {}", hours, range[0], range[1]);
+        return hours;
+    }
+
+    /**
+     * {@code [from, to)} widened to whole hours and cut off at the start of the current hour.
+     */
+    private static LocalDateTime[] completedHours(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("Backfill range requires from < to");
+        }
+        LocalDateTime start = from.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime end = to.truncatedTo(ChronoUnit.HOURS);
+        if (end.isBefore(to)) {
+            end = end.plusHours(1);
+        }
+        LocalDateTime currentHour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        if (end.isAfter(currentHour)) {
+            end = currentHour;
+        }
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("Backfill range must start before the current hour");
+        }
+        return new LocalDateTime[]{start, end};
+    }
+
+    private void rebuildHour(LocalDateTime hour) {
+        Timestamp bucket = Timestamp.valueOf(hour);
+        Timestamp next = Timestamp.valueOf(hour.plusHours(1));
+        transactionTemplate.executeWithoutResult(status -> {
+            auditRollupRepo.deleteHours(hour, hour.plusHours(1));
+            jdbcTemplate.update(BACKFILL_TOTALS, bucket, bucket, next);
+            if (properties.getPerUser()) {
+                jdbcTemplate.update(BACKFILL_USERS, bucket, bucket, next);
+            }
+        });
+    }
+}
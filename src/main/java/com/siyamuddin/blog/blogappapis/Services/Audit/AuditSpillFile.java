@@ -0,0 +1,106 @@
+package com.siyamuddin.blog.blogappapis.Services.Audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Newline-delimited JSON file of audit events that could not be queued or written.
+ * <p>
+ * Producers append to {@code audit-spill.ndjson}. To replay, the writer renames it to a
+ * {@code audit-replay-*.ndjson} file and deletes that file once its events are stored, so a
+ * crash during replay leaves the file to be picked up again on the next start.
+ */
+public class AuditSpillFile {
+
+    private static final String SPILL_FILE = "audit-spill.ndjson";
+    private static final String REPLAY_PREFIX = "audit-replay-";
+
+    private final Path directory;
+    private final Path spillPath;
+    private final ObjectMapper objectMapper;
+    // Spills run on request threads and hold the lock across file I/O, which a monitor would pin
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public AuditSpillFile(Path directory, ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.spillPath = directory.resolve(SPILL_FILE);
+        this.objectMapper = objectMapper;
+    }
+
+    public void append(List<AuditEvent> events) {
+        lock.lock();
+        try {
+            Files.createDirectories(directory);
+            try (BufferedWriter writer = Files.newBufferedWriter(spillPath, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (AuditEvent event : events) {
+                    writer.write(objectMapper.writeValueAsString(event));
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to spill audit events to " + spillPath, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Move the current spill file aside and return every file waiting for replay, oldest first.
+     */
+    public List<Path> claimForReplay() {
+        lock.lock();
+        try {
+            if (Files.exists(spillPath) && Files.size(spillPath) > 0) {
+                Files.move(spillPath, directory.resolve(REPLAY_PREFIX + System.nanoTime() + ".ndjson"),
+                        StandardCopyOption.ATOMIC_MOVE);
+            }
+            if (!Files.isDirectory(directory)) {
+                return List.of();
+            }
+            try (Stream<Path> files = Files.list(directory)) {
+                return files.filter(path -> path.getFileName().toString().startsWith(REPLAY_PREFIX))
+                        .sorted()
+                        .toList();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to claim audit spill files in " + directory, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<AuditEvent> read(Path replayFile) {
+        List<AuditEvent> events = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(replayFile, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    events.add(objectMapper.readValue(line, AuditEvent.class));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read audit spill file " + replayFile, e);
+        }
+        return events;
+    }
+
+    public void delete(Path replayFile) {
+        try {
+            Files.deleteIfExists(replayFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete audit spill file " + replayFile, e);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.siyamuddin.blog.blogappapis.Services;
+
+import com.siyamuddin.blog.blogappapis.Config.Properties.AuditPartitionProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.DatabaseMetaData;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the monthly audit_log partitions rolling: splits p_future so the next
+ * {@code months-ahead} months always have their own partition, and drops partitions whose rows
+ * are all older than the retention window. Dropping a partition is a metadata operation, unlike a
+ * DELETE over millions of rows.
+ * <p>
+ * Only runs on MySQL with a partitioned audit_log; anywhere else (H2 in tests, an unmigrated
+ * schema) it logs once and does nothing.
+ */
+@Slf4j
+@Service
+public class AuditPartitionMaintenanceService {
+
+    static final String FUTURE_PARTITION = "p_future";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private static final String LIST_PARTITIONS = "SELECT PARTITION_NAME, PARTITION_DESCRIPTION " +
+            "FROM INFORMATION_SCHEMA.PARTITIONS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'audit_log' AND PARTITION_NAME IS NOT NULL " +
+            "ORDER BY PARTITION_ORDINAL_POSITION";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditPartitionProperties properties;
+    private volatile Boolean supported;
+
+    /**
+     * A partition and its exclusive upper bound; null bound means MAXVALUE.
+     */
+    record Partition(String name, LocalDate upperBound) {
+    }
+
+    public AuditPartitionMaintenanceService(JdbcTemplate jdbcTemplate, AuditPartitionProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainOnStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${app.audit.partitions.cron:0 30 2 * * *}")
+    public void maintain() {
+        if (!Boolean.TRUE.equals(properties.getEnabled()) || !isSupported()) {
+            return;
+        }
+        try {
+            YearMonth current = YearMonth.now();
+            List<Partition> partitions = listPartitions();
+            for (Partition partition : partitionsToCreate(partitions, current, properties.getMonthsAhead())) {
+                jdbcTemplate.execute("ALTER TABLE audit_log REORGANIZE PARTITION " + FUTURE_PARTITION + " INTO (" +
+                        "PARTITION " + partition.name() + " VALUES LESS THAN ('" + partition.upperBound() + "'), " +
+                        "PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+                log.info("Created audit_log partition {}", partition.name());
+            }
+            List<String> expired = partitionsToDrop(partitions, current, properties.getRetentionMonths());
+            if (!expired.isEmpty()) {
+                jdbcTemplate.execute("ALTER TABLE audit_log DROP PARTITION " + String.join(", ", expired));
+                log.info("Dropped expired audit_log partitions {}", expired);
+            }
+        } catch (RuntimeException e) {
+            log.error("Audit partition maintenance failed", e);
+        }
+    }
+
+    /**
+     * Monthly partitions needed so every month up to {@code current + monthsAhead} has its own.
+     */
+    static List<Partition> partitionsToCreate(List<Partition> existing, YearMonth current, int monthsAhead) {
+        LocalDate highestBound = existing.stream()
+                .map(Partition::upperBound)
+                .filter(bound -> bound != null)
+                .max(LocalDate::compareTo)
+                .orElse(current.atDay(1));
+        List<Partition> toCreate = new ArrayList<>();
+        YearMonth last = current.plusMonths(monthsAhead);
+        for (YearMonth month = YearMonth.from(highestBound); !month.isAfter(last); month = month.plusMonths(1)) {
+            toCreate.add(new Partition(month.format(PARTITION_NAME), month.plusMonths(1).atDay(1)));
+        }
+        return toCreate;
+    }
+
+    /**
+     * Partitions whose rows all predate the first day of {@code current - retentionMonths}.
+     */
+    static List<String> partitionsToDrop(List<Partition> existing, YearMonth current, int retentionMonths) {
+        LocalDate cutoff = current.minusMonths(retentionMonths).atDay(1);
+        return existing.stream()
+                .filter(partition -> partition.upperBound() != null && !partition.upperBound().isAfter(cutoff))
+                .map(Partition::name)
+                .toList();
+    }
+
+    /**
+     * Parse a RANGE COLUMNS bound such as {@code '2025-02-01 00:00:00'}; MAXVALUE yields null.
+     */
+    static LocalDate parseBound(String description) {
+        if (description == null || description.equalsIgnoreCase("MAXVALUE")) {
+            return null;
+        }
+        return LocalDate.parse(description.replace("'", "").trim().substring(0, 10));
+    }
+
+    private List<Partition> listPartitions() {
+        return jdbcTemplate.query(LIST_PARTITIONS, (rs, rowNum) ->
+                new Partition(rs.getString(1), parseBound(rs.getString(2))));
+    }
+
+    private boolean isSupported() {
+        if (supported == null) {
+            supported = detectSupport();
+        }
+        return supported;
+    }
+
+    private boolean detectSupport() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                    DatabaseMetaData::getDatabaseProductName);
+            if (!"MySQL".equalsIgnoreCase(product)) {
+                log.info("Audit partition maintenance disabled: database is {}", product);
+                return false;
+            }
+        } catch (MetaDataAccessException e) {
+            log.warn("Audit partition maintenance disabled: {}", e.getMessage());
+            return false;
+        }
+        boolean partitioned = !listPartitions().isEmpty();
+        if (!partitioned) {
+            log.info("Audit partition maintenance disabled: audit_log is not partitioned");
+        }
+        return partitioned;
+    }
+}
@@ -30,4 +30,12 @@ public class AuthorizationService {
 
         return isAdmin || isSelf;
     }
+
+    public boolean isAdmin(Authentication authentication) {
+        if (authentication == null) return false;
+
+        return userRepo.findByEmailWithRoles(authentication.getName())
+                .map(user -> user.getRoles().stream().anyMatch(role -> role.getName().equals("ROLE_ADMIN")))
+                .orElse(false);
+    }
 }
\ No newline at end of file
@@ -3,14 +3,18 @@ package com.siyamuddin.blog.blogappapis.Services;
 import com.siyamuddin.blog.blogappapis.Entity.User;
 import com.siyamuddin.blog.blogappapis.Exceptions.ResourceNotFoundException;
 import com.siyamuddin.blog.blogappapis.Repository.UserRepo;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+@Slf4j
 @Service
-public class CustomUserDetailService implements UserDetailsService {
+public class CustomUserDetailService implements UserDetailsService, UserDetailsPasswordService {
     @Autowired
     private UserRepo userRepo;
     
@@ -21,4 +25,20 @@ public class CustomUserDetailService implements UserDetailsService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "email", username));
         return user;
     }
+
+    /**
+     * Called by DaoAuthenticationProvider after a successful login when the stored hash is outdated.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = (User) userDetails;
+        if (userRepo.upgradePasswordHash(user.getId(), user.getPassword(), newPassword) == 0) {
+            // Password changed since it was loaded; keep the new one
+            return user;
+        }
+        log.debug("Upgraded password hash for user {}", user.getId());
+        user.setPassword(newPassword);
+        return user;
+    }
 }
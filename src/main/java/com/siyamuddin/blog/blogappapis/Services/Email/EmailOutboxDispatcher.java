@@ -0,0 +1,243 @@
+package com.siyamuddin.blog.blogappapis.Services.Email;
+
+import com.siyamuddin.blog.blogappapis.Config.ExecutorConfig;
+import com.siyamuddin.blog.blogappapis.Config.Properties.EmailOutboxProperties;
+import com.siyamuddin.blog.blogappapis.Config.Properties.EmailProperties;
+import com.siyamuddin.blog.blogappapis.Entity.EmailOutbox;
+import com.siyamuddin.blog.blogappapis.Repository.EmailOutboxRepo;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sends the email outbox.
+ * <p>
+ * Each dispatch claims a batch of due rows with a claim token (one UPDATE), sends the whole batch
+ * through a single {@link JavaMailSender#send(SimpleMailMessage...)} call, which reuses one SMTP
+ * connection, and records the per-message outcome in one transaction. Failed messages are retried
+ * with exponential backoff until {@code max-attempts}, then marked FAILED. A token bucket caps the
+ * send rate per node. Claims are leases: rows claimed by a node that dies become due again when
+ * {@code lease-seconds} elapse, so a message may be sent twice but is never lost.
+ */
+@Slf4j
+@Service
+public class EmailOutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepo emailOutboxRepo;
+    private final ObjectProvider<JavaMailSender> mailSender;
+    private final EmailProperties emailProperties;
+    private final EmailOutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Bucket throttle;
+    private final Executor mailExecutor;
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+    private final Timer dispatchTimer;
+
+    public EmailOutboxDispatcher(EmailOutboxRepo emailOutboxRepo,
+                                 ObjectProvider<JavaMailSender> mailSender,
+                                 EmailProperties emailProperties,
+                                 EmailOutboxProperties properties,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Qualifier(ExecutorConfig.MAIL_EXECUTOR) Executor mailExecutor) {
+        this.emailOutboxRepo = emailOutboxRepo;
+        this.mailSender = mailSender;
+        this.emailProperties = emailProperties;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mailExecutor = mailExecutor;
+        int perSecond = properties.getMaxPerSecond();
+        this.throttle = Bucket.builder()
+                .addLimit(Bandwidth.classic(perSecond, Refill.greedy(perSecond, Duration.ofSeconds(1))))
+                .build();
+
+        this.sent = outcomeCounter(meterRegistry, "sent");
+        this.retried = outcomeCounter(meterRegistry, "retry");
+        this.failed = outcomeCounter(meterRegistry, "failed");
+        this.dispatchTimer = Timer.builder("app.email.dispatch")
+                .description("Time to send one outbox batch")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Hands the dispatch to the mail executor so a slow SMTP server never holds the shared scheduler
+     * thread. A tick that finds a dispatch still in flight is skipped rather than queued.
+     */
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-interval-ms:2000}")
+    public void dispatch() {
+        if (!dispatching.compareAndSet(false, true)) {
+            log.debug("Email outbox dispatch still in flight, skipping tick");
+            return;
+        }
+        try {
+            mailExecutor.execute(() -> {
+                try {
+                    // Keep going while full batches are due and the rate cap allows
+                    while (dispatchOnce() == properties.getBatchSize()) {
+                        log.debug("Email outbox batch full, dispatching again");
+                    }
+                } catch (RuntimeException e) {
+                    log.error("Email outbox dispatch failed", e);
+                } finally {
+                    dispatching.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            dispatching.set(false);
+            log.error("Email outbox dispatch could not be submitted", e);
+        }
+    }
+
+    @Scheduled(cron = "${app.email.outbox.purge-cron:0 15 3 * * *}")
+    public void purgeSent() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(properties.getRetentionDays());
+        Integer purged = transactionTemplate.execute(status -> emailOutboxRepo.deleteSentBefore(cutoff));
+        log.info("Purged {} sent emails older than {}", purged, cutoff);
+    }
+
+    /**
+     * Claim, send and record one batch.
+     *
+     * @return number of messages claimed
+     */
+    public int dispatchOnce() {
+        JavaMailSender sender = mailSender.getIfAvailable();
+        if (!emailProperties.getEnabled() || sender == null) {
+            return 0;
+        }
+        long permits = throttle.tryConsumeAsMuchAsPossible(properties.getBatchSize());
+        if (permits == 0) {
+            return 0;
+        }
+        String token = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plusSeconds(properties.getLeaseSeconds());
+        List<EmailOutbox> batch = transactionTemplate.execute(status -> {
+            int claimed = emailOutboxRepo.claim(token, now, leaseUntil, (int) permits);
+            return claimed == 0 ? List.<EmailOutbox>of() : emailOutboxRepo.findByClaimToken(token);
+        });
+        if (batch.size() < permits) {
+            throttle.addTokens(permits - batch.size());
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<Object, EmailOutbox> rowsByMessage = new IdentityHashMap<>();
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            messages[i] = toMessage(batch.get(i));
+            rowsByMessage.put(messages[i], batch.get(i));
+        }
+        Map<EmailOutbox, Exception> failures = new IdentityHashMap<>();
+        Timer.Sample sample = Timer.start();
+        try {
+            sender.send(messages);
+        } catch (MailSendException e) {
+            e.getFailedMessages().forEach((message, cause) -> {
+                EmailOutbox row = rowsByMessage.get(message);
+                if (row != null) {
+                    failures.put(row, cause);
+                }
+            });
+            if (failures.isEmpty()) {
+                batch.forEach(row -> failures.put(row, e));
+            }
+        } catch (MailException e) {
+            batch.forEach(row -> failures.put(row, e));
+        }
+        sample.stop(dispatchTimer);
+
+        recordOutcome(batch, failures, token);
+        return batch.size();
+    }
+
+    private void recordOutcome(List<EmailOutbox> batch, Map<EmailOutbox, Exception> failures, String token) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> sentIds = new ArrayList<>(batch.size());
+        batch.stream().filter(row -> !failures.containsKey(row)).forEach(row -> sentIds.add(row.getId()));
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sentIds.isEmpty()) {
+                emailOutboxRepo.markSent(sentIds, token, now);
+            }
+            failures.forEach((row, cause) -> {
+                int attempt = row.getAttempts() + 1;
+                String error = truncate(cause.getMessage());
+                if (attempt >= properties.getMaxAttempts()) {
+                    emailOutboxRepo.markFailed(row.getId(), token, error);
+                    failed.increment();
+                    log.error("Giving up on email {} to {} after {} attempts: {}",
+                            row.getId(), row.getRecipient(), attempt, error);
+                } else {
+                    emailOutboxRepo.markRetry(row.getId(), token, now.plus(backoff(attempt)), error);
+                    retried.increment();
+                    log.warn("Email {} to {} failed (attempt {}), retrying: {}",
+                            row.getId(), row.getRecipient(), attempt, error);
+                }
+            });
+        });
+        sent.increment(sentIds.size());
+        log.debug("Email outbox batch: {} sent, {} failed", sentIds.size(), failures.size());
+    }
+
+    /**
+     * Delay before the attempt after {@code attempt}: initial-backoff-ms doubled per attempt, capped.
+     */
+    Duration backoff(int attempt) {
+        long delay = properties.getInitialBackoffMs() << Math.min(attempt - 1, 30);
+        return Duration.ofMillis(Math.min(delay, properties.getMaxBackoffMs()));
+    }
+
+    private SimpleMailMessage toMessage(EmailOutbox row) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(emailProperties.getFrom());
+        message.setTo(row.getRecipient());
+        message.setSubject(row.getSubject());
+        message.setText(row.getBody());
+        return message;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("app.email.outbox")
+                .description("Outbox emails by dispatch outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -3,9 +3,8 @@ package com.siyamuddin.blog.blogappapis.Services;
 import com.siyamuddin.blog.blogappapis.Entity.User;
 
 public interface EmailVerificationService {
+    // Issues a fresh token (replacing any earlier one) and emails it
     void sendVerificationEmail(User user);
     boolean verifyEmail(String token);
     void resendVerificationEmail(String email);
-    String generateVerificationToken();
 }
-
@@ -34,47 +34,43 @@ public class AccountSecurityServiceImpl implements AccountSecurityService {
     @Override
     @Transactional
     public void lockAccount(String email, int durationMinutes) {
-        User user = userRepo.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
-        
         Calendar cal = Calendar.getInstance();
         cal.add(Calendar.MINUTE, durationMinutes);
-        user.setAccountLockedUntil(cal.getTime());
-        userRepo.save(user);
+        if (userRepo.lockAccount(email, cal.getTime()) == 0) {
+            throw new ResourceNotFoundException("User", "email", email);
+        }
         
-        emailService.sendAccountLockedEmail(user.getEmail(), user.getName(), durationMinutes);
-        auditService.logSecurityEvent(user, "ACCOUNT_LOCKED", true);
+        UserRepo.UserContact contact = userRepo.findContactByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
+        emailService.sendAccountLockedEmail(contact.getEmail(), contact.getName(), durationMinutes);
+        auditService.logSecurityEvent(auditSubject(contact.getId()), "ACCOUNT_LOCKED", true);
         log.info("Account locked for user: {} for {} minutes", email, durationMinutes);
     }
     
     @Override
     @Transactional
     public void unlockAccount(String email) {
-        User user = userRepo.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
-        
-        user.setAccountLockedUntil(null);
-        user.setFailedLoginAttempts(0);
-        userRepo.save(user);
+        if (userRepo.unlockAccount(email) == 0) {
+            throw new ResourceNotFoundException("User", "email", email);
+        }
         
-        auditService.logSecurityEvent(user, "ACCOUNT_UNLOCKED", true);
+        userRepo.findContactByEmail(email).ifPresent(contact ->
+                auditService.logSecurityEvent(auditSubject(contact.getId()), "ACCOUNT_UNLOCKED", true));
         log.info("Account unlocked for user: {}", email);
     }
     
     @Override
     @Transactional
     public void incrementFailedLoginAttempts(String email) {
-        User user = userRepo.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
-        
-        int attempts = (user.getFailedLoginAttempts() == null ? 0 : user.getFailedLoginAttempts()) + 1;
-        user.setFailedLoginAttempts(attempts);
+        // Increment in the database so concurrent failures cannot overwrite each other
+        if (userRepo.incrementFailedLoginAttempts(email) == 0) {
+            throw new ResourceNotFoundException("User", "email", email);
+        }
+        int attempts = userRepo.findFailedLoginAttemptsByEmail(email).orElse(0);
         
         // Lock account if max attempts reached
         if (attempts >= securityProperties.getMaxFailedLoginAttempts()) {
             lockAccount(email, securityProperties.getAccountLockoutDurationMinutes());
-        } else {
-            userRepo.save(user);
         }
         
         log.warn("Failed login attempt {} for user: {}", attempts, email);
@@ -83,11 +79,9 @@ public class AccountSecurityServiceImpl implements AccountSecurityService {
     @Override
     @Transactional
     public void resetFailedLoginAttempts(String email) {
-        User user = userRepo.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
-        
-        user.setFailedLoginAttempts(0);
-        userRepo.save(user);
+        if (userRepo.resetFailedLoginAttempts(email) == 0) {
+            throw new ResourceNotFoundException("User", "email", email);
+        }
         
         log.info("Failed login attempts reset for user: {}", email);
     }
@@ -99,5 +93,13 @@ public class AccountSecurityServiceImpl implements AccountSecurityService {
         }
         return user.getAccountLockedUntil().after(new Date());
     }
+    
+    /**
+     * Audit entries only need the user id; avoid loading the full entity for them.
+     */
+    private User auditSubject(Integer userId) {
+        User user = new User();
+        user.setId(userId);
+        return user;
+    }
 }
-
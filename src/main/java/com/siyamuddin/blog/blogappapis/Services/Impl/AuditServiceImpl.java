@@ -3,13 +3,13 @@ package com.siyamuddin.blog.blogappapis.Services.Impl;
 import com.siyamuddin.blog.blogappapis.Entity.AuditLog;
 import com.siyamuddin.blog.blogappapis.Entity.User;
 import com.siyamuddin.blog.blogappapis.Repository.AuditLogRepo;
+import com.siyamuddin.blog.blogappapis.Services.Audit.AuditEvent;
+import com.siyamuddin.blog.blogappapis.Services.Audit.AuditPipeline;
 import com.siyamuddin.blog.blogappapis.Services.AuditService;
 import jakarta.servlet.http.HttpServletRequest;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.request.RequestContextHolder;
@@ -18,15 +18,17 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 import java.time.LocalDateTime;
 import java.util.List;
 
-@Slf4j
 @Service
 public class AuditServiceImpl implements AuditService {
     
     @Autowired
     private AuditLogRepo auditLogRepo;
     
+    @Autowired
+    private AuditPipeline auditPipeline;
+    
+    // Request details are read here on the caller's thread; the pipeline writer has no request
     @Override
-    @Async
     public void logUserAction(User user, String action, String resourceType, Object resourceId) {
         HttpServletRequest request = getCurrentRequest();
         String ipAddress = request != null ? getClientIP(request) : "unknown";
@@ -36,7 +38,6 @@ public class AuditServiceImpl implements AuditService {
     }
     
     @Override
-    @Async
     public void logSecurityEvent(User user, String event, boolean success) {
         HttpServletRequest request = getCurrentRequest();
         String ipAddress = request != null ? getClientIP(request) : "unknown";
@@ -46,26 +47,11 @@ public class AuditServiceImpl implements AuditService {
     }
     
     @Override
-    @Async
-    @Transactional
     public void logUserAction(String ipAddress, String userAgent, Integer userId, String action, 
                              String resourceType, Object resourceId, boolean success, String errorMessage) {
-        try {
-            AuditLog auditLog = new AuditLog();
-            auditLog.setUserId(userId);
-            auditLog.setAction(action);
-            auditLog.setResourceType(resourceType);
-            auditLog.setResourceId(resourceId != null ? resourceId.toString() : null);
-            auditLog.setIpAddress(ipAddress);
-            auditLog.setUserAgent(userAgent);
-            auditLog.setSuccess(success);
-            auditLog.setErrorMessage(errorMessage);
-            auditLog.setTimestamp(LocalDateTime.now());
-            
-            auditLogRepo.save(auditLog);
-        } catch (Exception e) {
-            log.error("Failed to save audit log", e);
-        }
+        auditPipeline.submit(new AuditEvent(userId, action, resourceType,
+                resourceId != null ? resourceId.toString() : null, ipAddress, userAgent, success, errorMessage,
+                LocalDateTime.now(), System.currentTimeMillis()));
     }
     
     @Override
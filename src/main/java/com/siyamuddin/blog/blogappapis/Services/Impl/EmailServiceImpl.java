@@ -1,48 +1,45 @@
 package com.siyamuddin.blog.blogappapis.Services.Impl;
 
 import com.siyamuddin.blog.blogappapis.Config.Properties.EmailProperties;
+import com.siyamuddin.blog.blogappapis.Entity.EmailOutbox;
+import com.siyamuddin.blog.blogappapis.Repository.EmailOutboxRepo;
 import com.siyamuddin.blog.blogappapis.Services.EmailService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Queues emails in the outbox, inside the caller's transaction when there is one, so an email
+ * exists exactly when the change that triggered it commits. EmailOutboxDispatcher sends them.
+ */
 @Slf4j
 @Service
 public class EmailServiceImpl implements EmailService {
     
-    @Autowired(required = false)
-    private JavaMailSender mailSender;
+    @Autowired
+    private EmailOutboxRepo emailOutboxRepo;
     
     @Autowired
     private EmailProperties emailProperties;
     
     @Override
-    @Async
+    @Transactional
     public void sendEmail(String to, String subject, String body) {
-        if (!emailProperties.getEnabled() || mailSender == null) {
-            log.warn("Email sending is disabled or mail sender not configured. Would send to: {}, subject: {}", to, subject);
+        if (!emailProperties.getEnabled()) {
+            log.warn("Email sending is disabled. Would send to: {}, subject: {}", to, subject);
             return;
         }
         
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(emailProperties.getFrom());
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(body);
-            mailSender.send(message);
-            log.info("Email sent successfully to: {}", to);
-        } catch (Exception e) {
-            log.error("Failed to send email to: {}", to, e);
-            throw new RuntimeException("Failed to send email", e);
-        }
+        EmailOutbox email = new EmailOutbox();
+        email.setRecipient(to);
+        email.setSubject(subject);
+        email.setBody(body);
+        emailOutboxRepo.save(email);
+        log.debug("Email to {} queued in outbox", to);
     }
     
     @Override
-    @Async
     public void sendWelcomeEmail(String to, String name) {
         String subject = "Welcome to SAAS Starter!";
         String body = String.format(
@@ -57,7 +54,6 @@ public class EmailServiceImpl implements EmailService {
     }
     
     @Override
-    @Async
     public void sendVerificationEmail(String to, String name, String verificationToken) {
         String subject = "Verify Your Email Address";
         String verificationUrl = emailProperties.getVerificationBaseUrl() + "?token=" + verificationToken;
@@ -75,7 +71,6 @@ public class EmailServiceImpl implements EmailService {
     }
     
     @Override
-    @Async
     public void sendPasswordResetEmail(String to, String name, String resetToken) {
         String subject = "Reset Your Password";
         String resetUrl = emailProperties.getPasswordResetBaseUrl() + "?token=" + resetToken;
@@ -93,7 +88,6 @@ public class EmailServiceImpl implements EmailService {
     }
     
     @Override
-    @Async
     public void sendAccountLockedEmail(String to, String name, int lockoutDurationMinutes) {
         String subject = "Account Temporarily Locked";
         String body = String.format(
@@ -1,19 +1,22 @@
 package com.siyamuddin.blog.blogappapis.Services.Impl;
 
 import com.siyamuddin.blog.blogappapis.Config.Properties.SecurityProperties;
+import com.siyamuddin.blog.blogappapis.Entity.OneTimeToken;
+import com.siyamuddin.blog.blogappapis.Entity.OneTimeTokenPurpose;
 import com.siyamuddin.blog.blogappapis.Entity.User;
 import com.siyamuddin.blog.blogappapis.Exceptions.ResourceNotFoundException;
 import com.siyamuddin.blog.blogappapis.Repository.UserRepo;
 import com.siyamuddin.blog.blogappapis.Services.AuditService;
 import com.siyamuddin.blog.blogappapis.Services.EmailService;
 import com.siyamuddin.blog.blogappapis.Services.EmailVerificationService;
+import com.siyamuddin.blog.blogappapis.Services.OneTimeTokenService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Date;
-import java.util.UUID;
+import java.time.Duration;
+import java.time.LocalDateTime;
 
 @Slf4j
 @Service
@@ -31,14 +34,14 @@ public class EmailVerificationServiceImpl implements EmailVerificationService {
     @Autowired
     private AuditService auditService;
     
+    @Autowired
+    private OneTimeTokenService oneTimeTokenService;
+    
     @Override
     @Transactional
     public void sendVerificationEmail(User user) {
-        String token = generateVerificationToken();
-        user.setEmailVerificationToken(token);
-        long expiryMillis = securityProperties.getEmailVerificationTokenExpiryHours() * 60L * 60 * 1000;
-        user.setEmailVerificationTokenExpiry(new Date(System.currentTimeMillis() + expiryMillis));
-        userRepo.save(user);
+        String token = oneTimeTokenService.issue(user.getId(), OneTimeTokenPurpose.EMAIL_VERIFICATION,
+                Duration.ofHours(securityProperties.getEmailVerificationTokenExpiryHours()));
         
         emailService.sendVerificationEmail(user.getEmail(), user.getName(), token);
         log.info("Verification email sent to user: {}", user.getEmail());
@@ -47,24 +50,24 @@ public class EmailVerificationServiceImpl implements EmailVerificationService {
     @Override
     @Transactional
     public boolean verifyEmail(String token) {
-        User user = userRepo.findByEmailVerificationToken(token)
+        OneTimeToken verification = oneTimeTokenService.find(token, OneTimeTokenPurpose.EMAIL_VERIFICATION)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "verification token", token));
         
-        if (user.getEmailVerificationTokenExpiry() != null && 
-            user.getEmailVerificationTokenExpiry().before(new Date())) {
-            log.warn("Verification token expired for user: {}", user.getEmail());
+        if (verification.isExpired(LocalDateTime.now())) {
+            log.warn("Verification token expired for user: {}", verification.getUserId());
             return false;
         }
         
-        user.setEmailVerified(true);
-        user.setEmailVerificationToken(null);
-        user.setEmailVerificationTokenExpiry(null);
-        userRepo.save(user);
+        if (!oneTimeTokenService.consume(verification)) {
+            // Token was consumed by a concurrent verification
+            return false;
+        }
+        userRepo.markEmailVerified(verification.getUserId());
         
         // Audit email verification
-        auditService.logSecurityEvent(user, "EMAIL_VERIFIED", true);
+        auditService.logSecurityEvent(userRepo.getReferenceById(verification.getUserId()), "EMAIL_VERIFIED", true);
         
-        log.info("Email verified for user: {}", user.getEmail());
+        log.info("Email verified for user: {}", verification.getUserId());
         return true;
     }
     
@@ -80,10 +83,4 @@ public class EmailVerificationServiceImpl implements EmailVerificationService {
         
         sendVerificationEmail(user);
     }
-    
-    @Override
-    public String generateVerificationToken() {
-        return UUID.randomUUID().toString();
-    }
 }
-
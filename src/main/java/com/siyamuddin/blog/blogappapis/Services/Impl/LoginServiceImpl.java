@@ -0,0 +1,110 @@
+package com.siyamuddin.blog.blogappapis.Services.Impl;
+
+import com.siyamuddin.blog.blogappapis.Config.Properties.SecurityProperties;
+import com.siyamuddin.blog.blogappapis.Entity.RefreshToken;
+import com.siyamuddin.blog.blogappapis.Entity.User;
+import com.siyamuddin.blog.blogappapis.Exceptions.PasswordHashingBusyException;
+import com.siyamuddin.blog.blogappapis.Repository.RefreshTokenRepo;
+import com.siyamuddin.blog.blogappapis.Security.JwtHelper;
+import com.siyamuddin.blog.blogappapis.Services.LoginService;
+import com.siyamuddin.blog.blogappapis.Services.SessionService;
+import com.siyamuddin.blog.blogappapis.Services.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.AccountStatusException;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * Login in two steps. Authentication loads the user with its roles once (through
+ * CustomUserDetailService) and hashes outside any transaction, so no connection is held while
+ * the hashing executor works. The authenticated principal is then reused for the state checks,
+ * the access token and the writes, which share one transaction and one flush.
+ */
+@Slf4j
+@Service
+public class LoginServiceImpl implements LoginService {
+
+    private static final String INVALID_CREDENTIALS = " Invalid Username or Password  !!";
+
+    private final AuthenticationManager manager;
+    private final JwtHelper helper;
+    private final RefreshTokenRepo refreshTokenRepo;
+    private final SessionService sessionService;
+    private final UserService userService;
+    private final SecurityProperties securityProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    public LoginServiceImpl(AuthenticationManager manager,
+                            JwtHelper helper,
+                            RefreshTokenRepo refreshTokenRepo,
+                            SessionService sessionService,
+                            UserService userService,
+                            SecurityProperties securityProperties,
+                            PlatformTransactionManager transactionManager) {
+        this.manager = manager;
+        this.helper = helper;
+        this.refreshTokenRepo = refreshTokenRepo;
+        this.sessionService = sessionService;
+        this.userService = userService;
+        this.securityProperties = securityProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public LoginResult login(String email, String password, HttpServletRequest request) {
+        User user = authenticate(email, password);
+
+        // Locked accounts were already refused by the provider's pre-authentication checks on this instance
+        if (Boolean.TRUE.equals(securityProperties.getRequireEmailVerificationForLogin())
+                && !Boolean.TRUE.equals(user.getEmailVerified())) {
+            throw new BadCredentialsException("Email not verified. Please verify your email before logging in.");
+        }
+
+        String accessToken = helper.generateToken(user);
+        String refreshTokenString = helper.generateRefreshTokenString();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            RefreshToken refreshToken = new RefreshToken();
+            refreshToken.setToken(refreshTokenString);
+            refreshToken.setUser(user);
+            refreshToken.setExpiresAt(LocalDateTime.now().plusDays(7));
+            refreshToken.setIsRevoked(false);
+            refreshTokenRepo.save(refreshToken);
+
+            sessionService.createSession(user, request);
+            userService.updateUserLastLogin(user);
+        });
+
+        return new LoginResult(user, accessToken, refreshTokenString);
+    }
+
+    private User authenticate(String email, String password) {
+        log.debug("Attempting authentication for email: {}", email);
+        try {
+            Authentication authentication = manager.authenticate(
+                    new UsernamePasswordAuthenticationToken(email, password));
+            log.debug("Authentication successful for email: {}", email);
+            return (User) authentication.getPrincipal();
+        } catch (BadCredentialsException e) {
+            log.warn("Authentication failed for email: {} - {}", email, e.getMessage());
+            throw new BadCredentialsException(INVALID_CREDENTIALS);
+        } catch (AccountStatusException e) {
+            log.warn("Login refused for email: {} - {}", email, e.getMessage());
+            throw new BadCredentialsException(INVALID_CREDENTIALS);
+        } catch (PasswordHashingBusyException e) {
+            // Overload, not a wrong password: answered with 503 and not counted as a failed attempt
+            throw e;
+        } catch (Exception e) {
+            log.error("Unexpected error during authentication for email: {}", email, e);
+            throw new BadCredentialsException(INVALID_CREDENTIALS);
+        }
+    }
+}
@@ -1,76 +1,141 @@
 package com.siyamuddin.blog.blogappapis.Services.Impl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.siyamuddin.blog.blogappapis.Config.Properties.OAuthProperties;
 import com.siyamuddin.blog.blogappapis.Entity.User;
+import com.siyamuddin.blog.blogappapis.Repository.OAuthAccountRepo;
 import com.siyamuddin.blog.blogappapis.Repository.UserRepo;
 import com.siyamuddin.blog.blogappapis.Services.OAuthService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
+/**
+ * OAuth identities are rows in oauth_account, unique on (provider, provider_id).
+ * <p>
+ * A returning user is resolved by that unique index in one statement; the resolved user id is
+ * then kept in a bounded per-node cache. A cache hit is still confirmed against the index (an
+ * index-only read of the user id) before the user is loaded by primary key, so an unlink on any
+ * node takes effect at once. Linking is an insert that keeps an existing row, so two concurrent
+ * first logins cannot link an identity twice.
+ */
 @Slf4j
 @Service
 public class OAuthServiceImpl implements OAuthService {
-    
-    @Autowired
-    private UserRepo userRepo;
-    
-    // Store OAuth provider mappings (in production, use a separate OAuthAccount entity)
-    // For now, using a simple approach - can be enhanced with a proper entity
-    private final Map<String, Map<String, String>> oauthAccounts = new HashMap<>();
-    
+
+    private final OAuthAccountRepo oAuthAccountRepo;
+    private final UserRepo userRepo;
+    private final Cache<String, Integer> links;
+
+    public OAuthServiceImpl(OAuthAccountRepo oAuthAccountRepo,
+                            UserRepo userRepo,
+                            OAuthProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.oAuthAccountRepo = oAuthAccountRepo;
+        this.userRepo = userRepo;
+        this.links = Caffeine.newBuilder()
+                .maximumSize(properties.getLinkCacheMaxSize())
+                .expireAfterWrite(Duration.ofSeconds(properties.getLinkCacheTtlSeconds()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, links, "oauthLinks");
+    }
+
     @Override
     @Transactional
     public User linkOAuthAccount(User user, String provider, String providerId) {
-        // In a real implementation, you'd have an OAuthAccount entity
-        // For now, we'll just log it
-        String key = user.getId() + "_" + provider;
-        Map<String, String> accountInfo = new HashMap<>();
-        accountInfo.put("provider", provider);
-        accountInfo.put("providerId", providerId);
-        oauthAccounts.put(key, accountInfo);
-        
-        log.info("OAuth account linked: user={}, provider={}, providerId={}", 
-                user.getEmail(), provider, providerId);
+        String normalized = normalize(provider);
+        if (oAuthAccountRepo.link(normalized, providerId, user.getId(), LocalDateTime.now()) == 0) {
+            // Already linked, by this user or by someone else
+            Integer owner = oAuthAccountRepo.findUserIdByProvider(normalized, providerId)
+                    .orElseThrow(() -> new IllegalStateException("OAuth account could not be linked"));
+            if (!user.getId().equals(owner)) {
+                throw new IllegalStateException("OAuth account is already linked to another user");
+            }
+        }
+        links.put(key(normalized, providerId), user.getId());
+        log.info("OAuth account linked: user={}, provider={}", user.getId(), normalized);
         return user;
     }
-    
+
     @Override
     @Transactional
     public void unlinkOAuthAccount(User user, String provider) {
-        String key = user.getId() + "_" + provider;
-        oauthAccounts.remove(key);
-        log.info("OAuth account unlinked: user={}, provider={}", user.getEmail(), provider);
+        String normalized = normalize(provider);
+        List<String> providerIds = oAuthAccountRepo.findProviderIds(user.getId(), normalized);
+        oAuthAccountRepo.unlink(user.getId(), normalized);
+        // After commit, so a lookup racing the DELETE cannot cache the old link again
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                providerIds.forEach(providerId -> links.invalidate(key(normalized, providerId)));
+            }
+        });
+        log.info("OAuth account unlinked: user={}, provider={}", user.getId(), normalized);
     }
-    
+
     @Override
     @Transactional
     public User findOrCreateUserFromOAuth(String provider, String providerId, String email, String name) {
-        // First, try to find user by email
+        String normalized = normalize(provider);
+        Optional<User> linked = findLinkedUser(normalized, providerId);
+        if (linked.isPresent()) {
+            return linked.get();
+        }
+
+        // First login with this identity: attach it to the account with the same email, if any
         Optional<User> existingUser = userRepo.findByEmail(email);
-        
         if (existingUser.isPresent()) {
-            User user = existingUser.orElse(null); // Safe extraction after isPresent() check
-            linkOAuthAccount(user, provider, providerId);
-            return user;
+            return linkOAuthAccount(existingUser.get(), normalized, providerId);
         }
-        
-        // Create new user
+
         User newUser = new User();
         newUser.setEmail(email);
         newUser.setName(name);
         newUser.setEmailVerified(true); // OAuth providers verify emails
         newUser.setPassword(""); // OAuth users don't have passwords
-        
-        User saved = userRepo.save(newUser);
-        linkOAuthAccount(saved, provider, providerId);
-        
-        log.info("New user created from OAuth: email={}, provider={}", email, provider);
+
+        User saved = userRepo.saveAndFlush(newUser);
+        linkOAuthAccount(saved, normalized, providerId);
+
+        log.info("New user created from OAuth: user={}, provider={}", saved.getId(), normalized);
         return saved;
     }
-}
 
+    private Optional<User> findLinkedUser(String provider, String providerId) {
+        String key = key(provider, providerId);
+        Integer userId = links.getIfPresent(key);
+        if (userId != null) {
+            // The entry may predate an unlink on this or another node; only the table is authoritative
+            if (oAuthAccountRepo.findUserIdByProvider(provider, providerId).filter(userId::equals).isPresent()) {
+                Optional<User> user = userRepo.findById(userId);
+                if (user.isPresent()) {
+                    return user;
+                }
+            }
+            links.invalidate(key);
+        }
+        Optional<User> user = oAuthAccountRepo.findUserByProvider(provider, providerId);
+        user.ifPresent(found -> links.put(key, found.getId()));
+        return user;
+    }
+
+    private static String normalize(String provider) {
+        return provider.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String key(String provider, String providerId) {
+        return provider + ':' + providerId;
+    }
+}
@@ -1,11 +1,14 @@
 package com.siyamuddin.blog.blogappapis.Services.Impl;
 
 import com.siyamuddin.blog.blogappapis.Config.Properties.SecurityProperties;
+import com.siyamuddin.blog.blogappapis.Entity.OneTimeToken;
+import com.siyamuddin.blog.blogappapis.Entity.OneTimeTokenPurpose;
 import com.siyamuddin.blog.blogappapis.Entity.User;
 import com.siyamuddin.blog.blogappapis.Exceptions.ResourceNotFoundException;
 import com.siyamuddin.blog.blogappapis.Repository.UserRepo;
 import com.siyamuddin.blog.blogappapis.Services.AuditService;
 import com.siyamuddin.blog.blogappapis.Services.EmailService;
+import com.siyamuddin.blog.blogappapis.Services.OneTimeTokenService;
 import com.siyamuddin.blog.blogappapis.Services.PasswordResetService;
 import com.siyamuddin.blog.blogappapis.Services.PasswordValidationService;
 import lombok.extern.slf4j.Slf4j;
@@ -14,9 +17,9 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Date;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Optional;
-import java.util.UUID;
 
 @Slf4j
 @Service
@@ -40,6 +43,9 @@ public class PasswordResetServiceImpl implements PasswordResetService {
     @Autowired
     private AuditService auditService;
     
+    @Autowired
+    private OneTimeTokenService oneTimeTokenService;
+    
     @Override
     @Transactional
     public void requestPasswordReset(String email) {
@@ -49,11 +55,8 @@ public class PasswordResetServiceImpl implements PasswordResetService {
         
         if (userOptional.isPresent()) {
             User user = userOptional.orElse(null); // Safe extraction after isPresent() check
-            String token = generateResetToken();
-            user.setPasswordResetToken(token);
-            long expiryMillis = securityProperties.getPasswordResetTokenExpiryHours() * 60L * 60 * 1000;
-            user.setPasswordResetTokenExpiry(new Date(System.currentTimeMillis() + expiryMillis));
-            userRepo.save(user);
+            String token = oneTimeTokenService.issue(user.getId(), OneTimeTokenPurpose.PASSWORD_RESET,
+                    Duration.ofHours(securityProperties.getPasswordResetTokenExpiryHours()));
             
             emailService.sendPasswordResetEmail(user.getEmail(), user.getName(), token);
             log.info("Password reset email sent to user: {}", user.getEmail());
@@ -66,49 +69,32 @@ public class PasswordResetServiceImpl implements PasswordResetService {
     @Override
     @Transactional
     public void resetPassword(String token, String newPassword) {
-        User user = userRepo.findByPasswordResetToken(token)
+        OneTimeToken reset = oneTimeTokenService.find(token, OneTimeTokenPurpose.PASSWORD_RESET)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "reset token", token));
         
-        if (user.getPasswordResetTokenExpiry() != null && 
-            user.getPasswordResetTokenExpiry().before(new Date())) {
+        if (reset.isExpired(LocalDateTime.now())) {
             throw new IllegalArgumentException("Password reset token has expired");
         }
         
-        // Validate password strength
+        // Validate password strength before the token is spent
         passwordValidationService.validatePassword(newPassword);
         
-        user.setPassword(passwordEncoder.encode(newPassword));
-        user.setPasswordResetToken(null);
-        user.setPasswordResetTokenExpiry(null);
-        user.setFailedLoginAttempts(0);
-        user.setAccountLockedUntil(null);
-        userRepo.save(user);
+        if (!oneTimeTokenService.consume(reset)) {
+            // Token was consumed by a concurrent reset
+            throw new ResourceNotFoundException("User", "reset token", token);
+        }
+        userRepo.completePasswordReset(reset.getUserId(), passwordEncoder.encode(newPassword));
         
         // Audit password reset
-        auditService.logSecurityEvent(user, "PASSWORD_RESET", true);
+        auditService.logSecurityEvent(userRepo.getReferenceById(reset.getUserId()), "PASSWORD_RESET", true);
         
-        log.info("Password reset successful for user: {}", user.getEmail());
+        log.info("Password reset successful for user: {}", reset.getUserId());
     }
     
     @Override
     public boolean validateResetToken(String token) {
-        try {
-            User user = userRepo.findByPasswordResetToken(token)
-                    .orElseThrow(() -> new ResourceNotFoundException("User", "reset token", token));
-            
-            if (user.getPasswordResetTokenExpiry() != null && 
-                user.getPasswordResetTokenExpiry().before(new Date())) {
-                return false;
-            }
-            return true;
-        } catch (ResourceNotFoundException e) {
-            return false;
-        }
-    }
-    
-    @Override
-    public String generateResetToken() {
-        return UUID.randomUUID().toString();
+        return oneTimeTokenService.find(token, OneTimeTokenPurpose.PASSWORD_RESET)
+                .map(reset -> !reset.isExpired(LocalDateTime.now()))
+                .orElse(false);
     }
 }
-
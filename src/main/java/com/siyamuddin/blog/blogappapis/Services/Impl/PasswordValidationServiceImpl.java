@@ -1,33 +1,45 @@
 package com.siyamuddin.blog.blogappapis.Services.Impl;
 
 import com.siyamuddin.blog.blogappapis.Config.Properties.SecurityProperties;
+import com.siyamuddin.blog.blogappapis.Exceptions.WeakPasswordException;
+import com.siyamuddin.blog.blogappapis.Services.Password.BreachedPasswordService;
 import com.siyamuddin.blog.blogappapis.Services.PasswordValidationService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.regex.Pattern;
+
 @Slf4j
 @Service
 public class PasswordValidationServiceImpl implements PasswordValidationService {
+
+    private static final Pattern UPPERCASE = Pattern.compile("[A-Z]");
+    private static final Pattern LOWERCASE = Pattern.compile("[a-z]");
+    private static final Pattern DIGIT = Pattern.compile("[0-9]");
+    private static final Pattern SPECIAL_CHAR = Pattern.compile("[@#$%^&+=!?*~`_\\-\\[\\]{}|\\\\:;\"'<>,./]");
     
     @Autowired
     private SecurityProperties securityProperties;
+
+    @Autowired
+    private BreachedPasswordService breachedPasswordService;
     
     @Override
     public void validatePassword(String password) {
         if (password == null) {
-            throw new IllegalArgumentException("Password cannot be null");
+            throw new WeakPasswordException("Password cannot be null");
         }
         
         if (password.length() < securityProperties.getPasswordMinLength()) {
-            throw new IllegalArgumentException(
+            throw new WeakPasswordException(
                 String.format("Password must be at least %d characters long", 
                     securityProperties.getPasswordMinLength())
             );
         }
         
         if (password.length() > securityProperties.getPasswordMaxLength()) {
-            throw new IllegalArgumentException(
+            throw new WeakPasswordException(
                 String.format("Password must be at most %d characters long", 
                     securityProperties.getPasswordMaxLength())
             );
@@ -37,31 +49,36 @@ public class PasswordValidationServiceImpl implements PasswordValidationService
         StringBuilder missingRequirements = new StringBuilder();
         
         if (securityProperties.getPasswordRequireUppercase() && 
-            !password.matches(".*[A-Z].*")) {
+            !UPPERCASE.matcher(password).find()) {
             missingRequirements.append("uppercase letter, ");
         }
         
         if (securityProperties.getPasswordRequireLowercase() && 
-            !password.matches(".*[a-z].*")) {
+            !LOWERCASE.matcher(password).find()) {
             missingRequirements.append("lowercase letter, ");
         }
         
         if (securityProperties.getPasswordRequireDigit() && 
-            !password.matches(".*[0-9].*")) {
+            !DIGIT.matcher(password).find()) {
             missingRequirements.append("digit, ");
         }
         
         if (securityProperties.getPasswordRequireSpecialChar() &&
-            !password.matches(".*[@#$%^&+=!?*~`_\\-\\[\\]{}|\\\\:;\"'<>,./].*")) {
+            !SPECIAL_CHAR.matcher(password).find()) {
             missingRequirements.append("special character, ");
         }
         
         if (missingRequirements.length() > 0) {
-            String requirements = missingRequirements.toString().replaceAll(", $", "");
-            throw new IllegalArgumentException(
-                String.format("Password must contain at least one %s", requirements)
+            missingRequirements.setLength(missingRequirements.length() - 2);
+            throw new WeakPasswordException(
+                String.format("Password must contain at least one %s", missingRequirements)
             );
         }
+
+        // Last, so a password that fails the cheap rules never reaches the index
+        if (breachedPasswordService.isBreached(password)) {
+            throw new WeakPasswordException(
+                "This password has appeared in a data breach. Please choose a different password.");
+        }
     }
 }
-
@@ -4,8 +4,9 @@ import com.siyamuddin.blog.blogappapis.Config.Properties.SecurityProperties;
 import com.siyamuddin.blog.blogappapis.Entity.User;
 import com.siyamuddin.blog.blogappapis.Entity.UserSession;
 import com.siyamuddin.blog.blogappapis.Exceptions.ResourceNotFoundException;
+import com.siyamuddin.blog.blogappapis.Repository.RefreshTokenRepo;
 import com.siyamuddin.blog.blogappapis.Repository.UserRepo;
-import com.siyamuddin.blog.blogappapis.Repository.UserSessionRepo;
+import com.siyamuddin.blog.blogappapis.Services.Session.SessionStore;
 import com.siyamuddin.blog.blogappapis.Services.SessionService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
@@ -15,6 +16,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Slf4j
@@ -22,11 +24,14 @@ import java.util.List;
 public class SessionServiceImpl implements SessionService {
     
     @Autowired
-    private UserSessionRepo sessionRepo;
+    private SessionStore sessionStore;
     
     @Autowired
     private UserRepo userRepo;
     
+    @Autowired
+    private RefreshTokenRepo refreshTokenRepo;
+    
     @Autowired
     private SecurityProperties securityProperties;
     
@@ -42,7 +47,7 @@ public class SessionServiceImpl implements SessionService {
         session.setExpiresAt(LocalDateTime.now().plusMinutes(securityProperties.getSessionTimeoutMinutes()));
         session.setIsActive(true);
         
-        UserSession saved = sessionRepo.save(session);
+        UserSession saved = sessionStore.create(session);
         log.info("Session created for user: {} with sessionId: {}", user.getEmail(), saved.getSessionId());
         return saved;
     }
@@ -50,52 +55,84 @@ public class SessionServiceImpl implements SessionService {
     @Override
     @Transactional
     public void invalidateSession(String sessionId) {
-        UserSession session = sessionRepo.findBySessionId(sessionId)
-                .orElseThrow(() -> new ResourceNotFoundException("Session", "sessionId", 0));
-        session.setIsActive(false);
-        sessionRepo.save(session);
+        if (!sessionStore.deactivate(sessionId)) {
+            throw new ResourceNotFoundException("Session", "sessionId", 0);
+        }
         log.info("Session invalidated: {}", sessionId);
     }
     
     @Override
     @Transactional
-    public void invalidateAllUserSessions(Integer userId) {
-        User user = userRepo.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+    public int invalidateAllUserSessions(Integer userId) {
+        if (!userRepo.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
         
-        List<UserSession> sessions = sessionRepo.findByUser(user);
-        sessions.forEach(session -> session.setIsActive(false));
-        sessionRepo.saveAll(sessions);
-        log.info("All sessions invalidated for user: {}", userId);
+        int revoked = sessionStore.deactivateAllForUser(userId);
+        log.info("{} sessions invalidated for user: {}", revoked, userId);
+        return revoked;
+    }
+    
+    @Override
+    @Transactional
+    public int invalidateOtherUserSessions(Integer userId, String currentSessionId) {
+        int revoked = sessionStore.deactivateAllForUserExcept(userId, currentSessionId);
+        log.info("{} other sessions invalidated for user: {}", revoked, userId);
+        return revoked;
+    }
+    
+    @Override
+    @Transactional
+    public int invalidateSessionsByIp(String ipAddress) {
+        int revoked = sessionStore.deactivateAllForIp(ipAddress);
+        log.info("{} sessions invalidated for IP: {}", revoked, ipAddress);
+        return revoked;
+    }
+    
+    @Override
+    @Transactional
+    public int invalidateSessionsForUsers(Collection<Integer> userIds) {
+        int revoked = sessionStore.deactivateAllForUsers(userIds);
+        log.info("{} sessions invalidated for {} users", revoked, userIds.size());
+        return revoked;
+    }
+    
+    @Override
+    @Transactional
+    public int revokeRefreshTokensForUsers(Collection<Integer> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        int revoked = refreshTokenRepo.revokeAllForUserIds(userIds);
+        log.info("{} refresh tokens revoked for {} users", revoked, userIds.size());
+        return revoked;
     }
     
     @Override
     public List<UserSession> getActiveSessions(Integer userId) {
-        User user = userRepo.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
-        return sessionRepo.findByUserAndIsActiveTrue(user);
+        if (!userRepo.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+        return sessionStore.findActiveByUserId(userId, LocalDateTime.now());
     }
     
     @Override
     @Transactional
     public void refreshSession(String sessionId) {
-        UserSession session = sessionRepo.findBySessionId(sessionId)
+        UserSession session = sessionStore.findBySessionId(sessionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Session", "sessionId", 0));
         
-        if (!session.getIsActive() || session.getExpiresAt().isBefore(LocalDateTime.now())) {
+        LocalDateTime now = LocalDateTime.now();
+        if (!sessionStore.refresh(session, now, now.plusMinutes(securityProperties.getSessionTimeoutMinutes()))) {
             throw new IllegalArgumentException("Session is expired or inactive");
         }
-        
-        session.setLastActivity(LocalDateTime.now());
-        session.setExpiresAt(LocalDateTime.now().plusMinutes(securityProperties.getSessionTimeoutMinutes()));
-        sessionRepo.save(session);
     }
     
     @Override
     @Scheduled(fixedRate = 3600000) // Run every hour
     @Transactional
     public void cleanupExpiredSessions() {
-        sessionRepo.deleteByExpiresAtBefore(LocalDateTime.now());
+        sessionStore.deleteExpired(LocalDateTime.now());
         log.info("Expired sessions cleaned up");
     }
     
@@ -1,5 +1,6 @@
 package com.siyamuddin.blog.blogappapis.Services.Impl;
 
+import com.siyamuddin.blog.blogappapis.Config.ExecutorConfig;
 import com.siyamuddin.blog.blogappapis.Config.Properties.FileStorageProperties;
 import com.siyamuddin.blog.blogappapis.Entity.User;
 import com.siyamuddin.blog.blogappapis.Exceptions.FileStorageException;
@@ -9,23 +10,31 @@ import com.siyamuddin.blog.blogappapis.Payloads.UserPayload.UserDto;
 import com.siyamuddin.blog.blogappapis.Repository.UserRepo;
 import com.siyamuddin.blog.blogappapis.Services.Storage.FileStorageService;
 import com.siyamuddin.blog.blogappapis.Services.Storage.FileUploadRequest;
+import com.siyamuddin.blog.blogappapis.Services.Storage.ImageVariantService;
 import com.siyamuddin.blog.blogappapis.Services.Storage.StoredFile;
 import com.siyamuddin.blog.blogappapis.Services.UserProfilePhotoService;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Executor;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class UserProfilePhotoServiceImpl implements UserProfilePhotoService {
 
     private static final Set<String> ALLOWED_CONTENT_TYPES = Set.of(
@@ -41,41 +50,100 @@ public class UserProfilePhotoServiceImpl implements UserProfilePhotoService {
     private final FileStorageService fileStorageService;
     private final ModelMapper modelMapper;
     private final FileStorageProperties fileStorageProperties;
+    private final Executor storageExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final ImageVariantService imageVariantService;
+
+    public UserProfilePhotoServiceImpl(UserRepo userRepo,
+                                       FileStorageService fileStorageService,
+                                       ModelMapper modelMapper,
+                                       FileStorageProperties fileStorageProperties,
+                                       @Qualifier(ExecutorConfig.STORAGE_EXECUTOR) Executor storageExecutor,
+                                       PlatformTransactionManager transactionManager,
+                                       ImageVariantService imageVariantService) {
+        this.userRepo = userRepo;
+        this.fileStorageService = fileStorageService;
+        this.modelMapper = modelMapper;
+        this.fileStorageProperties = fileStorageProperties;
+        this.storageExecutor = storageExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.imageVariantService = imageVariantService;
+    }
 
     @Override
-    @Transactional
     @CacheEvict(value = "users", key = "#userId")
     public UserDto uploadProfilePhoto(Integer userId, MultipartFile file) {
         validateFile(file);
-        User user = userRepo.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "ID", userId));
-
-        String previousStorageKey = user.getProfileImageStorageKey();
-
-        FileUploadRequest request = FileUploadRequest.builder()
+        return storeAndAttach(userId, FileUploadRequest.builder()
                 .file(file)
                 .subDirectory("users/" + userId + "/profile")
-                .preferredFileName(buildPreferredFileName(userId, file))
-                .build();
+                .preferredFileName(buildPreferredFileName(userId, file.getOriginalFilename()))
+                .build());
+    }
+
+    @Override
+    @CacheEvict(value = "users", key = "#userId")
+    public UserDto uploadProfilePhoto(Integer userId, String contentType, String originalFileName, InputStream content) {
+        validateContentType(contentType);
+        return storeAndAttach(userId, FileUploadRequest.builder()
+                .content(content)
+                .contentType(contentType)
+                .originalFileName(originalFileName)
+                .maxSize(fileStorageProperties.getMaxUploadSize().toBytes())
+                .subDirectory("users/" + userId + "/profile")
+                .preferredFileName(buildPreferredFileName(userId, originalFileName))
+                .build());
+    }
+
+    /**
+     * Stores the file with no transaction open, so a slow upload does not hold a database
+     * connection, then points the user at it in a short transaction.
+     */
+    private UserDto storeAndAttach(Integer userId, FileUploadRequest request) {
+        if (!userRepo.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "ID", userId);
+        }
 
         StoredFile storedFile = fileStorageService.store(request);
+        if (storedFile.getSize() <= 0) {
+            deleteStored(storedFile.getKey());
+            throw new InvalidFileException("File is empty");
+        }
 
         try {
-            user.setProfileImageUrl(storedFile.getPublicUrl());
-            user.setProfileImageStorageKey(storedFile.getKey());
-            userRepo.save(user);
+            return transactionTemplate.execute(status -> {
+                User user = userRepo.findById(userId)
+                        .orElseThrow(() -> new ResourceNotFoundException("User", "ID", userId));
+                String previousStorageKey = user.getProfileImageStorageKey();
+                Collection<String> previousVariantKeys =
+                        ImageVariantService.decodeKeys(user.getProfileImageVariants()).values();
+                user.setProfileImageUrl(storedFile.getPublicUrl());
+                user.setProfileImageStorageKey(storedFile.getKey());
+                user.setProfileImageVariants(null);
+                userRepo.save(user);
+                maybeDeletePrevious(previousStorageKey, previousVariantKeys, storedFile.getKey());
+                // Variants are generated after commit on the image executor; the response does not wait
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        imageVariantService.scheduleVariants(userId, storedFile, request.getSubDirectory());
+                    }
+                });
+                return modelMapper.map(user, UserDto.class);
+            });
         } catch (RuntimeException ex) {
             // Rollback stored file on persistence failure
-            try {
-                fileStorageService.delete(storedFile.getKey());
-            } catch (RuntimeException deleteEx) {
-                log.error("Failed to cleanup uploaded file {} after persistence error", storedFile.getKey(), deleteEx);
-            }
+            deleteStored(storedFile.getKey());
             throw ex;
         }
+    }
 
-        maybeDeletePrevious(previousStorageKey, storedFile.getKey());
-        return modelMapper.map(user, UserDto.class);
+    private void deleteStored(String key) {
+        try {
+            fileStorageService.delete(key);
+        } catch (RuntimeException deleteEx) {
+            log.error("Failed to cleanup uploaded file {} after persistence error", key, deleteEx);
+        }
     }
 
     private void validateFile(MultipartFile file) {
@@ -85,22 +153,24 @@ public class UserProfilePhotoServiceImpl implements UserProfilePhotoService {
         if (file.getSize() <= 0) {
             throw new InvalidFileException("File is empty");
         }
-        String contentType = file.getContentType();
+        validateContentType(file.getContentType());
+    }
+
+    private void validateContentType(String contentType) {
         if (!StringUtils.hasText(contentType) || !ALLOWED_CONTENT_TYPES.contains(contentType.toLowerCase())) {
             throw new InvalidFileException("Unsupported file type. Allowed: JPEG, PNG, WEBP, GIF, AVIF, PDF");
         }
     }
 
-    private String buildPreferredFileName(Integer userId, MultipartFile file) {
+    private String buildPreferredFileName(Integer userId, String originalName) {
         String extension = "";
-        String originalName = file.getOriginalFilename();
         if (StringUtils.hasText(originalName) && originalName.contains(".")) {
             extension = originalName.substring(originalName.lastIndexOf('.'));
         }
         return "profile-" + userId + "-" + UUID.randomUUID() + extension;
     }
 
-    private void maybeDeletePrevious(String previousStorageKey, String newKey) {
+    private void maybeDeletePrevious(String previousStorageKey, Collection<String> previousVariantKeys, String newKey) {
         if (!fileStorageProperties.getCleanup().isEnabled()) {
             return;
         }
@@ -111,6 +181,19 @@ public class UserProfilePhotoServiceImpl implements UserProfilePhotoService {
             return;
         }
 
+        // Delete on the storage executor once the new key is committed, so a rollback keeps the old photo
+        // and a slow object store does not hold up the upload response
+        List<String> previousKeys = new ArrayList<>(previousVariantKeys);
+        previousKeys.add(previousStorageKey);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                storageExecutor.execute(() -> previousKeys.forEach(key -> deletePrevious(key)));
+            }
+        });
+    }
+
+    private void deletePrevious(String previousStorageKey) {
         try {
             fileStorageService.delete(previousStorageKey);
         } catch (FileStorageException ex) {
@@ -118,4 +201,3 @@ public class UserProfilePhotoServiceImpl implements UserProfilePhotoService {
         }
     }
 }
-
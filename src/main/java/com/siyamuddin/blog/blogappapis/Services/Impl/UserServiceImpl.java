@@ -2,29 +2,39 @@ package com.siyamuddin.blog.blogappapis.Services.Impl;
 
 import com.siyamuddin.blog.blogappapis.Config.AppConstants;
 import com.siyamuddin.blog.blogappapis.Config.Properties.RoleProperties;
-import com.siyamuddin.blog.blogappapis.Entity.Role;
 import com.siyamuddin.blog.blogappapis.Entity.User;
 import com.siyamuddin.blog.blogappapis.Exceptions.ResourceNotFoundException;
 import com.siyamuddin.blog.blogappapis.Exceptions.UserAlreadyExists;
 import com.siyamuddin.blog.blogappapis.Payloads.PagedResponse;
 import com.siyamuddin.blog.blogappapis.Payloads.UserPayload.UserDto;
-import com.siyamuddin.blog.blogappapis.Repository.RoleRepo;
 import com.siyamuddin.blog.blogappapis.Repository.UserRepo;
+import com.siyamuddin.blog.blogappapis.Services.ActivityWriteBehindService;
+import com.siyamuddin.blog.blogappapis.Services.AdminBootstrapService;
+import com.siyamuddin.blog.blogappapis.Services.EmailVerificationService;
+import com.siyamuddin.blog.blogappapis.Services.RoleCacheService;
 import com.siyamuddin.blog.blogappapis.Services.UserService;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
 import org.modelmapper.ModelMapper;
 import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.SQLException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -36,57 +46,64 @@ public class UserServiceImpl implements UserService {
     private final ModelMapper modelMapper;
     private final PasswordEncoder passwordEncoder;
     private final UserRepo userRepo;
-    private final RoleRepo roleRepo;
     private final RoleProperties roleProperties;
+    private final RoleCacheService roleCacheService;
+    private final AdminBootstrapService adminBootstrapService;
+    private final EmailVerificationService emailVerificationService;
+    private final ActivityWriteBehindService activityWriteBehindService;
+    private final TransactionTemplate newTransaction;
 
     public UserServiceImpl(
             ModelMapper modelMapper,
             PasswordEncoder passwordEncoder,
             UserRepo userRepo,
-            RoleRepo roleRepo,
-            RoleProperties roleProperties) {
+            RoleProperties roleProperties,
+            RoleCacheService roleCacheService,
+            AdminBootstrapService adminBootstrapService,
+            EmailVerificationService emailVerificationService,
+            ActivityWriteBehindService activityWriteBehindService,
+            PlatformTransactionManager transactionManager) {
         this.modelMapper = modelMapper;
         this.passwordEncoder = passwordEncoder;
         this.userRepo = userRepo;
-        this.roleRepo = roleRepo;
         this.roleProperties = roleProperties;
+        this.roleCacheService = roleCacheService;
+        this.adminBootstrapService = adminBootstrapService;
+        this.emailVerificationService = emailVerificationService;
+        this.activityWriteBehindService = activityWriteBehindService;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     @Override
     @Transactional
     public UserDto registerNewUser(UserDto userDto) {
-        Optional<User> userCheck=userRepo.findByEmail(userDto.getEmail());
-        if(userCheck.isPresent()){
-            log.info("Duplicate user tried to login.");
-            throw new UserAlreadyExists(userCheck.get().getName(),userDto.getEmail());
-        }
-        else if(userRepo.count()==0){
-            User user=this.modelMapper.map(userDto,User.class);
-            //encoded password
-            user.setPassword(this.passwordEncoder.encode(user.getPassword()));
-            //roles - safely get admin role (first user is admin)
-            Integer adminRoleId = roleProperties.getAdminUser();
-            Role role= this.roleRepo.findById(adminRoleId)
-                    .orElseThrow(() -> new IllegalStateException(
-                            "Admin role (ID: " + adminRoleId + ") not found. " +
-                            "Please run database migrations to seed roles."));
-            user.getRoles().add(role);
-            User newUser=this.userRepo.save(user);
-            return this.modelMapper.map(newUser,UserDto.class);
-        }
-        else {
         User user=this.modelMapper.map(userDto,User.class);
+        // id and roles are server-assigned; ignore anything the client sent
+        user.setId(null);
+        user.setRoles(new HashSet<>());
         //encoded password
         user.setPassword(this.passwordEncoder.encode(user.getPassword()));
-        //roles - safely get normal user role
-        Integer normalRoleId = roleProperties.getNormalUser();
-        Role role= this.roleRepo.findById(normalRoleId)
-                .orElseThrow(() -> new IllegalStateException(
-                        "Normal user role (ID: " + normalRoleId + ") not found. " +
-                        "Please run database migrations to seed roles."));
-        user.getRoles().add(role);
-        User newUser=this.userRepo.save(user);
-        return this.modelMapper.map(newUser,UserDto.class);}
+        //roles - first user is admin, decided by the bootstrap marker rather than a user count
+        Integer roleId = adminBootstrapService.claimFirstAdmin()
+                ? roleProperties.getAdminUser()
+                : roleProperties.getNormalUser();
+        user.getRoles().add(roleCacheService.getRole(roleId));
+
+        User newUser;
+        try {
+            // The unique index on email rejects duplicates, so no pre-check SELECT is needed
+            newUser=this.userRepo.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (!isDuplicateEmail(e) && !emailTaken(userDto.getEmail())) {
+                throw e;
+            }
+            log.info("Duplicate user tried to register.");
+            throw new UserAlreadyExists(userDto.getName(),userDto.getEmail());
+        }
+        // Token row and outbox email join this transaction; the user row is not written again
+        emailVerificationService.sendVerificationEmail(newUser);
+        return this.modelMapper.map(newUser,UserDto.class);
     }
 
     @Override
@@ -207,9 +224,44 @@ public class UserServiceImpl implements UserService {
     @Transactional
     @CacheEvict(value = "users", key = "#user.id")
     public void updateUserLastLogin(User user) {
-        user.setLastLoginDate(new java.util.Date());
-        user.setFailedLoginAttempts(0);
-        userRepo.save(user);
+        java.util.Date now = new java.util.Date();
+        if (user.getFailedLoginAttempts() != null && user.getFailedLoginAttempts() > 0) {
+            // The failed-attempt counter must be cleared right away, so write both columns now
+            userRepo.updateLastLogin(user.getId(), now);
+        } else {
+            activityWriteBehindService.recordLogin(user.getId(), user.getLastLoginDate(), now);
+        }
     }
 
+
+    /**
+     * Only a violation of the email unique key means the user exists; null, length and other
+     * constraint failures must surface as they are.
+     */
+    private static boolean isDuplicateEmail(DataIntegrityViolationException e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && mentionsEmailKey(violation.getConstraintName())) {
+                return true;
+            }
+            // MySQL duplicate key: SQLState 23000 with error 1062, "... for key 'user.uk_user_email'"
+            if (cause instanceof SQLException sql && "23000".equals(sql.getSQLState())
+                    && sql.getErrorCode() == 1062 && mentionsEmailKey(sql.getMessage())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fallback for a violation that names some other key, e.g. an email index not yet renamed by
+     * V14. Reads in a fresh transaction, since the failed insert has spoiled the current one.
+     */
+    private boolean emailTaken(String email) {
+        return Boolean.TRUE.equals(newTransaction.execute(status -> userRepo.existsByEmail(email)));
+    }
+
+    private static boolean mentionsEmailKey(String text) {
+        return text != null && text.toLowerCase(Locale.ROOT).contains(User.EMAIL_UNIQUE_KEY);
+    }
 }
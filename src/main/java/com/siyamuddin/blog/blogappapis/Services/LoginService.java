@@ -0,0 +1,19 @@
+package com.siyamuddin.blog.blogappapis.Services;
+
+import com.siyamuddin.blog.blogappapis.Entity.User;
+import jakarta.servlet.http.HttpServletRequest;
+
+public interface LoginService {
+
+    /**
+     * Authenticates the credentials and, on success, persists the refresh token, the session
+     * and the last-login update in one transaction.
+     *
+     * @throws org.springframework.security.authentication.BadCredentialsException when the
+     *         credentials are wrong or the account may not log in
+     */
+    LoginResult login(String email, String password, HttpServletRequest request);
+
+    record LoginResult(User user, String accessToken, String refreshToken) {
+    }
+}
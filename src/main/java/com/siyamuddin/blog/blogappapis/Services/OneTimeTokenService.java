@@ -0,0 +1,97 @@
+package com.siyamuddin.blog.blogappapis.Services;
+
+import com.siyamuddin.blog.blogappapis.Entity.OneTimeToken;
+import com.siyamuddin.blog.blogappapis.Entity.OneTimeTokenPurpose;
+import com.siyamuddin.blog.blogappapis.Repository.OneTimeTokenRepo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Issues and consumes the single-use tokens sent by email (verification, password reset).
+ * <p>
+ * A token is 256 random bits, URL-safe encoded. The table is keyed by its SHA-256, so a lookup
+ * is a primary-key read and a leaked table holds no usable links. Consuming deletes the row
+ * only while it is unexpired; of two concurrent uses exactly one deletes it. Issuing a token
+ * replaces any earlier one for the same user and purpose, and expired rows are purged hourly.
+ * None of this writes the user row.
+ */
+@Slf4j
+@Service
+public class OneTimeTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final OneTimeTokenRepo oneTimeTokenRepo;
+    private final SecureRandom random = new SecureRandom();
+
+    public OneTimeTokenService(OneTimeTokenRepo oneTimeTokenRepo) {
+        this.oneTimeTokenRepo = oneTimeTokenRepo;
+    }
+
+    /**
+     * @return the token to send; only its hash is stored
+     */
+    @Transactional
+    public String issue(Integer userId, OneTimeTokenPurpose purpose, Duration ttl) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        oneTimeTokenRepo.deleteByUserAndPurpose(userId, purpose);
+        OneTimeToken entity = new OneTimeToken();
+        entity.setTokenHash(hash(token));
+        entity.setPurpose(purpose);
+        entity.setUserId(userId);
+        entity.setExpiresAt(LocalDateTime.now().plus(ttl));
+        oneTimeTokenRepo.save(entity);
+        return token;
+    }
+
+    /**
+     * Looks the token up without consuming it. Expired tokens are returned too, so callers can
+     * tell "expired" from "unknown".
+     */
+    @Transactional(readOnly = true)
+    public Optional<OneTimeToken> find(String token, OneTimeTokenPurpose purpose) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        return oneTimeTokenRepo.findByHash(hash(token), purpose);
+    }
+
+    /**
+     * @return true for the single caller that consumed the (unexpired) token
+     */
+    @Transactional
+    public boolean consume(OneTimeToken token) {
+        return oneTimeTokenRepo.consume(token.getTokenHash(), LocalDateTime.now()) == 1;
+    }
+
+    @Scheduled(fixedRate = 3600000) // Run every hour
+    @Transactional
+    public void cleanupExpiredTokens() {
+        int deleted = oneTimeTokenRepo.deleteExpired(LocalDateTime.now());
+        log.info("{} expired one-time tokens cleaned up", deleted);
+    }
+
+    static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
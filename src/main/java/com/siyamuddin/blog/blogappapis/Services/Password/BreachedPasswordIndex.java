@@ -0,0 +1,131 @@
+package com.siyamuddin.blog.blogappapis.Services.Password;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Read-only, memory-mapped set of SHA-1 password hashes.
+ * <p>
+ * The file (written by {@link BreachedPasswordIndexBuilder}) is an 8-byte magic followed by
+ * 20-byte SHA-1 digests in ascending unsigned order, without duplicates. A lookup is a binary
+ * search over the mapping: about 30 probes for a billion hashes, served from the page cache
+ * rather than the heap. Files larger than one mapping are split into several mappings on
+ * record boundaries.
+ */
+public class BreachedPasswordIndex implements Closeable {
+
+    static final byte[] MAGIC = "BPWIDX01".getBytes(StandardCharsets.US_ASCII);
+    static final int HASH_LENGTH = 20;
+
+    private static final int RECORDS_PER_SEGMENT = Integer.MAX_VALUE / HASH_LENGTH;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long size;
+
+    private BreachedPasswordIndex(FileChannel channel, MappedByteBuffer[] segments, long size) {
+        this.channel = channel;
+        this.segments = segments;
+        this.size = size;
+    }
+
+    public static BreachedPasswordIndex open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long length = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(MAGIC.length);
+            channel.read(header, 0);
+            if (length < MAGIC.length || !Arrays.equals(header.array(), MAGIC)) {
+                throw new IOException(file + " is not a breached-password index");
+            }
+            long payload = length - MAGIC.length;
+            if (payload % HASH_LENGTH != 0) {
+                throw new IOException(file + " is truncated: " + payload + " bytes is not a whole number of hashes");
+            }
+            long size = payload / HASH_LENGTH;
+            int segmentCount = (int) ((size + RECORDS_PER_SEGMENT - 1) / RECORDS_PER_SEGMENT);
+            MappedByteBuffer[] segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long first = (long) i * RECORDS_PER_SEGMENT;
+                long records = Math.min(RECORDS_PER_SEGMENT, size - first);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        MAGIC.length + first * HASH_LENGTH, records * HASH_LENGTH);
+                segments[i].order(ByteOrder.BIG_ENDIAN);
+            }
+            return new BreachedPasswordIndex(channel, segments, size);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Number of hashes in the index.
+     */
+    public long size() {
+        return size;
+    }
+
+    public boolean containsPassword(CharSequence password) {
+        return containsHash(sha1(password));
+    }
+
+    public boolean containsHash(byte[] sha1) {
+        if (sha1.length != HASH_LENGTH) {
+            throw new IllegalArgumentException("Expected a " + HASH_LENGTH + "-byte SHA-1 digest");
+        }
+        ByteBuffer key = ByteBuffer.wrap(sha1);
+        long high = key.getLong(0);
+        long middle = key.getLong(8);
+        int low = key.getInt(16);
+
+        long from = 0;
+        long to = size - 1;
+        while (from <= to) {
+            long mid = (from + to) >>> 1;
+            ByteBuffer segment = segments[(int) (mid / RECORDS_PER_SEGMENT)];
+            int offset = (int) (mid % RECORDS_PER_SEGMENT) * HASH_LENGTH;
+            int cmp = Long.compareUnsigned(segment.getLong(offset), high);
+            if (cmp == 0) {
+                cmp = Long.compareUnsigned(segment.getLong(offset + 8), middle);
+            }
+            if (cmp == 0) {
+                cmp = Integer.compareUnsigned(segment.getInt(offset + 16), low);
+            }
+            if (cmp == 0) {
+                return true;
+            }
+            if (cmp < 0) {
+                from = mid + 1;
+            } else {
+                to = mid - 1;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // The mappings themselves are released when they are garbage collected
+        channel.close();
+    }
+
+    static byte[] sha1(CharSequence password) {
+        try {
+            return MessageDigest.getInstance("SHA-1")
+                    .digest(password.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e);
+        }
+    }
+}
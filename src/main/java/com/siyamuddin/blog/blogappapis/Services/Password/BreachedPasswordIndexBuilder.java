@@ -0,0 +1,182 @@
+package com.siyamuddin.blog.blogappapis.Services.Password;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Builds a {@link BreachedPasswordIndex} file from a text list, one entry per line. A line is
+ * either a SHA-1 hex digest, optionally followed by {@code :count} (the Have I Been Pwned
+ * download format), or a plaintext password, which is hashed. Blank lines are skipped.
+ * <p>
+ * Lists larger than memory are sorted in chunks written to temporary runs next to the output,
+ * which are then merged; duplicates are dropped. Runs without Spring on the compiled classes:
+ * <pre>
+ * java -cp target/classes com.siyamuddin.blog.blogappapis.Services.Password.BreachedPasswordIndexBuilder \
+ *     pwned-passwords-sha1.txt breached-passwords.idx
+ * </pre>
+ */
+public final class BreachedPasswordIndexBuilder {
+
+    /** Hashes sorted in memory per run: about 90 MB of heap. */
+    static final int DEFAULT_CHUNK_SIZE = 2_000_000;
+
+    private static final int SHA1_HEX_LENGTH = BreachedPasswordIndex.HASH_LENGTH * 2;
+
+    private BreachedPasswordIndexBuilder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BreachedPasswordIndexBuilder <input.txt> <output.idx>");
+            System.exit(2);
+        }
+        long started = System.nanoTime();
+        long written = build(Path.of(args[0]), Path.of(args[1]), DEFAULT_CHUNK_SIZE);
+        System.out.printf("Wrote %d hashes to %s in %d s%n", written, args[1],
+                (System.nanoTime() - started) / 1_000_000_000L);
+    }
+
+    /**
+     * @return the number of distinct hashes written
+     */
+    static long build(Path input, Path output, int chunkSize) throws IOException {
+        Path directory = output.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        List<Path> runs = new ArrayList<>();
+        try {
+            try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+                List<byte[]> chunk = new ArrayList<>(Math.min(chunkSize, 1 << 16));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    byte[] hash = parse(line);
+                    if (hash == null) {
+                        continue;
+                    }
+                    chunk.add(hash);
+                    if (chunk.size() == chunkSize) {
+                        runs.add(writeRun(chunk, directory));
+                        chunk.clear();
+                    }
+                }
+                if (!chunk.isEmpty() || runs.isEmpty()) {
+                    runs.add(writeRun(chunk, directory));
+                }
+            }
+            Path temp = Files.createTempFile(directory, "breached-passwords-", ".tmp");
+            long written;
+            try {
+                written = merge(runs, temp);
+                Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            return written;
+        } finally {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    static byte[] parse(String line) {
+        String entry = line.strip();
+        if (entry.isEmpty()) {
+            return null;
+        }
+        if (entry.length() >= SHA1_HEX_LENGTH
+                && (entry.length() == SHA1_HEX_LENGTH || entry.charAt(SHA1_HEX_LENGTH) == ':')
+                && isHex(entry, SHA1_HEX_LENGTH)) {
+            return HexFormat.of().parseHex(entry, 0, SHA1_HEX_LENGTH);
+        }
+        return BreachedPasswordIndex.sha1(line);
+    }
+
+    private static boolean isHex(String value, int length) {
+        for (int i = 0; i < length; i++) {
+            if (Character.digit(value.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Path writeRun(List<byte[]> chunk, Path directory) throws IOException {
+        chunk.sort(Arrays::compareUnsigned);
+        Path run = Files.createTempFile(directory, "breached-passwords-run-", ".tmp");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(run), 1 << 16)) {
+            byte[] previous = null;
+            for (byte[] hash : chunk) {
+                if (previous == null || !Arrays.equals(previous, hash)) {
+                    out.write(hash);
+                    previous = hash;
+                }
+            }
+        }
+        return run;
+    }
+
+    private static long merge(List<Path> runs, Path target) throws IOException {
+        PriorityQueue<RunReader> queue = new PriorityQueue<>((a, b) -> Arrays.compareUnsigned(a.current, b.current));
+        List<RunReader> readers = new ArrayList<>();
+        long written = 0;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(target), 1 << 16)) {
+            out.write(BreachedPasswordIndex.MAGIC);
+            for (Path run : runs) {
+                RunReader reader = new RunReader(run);
+                readers.add(reader);
+                if (reader.advance()) {
+                    queue.add(reader);
+                }
+            }
+            byte[] previous = null;
+            while (!queue.isEmpty()) {
+                RunReader reader = queue.poll();
+                if (previous == null || !Arrays.equals(previous, reader.current)) {
+                    out.write(reader.current);
+                    previous = reader.current.clone();
+                    written++;
+                }
+                if (reader.advance()) {
+                    queue.add(reader);
+                }
+            }
+        } finally {
+            for (RunReader reader : readers) {
+                reader.in.close();
+            }
+        }
+        return written;
+    }
+
+    private static final class RunReader {
+        private final DataInputStream in;
+        private final byte[] current = new byte[BreachedPasswordIndex.HASH_LENGTH];
+
+        RunReader(Path run) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), 1 << 16));
+        }
+
+        boolean advance() throws IOException {
+            try {
+                in.readFully(current);
+                return true;
+            } catch (EOFException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.siyamuddin.blog.blogappapis.Services.Password;
+
+import com.siyamuddin.blog.blogappapis.Config.Properties.BreachedPasswordProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tells whether a password appears in the configured breached-password index. The index is
+ * mapped once at startup; when screening is disabled every password passes.
+ */
+@Slf4j
+@Service
+public class BreachedPasswordService {
+
+    private final BreachedPasswordIndex index;
+    private final Timer lookups;
+    private final Counter hits;
+
+    public BreachedPasswordService(BreachedPasswordProperties properties, MeterRegistry meterRegistry) {
+        if (Boolean.TRUE.equals(properties.getEnabled())) {
+            try {
+                this.index = BreachedPasswordIndex.open(Path.of(properties.getIndexFile()));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open breached-password index " + properties.getIndexFile(), e);
+            }
+            log.info("Mapped {} breached password hashes from {}", index.size(), properties.getIndexFile());
+        } else {
+            this.index = null;
+        }
+        this.lookups = Timer.builder("app.password.breached.lookup")
+                .description("Lookups in the breached-password index")
+                .register(meterRegistry);
+        this.hits = Counter.builder("app.password.breached.hits")
+                .description("New passwords refused because they appear in the breached-password index")
+                .register(meterRegistry);
+        Gauge.builder("app.password.breached.index.size", this, service -> service.index != null ? service.index.size() : 0)
+                .description("Hashes in the breached-password index")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return index != null;
+    }
+
+    public boolean isBreached(String password) {
+        if (index == null) {
+            return false;
+        }
+        long started = System.nanoTime();
+        boolean breached = index.containsPassword(password);
+        lookups.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        if (breached) {
+            hits.increment();
+        }
+        return breached;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (index != null) {
+            index.close();
+        }
+    }
+}
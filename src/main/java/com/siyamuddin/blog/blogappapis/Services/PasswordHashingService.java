@@ -0,0 +1,155 @@
+package com.siyamuddin.blog.blogappapis.Services;
+
+import com.siyamuddin.blog.blogappapis.Config.ExecutorConfig;
+import com.siyamuddin.blog.blogappapis.Config.Properties.PasswordHashingProperties;
+import com.siyamuddin.blog.blogappapis.Exceptions.PasswordHashingBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The application's PasswordEncoder.
+ * <p>
+ * Hashes are stored as {@code {id}hash} through a DelegatingPasswordEncoder, so the algorithm can
+ * change without invalidating stored passwords. Hashes written before this encoder carry no prefix
+ * and are matched as BCrypt. {@link #upgradeEncoding} reports hashes in another algorithm or with
+ * a lower BCrypt cost; DaoAuthenticationProvider then rehashes them on the next successful login.
+ * <p>
+ * encode and matches run on the CPU-sized hashing executor: the calling thread waits at most
+ * {@code max-wait-ms}, and a full queue fails fast with {@link PasswordHashingBusyException}
+ * rather than letting a login storm occupy every request thread with hashing.
+ */
+@Slf4j
+@Service
+public class PasswordHashingService implements PasswordEncoder {
+
+    private static final String CALIBRATION_INPUT = "calibration-password";
+
+    private final DelegatingPasswordEncoder delegate;
+    private final Executor executor;
+    private final long maxWaitMs;
+    private final int bcryptStrength;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter busy;
+
+    public PasswordHashingService(PasswordHashingProperties properties,
+                                  @Qualifier(ExecutorConfig.HASHING_EXECUTOR) Executor executor,
+                                  MeterRegistry meterRegistry) {
+        this.bcryptStrength = properties.getBcryptStrength() != null
+                ? properties.getBcryptStrength()
+                : calibrate(properties.getMinStrength(), properties.getMaxStrength(), properties.getTargetMillis());
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", new BCryptPasswordEncoder(bcryptStrength));
+        encoders.put("pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        this.delegate = new DelegatingPasswordEncoder(properties.getAlgorithm(), encoders);
+        this.delegate.setDefaultPasswordEncoderForMatches(encoders.get("bcrypt"));
+        this.executor = executor;
+        this.maxWaitMs = properties.getMaxWaitMs();
+
+        this.encodeTimer = hashTimer(meterRegistry, "encode");
+        this.matchesTimer = hashTimer(meterRegistry, "matches");
+        this.busy = Counter.builder("app.password.hash.rejected")
+                .description("Hash requests refused because the hashing executor was saturated")
+                .register(meterRegistry);
+        Gauge.builder("app.password.bcrypt.strength", this, service -> service.bcryptStrength)
+                .description("BCrypt cost used for new hashes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return hash(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return hash(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public int getBcryptStrength() {
+        return bcryptStrength;
+    }
+
+    private <T> T hash(Timer timer, Callable<T> work) {
+        FutureTask<T> task = new FutureTask<>(() -> timer.recordCallable(work));
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            busy.increment();
+            throw new PasswordHashingBusyException("Password hashing capacity exhausted");
+        }
+        try {
+            return task.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Still queued: it will not run. Already running: it finishes and the result is dropped.
+            task.cancel(false);
+            busy.increment();
+            throw new PasswordHashingBusyException("Timed out waiting for a password hashing thread");
+        } catch (InterruptedException e) {
+            task.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Highest BCrypt cost in {@code [min, max]} whose hash time stays at or below the target.
+     * Each cost step doubles the work, so one measurement at the minimum is extrapolated.
+     */
+    static int calibrate(int minStrength, int maxStrength, int targetMillis) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        probe.encode(CALIBRATION_INPUT);
+        int samples = 3;
+        long started = System.nanoTime();
+        for (int i = 0; i < samples; i++) {
+            probe.encode(CALIBRATION_INPUT);
+        }
+        double millis = (System.nanoTime() - started) / 1_000_000.0 / samples;
+        int strength = minStrength;
+        double expected = millis;
+        while (strength < maxStrength && expected * 2 <= targetMillis) {
+            strength++;
+            expected *= 2;
+        }
+        log.info("Calibrated BCrypt strength {} (~{} ms per hash, {} ms at strength {})",
+                strength, Math.round(expected), Math.round(millis), minStrength);
+        return strength;
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("app.password.hash")
+                .description("Time spent hashing on the hashing executor")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
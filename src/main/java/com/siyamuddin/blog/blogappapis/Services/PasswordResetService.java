@@ -4,6 +4,4 @@ public interface PasswordResetService {
     void requestPasswordReset(String email);
     void resetPassword(String token, String newPassword);
     boolean validateResetToken(String token);
-    String generateResetToken();
 }
-
@@ -0,0 +1,41 @@
+package com.siyamuddin.blog.blogappapis.Services;
+
+import com.siyamuddin.blog.blogappapis.Entity.Role;
+import com.siyamuddin.blog.blogappapis.Repository.RoleRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory cache of role reference data.
+ * Roles are seeded by migrations and never change at runtime, so each node loads a role once
+ * and reuses it for every sign-up instead of querying the role table per registration.
+ */
+@Service
+@RequiredArgsConstructor
+public class RoleCacheService {
+
+    private final RoleRepo roleRepo;
+
+    private final ConcurrentMap<Integer, Role> roles = new ConcurrentHashMap<>();
+
+    /**
+     * Get a role by ID, loading it on first use.
+     * @param roleId configured role ID (see RoleProperties)
+     * @return role reference suitable for attaching to a user
+     */
+    public Role getRole(Integer roleId) {
+        Role role = roles.get(roleId);
+        if (role != null) {
+            return role;
+        }
+        role = roleRepo.findById(roleId)
+                .orElseThrow(() -> new IllegalStateException(
+                        "Role (ID: " + roleId + ") not found. " +
+                        "Please run database migrations to seed roles."));
+        Role existing = roles.putIfAbsent(roleId, role);
+        return existing != null ? existing : role;
+    }
+}
@@ -0,0 +1,92 @@
+package com.siyamuddin.blog.blogappapis.Services.Session;
+
+import com.siyamuddin.blog.blogappapis.Entity.UserSession;
+import com.siyamuddin.blog.blogappapis.Repository.UserSessionRepo;
+import com.siyamuddin.blog.blogappapis.Services.ActivityWriteBehindService;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Sessions in the {@code user_session} table. Activity goes through the write-behind buffer,
+ * and expired rows are removed by the scheduled cleanup.
+ */
+public class JpaSessionStore implements SessionStore {
+
+    private final UserSessionRepo sessionRepo;
+    private final ActivityWriteBehindService activityWriteBehindService;
+
+    public JpaSessionStore(UserSessionRepo sessionRepo, ActivityWriteBehindService activityWriteBehindService) {
+        this.sessionRepo = sessionRepo;
+        this.activityWriteBehindService = activityWriteBehindService;
+    }
+
+    @Override
+    public UserSession create(UserSession session) {
+        return sessionRepo.save(session);
+    }
+
+    @Override
+    public Optional<UserSession> findBySessionId(String sessionId) {
+        return sessionRepo.findBySessionId(sessionId);
+    }
+
+    @Override
+    public List<UserSession> findActiveByUserId(Integer userId, LocalDateTime now) {
+        return sessionRepo.findActiveByUserId(userId, now);
+    }
+
+    @Override
+    public long countActive(LocalDateTime now) {
+        return sessionRepo.countByIsActiveTrueAndExpiresAtAfter(now);
+    }
+
+    @Override
+    public boolean refresh(UserSession session, LocalDateTime now, LocalDateTime newExpiresAt) {
+        // The stored expiry may trail activity that is still waiting in the write-behind buffer
+        LocalDateTime expiresAt = activityWriteBehindService.pendingSessionActivity(session.getSessionId())
+                .map(ActivityWriteBehindService.SessionActivity::expiresAt)
+                .filter(pending -> pending.isAfter(session.getExpiresAt()))
+                .orElse(session.getExpiresAt());
+        if (!Boolean.TRUE.equals(session.getIsActive()) || expiresAt.isBefore(now)) {
+            return false;
+        }
+        activityWriteBehindService.recordSessionActivity(session.getSessionId(), session.getLastActivity(),
+                now, newExpiresAt);
+        return true;
+    }
+
+    @Override
+    public boolean deactivate(String sessionId) {
+        return sessionRepo.deactivateBySessionId(sessionId) > 0;
+    }
+
+    @Override
+    public int deactivateAllForUser(Integer userId) {
+        return sessionRepo.deactivateByUserId(userId);
+    }
+
+    @Override
+    public int deactivateAllForUserExcept(Integer userId, String keepSessionId) {
+        return sessionRepo.deactivateByUserIdExcept(userId, keepSessionId);
+    }
+
+    @Override
+    public int deactivateAllForIp(String ipAddress) {
+        return sessionRepo.deactivateByIpAddress(ipAddress);
+    }
+
+    @Override
+    public int deactivateAllForUsers(Collection<Integer> userIds) {
+        return userIds.isEmpty() ? 0 : sessionRepo.deactivateByUserIds(userIds);
+    }
+
+    @Override
+    public void deleteExpired(LocalDateTime now) {
+        // Write pending activity first so recently active sessions are not treated as expired
+        activityWriteBehindService.flush();
+        sessionRepo.deleteByExpiresAtBefore(now);
+    }
+}
@@ -0,0 +1,307 @@
+package com.siyamuddin.blog.blogappapis.Services.Session;
+
+import com.siyamuddin.blog.blogappapis.Entity.User;
+import com.siyamuddin.blog.blogappapis.Entity.UserSession;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Sessions as Redis hashes ({@code session:<id>}) whose key TTL matches the session expiry, plus
+ * index sets per user ({@code user-sessions:<userId>}) and per IP ({@code ip-sessions:<ip>}).
+ * Expired sessions disappear on their own, so no cleanup job is needed; stale index members are
+ * pruned when an index is read. Deactivating a session deletes it.
+ * <p>
+ * A sorted set ({@code active-sessions}) scores every session by its expiry, so the active count
+ * is one ZCOUNT instead of a keyspace scan.
+ */
+public class RedisSessionStore implements SessionStore {
+
+    static final String SESSION_KEY_PREFIX = "session:";
+    static final String USER_INDEX_KEY_PREFIX = "user-sessions:";
+    static final String IP_INDEX_KEY_PREFIX = "ip-sessions:";
+    static final String ACTIVE_INDEX_KEY = "active-sessions";
+
+    /**
+     * Touches the session only while its key still exists, so a refresh racing a deactivate
+     * cannot recreate a partial hash. KEYS: session, active index, user index[, ip index];
+     * ARGV: lastActivity, expiresAt, session TTL ms, index TTL ms, expiry score, session id.
+     */
+    static final RedisScript<Long> REFRESH_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end " +
+            "redis.call('HSET', KEYS[1], 'lastActivity', ARGV[1], 'expiresAt', ARGV[2]) " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[3]) " +
+            "redis.call('ZADD', KEYS[2], ARGV[5], ARGV[6]) " +
+            "for i = 3, #KEYS do redis.call('PEXPIRE', KEYS[i], ARGV[4]) end " +
+            "return 1", Long.class);
+
+    private final StringRedisTemplate redis;
+    private final Duration sessionTimeout;
+
+    public RedisSessionStore(StringRedisTemplate redis, Duration sessionTimeout) {
+        this.redis = redis;
+        this.sessionTimeout = sessionTimeout;
+    }
+
+    @Override
+    public UserSession create(UserSession session) {
+        Integer userId = session.getUser().getId();
+        String key = sessionKey(session.getSessionId());
+        Duration ttl = ttlUntil(session.getExpiresAt());
+        redis.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) throws DataAccessException {
+                operations.opsForHash().putAll(key, toHash(session));
+                operations.expire(key, ttl);
+                operations.opsForZSet().add(ACTIVE_INDEX_KEY, session.getSessionId(), score(session.getExpiresAt()));
+                // Every session has the same timeout, so the newest one outlives the others
+                operations.opsForSet().add(userIndexKey(userId), session.getSessionId());
+                operations.expire(userIndexKey(userId), sessionTimeout);
+                if (session.getIpAddress() != null) {
+                    operations.opsForSet().add(ipIndexKey(session.getIpAddress()), session.getSessionId());
+                    operations.expire(ipIndexKey(session.getIpAddress()), sessionTimeout);
+                }
+                return null;
+            }
+        });
+        return session;
+    }
+
+    @Override
+    public Optional<UserSession> findBySessionId(String sessionId) {
+        Map<Object, Object> hash = redis.opsForHash().entries(sessionKey(sessionId));
+        return isComplete(hash) ? Optional.of(fromHash(sessionId, hash)) : Optional.empty();
+    }
+
+    @Override
+    public List<UserSession> findActiveByUserId(Integer userId, LocalDateTime now) {
+        return loadIndexed(userIndexKey(userId)).stream()
+                .filter(session -> Boolean.TRUE.equals(session.getIsActive()))
+                .filter(session -> session.getExpiresAt() == null || session.getExpiresAt().isAfter(now))
+                .toList();
+    }
+
+    @Override
+    public long countActive(LocalDateTime now) {
+        double from = score(now);
+        // Drop members whose session expired on its own, so the index does not grow without bound
+        redis.opsForZSet().removeRangeByScore(ACTIVE_INDEX_KEY, Double.NEGATIVE_INFINITY, from);
+        Long count = redis.opsForZSet().count(ACTIVE_INDEX_KEY, from, Double.POSITIVE_INFINITY);
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    public boolean refresh(UserSession session, LocalDateTime now, LocalDateTime newExpiresAt) {
+        if (!Boolean.TRUE.equals(session.getIsActive()) || session.getExpiresAt().isBefore(now)) {
+            return false;
+        }
+        List<String> keys = new ArrayList<>(4);
+        keys.add(sessionKey(session.getSessionId()));
+        keys.add(ACTIVE_INDEX_KEY);
+        keys.add(userIndexKey(session.getUser().getId()));
+        if (session.getIpAddress() != null) {
+            keys.add(ipIndexKey(session.getIpAddress()));
+        }
+        Long touched = redis.execute(REFRESH_SCRIPT, keys, now.toString(), newExpiresAt.toString(),
+                String.valueOf(ttlUntil(newExpiresAt).toMillis()), String.valueOf(sessionTimeout.toMillis()),
+                String.valueOf((long) score(newExpiresAt)), session.getSessionId());
+        // 0 when the session was deactivated or expired since the caller read it
+        return touched != null && touched == 1L;
+    }
+
+    @Override
+    public boolean deactivate(String sessionId) {
+        String key = sessionKey(sessionId);
+        List<Object> fields = redis.opsForHash().multiGet(key, List.of("userId", "ipAddress"));
+        if (fields.get(0) == null) {
+            return false;
+        }
+        redis.delete(key);
+        redis.opsForZSet().remove(ACTIVE_INDEX_KEY, sessionId);
+        redis.opsForSet().remove(USER_INDEX_KEY_PREFIX + fields.get(0), sessionId);
+        if (fields.get(1) != null) {
+            redis.opsForSet().remove(IP_INDEX_KEY_PREFIX + fields.get(1), sessionId);
+        }
+        return true;
+    }
+
+    @Override
+    public int deactivateAllForUser(Integer userId) {
+        return deleteIndexed(userIndexKey(userId), null);
+    }
+
+    @Override
+    public int deactivateAllForUserExcept(Integer userId, String keepSessionId) {
+        return deleteIndexed(userIndexKey(userId), keepSessionId);
+    }
+
+    @Override
+    public int deactivateAllForIp(String ipAddress) {
+        // Members left behind in the per-user sets are pruned on their next read
+        return deleteIndexed(ipIndexKey(ipAddress), null);
+    }
+
+    @Override
+    public int deactivateAllForUsers(Collection<Integer> userIds) {
+        int revoked = 0;
+        for (Integer userId : userIds) {
+            revoked += deactivateAllForUser(userId);
+        }
+        return revoked;
+    }
+
+    @Override
+    public void deleteExpired(LocalDateTime now) {
+        // Key TTLs expire sessions natively
+    }
+
+    /**
+     * Load every session referenced by an index set with one pipelined round trip, pruning
+     * members whose session key has already expired.
+     */
+    private List<UserSession> loadIndexed(String indexKey) {
+        Set<String> sessionIds = redis.opsForSet().members(indexKey);
+        if (sessionIds == null || sessionIds.isEmpty()) {
+            return List.of();
+        }
+        List<String> ids = new ArrayList<>(sessionIds);
+        List<Object> hashes = redis.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) throws DataAccessException {
+                ids.forEach(id -> operations.opsForHash().entries(sessionKey(id)));
+                return null;
+            }
+        });
+
+        List<UserSession> sessions = new ArrayList<>();
+        List<String> expired = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            @SuppressWarnings("unchecked")
+            Map<Object, Object> hash = (Map<Object, Object>) hashes.get(i);
+            if (!isComplete(hash)) {
+                expired.add(ids.get(i));
+            } else {
+                sessions.add(fromHash(ids.get(i), hash));
+            }
+        }
+        if (!expired.isEmpty()) {
+            redis.opsForSet().remove(indexKey, expired.toArray());
+        }
+        return sessions;
+    }
+
+    /**
+     * Delete every session referenced by an index set, optionally keeping one.
+     *
+     * @return number of session keys that still existed
+     */
+    private int deleteIndexed(String indexKey, String keepSessionId) {
+        Set<String> sessionIds = redis.opsForSet().members(indexKey);
+        if (sessionIds == null || sessionIds.isEmpty()) {
+            return 0;
+        }
+        List<String> ids = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        for (String id : sessionIds) {
+            if (!id.equals(keepSessionId)) {
+                ids.add(id);
+                keys.add(sessionKey(id));
+            }
+        }
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        Long deleted = redis.delete(keys);
+        redis.opsForZSet().remove(ACTIVE_INDEX_KEY, ids.toArray());
+        if (keepSessionId == null) {
+            redis.delete(indexKey);
+        } else {
+            redis.opsForSet().remove(indexKey, sessionIds.stream().filter(id -> !id.equals(keepSessionId)).toArray());
+        }
+        return deleted == null ? 0 : deleted.intValue();
+    }
+
+    private static Map<String, String> toHash(UserSession session) {
+        Map<String, String> hash = new HashMap<>();
+        hash.put("userId", String.valueOf(session.getUser().getId()));
+        putIfNotNull(hash, "ipAddress", session.getIpAddress());
+        putIfNotNull(hash, "userAgent", session.getUserAgent());
+        putIfNotNull(hash, "loginTime", session.getLoginTime());
+        putIfNotNull(hash, "lastActivity", session.getLastActivity());
+        putIfNotNull(hash, "expiresAt", session.getExpiresAt());
+        hash.put("isActive", String.valueOf(Boolean.TRUE.equals(session.getIsActive())));
+        return hash;
+    }
+
+    /**
+     * A hash without userId is a leftover of a partial write, not a session.
+     */
+    private static boolean isComplete(Map<Object, Object> hash) {
+        return hash != null && hash.get("userId") != null;
+    }
+
+    private static UserSession fromHash(String sessionId, Map<Object, Object> hash) {
+        UserSession session = new UserSession();
+        session.setSessionId(sessionId);
+        User user = new User();
+        user.setId(Integer.valueOf((String) hash.get("userId")));
+        session.setUser(user);
+        session.setIpAddress((String) hash.get("ipAddress"));
+        session.setUserAgent((String) hash.get("userAgent"));
+        session.setLoginTime(parseTime(hash.get("loginTime")));
+        session.setLastActivity(parseTime(hash.get("lastActivity")));
+        session.setExpiresAt(parseTime(hash.get("expiresAt")));
+        session.setIsActive(Boolean.valueOf((String) hash.get("isActive")));
+        return session;
+    }
+
+    private static void putIfNotNull(Map<String, String> hash, String field, Object value) {
+        if (value != null) {
+            hash.put(field, value.toString());
+        }
+    }
+
+    private static LocalDateTime parseTime(Object value) {
+        return value == null ? null : LocalDateTime.parse((String) value);
+    }
+
+    /**
+     * Sorted-set score of an instant: epoch millis in the server's zone, as LocalDateTime is.
+     */
+    private static double score(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static Duration ttlUntil(LocalDateTime expiresAt) {
+        Duration ttl = Duration.between(LocalDateTime.now(), expiresAt);
+        return ttl.isNegative() || ttl.isZero() ? Duration.ofSeconds(1) : ttl;
+    }
+
+    private static String sessionKey(String sessionId) {
+        return SESSION_KEY_PREFIX + sessionId;
+    }
+
+    private static String userIndexKey(Integer userId) {
+        return USER_INDEX_KEY_PREFIX + userId;
+    }
+
+    private static String ipIndexKey(String ipAddress) {
+        return IP_INDEX_KEY_PREFIX + ipAddress;
+    }
+}
@@ -0,0 +1,67 @@
+package com.siyamuddin.blog.blogappapis.Services.Session;
+
+import com.siyamuddin.blog.blogappapis.Entity.UserSession;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Persistence backend for user sessions, selected with {@code app.security.session-store}.
+ */
+public interface SessionStore {
+
+    /**
+     * Persist a newly created session.
+     *
+     * @return the stored session
+     */
+    UserSession create(UserSession session);
+
+    Optional<UserSession> findBySessionId(String sessionId);
+
+    /**
+     * Active sessions of a user that have not expired at {@code now}.
+     */
+    List<UserSession> findActiveByUserId(Integer userId, LocalDateTime now);
+
+    /**
+     * Number of active, unexpired sessions across all users.
+     */
+    long countActive(LocalDateTime now);
+
+    /**
+     * Record activity on a session and push its expiry out.
+     *
+     * @param session      session as returned by {@link #findBySessionId(String)}
+     * @param newExpiresAt expiry after this activity
+     * @return false when the session is inactive or already expired
+     */
+    boolean refresh(UserSession session, LocalDateTime now, LocalDateTime newExpiresAt);
+
+    /**
+     * Deactivate a single session.
+     *
+     * @return false when no such session exists
+     */
+    boolean deactivate(String sessionId);
+
+    /**
+     * The bulk operations below each revoke a set of sessions in one round trip.
+     *
+     * @return number of sessions that were active and are now revoked
+     */
+    int deactivateAllForUser(Integer userId);
+
+    int deactivateAllForUserExcept(Integer userId, String keepSessionId);
+
+    int deactivateAllForIp(String ipAddress);
+
+    int deactivateAllForUsers(Collection<Integer> userIds);
+
+    /**
+     * Remove sessions that expired before {@code now}. Stores with native expiry do nothing.
+     */
+    void deleteExpired(LocalDateTime now);
+}
@@ -4,12 +4,17 @@ import com.siyamuddin.blog.blogappapis.Entity.User;
 import com.siyamuddin.blog.blogappapis.Entity.UserSession;
 import jakarta.servlet.http.HttpServletRequest;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface SessionService {
     UserSession createSession(User user, HttpServletRequest request);
     void invalidateSession(String sessionId);
-    void invalidateAllUserSessions(Integer userId);
+    int invalidateAllUserSessions(Integer userId);
+    int invalidateOtherUserSessions(Integer userId, String currentSessionId);
+    int invalidateSessionsByIp(String ipAddress);
+    int invalidateSessionsForUsers(Collection<Integer> userIds);
+    int revokeRefreshTokensForUsers(Collection<Integer> userIds);
     List<UserSession> getActiveSessions(Integer userId);
     void refreshSession(String sessionId);
     void cleanupExpiredSessions();
@@ -0,0 +1,61 @@
+package com.siyamuddin.blog.blogappapis.Services;
+
+import com.siyamuddin.blog.blogappapis.Config.ExecutorConfig;
+import com.siyamuddin.blog.blogappapis.Config.MetricsConfig;
+import com.siyamuddin.blog.blogappapis.Repository.UserRepo;
+import com.siyamuddin.blog.blogappapis.Services.Session.SessionStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+
+/**
+ * Keeps the {@code app.sessions.active} and {@code app.accounts.locked} gauges in line with the
+ * database (or Redis) by recounting them on a fixed delay and once at startup.
+ * <p>
+ * The counts are global, so every node reports the same value; dashboards should aggregate
+ * with max rather than sum. A failed refresh keeps the previous values. Scheduled refreshes run
+ * on the cache executor, so slow count queries do not delay other scheduled jobs.
+ */
+@Slf4j
+@Service
+public class StateGaugeRefresher {
+
+    private final SessionStore sessionStore;
+    private final UserRepo userRepo;
+    private final MetricsConfig.BusinessMetrics businessMetrics;
+
+    public StateGaugeRefresher(SessionStore sessionStore,
+                               UserRepo userRepo,
+                               MetricsConfig.BusinessMetrics businessMetrics) {
+        this.sessionStore = sessionStore;
+        this.userRepo = userRepo;
+        this.businessMetrics = businessMetrics;
+    }
+
+    /**
+     * Also runs once at startup. The listener is invoked through the proxy, so the startup
+     * count gets the same executor and read-only transaction as the scheduled ones.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Async(ExecutorConfig.CACHE_EXECUTOR)
+    @Scheduled(fixedDelayString = "${app.metrics.state-gauge-refresh-ms:60000}",
+               initialDelayString = "${app.metrics.state-gauge-refresh-ms:60000}")
+    @Transactional(readOnly = true)
+    public void refresh() {
+        try {
+            long activeSessions = sessionStore.countActive(LocalDateTime.now());
+            long lockedAccounts = userRepo.countByAccountLockedUntilAfter(new Date());
+            businessMetrics.setActiveSessions(Math.toIntExact(activeSessions));
+            businessMetrics.setLockedAccounts(Math.toIntExact(lockedAccounts));
+        } catch (RuntimeException e) {
+            log.warn("State gauge refresh failed, keeping previous values: {}", e.getMessage());
+        }
+    }
+}
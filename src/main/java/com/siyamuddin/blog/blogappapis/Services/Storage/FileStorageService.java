@@ -1,5 +1,7 @@
 package com.siyamuddin.blog.blogappapis.Services.Storage;
 
+import java.io.InputStream;
+
 public interface FileStorageService {
 
     /**
@@ -17,5 +19,17 @@ public interface FileStorageService {
      * @param key relative path (local) or object key (S3)
      */
     void delete(String key);
+
+    /**
+     * Open a stored file for reading. The caller closes the stream.
+     *
+     * @param key relative path (local) or object key (S3)
+     */
+    InputStream open(String key);
+
+    /**
+     * Public URL of a stored file, as returned in {@link StoredFile#getPublicUrl()} when it was stored.
+     */
+    String publicUrl(String key);
 }
 
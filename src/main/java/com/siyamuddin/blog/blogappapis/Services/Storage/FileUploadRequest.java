@@ -4,10 +4,27 @@ import lombok.Builder;
 import lombok.Getter;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 @Getter
 @Builder
 public class FileUploadRequest {
     private MultipartFile file;
+    /**
+     * Content streamed from the request (see MultipartStreamReader); used when {@code file} is null.
+     * Read once, to the end.
+     */
+    private InputStream content;
+    /**
+     * Content type and client file name of streamed content.
+     */
+    private String contentType;
+    private String originalFileName;
+    /**
+     * Size limit in bytes, enforced while the content is read. 0 means no limit.
+     */
+    private long maxSize;
     /**
      * Optional sub-directory relative to the configured base path/root folder.
      */
@@ -21,5 +38,26 @@ public class FileUploadRequest {
      */
     @Builder.Default
     private boolean overwrite = true;
-}
 
+    public String resolveContentType() {
+        return file != null ? file.getContentType() : contentType;
+    }
+
+    public String resolveOriginalFileName() {
+        return file != null ? file.getOriginalFilename() : originalFileName;
+    }
+
+    /**
+     * Size in bytes when known before reading (a {@code MultipartFile}), otherwise -1.
+     */
+    long knownSize() {
+        return file != null ? file.getSize() : -1;
+    }
+
+    /**
+     * The content, wrapped to enforce {@code maxSize}.
+     */
+    InputStream openContent() throws IOException {
+        return SizeLimitedInputStream.wrap(file != null ? file.getInputStream() : content, maxSize);
+    }
+}
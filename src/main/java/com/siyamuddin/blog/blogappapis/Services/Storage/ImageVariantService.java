@@ -0,0 +1,309 @@
+package com.siyamuddin.blog.blogappapis.Services.Storage;
+
+import com.siyamuddin.blog.blogappapis.Config.ExecutorConfig;
+import com.siyamuddin.blog.blogappapis.Config.Properties.ImageVariantProperties;
+import com.siyamuddin.blog.blogappapis.Exceptions.FileStorageException;
+import com.siyamuddin.blog.blogappapis.Repository.UserRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates resized copies of an uploaded profile photo off the request thread.
+ * <p>
+ * After the upload commits, {@link #scheduleVariants} queues the work on the bounded image
+ * executor. The original is read back from storage, decoded with source subsampling (a 6000px
+ * photo is never decoded at full size for a 1024px variant), scaled down largest variant first
+ * and written as JPEG, or PNG when it has transparency. The keys are then recorded on the user
+ * only if that photo is still current, so a variant job that loses a race with a newer upload
+ * deletes its files instead of attaching them to the wrong photo.
+ * <p>
+ * Formats without a JDK decoder (WEBP, AVIF, PDF) get no variants; clients fall back to the
+ * original URL.
+ */
+@Slf4j
+@Service
+public class ImageVariantService {
+
+    private final FileStorageService fileStorageService;
+    private final UserRepo userRepo;
+    private final ImageVariantProperties properties;
+    private final Executor imageExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<CacheManager> cacheManager;
+    private final MeterRegistry meterRegistry;
+    private final Timer generation;
+
+    public ImageVariantService(FileStorageService fileStorageService,
+                               UserRepo userRepo,
+                               ImageVariantProperties properties,
+                               @Qualifier(ExecutorConfig.IMAGE_EXECUTOR) Executor imageExecutor,
+                               PlatformTransactionManager transactionManager,
+                               ObjectProvider<CacheManager> cacheManager,
+                               MeterRegistry meterRegistry) {
+        this.fileStorageService = fileStorageService;
+        this.userRepo = userRepo;
+        this.properties = properties;
+        this.imageExecutor = imageExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheManager = cacheManager;
+        this.meterRegistry = meterRegistry;
+        this.generation = Timer.builder("app.image.variants.duration")
+                .description("Time to decode a profile photo and store its variants")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue variant generation for a stored photo. Returns immediately; when the image executor is
+     * full the job is dropped and the photo simply has no variants.
+     *
+     * @param subDirectory the sub-directory the original was stored under; variants go next to it
+     */
+    public void scheduleVariants(Integer userId, StoredFile original, String subDirectory) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        String contentType = original.getContentType();
+        if (contentType == null || !contentType.toLowerCase().startsWith("image/")) {
+            outcome("skipped");
+            return;
+        }
+        try {
+            imageExecutor.execute(() -> generateAndRecord(userId, original.getKey(), subDirectory));
+        } catch (RejectedExecutionException e) {
+            outcome("dropped");
+            log.warn("Image executor full; no variants for {}", original.getKey());
+        }
+    }
+
+    void generateAndRecord(Integer userId, String originalKey, String subDirectory) {
+        Map<Integer, String> variants;
+        long started = System.nanoTime();
+        try {
+            variants = generate(originalKey, subDirectory);
+        } catch (IOException | RuntimeException e) {
+            outcome("failed");
+            log.warn("Failed to generate variants for {}", originalKey, e);
+            return;
+        } finally {
+            generation.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+        if (variants.isEmpty()) {
+            outcome("skipped");
+            return;
+        }
+
+        Integer updated = transactionTemplate.execute(status ->
+                userRepo.setProfileImageVariants(userId, originalKey, encodeKeys(variants)));
+        if (updated == null || updated == 0) {
+            // Replaced (or the user deleted) while we were working
+            outcome("stale");
+            variants.values().forEach(this::deleteQuietly);
+            return;
+        }
+        CacheManager manager = cacheManager.getIfAvailable();
+        Cache users = manager != null ? manager.getCache("users") : null;
+        if (users != null) {
+            users.evict(userId);
+        }
+        outcome("generated");
+    }
+
+    /**
+     * Decode the original and store one variant per configured size below its longest side.
+     * Returns size to key; empty when the format cannot be decoded or the image is already small.
+     */
+    Map<Integer, String> generate(String originalKey, String subDirectory) throws IOException {
+        BufferedImage source;
+        int longestSide;
+        List<Integer> sizes = new ArrayList<>(properties.getSizes());
+        sizes.sort(Collections.reverseOrder());
+        try (InputStream in = fileStorageService.open(originalKey);
+             ImageInputStream imageInput = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = imageInput != null
+                    ? ImageIO.getImageReaders(imageInput) : Collections.emptyIterator();
+            if (!readers.hasNext()) {
+                return Map.of();
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageInput, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > properties.getMaxSourcePixels()) {
+                    log.warn("Not generating variants for {}: {}x{} exceeds max-source-pixels", originalKey, width, height);
+                    return Map.of();
+                }
+                longestSide = Math.max(width, height);
+                sizes.removeIf(size -> size >= longestSide);
+                if (sizes.isEmpty()) {
+                    return Map.of();
+                }
+                // Decimate while decoding, keeping at least twice the largest variant for smooth scaling
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, longestSide / (sizes.get(0) * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                source = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        String baseName = baseName(originalKey);
+        boolean alpha = source.getColorModel().hasAlpha();
+        Map<Integer, String> stored = new TreeMap<>();
+        try {
+            BufferedImage current = source;
+            for (int size : sizes) {
+                // Each variant is scaled from the previous, larger one
+                current = resize(current, size, alpha);
+                byte[] encoded = alpha ? encodePng(current) : encodeJpeg(current, properties.getJpegQuality());
+                StoredFile variant = fileStorageService.store(FileUploadRequest.builder()
+                        .content(new ByteArrayInputStream(encoded))
+                        .contentType(alpha ? "image/png" : "image/jpeg")
+                        .subDirectory(subDirectory)
+                        .preferredFileName(baseName + "-" + size + (alpha ? ".png" : ".jpg"))
+                        .build());
+                stored.put(size, variant.getKey());
+            }
+        } catch (IOException | RuntimeException e) {
+            stored.values().forEach(this::deleteQuietly);
+            throw e;
+        }
+        return stored;
+    }
+
+    /**
+     * Variant keys stored on the user, in ascending size order.
+     */
+    public static Map<Integer, String> decodeKeys(String encoded) {
+        Map<Integer, String> keys = new TreeMap<>();
+        if (!StringUtils.hasText(encoded)) {
+            return keys;
+        }
+        for (String entry : encoded.split(";")) {
+            int equals = entry.indexOf('=');
+            if (equals > 0) {
+                keys.put(Integer.parseInt(entry.substring(0, equals)), entry.substring(equals + 1));
+            }
+        }
+        return keys;
+    }
+
+    static String encodeKeys(Map<Integer, String> keys) {
+        StringBuilder encoded = new StringBuilder();
+        new TreeMap<>(keys).forEach((size, key) ->
+                encoded.append(encoded.isEmpty() ? "" : ";").append(size).append('=').append(key));
+        return encoded.toString();
+    }
+
+    /**
+     * Scale so the longest side is {@code maxSide}, halving with bilinear filtering first: one
+     * bilinear step over a large ratio skips most source pixels and aliases.
+     */
+    static BufferedImage resize(BufferedImage source, int maxSide, boolean alpha) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = (double) maxSide / Math.max(width, height);
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage current = source;
+        while (width / 2 >= targetWidth && height / 2 >= targetHeight) {
+            width /= 2;
+            height /= 2;
+            current = draw(current, width, height, alpha);
+        }
+        if (width != targetWidth || height != targetHeight) {
+            current = draw(current, targetWidth, targetHeight, alpha);
+        }
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height, boolean alpha) {
+        BufferedImage target = new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] encodePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (!ImageIO.write(image, "png", out)) {
+            throw new IOException("No PNG writer available");
+        }
+        return out.toByteArray();
+    }
+
+    private static String baseName(String key) {
+        String fileName = key.substring(key.lastIndexOf('/') + 1);
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(0, dot) : fileName;
+    }
+
+    private void deleteQuietly(String key) {
+        try {
+            fileStorageService.delete(key);
+        } catch (FileStorageException e) {
+            log.warn("Failed to delete image variant {}", key, e);
+        }
+    }
+
+    private void outcome(String outcome) {
+        meterRegistry.counter("app.image.variants", "outcome", outcome).increment();
+    }
+}
@@ -4,19 +4,22 @@ import com.siyamuddin.blog.blogappapis.Config.Properties.FileStorageProperties;
 import com.siyamuddin.blog.blogappapis.Exceptions.FileStorageException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.StringUtils;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.CopyOption;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.UUID;
 
 @Slf4j
 public class LocalFileStorageService implements FileStorageService {
 
+    private static final int WRITE_CHUNK = 256 * 1024;
+
     private final FileStorageProperties properties;
 
     public LocalFileStorageService(FileStorageProperties properties) {
@@ -25,33 +28,46 @@ public class LocalFileStorageService implements FileStorageService {
 
     @Override
     public StoredFile store(FileUploadRequest request) {
-        MultipartFile file = requireFile(request);
+        requireContent(request);
         Path basePath = Path.of(properties.getLocal().getBasePath()).toAbsolutePath();
         Path targetDirectory = resolveTargetDirectory(basePath, request.getSubDirectory());
         createDirectories(targetDirectory);
 
-        String fileName = resolveFileName(file, request.getPreferredFileName());
+        String fileName = resolveFileName(request.resolveOriginalFileName(), request.getPreferredFileName());
         Path destination = targetDirectory.resolve(fileName).normalize();
+        if (!request.isOverwrite() && Files.exists(destination)) {
+            throw new FileStorageException("File already exists: " + fileName);
+        }
 
-        try (InputStream inputStream = file.getInputStream()) {
-            Files.copy(
-                    inputStream,
-                    destination,
-                    request.isOverwrite() ? new CopyOption[]{StandardCopyOption.REPLACE_EXISTING} : new CopyOption[]{});
+        // Written next to the destination and renamed into place, so a failed or oversized upload
+        // never leaves a partial file under its final name
+        Path temp = null;
+        long size;
+        try {
+            temp = Files.createTempFile(targetDirectory, ".upload-", ".part");
+            try (InputStream source = request.openContent();
+                 FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                size = transfer(source, target);
+            }
+            Files.move(temp, destination, StandardCopyOption.ATOMIC_MOVE);
             if (log.isDebugEnabled()) {
-                log.debug("Stored file locally at {}", destination);
+                log.debug("Stored file locally at {} ({} bytes)", destination, size);
             }
         } catch (IOException e) {
+            deleteQuietly(temp);
             throw new FileStorageException("Failed to store file locally", e);
+        } catch (RuntimeException e) {
+            deleteQuietly(temp);
+            throw e;
         }
 
         String key = basePath.relativize(destination).toString().replace("\\", "/");
         return StoredFile.builder()
                 .key(key)
-                .publicUrl(buildPublicUrl(key))
-                .contentType(file.getContentType())
-                .originalFileName(file.getOriginalFilename())
-                .size(file.getSize())
+                .publicUrl(publicUrl(key))
+                .contentType(request.resolveContentType())
+                .originalFileName(request.resolveOriginalFileName())
+                .size(size)
                 .build();
     }
 
@@ -72,11 +88,53 @@ public class LocalFileStorageService implements FileStorageService {
         }
     }
 
-    private MultipartFile requireFile(FileUploadRequest request) {
-        if (request == null || request.getFile() == null) {
+    @Override
+    public InputStream open(String key) {
+        Path basePath = Path.of(properties.getLocal().getBasePath()).toAbsolutePath();
+        Path filePath = basePath.resolve(key).normalize();
+        if (!filePath.startsWith(basePath)) {
+            throw new FileStorageException("Key cannot traverse outside the base path");
+        }
+        try {
+            return Files.newInputStream(filePath);
+        } catch (IOException e) {
+            throw new FileStorageException("Failed to open local file " + key, e);
+        }
+    }
+
+    private void requireContent(FileUploadRequest request) {
+        if (request == null || (request.getFile() == null && request.getContent() == null)) {
             throw new FileStorageException("Upload request must include a file");
         }
-        return request.getFile();
+    }
+
+    /**
+     * Copies the stream into the file channel in {@code WRITE_CHUNK} writes; returns the byte count.
+     * FileChannel.transferFrom would move at most 8KB per write for a stream source.
+     */
+    private static long transfer(InputStream source, FileChannel target) throws IOException {
+        byte[] chunk = new byte[WRITE_CHUNK];
+        ByteBuffer buffer = ByteBuffer.wrap(chunk);
+        long position = 0;
+        int read;
+        while ((read = source.readNBytes(chunk, 0, WRITE_CHUNK)) > 0) {
+            buffer.clear().limit(read);
+            while (buffer.hasRemaining()) {
+                position += target.write(buffer);
+            }
+        }
+        return position;
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete partial upload {}", path, e);
+        }
     }
 
     private Path resolveTargetDirectory(Path basePath, String subDirectory) {
@@ -98,11 +156,10 @@ public class LocalFileStorageService implements FileStorageService {
         }
     }
 
-    private String resolveFileName(MultipartFile file, String preferredFileName) {
+    private String resolveFileName(String originalName, String preferredFileName) {
         if (StringUtils.hasText(preferredFileName)) {
             return preferredFileName;
         }
-        String originalName = file.getOriginalFilename();
         String extension = "";
         if (StringUtils.hasText(originalName) && originalName.contains(".")) {
             extension = originalName.substring(originalName.lastIndexOf('.'));
@@ -110,7 +167,8 @@ public class LocalFileStorageService implements FileStorageService {
         return UUID.randomUUID() + extension;
     }
 
-    private String buildPublicUrl(String key) {
+    @Override
+    public String publicUrl(String key) {
         String prefix = properties.getLocal().getPublicUriPrefix();
         if (!StringUtils.hasText(prefix)) {
             prefix = "/uploads";
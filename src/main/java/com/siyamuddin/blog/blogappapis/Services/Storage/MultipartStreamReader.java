@@ -0,0 +1,258 @@
+package com.siyamuddin.blog.blogappapis.Services.Storage;
+
+import com.siyamuddin.blog.blogappapis.Exceptions.InvalidFileException;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads a multipart/form-data body part by part straight from the request stream.
+ * <p>
+ * Unlike the servlet container's parser, nothing is buffered to memory or a temp file: each part's
+ * content is an InputStream that ends at the next boundary, so a file part can be copied to
+ * storage while it is still arriving. Parts must be consumed in order; {@link #next()} skips
+ * whatever is left of the previous one. The request must reach the controller unparsed
+ * ({@code spring.servlet.multipart.resolve-lazily=true}) for the stream to still hold the body.
+ */
+public class MultipartStreamReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_HEADER_BYTES = 16 * 1024;
+
+    /**
+     * One part of the body. {@code content} is valid until the next call to {@link #next()};
+     * closing it does not close the request stream.
+     */
+    public record Part(String name, String fileName, String contentType, InputStream content) {
+    }
+
+    private final InputStream in;
+    private final byte[] delimiter;
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+    private boolean eof;
+
+    private PartInputStream current;
+    private boolean partDone;
+    private boolean finished;
+
+    public MultipartStreamReader(InputStream in, String boundary) {
+        this.in = in;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        this.buffer = new byte[Math.max(BUFFER_SIZE, delimiter.length * 2)];
+        // The first boundary has no leading CRLF; seeding one lets every boundary match the same delimiter
+        buffer[0] = '\r';
+        buffer[1] = '\n';
+        this.limit = 2;
+    }
+
+    /**
+     * The boundary parameter of a multipart Content-Type header.
+     */
+    public static String boundary(String contentType) {
+        if (StringUtils.hasText(contentType)) {
+            for (String parameter : contentType.split(";")) {
+                String trimmed = parameter.trim();
+                if (trimmed.regionMatches(true, 0, "boundary=", 0, 9)) {
+                    String boundary = unquote(trimmed.substring(9));
+                    if (StringUtils.hasText(boundary) && boundary.length() <= 70) {
+                        return boundary;
+                    }
+                }
+            }
+        }
+        throw new InvalidFileException("Multipart request has no valid boundary");
+    }
+
+    /**
+     * The next part, or null after the closing boundary.
+     */
+    public Part next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        // Preamble before the first part, or what the caller left of the previous part
+        byte[] discard = new byte[8192];
+        while (readPart(discard, 0, discard.length) >= 0) {
+            // skip
+        }
+        if (current != null) {
+            current.closed = true;
+        }
+        if (!fill(2)) {
+            throw malformed();
+        }
+        if (buffer[position] == '-' && buffer[position + 1] == '-') {
+            finished = true;
+            return null;
+        }
+        if (StringUtils.hasText(readLine())) {
+            throw malformed();
+        }
+        Map<String, String> headers = readHeaders();
+        String disposition = headers.getOrDefault("content-disposition", "");
+        current = new PartInputStream();
+        partDone = false;
+        return new Part(parameter(disposition, "name"), parameter(disposition, "filename"),
+                headers.get("content-type"), current);
+    }
+
+    /**
+     * Copies part content up to the next delimiter; -1 once it is reached (and consumed).
+     */
+    private int readPart(byte[] b, int off, int len) throws IOException {
+        if (partDone) {
+            return -1;
+        }
+        while (true) {
+            int found = indexOfDelimiter();
+            // Without a match the tail may hold the start of a delimiter, so keep it back
+            int available = found >= 0 ? found - position : limit - position - (delimiter.length - 1);
+            if (available > 0) {
+                int n = Math.min(len, available);
+                System.arraycopy(buffer, position, b, off, n);
+                position += n;
+                return n;
+            }
+            if (found >= 0) {
+                position = found + delimiter.length;
+                partDone = true;
+                return -1;
+            }
+            if (eof) {
+                throw malformed();
+            }
+            compactAndRead();
+        }
+    }
+
+    private Map<String, String> readHeaders() throws IOException {
+        Map<String, String> headers = new LinkedHashMap<>();
+        int headerBytes = 0;
+        String line;
+        while (!(line = readLine()).isEmpty()) {
+            headerBytes += line.length();
+            if (headerBytes > MAX_HEADER_BYTES) {
+                throw new InvalidFileException("Multipart part headers are too large");
+            }
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+            }
+        }
+        return headers;
+    }
+
+    private String readLine() throws IOException {
+        while (true) {
+            for (int i = position; i + 1 < limit; i++) {
+                if (buffer[i] == '\r' && buffer[i + 1] == '\n') {
+                    String line = new String(buffer, position, i - position, StandardCharsets.UTF_8);
+                    position = i + 2;
+                    return line;
+                }
+            }
+            if (eof || limit - position >= MAX_HEADER_BYTES) {
+                throw malformed();
+            }
+            compactAndRead();
+        }
+    }
+
+    private boolean fill(int bytes) throws IOException {
+        while (limit - position < bytes) {
+            if (eof) {
+                return false;
+            }
+            compactAndRead();
+        }
+        return true;
+    }
+
+    private void compactAndRead() throws IOException {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        int n = in.read(buffer, limit, buffer.length - limit);
+        if (n < 0) {
+            eof = true;
+        } else {
+            limit += n;
+        }
+    }
+
+    private int indexOfDelimiter() {
+        int last = limit - delimiter.length;
+        byte first = delimiter[0];
+        for (int i = position; i <= last; i++) {
+            if (buffer[i] != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < delimiter.length && buffer[i + j] == delimiter[j]) {
+                j++;
+            }
+            if (j == delimiter.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String parameter(String header, String name) {
+        for (String parameter : header.split(";")) {
+            String trimmed = parameter.trim();
+            int equals = trimmed.indexOf('=');
+            if (equals > 0 && trimmed.substring(0, equals).trim().equalsIgnoreCase(name)) {
+                return unquote(trimmed.substring(equals + 1).trim());
+            }
+        }
+        return null;
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    private static InvalidFileException malformed() {
+        return new InvalidFileException("Malformed or truncated multipart body");
+    }
+
+    private class PartInputStream extends InputStream {
+        private boolean closed;
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int n = read(single, 0, 1);
+            return n < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (closed) {
+                return -1;
+            }
+            if (len == 0) {
+                return 0;
+            }
+            return readPart(b, off, len);
+        }
+
+        @Override
+        public void close() {
+            // The reader owns the request stream; the remainder is skipped by next()
+        }
+    }
+}
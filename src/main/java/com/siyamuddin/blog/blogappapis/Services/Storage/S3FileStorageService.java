@@ -2,61 +2,234 @@ package com.siyamuddin.blog.blogappapis.Services.Storage;
 
 import com.siyamuddin.blog.blogappapis.Config.Properties.FileStorageProperties;
 import com.siyamuddin.blog.blogappapis.Exceptions.FileStorageException;
+import com.siyamuddin.blog.blogappapis.Exceptions.FileTooLargeException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.StringUtils;
-import org.springframework.web.multipart.MultipartFile;
 import software.amazon.awssdk.awscore.exception.AwsServiceException;
 import software.amazon.awssdk.core.exception.SdkClientException;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 
+/**
+ * Stores files in S3 without buffering the whole upload.
+ * <p>
+ * Content that fits in one part ({@code filestorage.s3.part-size}) is sent with a single PUT:
+ * streamed straight from a {@code MultipartFile}, whose size is known, or from a buffer sized to
+ * what was actually read for streamed content. Anything larger becomes a multipart upload: parts are read one after another and uploaded on the
+ * upload executor, at most {@code upload-concurrency} at a time, so memory per upload is bounded
+ * by (upload-concurrency + 1) parts whatever the file size. A failed part, an oversized file or a
+ * read error aborts the upload, so no orphaned parts are left to bill.
+ */
 @Slf4j
 public class S3FileStorageService implements FileStorageService {
 
     private final S3Client s3Client;
     private final FileStorageProperties properties;
+    private final Executor uploadExecutor;
 
-    public S3FileStorageService(S3Client s3Client, FileStorageProperties properties) {
+    public S3FileStorageService(S3Client s3Client, FileStorageProperties properties, Executor uploadExecutor) {
         this.s3Client = s3Client;
         this.properties = properties;
+        this.uploadExecutor = uploadExecutor;
     }
 
     @Override
     public StoredFile store(FileUploadRequest request) {
-        MultipartFile file = requireFile(request);
-        String key = buildObjectKey(request, file);
+        requireContent(request);
+        String key = buildObjectKey(request);
+        String contentType = request.resolveContentType();
 
-        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                .bucket(properties.getS3().getBucketName())
-                .key(key)
-                .contentType(file.getContentType())
-                .build();
-
-        try (InputStream inputStream = file.getInputStream()) {
-            s3Client.putObject(putObjectRequest, RequestBody.fromInputStream(inputStream, file.getSize()));
-        } catch (IOException | AwsServiceException | SdkClientException e) {
+        long size;
+        try {
+            size = upload(key, contentType, request);
+        } catch (IOException | UncheckedIOException | AwsServiceException | SdkClientException e) {
             throw new FileStorageException("Failed to upload file to S3", e);
         }
 
         if (log.isDebugEnabled()) {
-            log.debug("Uploaded file to S3 bucket {} with key {}", properties.getS3().getBucketName(), key);
+            log.debug("Uploaded file to S3 bucket {} with key {} ({} bytes)", properties.getS3().getBucketName(), key, size);
         }
 
         return StoredFile.builder()
                 .key(key)
-                .publicUrl(buildPublicUrl(key))
-                .originalFileName(file.getOriginalFilename())
-                .contentType(file.getContentType())
-                .size(file.getSize())
+                .publicUrl(publicUrl(key))
+                .originalFileName(request.resolveOriginalFileName())
+                .contentType(contentType)
+                .size(size)
                 .build();
     }
 
+    private long upload(String key, String contentType, FileUploadRequest request) throws IOException {
+        int partSize = (int) properties.getS3().getPartSize().toBytes();
+        long knownSize = request.knownSize();
+        if (knownSize >= 0 && knownSize < partSize) {
+            // Size known up front: stream straight into one PUT, no part buffer at all
+            if (request.getMaxSize() > 0 && knownSize > request.getMaxSize()) {
+                throw new FileTooLargeException(request.getMaxSize());
+            }
+            putObject(key, contentType, RequestBody.fromContentProvider(() -> {
+                try {
+                    return request.openContent();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, knownSize, contentType));
+            return knownSize;
+        }
+        try (InputStream inputStream = request.openContent()) {
+            // readNBytes grows with what is actually read, so small streamed uploads stay small
+            byte[] first = inputStream.readNBytes(partSize);
+            if (first.length < partSize) {
+                putObject(key, contentType, RequestBody.fromInputStream(new ByteArrayInputStream(first), first.length));
+                return first.length;
+            }
+            return uploadMultipart(key, contentType, inputStream, first);
+        }
+    }
+
+    private void putObject(String key, String contentType, RequestBody body) {
+        s3Client.putObject(PutObjectRequest.builder()
+                        .bucket(properties.getS3().getBucketName())
+                        .key(key)
+                        .contentType(contentType)
+                        .build(),
+                body);
+    }
+
+    private long uploadMultipart(String key, String contentType, InputStream inputStream, byte[] first) throws IOException {
+        String bucket = properties.getS3().getBucketName();
+        int partSize = first.length;
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .contentType(contentType)
+                .build()).uploadId();
+
+        Semaphore inFlight = new Semaphore(properties.getS3().getUploadConcurrency());
+        List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+        try {
+            long total = 0;
+            byte[] buffer = first;
+            int length = partSize;
+            while (length > 0) {
+                inFlight.acquire();
+                failFast(parts);
+                parts.add(uploadPart(bucket, key, uploadId, parts.size() + 1, buffer, length, inFlight));
+                total += length;
+                buffer = inputStream.readNBytes(partSize);
+                length = buffer.length;
+            }
+            List<CompletedPart> completed = new ArrayList<>(parts.size());
+            for (CompletableFuture<CompletedPart> part : parts) {
+                completed.add(part.join());
+            }
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completed).build())
+                    .build());
+            return total;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(bucket, key, uploadId, parts);
+            throw new FileStorageException("Interrupted while uploading file to S3", e);
+        } catch (CompletionException e) {
+            abort(bucket, key, uploadId, parts);
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new FileStorageException("Failed to upload file part to S3", e.getCause());
+        } catch (IOException | RuntimeException e) {
+            abort(bucket, key, uploadId, parts);
+            throw e;
+        }
+    }
+
+    private CompletableFuture<CompletedPart> uploadPart(String bucket, String key, String uploadId, int partNumber,
+                                                        byte[] buffer, int length, Semaphore inFlight) {
+        CompletableFuture<CompletedPart> result = new CompletableFuture<>();
+        Runnable task = () -> {
+            try {
+                UploadPartResponse response = s3Client.uploadPart(UploadPartRequest.builder()
+                                .bucket(bucket)
+                                .key(key)
+                                .uploadId(uploadId)
+                                .partNumber(partNumber)
+                                .contentLength((long) length)
+                                .build(),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, length), length));
+                result.complete(CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build());
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            } finally {
+                inFlight.release();
+            }
+        };
+        try {
+            uploadExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            throw new FileStorageException("Upload executor refused a part", e);
+        }
+        return result;
+    }
+
+    /**
+     * Stops reading the rest of the body once any part has failed.
+     */
+    private static void failFast(List<CompletableFuture<CompletedPart>> parts) {
+        for (CompletableFuture<CompletedPart> part : parts) {
+            if (part.isCompletedExceptionally()) {
+                part.join();
+            }
+        }
+    }
+
+    private void abort(String bucket, String key, String uploadId, List<CompletableFuture<CompletedPart>> parts) {
+        // Parts still running would otherwise re-create storage after the abort
+        for (CompletableFuture<CompletedPart> part : parts) {
+            try {
+                part.join();
+            } catch (CompletionException ignored) {
+                // reported by the caller
+            }
+        }
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (AwsServiceException | SdkClientException e) {
+            log.warn("Failed to abort multipart upload {} for {}; a bucket lifecycle rule will have to clean it up",
+                    uploadId, key, e);
+        }
+    }
+
     @Override
     public void delete(String key) {
         if (!StringUtils.hasText(key)) {
@@ -75,15 +248,26 @@ public class S3FileStorageService implements FileStorageService {
         }
     }
 
-    private MultipartFile requireFile(FileUploadRequest request) {
-        if (request == null || request.getFile() == null) {
+    @Override
+    public InputStream open(String key) {
+        try {
+            return s3Client.getObject(GetObjectRequest.builder()
+                    .bucket(properties.getS3().getBucketName())
+                    .key(key)
+                    .build());
+        } catch (AwsServiceException | SdkClientException e) {
+            throw new FileStorageException("Failed to read S3 object " + key, e);
+        }
+    }
+
+    private void requireContent(FileUploadRequest request) {
+        if (request == null || (request.getFile() == null && request.getContent() == null)) {
             throw new FileStorageException("Upload request must include a file");
         }
-        return request.getFile();
     }
 
-    private String buildObjectKey(FileUploadRequest request, MultipartFile file) {
-        String fileName = resolveFileName(file, request.getPreferredFileName());
+    private String buildObjectKey(FileUploadRequest request) {
+        String fileName = resolveFileName(request.resolveOriginalFileName(), request.getPreferredFileName());
         StringBuilder keyBuilder = new StringBuilder();
         String rootFolder = properties.getS3().getRootFolder();
         if (StringUtils.hasText(rootFolder)) {
@@ -102,11 +286,10 @@ public class S3FileStorageService implements FileStorageService {
         return keyBuilder.toString();
     }
 
-    private String resolveFileName(MultipartFile file, String preferredFileName) {
+    private String resolveFileName(String originalName, String preferredFileName) {
         if (StringUtils.hasText(preferredFileName)) {
             return trimSlashes(preferredFileName);
         }
-        String originalName = file.getOriginalFilename();
         String extension = "";
         if (StringUtils.hasText(originalName) && originalName.contains(".")) {
             extension = originalName.substring(originalName.lastIndexOf('.'));
@@ -121,7 +304,8 @@ public class S3FileStorageService implements FileStorageService {
         return value.replaceAll("^/+", "").replaceAll("/+$", "");
     }
 
-    private String buildPublicUrl(String key) {
+    @Override
+    public String publicUrl(String key) {
         String customBaseUrl = properties.getS3().getPublicBaseUrl();
         if (StringUtils.hasText(customBaseUrl)) {
             if (!customBaseUrl.endsWith("/")) {
@@ -3,11 +3,19 @@ package com.siyamuddin.blog.blogappapis.Services;
 import com.siyamuddin.blog.blogappapis.Payloads.UserPayload.UserDto;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+
 public interface UserProfilePhotoService {
 
     /**
      * Upload a profile photo for the specified user and return the updated DTO.
      */
     UserDto uploadProfilePhoto(Integer userId, MultipartFile file);
+
+    /**
+     * Upload a profile photo streamed from the request body, without buffering it first.
+     * Refused with FileTooLargeException once more than {@code filestorage.max-upload-size} is read.
+     */
+    UserDto uploadProfilePhoto(Integer userId, String contentType, String originalFileName, InputStream content);
 }
 
@@ -0,0 +1,21 @@
+-- Outgoing email, written in the same transaction as the change that triggers it and sent by
+-- EmailOutboxDispatcher. A claimed row carries the dispatcher's claim_token and a next_attempt_at
+-- lease, so rows claimed by a node that died become due again on their own.
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id BIGINT NOT NULL PRIMARY KEY,
+    recipient VARCHAR(320) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME(6) NOT NULL,
+    claim_token VARCHAR(36),
+    last_error VARCHAR(1000),
+    created_at DATETIME(6) NOT NULL,
+    sent_at DATETIME(6),
+    INDEX idx_email_outbox_status_next (status, next_attempt_at),
+    INDEX idx_email_outbox_claim_token (claim_token),
+    INDEX idx_email_outbox_sent_at (sent_at)
+);
+
+INSERT IGNORE INTO id_generator (sequence_name, next_val) VALUES ('email_outbox', 1);
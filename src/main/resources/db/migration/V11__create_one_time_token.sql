@@ -0,0 +1,30 @@
+-- Single-use email verification and password reset tokens (OneTimeTokenService). Rows are keyed
+-- by the SHA-256 hex of the token, consumed by a conditional DELETE and purged once expired.
+CREATE TABLE IF NOT EXISTS one_time_token (
+    token_hash CHAR(64) NOT NULL PRIMARY KEY,
+    purpose VARCHAR(32) NOT NULL,
+    user_id INT NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    INDEX idx_one_time_token_user_purpose (user_id, purpose),
+    INDEX idx_one_time_token_expires_at (expires_at),
+    CONSTRAINT fk_one_time_token_user FOREIGN KEY (user_id) REFERENCES `${user_table}` (id) ON DELETE CASCADE
+);
+
+-- Links already emailed keep working until they expire
+INSERT IGNORE INTO one_time_token (token_hash, purpose, user_id, expires_at, created_at)
+SELECT SHA2(email_verification_token, 256), 'EMAIL_VERIFICATION', id, email_verification_token_expiry, NOW(6)
+FROM `${user_table}`
+WHERE email_verification_token IS NOT NULL AND email_verification_token_expiry > NOW(6);
+
+INSERT IGNORE INTO one_time_token (token_hash, purpose, user_id, expires_at, created_at)
+SELECT SHA2(password_reset_token, 256), 'PASSWORD_RESET', id, password_reset_token_expiry, NOW(6)
+FROM `${user_table}`
+WHERE password_reset_token IS NOT NULL AND password_reset_token_expiry > NOW(6);
+
+-- Dropping the columns also drops their single-column indexes
+ALTER TABLE `${user_table}`
+    DROP COLUMN email_verification_token,
+    DROP COLUMN email_verification_token_expiry,
+    DROP COLUMN password_reset_token,
+    DROP COLUMN password_reset_token_expiry;
@@ -0,0 +1,12 @@
+-- External identities linked to local users (OAuthServiceImpl). The unique key serves the
+-- returning-user lookup and makes linking an idempotent INSERT ... ON DUPLICATE KEY UPDATE.
+CREATE TABLE IF NOT EXISTS oauth_account (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    provider VARCHAR(32) NOT NULL,
+    provider_id VARCHAR(255) NOT NULL,
+    user_id INT NOT NULL,
+    linked_at DATETIME(6) NOT NULL,
+    UNIQUE KEY uk_oauth_account_provider (provider, provider_id),
+    INDEX idx_oauth_account_user_provider (user_id, provider),
+    CONSTRAINT fk_oauth_account_user FOREIGN KEY (user_id) REFERENCES `${user_table}` (id) ON DELETE CASCADE
+);
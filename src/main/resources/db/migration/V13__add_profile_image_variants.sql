@@ -0,0 +1,2 @@
+-- Storage keys of resized profile photo variants (ImageVariantService), "size=key;size=key"
+ALTER TABLE `${user_table}` ADD COLUMN profile_image_variants VARCHAR(1024) NULL;
@@ -0,0 +1,35 @@
+-- Give the unique index on email the name registration recognizes (User.EMAIL_UNIQUE_KEY).
+-- Tables created by ddl-auto=update before V1_1 carry Hibernate's generated name, and V1_1's
+-- CREATE TABLE IF NOT EXISTS leaves them untouched.
+SET @dbname = DATABASE();
+SET @tablename = '${user_table}';
+SET @indexname = 'uk_user_email';
+SET @oldindexname = (
+    SELECT s.INDEX_NAME FROM INFORMATION_SCHEMA.STATISTICS s
+    WHERE
+        (s.TABLE_SCHEMA = @dbname)
+        AND (s.TABLE_NAME = @tablename)
+        AND (s.COLUMN_NAME = 'email')
+        AND (s.NON_UNIQUE = 0)
+        AND (s.INDEX_NAME <> 'PRIMARY')
+        AND (
+            SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS c
+            WHERE c.TABLE_SCHEMA = s.TABLE_SCHEMA AND c.TABLE_NAME = s.TABLE_NAME AND c.INDEX_NAME = s.INDEX_NAME
+        ) = 1
+    ORDER BY s.INDEX_NAME
+    LIMIT 1
+);
+SET @preparedStatement = (SELECT IF(
+    (
+        SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS
+        WHERE
+            (TABLE_SCHEMA = @dbname)
+            AND (TABLE_NAME = @tablename)
+            AND (INDEX_NAME = @indexname)
+    ) > 0 OR @oldindexname IS NULL,
+    'SELECT 1',
+    CONCAT('ALTER TABLE `', @tablename, '` RENAME INDEX `', @oldindexname, '` TO ', @indexname)
+));
+PREPARE renameIfLegacy FROM @preparedStatement;
+EXECUTE renameIfLegacy;
+DEALLOCATE PREPARE renameIfLegacy;
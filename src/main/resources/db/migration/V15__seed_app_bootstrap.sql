@@ -0,0 +1,4 @@
+-- Seed the bootstrap marker so it exists before the first request, not only once the application
+-- has started. An install that already has users is marked as having its admin.
+INSERT IGNORE INTO app_bootstrap (id, admin_assigned)
+SELECT 1, EXISTS (SELECT 1 FROM `${user_table}`);
@@ -0,0 +1,289 @@
+-- Baseline schema for every JPA entity. Earlier installs got these tables from
+-- ddl-auto=update; CREATE TABLE IF NOT EXISTS and the guarded index blocks make this
+-- migration a no-op for existing tables while still adding the missing indexes.
+-- Runs between V1 and V2 on fresh databases and out of order on existing ones
+-- (spring.flyway.out-of-order=true).
+
+CREATE TABLE IF NOT EXISTS `${user_table}` (
+    id INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    about VARCHAR(255),
+    email_verified BIT,
+    email_verification_token VARCHAR(255),
+    email_verification_token_expiry DATETIME(6),
+    password_reset_token VARCHAR(255),
+    password_reset_token_expiry DATETIME(6),
+    failed_login_attempts INT,
+    account_locked_until DATETIME(6),
+    last_login_date DATETIME(6),
+    profile_image_url VARCHAR(255),
+    profile_image_storage_key VARCHAR(255),
+    phone_number VARCHAR(255),
+    timezone VARCHAR(255),
+    locale VARCHAR(255),
+    CONSTRAINT uk_user_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS user_role (
+    `user` INT NOT NULL,
+    role INT NOT NULL,
+    PRIMARY KEY (`user`, role),
+    CONSTRAINT fk_user_role_user FOREIGN KEY (`user`) REFERENCES `${user_table}` (id),
+    CONSTRAINT fk_user_role_role FOREIGN KEY (role) REFERENCES role (id)
+);
+
+CREATE TABLE IF NOT EXISTS audit_log (
+    id BIGINT NOT NULL PRIMARY KEY,
+    user_id INT,
+    action VARCHAR(100) NOT NULL,
+    resource_type VARCHAR(100),
+    resource_id VARCHAR(255),
+    ip_address VARCHAR(45),
+    user_agent VARCHAR(500),
+    `timestamp` DATETIME(6) NOT NULL,
+    success BIT NOT NULL,
+    error_message VARCHAR(1000)
+);
+
+CREATE TABLE IF NOT EXISTS user_session (
+    id BIGINT NOT NULL PRIMARY KEY,
+    session_id VARCHAR(255) NOT NULL,
+    user_id INT NOT NULL,
+    ip_address VARCHAR(255),
+    user_agent VARCHAR(500),
+    login_time DATETIME(6) NOT NULL,
+    last_activity DATETIME(6),
+    expires_at DATETIME(6) NOT NULL,
+    is_active BIT,
+    CONSTRAINT uk_user_session_session_id UNIQUE (session_id),
+    CONSTRAINT fk_user_session_user FOREIGN KEY (user_id) REFERENCES `${user_table}` (id)
+);
+
+CREATE TABLE IF NOT EXISTS refresh_token (
+    id BIGINT NOT NULL PRIMARY KEY,
+    token VARCHAR(500) NOT NULL,
+    user_id INT NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    is_revoked BIT,
+    CONSTRAINT uk_refresh_token_token UNIQUE (token),
+    CONSTRAINT fk_refresh_token_user FOREIGN KEY (user_id) REFERENCES `${user_table}` (id)
+);
+
+CREATE TABLE IF NOT EXISTS token_blacklist (
+    id BIGINT NOT NULL PRIMARY KEY,
+    token VARCHAR(500) NOT NULL,
+    user_id INT,
+    expires_at DATETIME(6) NOT NULL,
+    blacklisted_at DATETIME(6) NOT NULL,
+    CONSTRAINT uk_token_blacklist_token UNIQUE (token)
+);
+
+-- Hot-path indexes (mirrored by @Index on the entities)
+SET @dbname = DATABASE();
+
+SET @tablename = '${user_table}';
+SET @indexname = 'idx_user_email_verification_token';
+SET @preparedStatement = (SELECT IF(
+    (
+        SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS
+        WHERE
+            (TABLE_SCHEMA = @dbname)
+            AND (TABLE_NAME = @tablename)
+            AND (INDEX_NAME = @indexname)
+    ) > 0,
+    'SELECT 1',
+    'CREATE INDEX idx_user_email_verification_token ON `${user_table}` (email_verification_token)'
+));
+PREPARE createIndexIfNotExists FROM @preparedStatement;
+EXECUTE createIndexIfNotExists;
+DEALLOCATE PREPARE createIndexIfNotExists;
+
+SET @tablename = '${user_table}';
+SET @indexname = 'idx_user_password_reset_token';
+SET @preparedStatement = (SELECT IF(
+    (
+        SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS
+        WHERE
+            (TABLE_SCHEMA = @dbname)
+            AND (TABLE_NAME = @tablename)
+            AND (INDEX_NAME = @indexname)
+    ) > 0,
+    'SELECT 1',
+    'CREATE INDEX idx_user_password_reset_token ON `${user_table}` (password_reset_token)'
+));
+PREPARE createIndexIfNotExists FROM @preparedStatement;
+EXECUTE createIndexIfNotExists;
+DEALLOCATE PREPARE createIndexIfNotExists;
+
+SET @tablename = 'audit_log';
+SET @indexname = 'idx_audit_log_user_timestamp';
+SET @preparedStatement = (SELECT IF(
+    (
+        SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS
+        WHERE
+            (TABLE_SCHEMA = @dbname)
+            AND (TABLE_NAME = @tablename)
+            AND (INDEX_NAME = @indexname)
+    ) > 0,
+    'SELECT 1',
+    'CREATE INDEX idx_audit_log_user_timestamp ON audit_log (user_id, `timestamp`)'
+));
+PREPARE createIndexIfNotExists FROM @preparedStatement;
+EXECUTE createIndexIfNotExists;
+DEALLOCATE PREPARE createIndexIfNotExists;
+
+SET @tablename = 'audit_log';
+SET @indexname = 'idx_audit_log_action_timestamp';
+SET @preparedStatement = (SELECT IF(
+    (
+        SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS
+        WHERE
+            (TABLE_SCHEMA = @dbname)
+            AND (TABLE_NAME = @tablename)
+            AND (INDEX_NAME = @indexname)
+    ) > 0,
+    'SELECT 1',
+    'CREATE INDEX idx_audit_log_action_timestamp ON audit_log (action, `timestamp`)'
+));
+PREPARE createIndexIfNotExists FROM @preparedStatement;
+EXECUTE createIndexIfNotExists;
+DEALLOCATE PREPARE createIndexIfNotExists;
+
+SET @tablename = 'audit_log';
+SET @indexname = 'idx_audit_log_resource';
+SET @preparedStatement = (SELECT IF(
+    (
+        SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS
+        WHERE
+            (TABLE_SCHEMA = @dbname)
+            AND (TABLE_NAME = @tablename)
+            AND (INDEX_NAME = @indexname)
+    ) > 0,
+    'SELECT 1',
+    'CREATE INDEX idx_audit_log_resource ON audit_log (resource_type, resource_id)'
+));
+PREPARE createIndexIfNotExists FROM @preparedStatement;
+EXECUTE createIndexIfNotExists;
+DEALLOCATE PREPARE createIndexIfNotExists;
+
+SET @tablename = 'audit_log';
+SET @indexname = 'idx_audit_log_timestamp';
+SET @preparedStatement = (SELECT IF(
+    (
+        SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS
+        WHERE
+            (TABLE_SCHEMA = @dbname)
+            AND (TABLE_NAME = @tablename)
+            AND (INDEX_NAME = @indexname)
+    ) > 0,
+    'SELECT 1',
+    'CREATE INDEX idx_audit_log_timestamp ON audit_log (`timestamp`)'
+));
+PREPARE createIndexIfNotExists FROM @preparedStatement;
+EXECUTE createIndexIfNotExists;
+DEALLOCATE PREPARE createIndexIfNotExists;
+
+SET @tablename = 'user_session';
+SET @indexname = 'idx_user_session_user_active';
+SET @preparedStatement = (SELECT IF(
+    (
+        SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS
+        WHERE
+            (TABLE_SCHEMA = @dbname)
+            AND (TABLE_NAME = @tablename)
+            AND (INDEX_NAME = @indexname)
+    ) > 0,
+    'SELECT 1',
+    'CREATE INDEX idx_user_session_user_active ON user_session (user_id, is_active)'
+));
+PREPARE createIndexIfNotExists FROM @preparedStatement;
+EXECUTE createIndexIfNotExists;
+DEALLOCATE PREPARE createIndexIfNotExists;
+
+SET @tablename = 'user_session';
+SET @indexname = 'idx_user_session_expires_at';
+SET @preparedStatement = (SELECT IF(
+    (
+        SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS
+        WHERE
+            (TABLE_SCHEMA = @dbname)
+            AND (TABLE_NAME = @tablename)
+            AND (INDEX_NAME = @indexname)
+    ) > 0,
+    'SELECT 1',
+    'CREATE INDEX idx_user_session_expires_at ON user_session (expires_at)'
+));
+PREPARE createIndexIfNotExists FROM @preparedStatement;
+EXECUTE createIndexIfNotExists;
+DEALLOCATE PREPARE createIndexIfNotExists;
+
+SET @tablename = 'refresh_token';
+SET @indexname = 'idx_refresh_token_user_expires';
+SET @preparedStatement = (SELECT IF(
+    (
+        SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS
+        WHERE
+            (TABLE_SCHEMA = @dbname)
+            AND (TABLE_NAME = @tablename)
+            AND (INDEX_NAME = @indexname)
+    ) > 0,
+    'SELECT 1',
+    'CREATE INDEX idx_refresh_token_user_expires ON refresh_token (user_id, expires_at)'
+));
+PREPARE createIndexIfNotExists FROM @preparedStatement;
+EXECUTE createIndexIfNotExists;
+DEALLOCATE PREPARE createIndexIfNotExists;
+
+SET @tablename = 'refresh_token';
+SET @indexname = 'idx_refresh_token_expires_at';
+SET @preparedStatement = (SELECT IF(
+    (
+        SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS
+        WHERE
+            (TABLE_SCHEMA = @dbname)
+            AND (TABLE_NAME = @tablename)
+            AND (INDEX_NAME = @indexname)
+    ) > 0,
+    'SELECT 1',
+    'CREATE INDEX idx_refresh_token_expires_at ON refresh_token (expires_at)'
+));
+PREPARE createIndexIfNotExists FROM @preparedStatement;
+EXECUTE createIndexIfNotExists;
+DEALLOCATE PREPARE createIndexIfNotExists;
+
+SET @tablename = 'refresh_token';
+SET @indexname = 'idx_refresh_token_revoked';
+SET @preparedStatement = (SELECT IF(
+    (
+        SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS
+        WHERE
+            (TABLE_SCHEMA = @dbname)
+            AND (TABLE_NAME = @tablename)
+            AND (INDEX_NAME = @indexname)
+    ) > 0,
+    'SELECT 1',
+    'CREATE INDEX idx_refresh_token_revoked ON refresh_token (is_revoked)'
+));
+PREPARE createIndexIfNotExists FROM @preparedStatement;
+EXECUTE createIndexIfNotExists;
+DEALLOCATE PREPARE createIndexIfNotExists;
+
+SET @tablename = 'token_blacklist';
+SET @indexname = 'idx_token_blacklist_expires_at';
+SET @preparedStatement = (SELECT IF(
+    (
+        SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS
+        WHERE
+            (TABLE_SCHEMA = @dbname)
+            AND (TABLE_NAME = @tablename)
+            AND (INDEX_NAME = @indexname)
+    ) > 0,
+    'SELECT 1',
+    'CREATE INDEX idx_token_blacklist_expires_at ON token_blacklist (expires_at)'
+));
+PREPARE createIndexIfNotExists FROM @preparedStatement;
+EXECUTE createIndexIfNotExists;
+DEALLOCATE PREPARE createIndexIfNotExists;
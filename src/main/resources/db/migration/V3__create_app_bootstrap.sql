@@ -0,0 +1,6 @@
+-- One-row marker for bootstrap decisions (e.g. first user becomes admin).
+-- The row itself is created at application startup, once the user table is known to exist.
+CREATE TABLE IF NOT EXISTS app_bootstrap (
+    id INT NOT NULL PRIMARY KEY,
+    admin_assigned BIT NOT NULL DEFAULT 0
+);
@@ -0,0 +1,72 @@
+-- Pooled id generator for high-volume tables. Each row stores the high end of the
+-- last block handed out; Hibernate reserves allocationSize (50) ids per round trip.
+CREATE TABLE IF NOT EXISTS id_generator (
+    sequence_name VARCHAR(255) NOT NULL PRIMARY KEY,
+    next_val BIGINT
+);
+
+SET @dbname = DATABASE();
+
+-- Seed audit_log past its current AUTO_INCREMENT ids
+SET @tablename = 'audit_log';
+SET @preparedStatement = (SELECT IF(
+    (
+        SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES
+        WHERE
+            (TABLE_SCHEMA = @dbname)
+            AND (TABLE_NAME = @tablename)
+    ) > 0,
+    CONCAT('INSERT IGNORE INTO id_generator (sequence_name, next_val) SELECT ''', @tablename, ''', COALESCE(MAX(id), 0) + 50 FROM ', @tablename),
+    CONCAT('INSERT IGNORE INTO id_generator (sequence_name, next_val) VALUES (''', @tablename, ''', 1)')
+));
+PREPARE seedIfExists FROM @preparedStatement;
+EXECUTE seedIfExists;
+DEALLOCATE PREPARE seedIfExists;
+
+-- Seed user_session past its current AUTO_INCREMENT ids
+SET @tablename = 'user_session';
+SET @preparedStatement = (SELECT IF(
+    (
+        SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES
+        WHERE
+            (TABLE_SCHEMA = @dbname)
+            AND (TABLE_NAME = @tablename)
+    ) > 0,
+    CONCAT('INSERT IGNORE INTO id_generator (sequence_name, next_val) SELECT ''', @tablename, ''', COALESCE(MAX(id), 0) + 50 FROM ', @tablename),
+    CONCAT('INSERT IGNORE INTO id_generator (sequence_name, next_val) VALUES (''', @tablename, ''', 1)')
+));
+PREPARE seedIfExists FROM @preparedStatement;
+EXECUTE seedIfExists;
+DEALLOCATE PREPARE seedIfExists;
+
+-- Seed refresh_token past its current AUTO_INCREMENT ids
+SET @tablename = 'refresh_token';
+SET @preparedStatement = (SELECT IF(
+    (
+        SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES
+        WHERE
+            (TABLE_SCHEMA = @dbname)
+            AND (TABLE_NAME = @tablename)
+    ) > 0,
+    CONCAT('INSERT IGNORE INTO id_generator (sequence_name, next_val) SELECT ''', @tablename, ''', COALESCE(MAX(id), 0) + 50 FROM ', @tablename),
+    CONCAT('INSERT IGNORE INTO id_generator (sequence_name, next_val) VALUES (''', @tablename, ''', 1)')
+));
+PREPARE seedIfExists FROM @preparedStatement;
+EXECUTE seedIfExists;
+DEALLOCATE PREPARE seedIfExists;
+
+-- Seed token_blacklist past its current AUTO_INCREMENT ids
+SET @tablename = 'token_blacklist';
+SET @preparedStatement = (SELECT IF(
+    (
+        SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES
+        WHERE
+            (TABLE_SCHEMA = @dbname)
+            AND (TABLE_NAME = @tablename)
+    ) > 0,
+    CONCAT('INSERT IGNORE INTO id_generator (sequence_name, next_val) SELECT ''', @tablename, ''', COALESCE(MAX(id), 0) + 50 FROM ', @tablename),
+    CONCAT('INSERT IGNORE INTO id_generator (sequence_name, next_val) VALUES (''', @tablename, ''', 1)')
+));
+PREPARE seedIfExists FROM @preparedStatement;
+EXECUTE seedIfExists;
+DEALLOCATE PREPARE seedIfExists;
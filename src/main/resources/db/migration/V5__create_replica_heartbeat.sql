@@ -0,0 +1,7 @@
+-- Heartbeat row stamped on the primary and read back from replicas to measure replication lag
+CREATE TABLE IF NOT EXISTS replica_heartbeat (
+    id INT NOT NULL PRIMARY KEY,
+    beat_at_ms BIGINT NOT NULL
+);
+
+INSERT IGNORE INTO replica_heartbeat (id, beat_at_ms) VALUES (1, 0);
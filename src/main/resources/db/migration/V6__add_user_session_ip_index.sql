@@ -0,0 +1,18 @@
+-- Supports revoking every session opened from one IP address
+SET @dbname = DATABASE();
+SET @tablename = 'user_session';
+SET @indexname = 'idx_user_session_ip_address';
+SET @preparedStatement = (SELECT IF(
+    (
+        SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS
+        WHERE
+            (TABLE_SCHEMA = @dbname)
+            AND (TABLE_NAME = @tablename)
+            AND (INDEX_NAME = @indexname)
+    ) > 0,
+    'SELECT 1',
+    'CREATE INDEX idx_user_session_ip_address ON user_session (ip_address)'
+));
+PREPARE createIndexIfNotExists FROM @preparedStatement;
+EXECUTE createIndexIfNotExists;
+DEALLOCATE PREPARE createIndexIfNotExists;
@@ -0,0 +1,18 @@
+-- Supports the locked-account gauge (COUNT of rows locked until a future time)
+SET @dbname = DATABASE();
+SET @tablename = '${user_table}';
+SET @indexname = 'idx_user_account_locked_until';
+SET @preparedStatement = (SELECT IF(
+    (
+        SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS
+        WHERE
+            (TABLE_SCHEMA = @dbname)
+            AND (TABLE_NAME = @tablename)
+            AND (INDEX_NAME = @indexname)
+    ) > 0,
+    'SELECT 1',
+    'CREATE INDEX idx_user_account_locked_until ON `${user_table}` (account_locked_until)'
+));
+PREPARE createIndexIfNotExists FROM @preparedStatement;
+EXECUTE createIndexIfNotExists;
+DEALLOCATE PREPARE createIndexIfNotExists;
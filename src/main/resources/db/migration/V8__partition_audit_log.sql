@@ -0,0 +1,41 @@
+-- Monthly RANGE partitions on audit_log.`timestamp`. MySQL requires the partitioning column in every
+-- unique key, so the primary key becomes (id, `timestamp`); ids stay unique via id_generator.
+-- Existing rows land in p_before. AuditPartitionMaintenanceService adds months ahead of time by
+-- splitting p_future and drops partitions older than app.audit.partitions.retention-months.
+SET @dbname = DATABASE();
+SET @partitioned = (
+    SELECT COUNT(*) FROM INFORMATION_SCHEMA.PARTITIONS
+    WHERE
+        (TABLE_SCHEMA = @dbname)
+        AND (TABLE_NAME = 'audit_log')
+        AND (PARTITION_NAME IS NOT NULL)
+);
+
+SET @preparedStatement = (SELECT IF(
+    @partitioned > 0,
+    'SELECT 1',
+    'ALTER TABLE audit_log DROP PRIMARY KEY, ADD PRIMARY KEY (id, `timestamp`)'
+));
+PREPARE partitionAuditLog FROM @preparedStatement;
+EXECUTE partitionAuditLog;
+DEALLOCATE PREPARE partitionAuditLog;
+
+SET @month0 = DATE_FORMAT(CURDATE(), '%Y-%m-01');
+SET @month1 = DATE_FORMAT(DATE_ADD(@month0, INTERVAL 1 MONTH), '%Y-%m-01');
+SET @month2 = DATE_FORMAT(DATE_ADD(@month0, INTERVAL 2 MONTH), '%Y-%m-01');
+SET @month3 = DATE_FORMAT(DATE_ADD(@month0, INTERVAL 3 MONTH), '%Y-%m-01');
+SET @preparedStatement = (SELECT IF(
+    @partitioned > 0,
+    'SELECT 1',
+    CONCAT(
+        'ALTER TABLE audit_log PARTITION BY RANGE COLUMNS(`timestamp`) (',
+        'PARTITION p_before VALUES LESS THAN (''', @month0, '''), ',
+        'PARTITION p', DATE_FORMAT(@month0, '%Y%m'), ' VALUES LESS THAN (''', @month1, '''), ',
+        'PARTITION p', DATE_FORMAT(@month1, '%Y%m'), ' VALUES LESS THAN (''', @month2, '''), ',
+        'PARTITION p', DATE_FORMAT(@month2, '%Y%m'), ' VALUES LESS THAN (''', @month3, '''), ',
+        'PARTITION p_future VALUES LESS THAN (MAXVALUE))'
+    )
+));
+PREPARE partitionAuditLog FROM @preparedStatement;
+EXECUTE partitionAuditLog;
+DEALLOCATE PREPARE partitionAuditLog;
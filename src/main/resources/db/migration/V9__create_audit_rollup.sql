@@ -0,0 +1,12 @@
+-- Hourly audit event counters, upserted by the audit pipeline in the same transaction as the raw rows.
+-- user_id 0 holds the all-users total for the hour; other rows count a single user.
+CREATE TABLE IF NOT EXISTS audit_rollup_hourly (
+    user_id INT NOT NULL,
+    action VARCHAR(100) NOT NULL,
+    bucket_hour DATETIME(6) NOT NULL,
+    success BIT NOT NULL,
+    event_count BIGINT NOT NULL,
+    PRIMARY KEY (user_id, action, bucket_hour, success),
+    INDEX idx_audit_rollup_user_hour (user_id, bucket_hour),
+    INDEX idx_audit_rollup_hour (bucket_hour)
+);
@@ -0,0 +1,107 @@
+package com.siyamuddin.blog.blogappapis.Config;
+
+import com.siyamuddin.blog.blogappapis.Config.Properties.DataSourceRoutingProperties;
+import com.siyamuddin.blog.blogappapis.Config.Routing.ReplicaLagMonitor;
+import com.siyamuddin.blog.blogappapis.Config.Routing.RoutingPools;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataSourceRoutingConfigTest {
+
+    private final DataSourceRoutingConfig config = new DataSourceRoutingConfig();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RoutingPools pools;
+    private ReplicaLagMonitor monitor;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        DataSourceRoutingProperties props = new DataSourceRoutingProperties();
+        props.getPrimary().setUrl("jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1");
+        props.getPrimary().setUsername("sa");
+        DataSourceRoutingProperties.Pool replica = new DataSourceRoutingProperties.Pool();
+        replica.setUrl("jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1");
+        replica.setUsername("sa");
+        props.getReplicas().add(replica);
+        props.setMaxReplicaLag(Duration.ofSeconds(5));
+
+        pools = config.routingPools(props, meterRegistry);
+        initDatabase(pools.getPrimary(), "primary");
+        initDatabase(pools.getReplicas().get("replica-1"), "replica");
+
+        monitor = config.replicaLagMonitor(pools, props, meterRegistry);
+        DataSource dataSource = config.dataSource(pools, monitor, meterRegistry);
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager txManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(txManager);
+        readOnly = new TransactionTemplate(txManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(pools.getPrimary()).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(pools.getReplicas().get("replica-1")).execute("DROP ALL OBJECTS");
+        pools.close();
+    }
+
+    @Test
+    void readOnlyTransaction_withHealthyReplica_routesToReplica() {
+        setReplicaHeartbeat(System.currentTimeMillis());
+        monitor.checkLag();
+
+        assertThat(readOnly.<String>execute(status -> whoAmI())).isEqualTo("replica");
+        assertThat(readWrite.<String>execute(status -> whoAmI())).isEqualTo("primary");
+        assertThat(meterRegistry.counter("app.datasource.route", "route", "replica-1").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void readOnlyTransaction_withLaggingReplica_fallsBackToPrimary() {
+        setReplicaHeartbeat(System.currentTimeMillis() - Duration.ofMinutes(1).toMillis());
+        monitor.checkLag();
+
+        assertThat(monitor.isHealthy("replica-1")).isFalse();
+        assertThat(readOnly.<String>execute(status -> whoAmI())).isEqualTo("primary");
+        assertThat(meterRegistry.counter("app.datasource.route.fallback").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void checkLag_stampsHeartbeatOnPrimary() {
+        monitor.checkLag();
+
+        Long beat = new JdbcTemplate(pools.getPrimary())
+                .queryForObject("SELECT beat_at_ms FROM replica_heartbeat WHERE id = 1", Long.class);
+        assertThat(beat).isGreaterThan(0L);
+    }
+
+    private String whoAmI() {
+        return jdbc.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private void setReplicaHeartbeat(long epochMillis) {
+        new JdbcTemplate(pools.getReplicas().get("replica-1"))
+                .update("UPDATE replica_heartbeat SET beat_at_ms = ? WHERE id = 1", epochMillis);
+    }
+
+    private static void initDatabase(DataSource dataSource, String name) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE node (name VARCHAR(20))");
+        template.update("INSERT INTO node (name) VALUES (?)", name);
+        template.execute("CREATE TABLE replica_heartbeat (id INT PRIMARY KEY, beat_at_ms BIGINT NOT NULL)");
+        template.update("INSERT INTO replica_heartbeat (id, beat_at_ms) VALUES (1, 0)");
+    }
+}
@@ -0,0 +1,114 @@
+package com.siyamuddin.blog.blogappapis.Config;
+
+import com.siyamuddin.blog.blogappapis.Config.Properties.ExecutorProperties;
+import com.siyamuddin.blog.blogappapis.Config.Properties.ExecutorProperties.Rejection;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExecutorConfigTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ThreadPoolTaskExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void abort_whenSaturated_throwsAndCountsRejection() throws Exception {
+        executor = saturated(Rejection.ABORT);
+
+        assertThatThrownBy(() -> executor.execute(() -> { }))
+                .isInstanceOf(TaskRejectedException.class);
+        assertThat(rejected()).isEqualTo(1.0);
+    }
+
+    @Test
+    void callerRuns_whenSaturated_runsOnSubmittingThread() throws Exception {
+        executor = saturated(Rejection.CALLER_RUNS);
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+
+        executor.execute(() -> ranOn.set(Thread.currentThread()));
+
+        assertThat(ranOn.get()).isSameAs(Thread.currentThread());
+        assertThat(rejected()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("app.executor.task").tag("name", "test").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void completedTask_recordsQueueWaitAndRunTime() throws Exception {
+        executor = ExecutorConfig.executor("test", "test-", new ExecutorProperties.Pool(1, 1, 4, Rejection.ABORT),
+                new ExecutorProperties(), meterRegistry, false);
+        executor.initialize();
+        CountDownLatch done = new CountDownLatch(1);
+
+        executor.execute(done::countDown);
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+        assertThat(meterRegistry.get("app.executor.queue.wait").tag("name", "test").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("app.executor.task").tag("name", "test").timer().count()).isEqualTo(1);
+        assertThat(rejected()).isZero();
+    }
+
+    @Test
+    void task_seesSubmitterMdc_andLeavesWorkerClean() throws Exception {
+        executor = ExecutorConfig.executor("test", "test-", new ExecutorProperties.Pool(1, 1, 4, Rejection.ABORT),
+                new ExecutorProperties(), meterRegistry, false);
+        executor.initialize();
+        AtomicReference<String> seen = new AtomicReference<>();
+        AtomicReference<Map<String, String>> after = new AtomicReference<>();
+
+        MDC.put("requestId", "req-1");
+        try {
+            executor.submit(() -> seen.set(MDC.get("requestId"))).get(5, TimeUnit.SECONDS);
+        } finally {
+            MDC.remove("requestId");
+        }
+        executor.submit(() -> after.set(MDC.getCopyOfContextMap())).get(5, TimeUnit.SECONDS);
+
+        assertThat(seen.get()).isEqualTo("req-1");
+        assertThat(after.get()).isNullOrEmpty();
+    }
+
+    /**
+     * One thread, no queue, and that thread blocked until teardown.
+     */
+    private ThreadPoolTaskExecutor saturated(Rejection rejection) throws InterruptedException {
+        ThreadPoolTaskExecutor pool = ExecutorConfig.executor("test", "test-", new ExecutorProperties.Pool(1, 1, 0, rejection),
+                new ExecutorProperties(), meterRegistry, false);
+        pool.setAwaitTerminationSeconds(0);
+        pool.initialize();
+        CountDownLatch started = new CountDownLatch(1);
+        pool.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        return pool;
+    }
+
+    private double rejected() {
+        return meterRegistry.get("app.executor.rejected").tag("name", "test").counter().count();
+    }
+}
@@ -18,7 +18,7 @@ class FileStorageConfigTest {
         props.setMode(FileStorageProperties.StorageMode.LOCAL);
         props.getLocal().setBasePath("uploads-test");
 
-        FileStorageService service = config.fileStorageService(props);
+        FileStorageService service = config.fileStorageService(props, Runnable::run);
 
         assertThat(service).isInstanceOf(LocalFileStorageService.class);
     }
@@ -32,7 +32,7 @@ class FileStorageConfigTest {
         props.getS3().setAccessKey("dummy");
         props.getS3().setSecretKey("dummy-secret");
 
-        FileStorageService service = config.fileStorageService(props);
+        FileStorageService service = config.fileStorageService(props, Runnable::run);
 
         assertThat(service).isInstanceOf(S3FileStorageService.class);
     }
@@ -0,0 +1,50 @@
+package com.siyamuddin.blog.blogappapis.Config;
+
+import com.siyamuddin.blog.blogappapis.Config.Properties.SecurityProperties;
+import com.siyamuddin.blog.blogappapis.Repository.UserSessionRepo;
+import com.siyamuddin.blog.blogappapis.Services.ActivityWriteBehindService;
+import com.siyamuddin.blog.blogappapis.Services.Session.JpaSessionStore;
+import com.siyamuddin.blog.blogappapis.Services.Session.RedisSessionStore;
+import com.siyamuddin.blog.blogappapis.Services.Session.SessionStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SessionStoreConfigTest {
+
+    private final SessionStoreConfig config = new SessionStoreConfig();
+
+    @Test
+    void sessionStore_withJpa_returnsJpaImplementation() {
+        SecurityProperties props = new SecurityProperties();
+        props.setSessionStore(SecurityProperties.SessionStoreType.JPA);
+
+        SessionStore store = config.sessionStore(props, mock(UserSessionRepo.class),
+                mock(ActivityWriteBehindService.class), redisTemplate());
+
+        assertThat(store).isInstanceOf(JpaSessionStore.class);
+    }
+
+    @Test
+    void sessionStore_withRedis_returnsRedisImplementation() {
+        SecurityProperties props = new SecurityProperties();
+        props.setSessionStore(SecurityProperties.SessionStoreType.REDIS);
+
+        SessionStore store = config.sessionStore(props, mock(UserSessionRepo.class),
+                mock(ActivityWriteBehindService.class), redisTemplate());
+
+        assertThat(store).isInstanceOf(RedisSessionStore.class);
+    }
+
+    private static ObjectProvider<StringRedisTemplate> redisTemplate() {
+        @SuppressWarnings("unchecked")
+        ObjectProvider<StringRedisTemplate> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(new StringRedisTemplate(mock(RedisConnectionFactory.class)));
+        return provider;
+    }
+}
@@ -0,0 +1,90 @@
+package com.siyamuddin.blog.blogappapis.Config;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.embedded.TomcatVirtualThreadsWebServerFactoryCustomizer;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Requests per second for an I/O-bound endpoint on Tomcat's platform-thread pool versus virtual
+ * threads (spring.threads.virtual.enabled). Each request blocks for {@link #IO_MILLIS}, standing in
+ * for a JDBC, SMTP or S3 call. Excluded from the default build; run with
+ * {@code mvn -Pbenchmark test}, and with {@code -Pjava21} on a Java 21 JDK to include virtual threads.
+ */
+@Tag("benchmark")
+class VirtualThreadLoadBenchmarkTest {
+
+    private static final int REQUESTS = 2_000;
+    private static final long IO_MILLIS = 200;
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        double platform = run("platform", new TomcatServletWebServerFactory(0));
+        // Each blocked request holds one of max-threads pool threads
+        assertThat(platform).isGreaterThanOrEqualTo((double) REQUESTS / TOMCAT_MAX_THREADS * IO_MILLIS / 1000);
+
+        assumeTrue(Runtime.version().feature() >= 21, "virtual threads need Java 21");
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        new TomcatVirtualThreadsWebServerFactoryCustomizer().customize(factory);
+        double virtual = run("virtual", factory);
+
+        System.out.printf("virtual threads: %.1fx the platform-thread throughput%n", platform / virtual);
+        assertThat(virtual).isLessThan(platform);
+    }
+
+    private double run(String mode, TomcatServletWebServerFactory factory) throws Exception {
+        WebServer server = factory.getWebServer(context ->
+                context.addServlet("io", new BlockingServlet()).addMapping("/io"));
+        server.start();
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/io")).build();
+            // Warm up connection handling and the JIT before timing
+            client.send(request, HttpResponse.BodyHandlers.discarding());
+
+            long started = System.nanoTime();
+            List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(REQUESTS);
+            for (int i = 0; i < REQUESTS; i++) {
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+            }
+            for (CompletableFuture<HttpResponse<Void>> response : responses) {
+                assertThat(response.join().statusCode()).isEqualTo(200);
+            }
+            double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+            System.out.printf("%s threads: %d requests in %.3fs (%.0f req/s)%n",
+                    mode, REQUESTS, seconds, REQUESTS / seconds);
+            return seconds;
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static class BlockingServlet extends HttpServlet {
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            try {
+                Thread.sleep(IO_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            response.getWriter().write("ok");
+        }
+    }
+}
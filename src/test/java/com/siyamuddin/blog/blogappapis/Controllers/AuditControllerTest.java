@@ -0,0 +1,88 @@
+package com.siyamuddin.blog.blogappapis.Controllers;
+
+import com.siyamuddin.blog.blogappapis.Config.Properties.AuditExportProperties;
+import com.siyamuddin.blog.blogappapis.Services.Audit.AuditExportFilter;
+import com.siyamuddin.blog.blogappapis.Services.Audit.AuditExportFormat;
+import com.siyamuddin.blog.blogappapis.Services.Audit.AuditExportService;
+import com.siyamuddin.blog.blogappapis.Services.Audit.AuditRollupService;
+import com.siyamuddin.blog.blogappapis.Services.AuditService;
+import com.siyamuddin.blog.blogappapis.Services.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class AuditControllerTest {
+
+    @Mock
+    private AuditExportService auditExportService;
+    @Mock
+    private AuditRollupService auditRollupService;
+    @Mock
+    private AuditService auditService;
+    @Mock
+    private UserService userService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        AuditExportProperties properties = new AuditExportProperties();
+        properties.setRequestTimeout(Duration.ofMinutes(90));
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                new AuditController(auditExportService, properties, auditRollupService, auditService, userService))
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("admin@test.com", "password"));
+    }
+
+    @AfterEach
+    void cleanSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void export_streamsWithItsOwnTimeout() throws Exception {
+        when(auditExportService.export(any(AuditExportFilter.class), eq(AuditExportFormat.NDJSON), any(OutputStream.class)))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(2, OutputStream.class).write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+
+        MvcResult started = mockMvc.perform(get("/api/v1/audit/export")
+                        .param("from", "2026-01-01T00:00:00")
+                        .param("to", "2026-02-01T00:00:00"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(started.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofMinutes(90).toMillis());
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"audit-20260101T000000-20260201T000000.ndjson\""))
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+}
@@ -1,7 +1,10 @@
 package com.siyamuddin.blog.blogappapis.Controllers;
 
 import com.siyamuddin.blog.blogappapis.Config.MetricsConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.siyamuddin.blog.blogappapis.Entity.User;
+import com.siyamuddin.blog.blogappapis.Payloads.ApiResponse;
+import com.siyamuddin.blog.blogappapis.Payloads.SessionRevocationRequest;
 import com.siyamuddin.blog.blogappapis.Payloads.UserPayload.UserDto;
 import com.siyamuddin.blog.blogappapis.Services.AuditService;
 import com.siyamuddin.blog.blogappapis.Services.PasswordValidationService;
@@ -23,7 +26,9 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -102,5 +107,18 @@ class UserControllerTest {
         verify(userProfilePhotoService).uploadProfilePhoto(42, file);
         verify(auditService).logUserAction(user, "PROFILE_PHOTO_UPDATED", "USER", 42);
     }
-}
 
+    @Test
+    void bulkRevokeSessions_ipOnlyBodyWithNullUserIds_revokesByIp() throws Exception {
+        SessionRevocationRequest request = new ObjectMapper().readValue(
+                "{\"userIds\": null, \"ipAddress\": \"1.2.3.4\"}", SessionRevocationRequest.class);
+        when(sessionService.invalidateSessionsByIp("1.2.3.4")).thenReturn(3);
+
+        ResponseEntity<ApiResponse> response = userController.bulkRevokeSessions(request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getMessage()).isEqualTo("3 sessions and 0 refresh tokens revoked");
+        verify(sessionService, never()).invalidateSessionsForUsers(anyList());
+        verify(sessionService, never()).revokeRefreshTokensForUsers(anyList());
+    }
+}
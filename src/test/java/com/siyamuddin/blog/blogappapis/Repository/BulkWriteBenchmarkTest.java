@@ -0,0 +1,117 @@
+package com.siyamuddin.blog.blogappapis.Repository;
+
+import com.siyamuddin.blog.blogappapis.Entity.AuditLog;
+import com.siyamuddin.blog.blogappapis.Entity.User;
+import com.siyamuddin.blog.blogappapis.Entity.UserSession;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rows-per-second for bulk audit and session writes. Excluded from the default build;
+ * run with {@code mvn -Pbenchmark test}. Point spring.datasource.* at MySQL to measure
+ * the effect of rewriteBatchedStatements.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:benchdb;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.flyway.enabled=false"
+})
+class BulkWriteBenchmarkTest {
+
+    private static final int ROWS = 10_000;
+    private static final int CHUNK = 500;
+
+    @Autowired
+    private AuditLogRepo auditLogRepo;
+
+    @Autowired
+    private UserSessionRepo sessionRepo;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void bulkAuditWrites() {
+        long started = System.nanoTime();
+        for (int written = 0; written < ROWS; written += CHUNK) {
+            List<AuditLog> chunk = new ArrayList<>(CHUNK);
+            for (int i = 0; i < CHUNK; i++) {
+                AuditLog auditLog = new AuditLog();
+                auditLog.setUserId(1);
+                auditLog.setAction("BENCHMARK");
+                auditLog.setResourceType("USER");
+                auditLog.setIpAddress("127.0.0.1");
+                chunk.add(auditLog);
+            }
+            transactionTemplate.executeWithoutResult(status -> auditLogRepo.saveAll(chunk));
+        }
+        report("audit_log", started);
+    }
+
+    @Test
+    void bulkSessionWrites() {
+        User user = transactionTemplate.execute(status -> {
+            User u = new User();
+            u.setName("bench");
+            u.setEmail("bench-" + UUID.randomUUID() + "@example.com");
+            u.setPassword("x");
+            return userRepo.save(u);
+        });
+
+        long started = System.nanoTime();
+        for (int written = 0; written < ROWS; written += CHUNK) {
+            List<UserSession> chunk = new ArrayList<>(CHUNK);
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < CHUNK; i++) {
+                UserSession session = new UserSession();
+                session.setUser(user);
+                session.setIpAddress("127.0.0.1");
+                session.setLoginTime(now);
+                session.setLastActivity(now);
+                session.setExpiresAt(now.plusMinutes(30));
+                chunk.add(session);
+            }
+            transactionTemplate.executeWithoutResult(status -> sessionRepo.saveAll(chunk));
+        }
+        report("user_session", started);
+    }
+
+    private void report(String table, long startedNanos) {
+        double seconds = (System.nanoTime() - startedNanos) / 1_000_000_000.0;
+        long statements = statistics.getPrepareStatementCount();
+        System.out.printf("%s: %d rows in %.3fs (%.0f rows/s), %d prepared statements%n",
+                table, ROWS, seconds, ROWS / seconds, statements);
+        // One statement per batch plus one id-block fetch per allocationSize rows, not one per row
+        assertThat(statements).isLessThan(ROWS / 10);
+    }
+}
@@ -0,0 +1,232 @@
+package com.siyamuddin.blog.blogappapis.Repository;
+
+import com.siyamuddin.blog.blogappapis.Entity.OneTimeTokenPurpose;
+import com.siyamuddin.blog.blogappapis.Entity.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every custom repository query, EXPLAINs the SQL Hibernate generated for it and fails
+ * when H2 plans a full table scan. Indexes come from the entity {@code @Index} mappings, which
+ * mirror the Flyway baseline. H2 runs in MySQL mode so native queries parse as they do on MySQL.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:queryplan;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.siyamuddin.blog.blogappapis.Repository.RepositoryQueryPlanTest$SqlCaptor"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class RepositoryQueryPlanTest {
+
+    /**
+     * Queries that scan by design; anything else that scans is a missing index.
+     */
+    private static final Map<String, String> EXPECTED_SCANS = Map.of(
+            "where u1_0.name like", "UserRepo.findByNameContaining: infix LIKE cannot use a b-tree index"
+    );
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private AuditLogRepo auditLogRepo;
+
+    @Autowired
+    private AuditRollupRepo auditRollupRepo;
+
+    @Autowired
+    private EmailOutboxRepo emailOutboxRepo;
+
+    @Autowired
+    private UserSessionRepo userSessionRepo;
+
+    @Autowired
+    private RefreshTokenRepo refreshTokenRepo;
+
+    @Autowired
+    private TokenBlacklistRepo tokenBlacklistRepo;
+
+    @Autowired
+    private OneTimeTokenRepo oneTimeTokenRepo;
+
+    @Autowired
+    private OAuthAccountRepo oAuthAccountRepo;
+
+    @Autowired
+    private AppBootstrapRepo appBootstrapRepo;
+
+    @Test
+    void repositoryQueries_useIndexes() {
+        User user = new User();
+        user.setName("Plan");
+        user.setEmail("plan@test.com");
+        user.setPassword("hash");
+        userRepo.saveAndFlush(user);
+        SqlCaptor.STATEMENTS.clear();
+
+        runRepositoryQueries(user);
+
+        Map<String, String> scans = new LinkedHashMap<>();
+        for (String sql : new LinkedHashSet<>(SqlCaptor.STATEMENTS)) {
+            if (sql.startsWith("insert") || isExpectedScan(sql)) {
+                continue;
+            }
+            String plan = explain(sql);
+            if (plan.contains("tableScan")) {
+                scans.put(sql, plan);
+            }
+        }
+        assertThat(scans).as("queries planned as full table scans").isEmpty();
+    }
+
+    private void runRepositoryQueries(User user) {
+        LocalDateTime now = LocalDateTime.now();
+        Date date = new Date();
+        PageRequest page = PageRequest.of(0, 10);
+
+        userRepo.findByEmail("plan@test.com");
+        userRepo.findByEmailWithRoles("plan@test.com");
+        userRepo.findByNameContaining("Pl");
+        userRepo.existsByIdIsNotNull();
+        userRepo.findContactByEmail("plan@test.com");
+        userRepo.findFailedLoginAttemptsByEmail("plan@test.com");
+        userRepo.countByAccountLockedUntilAfter(date);
+        userRepo.updateLastLogin(user.getId(), date);
+        userRepo.incrementFailedLoginAttempts("plan@test.com");
+        userRepo.resetFailedLoginAttempts("plan@test.com");
+        userRepo.lockAccount("plan@test.com", date);
+        userRepo.unlockAccount("plan@test.com");
+        userRepo.completePasswordReset(user.getId(), "hash");
+        userRepo.markEmailVerified(user.getId());
+        userRepo.setProfileImageVariants(user.getId(), "users/1/profile/photo.png", "64=users/1/profile/photo-64.jpg");
+
+        auditLogRepo.findByUserId(user.getId(), page);
+        auditLogRepo.findByAction("LOGIN_SUCCESS", page);
+        auditLogRepo.findByResourceTypeAndResourceId("USER", "1", page);
+        auditLogRepo.findByTimestampBetween(now.minusDays(1), now);
+        auditLogRepo.findUserActionsSince(user.getId(), now.minusDays(1));
+
+        auditRollupRepo.findHourly(0, now.minusDays(1), now);
+        auditRollupRepo.findHourlyForAction(0, "LOGIN_FAILED", now.minusDays(1), now);
+        auditRollupRepo.deleteHours(now.minusHours(1), now);
+
+        emailOutboxRepo.claim("token", now, now.plusMinutes(5), 10);
+        emailOutboxRepo.findByClaimToken("token");
+        emailOutboxRepo.markSent(List.of(1L), "token", now);
+        emailOutboxRepo.markRetry(1L, "token", now, "error");
+        emailOutboxRepo.markFailed(1L, "token", "error");
+        emailOutboxRepo.deleteSentBefore(now);
+
+        userSessionRepo.findBySessionId("session");
+        userSessionRepo.findByUserAndIsActiveTrue(user);
+        userSessionRepo.findByUser(user);
+        userSessionRepo.findActiveByUserId(user.getId(), now);
+        userSessionRepo.countByIsActiveTrueAndExpiresAtAfter(now);
+        userSessionRepo.deactivateBySessionId("session");
+        userSessionRepo.deactivateByUserId(user.getId());
+        userSessionRepo.deactivateByUserIdExcept(user.getId(), "session");
+        userSessionRepo.deactivateByIpAddress("127.0.0.1");
+        userSessionRepo.deactivateByUserIds(List.of(user.getId()));
+        userSessionRepo.deleteByExpiresAtBefore(now);
+        userSessionRepo.deleteByUser(user);
+
+        refreshTokenRepo.findByToken("token");
+        refreshTokenRepo.findByTokenAndIsRevokedFalse("token");
+        refreshTokenRepo.findByUser(user);
+        refreshTokenRepo.revokeAllUserTokens(user);
+        refreshTokenRepo.revokeAllForUserIds(List.of(user.getId()));
+        refreshTokenRepo.deleteExpiredOrRevokedTokens(now);
+
+        tokenBlacklistRepo.findByToken("token");
+        tokenBlacklistRepo.existsByToken("token");
+        tokenBlacklistRepo.deleteExpiredTokens(now);
+
+        oneTimeTokenRepo.findByHash("hash", OneTimeTokenPurpose.PASSWORD_RESET);
+        oneTimeTokenRepo.consume("hash", now);
+        oneTimeTokenRepo.deleteByUserAndPurpose(user.getId(), OneTimeTokenPurpose.EMAIL_VERIFICATION);
+        oneTimeTokenRepo.deleteExpired(now);
+
+        oAuthAccountRepo.link("google", "subject", user.getId(), now);
+        oAuthAccountRepo.findUserByProvider("google", "subject");
+        oAuthAccountRepo.findUserIdByProvider("google", "subject");
+        oAuthAccountRepo.findProviderIds(user.getId(), "google");
+        oAuthAccountRepo.unlink(user.getId(), "google");
+
+        appBootstrapRepo.claimFirstAdmin(1);
+        entityManager.flush();
+    }
+
+    private boolean isExpectedScan(String sql) {
+        String unquoted = sql.replace("\"", "");
+        return EXPECTED_SCANS.keySet().stream().anyMatch(unquoted::contains);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement ps = connection.prepareStatement("EXPLAIN " + sql)) {
+                bindSampleParameters(ps);
+                List<String> rows = new ArrayList<>();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        rows.add(rs.getString(1));
+                    }
+                }
+                return String.join("\n", rows);
+            }
+        });
+    }
+
+    private static void bindSampleParameters(PreparedStatement ps) throws SQLException {
+        ParameterMetaData metaData = ps.getParameterMetaData();
+        for (int i = 1; i <= metaData.getParameterCount(); i++) {
+            switch (metaData.getParameterType(i)) {
+                case Types.INTEGER, Types.BIGINT, Types.SMALLINT, Types.TINYINT -> ps.setLong(i, 1L);
+                case Types.BOOLEAN, Types.BIT -> ps.setBoolean(i, true);
+                case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE, Types.DATE ->
+                        ps.setTimestamp(i, Timestamp.valueOf(LocalDateTime.now()));
+                default -> ps.setString(i, "1");
+            }
+        }
+    }
+
+    public static class SqlCaptor implements StatementInspector {
+        static final Set<String> STATEMENTS = new LinkedHashSet<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.siyamuddin.blog.blogappapis.Repository;
+
+import com.siyamuddin.blog.blogappapis.Config.Properties.EmailOutboxProperties;
+import com.siyamuddin.blog.blogappapis.Config.Properties.EmailProperties;
+import com.siyamuddin.blog.blogappapis.Entity.EmailOutbox;
+import com.siyamuddin.blog.blogappapis.Entity.Role;
+import com.siyamuddin.blog.blogappapis.Entity.User;
+import com.siyamuddin.blog.blogappapis.Services.Email.EmailOutboxDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// H2 in MySQL mode, so the native outbox claim runs as on MySQL
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:l2cache;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RoleSecondLevelCacheTest {
+
+    @Autowired
+    private RoleRepo roleRepo;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private EmailOutboxRepo emailOutboxRepo;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+    private Statistics statistics;
+    private Integer userId;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        userId = tx.execute(status -> {
+            Role normal = roleRepo.findById(2).orElseGet(() -> {
+                Role role = new Role();
+                role.setId(2);
+                role.setName("ROLE_NORMAL");
+                return roleRepo.save(role);
+            });
+            User user = new User();
+            user.setName("cached");
+            user.setEmail("cached-" + System.nanoTime() + "@example.com");
+            user.setPassword("x");
+            user.getRoles().add(normal);
+            return userRepo.save(user).getId();
+        });
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void roleLookup_whenWarm_issuesNoSql() {
+        tx.executeWithoutResult(status -> roleRepo.findById(2));
+        statistics.clear();
+
+        Role role = tx.execute(status -> roleRepo.findById(2).orElseThrow());
+
+        assertThat(role.getName()).isEqualTo("ROLE_NORMAL");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getDomainDataRegionStatistics("role").getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void userRoles_whenWarm_loadWithoutRoleQueries() {
+        tx.executeWithoutResult(status -> userRepo.findById(userId).orElseThrow().getRoles().size());
+        statistics.clear();
+
+        int roleCount = tx.execute(status -> userRepo.findById(userId).orElseThrow().getRoles().size());
+
+        assertThat(roleCount).isEqualTo(1);
+        // Only the user row itself is selected; the collection and its roles come from the cache
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics("user_roles").getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void outboxDispatch_leavesRoleRegionWarm() {
+        tx.executeWithoutResult(status -> roleRepo.findById(2));
+        EmailOutbox email = new EmailOutbox();
+        email.setRecipient("cached@example.com");
+        email.setSubject("Hi");
+        email.setBody("Body");
+        emailOutboxRepo.save(email);
+
+        assertThat(outboxDispatcher().dispatchOnce()).isEqualTo(1);
+
+        // The native claim UPDATE must not evict unrelated regions
+        assertThat(entityManagerFactory.getCache().contains(Role.class, 2)).isTrue();
+        statistics.clear();
+        tx.executeWithoutResult(status -> roleRepo.findById(2));
+        assertThat(statistics.getDomainDataRegionStatistics("role").getHitCount()).isEqualTo(1);
+    }
+
+    private EmailOutboxDispatcher outboxDispatcher() {
+        @SuppressWarnings("unchecked")
+        ObjectProvider<JavaMailSender> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(mock(JavaMailSender.class));
+        return new EmailOutboxDispatcher(emailOutboxRepo, provider, new EmailProperties(),
+                new EmailOutboxProperties(), transactionManager, new SimpleMeterRegistry(), Runnable::run);
+    }
+}
@@ -2,6 +2,7 @@ package com.siyamuddin.blog.blogappapis.Services;
 
 import com.siyamuddin.blog.blogappapis.Config.Properties.SecurityProperties;
 import com.siyamuddin.blog.blogappapis.Entity.User;
+import com.siyamuddin.blog.blogappapis.Exceptions.ResourceNotFoundException;
 import com.siyamuddin.blog.blogappapis.Repository.UserRepo;
 import com.siyamuddin.blog.blogappapis.Services.Impl.AccountSecurityServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,9 +13,10 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.Date;
 import java.util.Optional;
 
-import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -53,27 +55,40 @@ class AccountSecurityServiceImplTest {
 
     @Test
     void incrementFailedLoginAttemptsShouldLockAccountAfterThreshold() {
-        when(userRepo.findByEmail(testUser.getEmail())).thenReturn(Optional.of(testUser));
-        when(userRepo.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        UserRepo.UserContact contact = mock(UserRepo.UserContact.class);
+        when(contact.getEmail()).thenReturn(testUser.getEmail());
+        when(contact.getName()).thenReturn(testUser.getName());
+        when(userRepo.incrementFailedLoginAttempts(testUser.getEmail())).thenReturn(1);
+        when(userRepo.findFailedLoginAttemptsByEmail(testUser.getEmail()))
+                .thenReturn(Optional.of(1), Optional.of(2));
+        when(userRepo.lockAccount(eq(testUser.getEmail()), any(Date.class))).thenReturn(1);
+        when(userRepo.findContactByEmail(testUser.getEmail())).thenReturn(Optional.of(contact));
 
         accountSecurityService.incrementFailedLoginAttempts(testUser.getEmail());
         accountSecurityService.incrementFailedLoginAttempts(testUser.getEmail());
 
-        verify(userRepo, atLeastOnce()).save(testUser);
-        assertThat(testUser.getAccountLockedUntil()).isNotNull();
+        verify(userRepo, times(1)).lockAccount(eq(testUser.getEmail()), any(Date.class));
+        verify(userRepo, never()).save(any(User.class));
         verify(emailService, times(1))
                 .sendAccountLockedEmail(eq(testUser.getEmail()), anyString(), eq(30));
     }
 
     @Test
     void resetFailedLoginAttemptsShouldSetCounterToZero() {
-        testUser.setFailedLoginAttempts(5);
-        when(userRepo.findByEmail(testUser.getEmail())).thenReturn(Optional.of(testUser));
+        when(userRepo.resetFailedLoginAttempts(testUser.getEmail())).thenReturn(1);
 
         accountSecurityService.resetFailedLoginAttempts(testUser.getEmail());
 
-        assertThat(testUser.getFailedLoginAttempts()).isZero();
-        verify(userRepo).save(testUser);
+        verify(userRepo).resetFailedLoginAttempts(testUser.getEmail());
+        verify(userRepo, never()).findByEmail(anyString());
+        verify(userRepo, never()).save(any(User.class));
     }
-}
 
+    @Test
+    void resetFailedLoginAttemptsShouldFailForUnknownEmail() {
+        when(userRepo.resetFailedLoginAttempts("missing@test.com")).thenReturn(0);
+
+        assertThatThrownBy(() -> accountSecurityService.resetFailedLoginAttempts("missing@test.com"))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+}
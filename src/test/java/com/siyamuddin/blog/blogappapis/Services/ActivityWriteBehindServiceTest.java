@@ -0,0 +1,131 @@
+package com.siyamuddin.blog.blogappapis.Services;
+
+import com.siyamuddin.blog.blogappapis.Config.Properties.ActivityBufferProperties;
+import com.siyamuddin.blog.blogappapis.Config.Properties.SecurityProperties;
+import com.siyamuddin.blog.blogappapis.Entity.User;
+import com.siyamuddin.blog.blogappapis.Entity.UserSession;
+import com.siyamuddin.blog.blogappapis.Repository.UserRepo;
+import com.siyamuddin.blog.blogappapis.Repository.UserSessionRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// H2 in MySQL mode with lower-case identifiers, so the buffer's plain SQL resolves like on MySQL
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:activitydb;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ActivityWriteBehindServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private UserSessionRepo sessionRepo;
+
+    private ActivityWriteBehindService buffer;
+    private User user;
+    private UserSession session;
+    private LocalDateTime storedActivity;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new ActivityWriteBehindService(jdbcTemplate, transactionManager, new ActivityBufferProperties(),
+                new SecurityProperties(), new SimpleMeterRegistry());
+
+        user = new User();
+        user.setName("Active");
+        user.setEmail("active@test.com");
+        user.setPassword("hash");
+        userRepo.saveAndFlush(user);
+
+        storedActivity = LocalDateTime.now().minusMinutes(5).truncatedTo(ChronoUnit.MILLIS);
+        session = new UserSession();
+        session.setUser(user);
+        session.setLoginTime(storedActivity);
+        session.setLastActivity(storedActivity);
+        session.setExpiresAt(storedActivity.plusMinutes(30));
+        sessionRepo.saveAndFlush(session);
+    }
+
+    @Test
+    void activityWithinDriftThreshold_isNotWritten() {
+        buffer.recordSessionActivity(session.getSessionId(), storedActivity, storedActivity.plusSeconds(30),
+                storedActivity.plusMinutes(31));
+
+        assertThat(buffer.pendingSessionActivity(session.getSessionId())).isEmpty();
+    }
+
+    @Test
+    void driftedActivity_isWrittenOnFlush() {
+        LocalDateTime now = storedActivity.plusMinutes(5);
+        buffer.recordSessionActivity(session.getSessionId(), storedActivity, now.minusSeconds(1), now.plusMinutes(29));
+        buffer.recordSessionActivity(session.getSessionId(), storedActivity, now, now.plusMinutes(30));
+
+        assertThat(buffer.pendingSessionActivity(session.getSessionId()))
+                .hasValueSatisfying(pending -> assertThat(pending.lastActivity()).isEqualTo(now));
+        assertThat(storedLastActivity()).isEqualTo(storedActivity);
+
+        buffer.flush();
+
+        assertThat(buffer.pendingSessionActivity(session.getSessionId())).isEmpty();
+        assertThat(storedLastActivity()).isEqualTo(now);
+    }
+
+    @Test
+    void flush_neverMovesActivityBackwards() {
+        LocalDateTime older = storedActivity.minusMinutes(10);
+        buffer.recordSessionActivity(session.getSessionId(), null, older, older.plusMinutes(30));
+
+        buffer.flush();
+
+        assertThat(storedLastActivity()).isEqualTo(storedActivity);
+    }
+
+    @Test
+    void driftedLogin_isWrittenOnFlush() {
+        Date now = new Date();
+        buffer.recordLogin(user.getId(), null, now);
+
+        buffer.flush();
+
+        Timestamp stored = jdbcTemplate.queryForObject(
+                "SELECT last_login_date FROM `user` WHERE id = ?", Timestamp.class, user.getId());
+        assertThat(stored.getTime()).isEqualTo(now.getTime());
+    }
+
+    @Test
+    void stalenessBoundMustStayBelowSessionTimeout() {
+        SecurityProperties securityProperties = new SecurityProperties();
+        securityProperties.setSessionTimeoutMinutes(1);
+
+        assertThatThrownBy(() -> new ActivityWriteBehindService(jdbcTemplate, transactionManager,
+                new ActivityBufferProperties(), securityProperties, new SimpleMeterRegistry()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private LocalDateTime storedLastActivity() {
+        return jdbcTemplate.queryForObject("SELECT last_activity FROM user_session WHERE session_id = ?",
+                Timestamp.class, session.getSessionId()).toLocalDateTime();
+    }
+}
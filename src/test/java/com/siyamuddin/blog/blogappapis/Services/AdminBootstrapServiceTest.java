@@ -0,0 +1,84 @@
+package com.siyamuddin.blog.blogappapis.Services;
+
+import com.siyamuddin.blog.blogappapis.Entity.AppBootstrap;
+import com.siyamuddin.blog.blogappapis.Repository.AppBootstrapRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Creating the bootstrap marker must not fail the node that loses a concurrent insert, and a
+ * sign-up that finds no marker must not close the first-admin slot.
+ */
+@DataJpaTest(properties = "spring.flyway.enabled=false")
+@Import(AdminBootstrapService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AdminBootstrapServiceTest {
+
+    @Autowired
+    private AdminBootstrapService adminBootstrapService;
+
+    @Autowired
+    private AppBootstrapRepo appBootstrapRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        appBootstrapRepo.deleteAll();
+    }
+
+    @Test
+    void ensureMarker_onEmptyInstall_letsFirstSignUpClaimAdmin() {
+        adminBootstrapService.ensureMarker();
+
+        assertThat(appBootstrapRepo.findById(AdminBootstrapService.MARKER_ID))
+                .hasValueSatisfying(marker -> assertThat(marker.getAdminAssigned()).isFalse());
+        assertThat(claimFirstAdmin()).isTrue();
+        assertThat(claimFirstAdmin()).isFalse();
+    }
+
+    @Test
+    void ensureMarker_afterLosingInsertRace_keepsWinnersValue() {
+        // The other node's marker, committed between this node's read and insert
+        tx.executeWithoutResult(status -> appBootstrapRepo.insertMarker(AdminBootstrapService.MARKER_ID, true));
+        assertThatThrownBy(() -> tx.executeWithoutResult(status ->
+                appBootstrapRepo.insertMarker(AdminBootstrapService.MARKER_ID, false)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        adminBootstrapService.ensureMarker();
+
+        AppBootstrap marker = appBootstrapRepo.findById(AdminBootstrapService.MARKER_ID).orElseThrow();
+        assertThat(marker.getAdminAssigned()).isTrue();
+        assertThat(claimFirstAdmin()).isFalse();
+    }
+
+    @Test
+    void claimFirstAdmin_beforeMarkerExists_keepsSlotOpen() {
+        adminBootstrapService.ensureMarker();
+        appBootstrapRepo.deleteAll();
+
+        assertThat(claimFirstAdmin()).isFalse();
+
+        tx.executeWithoutResult(status -> appBootstrapRepo.insertMarker(AdminBootstrapService.MARKER_ID, false));
+        assertThat(claimFirstAdmin()).isTrue();
+    }
+
+    private boolean claimFirstAdmin() {
+        return Boolean.TRUE.equals(tx.execute(status -> adminBootstrapService.claimFirstAdmin()));
+    }
+}
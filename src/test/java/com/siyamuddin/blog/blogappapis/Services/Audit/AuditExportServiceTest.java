@@ -0,0 +1,102 @@
+package com.siyamuddin.blog.blogappapis.Services.Audit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuditExportServiceTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 3, 1, 0, 0);
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private HikariDataSource pool;
+    private AuditExportService service;
+
+    @BeforeEach
+    void setUp() {
+        pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:auditexport;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        pool.setUsername("sa");
+        JdbcTemplate jdbc = new JdbcTemplate(pool);
+        jdbc.execute("CREATE TABLE audit_log (id BIGINT PRIMARY KEY, user_id INT, action VARCHAR(100) NOT NULL, " +
+                "resource_type VARCHAR(100), resource_id VARCHAR(255), ip_address VARCHAR(45), " +
+                "user_agent VARCHAR(500), `timestamp` TIMESTAMP NOT NULL, success BOOLEAN NOT NULL, " +
+                "error_message VARCHAR(1000))");
+        insert(jdbc, 1, 7, "LOGIN_SUCCESS", DAY.plusHours(1), true, null);
+        insert(jdbc, 2, 7, "LOGIN_FAILURE", DAY.plusHours(2), false, "bad \"password\", twice");
+        insert(jdbc, 3, null, "LOGIN_SUCCESS", DAY.plusHours(3), true, null);
+        insert(jdbc, 4, 7, "LOGIN_SUCCESS", DAY.plusDays(1), true, null);
+        service = new AuditExportService(pool, 2, objectMapper, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(pool).execute("DROP ALL OBJECTS");
+        service.close();
+    }
+
+    @Test
+    void export_ndjson_streamsRowsInRangeOldestFirst() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = service.export(new AuditExportFilter(DAY, DAY.plusDays(1), null, null, null, null),
+                AuditExportFormat.NDJSON, out);
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        assertThat(rows).isEqualTo(3);
+        assertThat(lines).extracting(node -> node.get("id").asLong()).containsExactly(1L, 2L, 3L);
+        assertThat(lines.get(2).get("userId").isNull()).isTrue();
+        assertThat(lines.get(1).get("errorMessage").asText()).isEqualTo("bad \"password\", twice");
+        assertThat(meterRegistry.get("app.audit.export.rows").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void export_csv_appliesFiltersAndEscapesFields() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = service.export(new AuditExportFilter(DAY, DAY.plusDays(2), 7, null, null, false),
+                AuditExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertThat(rows).isEqualTo(1);
+        assertThat(lines[0]).isEqualTo(
+                "id,timestamp,user_id,action,resource_type,resource_id,ip_address,user_agent,success,error_message");
+        assertThat(lines[1]).startsWith("2,2025-03-01T02:00,7,LOGIN_FAILURE,")
+                .endsWith(",false,\"bad \"\"password\"\", twice\"");
+    }
+
+    @Test
+    void filter_rejectsEmptyRange() {
+        assertThatThrownBy(() -> new AuditExportFilter(DAY, DAY, null, null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void insert(JdbcTemplate jdbc, long id, Integer userId, String action, LocalDateTime at,
+                               boolean success, String error) {
+        jdbc.update("INSERT INTO audit_log (id, user_id, action, resource_type, ip_address, user_agent, " +
+                        "`timestamp`, success, error_message) VALUES (?, ?, ?, 'SECURITY', '10.0.0.1', 'curl', ?, ?, ?)",
+                id, userId, action, Timestamp.valueOf(at), success, error);
+    }
+}
@@ -0,0 +1,161 @@
+package com.siyamuddin.blog.blogappapis.Services.Audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditJournalTest {
+
+    private static final int SEGMENT_BYTES = 64 * 1024;
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<AuditJournal> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(AuditJournal::close);
+    }
+
+    @Test
+    void readAndCommit_returnEventsInOrderFromCheckpoint() {
+        AuditJournal journal = open(4);
+        for (int i = 0; i < 5; i++) {
+            assertThat(journal.append(event("E" + i))).isTrue();
+        }
+
+        AuditJournal.Batch first = journal.read(3);
+        assertThat(first.events()).extracting(AuditEvent::action).containsExactly("E0", "E1", "E2");
+        // Not committed: the same events come back
+        assertThat(journal.read(3).events()).extracting(AuditEvent::action).containsExactly("E0", "E1", "E2");
+
+        journal.commit(first.next());
+        AuditJournal.Batch rest = journal.read(10);
+        assertThat(rest.events()).extracting(AuditEvent::action).containsExactly("E3", "E4");
+        journal.commit(rest.next());
+        assertThat(journal.hasBacklog()).isFalse();
+        assertThat(journal.read(10).events()).isEmpty();
+    }
+
+    @Test
+    void reopen_resumesFromPersistedCheckpoint() {
+        AuditJournal journal = open(4);
+        journal.append(event("shipped"));
+        journal.commit(journal.read(10).next());
+        journal.append(event("pending"));
+        journal.close();
+
+        AuditJournal reopened = open(4);
+        assertThat(reopened.read(10).events()).extracting(AuditEvent::action).containsExactly("pending");
+        reopened.append(event("after-restart"));
+        assertThat(reopened.read(10).events()).extracting(AuditEvent::action)
+                .containsExactly("pending", "after-restart");
+    }
+
+    @Test
+    void rotation_stopsAtMaxSegmentsAndShippedSegmentsAreDeleted() throws IOException {
+        AuditJournal journal = open(2);
+        int appended = 0;
+        while (journal.append(event("X" + appended))) {
+            appended++;
+        }
+        assertThat(segmentCount()).isEqualTo(2);
+        assertThat(meterRegistry.get("app.audit.journal.rejected").counter().count()).isEqualTo(1.0);
+
+        List<AuditEvent> shipped = new ArrayList<>();
+        AuditJournal.Batch batch;
+        while (!(batch = journal.read(100)).events().isEmpty()) {
+            shipped.addAll(batch.events());
+            journal.commit(batch.next());
+        }
+        assertThat(shipped).hasSize(appended);
+        assertThat(shipped.get(appended - 1).action()).isEqualTo("X" + (appended - 1));
+        assertThat(segmentCount()).isEqualTo(1);
+        assertThat(journal.append(event("room-again"))).isTrue();
+    }
+
+    @Test
+    void reopen_truncatesTornRecord() throws IOException {
+        AuditJournal journal = open(4);
+        journal.append(event("intact"));
+        journal.append(event("torn"));
+        journal.close();
+        corruptLastRecordPayload();
+
+        AuditJournal reopened = open(4);
+        assertThat(reopened.read(10).events()).extracting(AuditEvent::action).containsExactly("intact");
+        reopened.append(event("next"));
+        assertThat(reopened.read(10).events()).extracting(AuditEvent::action).containsExactly("intact", "next");
+    }
+
+    @Test
+    void reopen_withEmptyOrGarbageCheckpoint_replaysFromOldestSegment() throws IOException {
+        AuditJournal journal = open(4);
+        journal.append(event("first"));
+        journal.append(event("second"));
+        journal.close();
+
+        for (String checkpoint : new String[]{"", "garbage", "12"}) {
+            Files.writeString(directory.resolve("checkpoint"), checkpoint);
+
+            AuditJournal reopened = open(4);
+            assertThat(reopened.read(10).events()).extracting(AuditEvent::action)
+                    .containsExactly("first", "second");
+            reopened.close();
+        }
+    }
+
+    private AuditJournal open(int maxSegments) {
+        AuditJournal journal = new AuditJournal(directory, SEGMENT_BYTES, maxSegments, 0, objectMapper, meterRegistry);
+        opened.add(journal);
+        return journal;
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(AuditJournal.SEGMENT_SUFFIX)).count();
+        }
+    }
+
+    /**
+     * Flip a byte inside the second record's payload, as a crash mid-write would leave it.
+     */
+    private void corruptLastRecordPayload() throws IOException {
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(path -> path.toString().endsWith(AuditJournal.SEGMENT_SUFFIX))
+                    .findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(4);
+            channel.read(header, 0);
+            int secondRecord = 8 + header.flip().getInt();
+            channel.write(ByteBuffer.wrap(new byte[]{'#'}), secondRecord + 12);
+        }
+    }
+
+    private static AuditEvent event(String action) {
+        return new AuditEvent(1, action, "SECURITY", null, "127.0.0.1", "test", true, null,
+                LocalDateTime.now(), System.currentTimeMillis());
+    }
+}
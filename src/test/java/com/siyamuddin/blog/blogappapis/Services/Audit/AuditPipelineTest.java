@@ -0,0 +1,190 @@
+package com.siyamuddin.blog.blogappapis.Services.Audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.siyamuddin.blog.blogappapis.Config.Properties.AuditJournalProperties;
+import com.siyamuddin.blog.blogappapis.Config.Properties.AuditPipelineProperties;
+import com.siyamuddin.blog.blogappapis.Config.Properties.AuditPipelineProperties.OverflowPolicy;
+import com.siyamuddin.blog.blogappapis.Entity.AuditLog;
+import com.siyamuddin.blog.blogappapis.Repository.AuditLogRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuditPipelineTest {
+
+    @TempDir
+    Path spillDirectory;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final AuditLogRepo auditLogRepo = mock(AuditLogRepo.class);
+    private final AuditRollupService auditRollupService = mock(AuditRollupService.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final List<List<AuditLog>> savedBatches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(auditLogRepo.saveAll(anyList())).thenAnswer(invocation -> {
+            List<AuditLog> batch = new ArrayList<>(invocation.getArgument(0));
+            savedBatches.add(batch);
+            return batch;
+        });
+    }
+
+    @Test
+    void drainOnce_writesQueuedEventsInBatches() {
+        AuditPipeline pipeline = pipeline(OverflowPolicy.DROP, 16, 5);
+        for (int i = 0; i < 12; i++) {
+            pipeline.submit(event("LOGIN_SUCCESS"));
+        }
+
+        assertThat(pipeline.drainOnce()).isEqualTo(5);
+        assertThat(pipeline.drainOnce()).isEqualTo(5);
+        assertThat(pipeline.drainOnce()).isEqualTo(2);
+        assertThat(pipeline.drainOnce()).isZero();
+
+        assertThat(savedBatches).extracting(List::size).containsExactly(5, 5, 2);
+        verify(auditRollupService, times(3)).record(anyList());
+        assertThat(counter("written")).isEqualTo(12.0);
+        assertThat(meterRegistry.get("app.audit.batch.size").summary().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("app.audit.lag").timer().count()).isEqualTo(12);
+    }
+
+    @Test
+    void submit_withDropPolicy_countsOverflow() {
+        AuditPipeline pipeline = pipeline(OverflowPolicy.DROP, 4, 10);
+        for (int i = 0; i < 6; i++) {
+            pipeline.submit(event("LOGIN_SUCCESS"));
+        }
+
+        assertThat(pipeline.queueDepth()).isEqualTo(4);
+        assertThat(counter("dropped")).isEqualTo(2.0);
+        assertThat(meterRegistry.get("app.audit.queue.depth").gauge().value()).isEqualTo(4.0);
+    }
+
+    @Test
+    void submit_withBlockPolicy_dropsAfterTimeout() {
+        AuditPipeline pipeline = pipeline(OverflowPolicy.BLOCK, 2, 10);
+        pipeline.submit(event("A"));
+        pipeline.submit(event("B"));
+
+        pipeline.submit(event("C"));
+
+        assertThat(counter("dropped")).isEqualTo(1.0);
+    }
+
+    @Test
+    void submit_withSpillPolicy_spillsOverflowAndReplaysIt() {
+        AuditPipeline pipeline = pipeline(OverflowPolicy.SPILL, 2, 10);
+        pipeline.submit(event("A"));
+        pipeline.submit(event("B"));
+        pipeline.submit(event("C"));
+        assertThat(counter("spilled")).isEqualTo(1.0);
+
+        pipeline.drainOnce();
+        assertThat(pipeline.replaySpilled()).isEqualTo(1);
+
+        assertThat(savedBatches).hasSize(2);
+        assertThat(savedBatches.get(1)).extracting(AuditLog::getAction).containsExactly("C");
+        assertThat(pipeline.replaySpilled()).isZero();
+    }
+
+    @Test
+    void failedBatch_withSpillPolicy_isSpilledForReplay() {
+        AuditPipeline pipeline = pipeline(OverflowPolicy.SPILL, 8, 10);
+        doThrow(new DataAccessResourceFailureException("database down"))
+                .doAnswer(invocation -> {
+                    savedBatches.add(new ArrayList<>(invocation.getArgument(0)));
+                    return invocation.getArgument(0);
+                })
+                .when(auditLogRepo).saveAll(anyList());
+        pipeline.submit(event("A"));
+        pipeline.submit(event("B"));
+
+        pipeline.drainOnce();
+        assertThat(counter("spilled")).isEqualTo(2.0);
+        assertThat(meterRegistry.get("app.audit.batch.failures").counter().count()).isEqualTo(1.0);
+
+        assertThat(pipeline.replaySpilled()).isEqualTo(2);
+        assertThat(savedBatches).singleElement().satisfies(batch ->
+                assertThat(batch).extracting(AuditLog::getAction).containsExactly("A", "B"));
+    }
+
+    @Test
+    void journaledEvents_areShippedAfterDatabaseRecovers() {
+        AuditJournalProperties journal = new AuditJournalProperties();
+        journal.setEnabled(true);
+        journal.setDirectory(spillDirectory.resolve("journal").toString());
+        journal.setFsyncIntervalMs(0L);
+        AuditPipeline pipeline = pipeline(OverflowPolicy.DROP, 2, 10, journal);
+        doThrow(new DataAccessResourceFailureException("database down"))
+                .doAnswer(invocation -> {
+                    savedBatches.add(new ArrayList<>(invocation.getArgument(0)));
+                    return invocation.getArgument(0);
+                })
+                .when(auditLogRepo).saveAll(anyList());
+        for (int i = 0; i < 5; i++) {
+            pipeline.submit(event("A" + i));
+        }
+
+        // Journaled events bypass the (tiny) ring buffer, so nothing overflowed
+        assertThat(pipeline.queueDepth()).isZero();
+        assertThat(counter("dropped")).isZero();
+        assertThat(pipeline.shipJournal()).isZero();
+        assertThat(meterRegistry.get("app.audit.batch.failures").counter().count()).isEqualTo(1.0);
+
+        pipeline.closeJournal();
+        AuditPipeline restarted = pipeline(OverflowPolicy.DROP, 2, 10, journal);
+        assertThat(restarted.shipJournal()).isEqualTo(5);
+        assertThat(restarted.shipJournal()).isZero();
+        assertThat(savedBatches).singleElement().satisfies(batch ->
+                assertThat(batch).extracting(AuditLog::getAction).containsExactly("A0", "A1", "A2", "A3", "A4"));
+        restarted.closeJournal();
+    }
+
+    private AuditPipeline pipeline(OverflowPolicy policy, int capacity, int batchSize) {
+        return pipeline(policy, capacity, batchSize, new AuditJournalProperties());
+    }
+
+    private AuditPipeline pipeline(OverflowPolicy policy, int capacity, int batchSize,
+                                   AuditJournalProperties journalProperties) {
+        AuditPipelineProperties properties = new AuditPipelineProperties();
+        properties.setOverflowPolicy(policy);
+        properties.setCapacity(capacity);
+        properties.setBatchSize(batchSize);
+        properties.setBlockTimeoutMs(20L);
+        properties.setSpillDirectory(spillDirectory.toString());
+        return new AuditPipeline(auditLogRepo, auditRollupService, transactionManager, properties,
+                journalProperties, objectMapper, meterRegistry);
+    }
+
+    private double counter(String outcome) {
+        return meterRegistry.get("app.audit.events").tag("outcome", outcome).counter().count();
+    }
+
+    private static AuditEvent event(String action) {
+        return new AuditEvent(1, action, "SECURITY", null, "127.0.0.1", "test", true, null,
+                LocalDateTime.now(), System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,127 @@
+package com.siyamuddin.blog.blogappapis.Services.Audit;
+
+import com.siyamuddin.blog.blogappapis.Config.ExecutorConfig;
+import com.siyamuddin.blog.blogappapis.Config.Properties.AuditRollupProperties;
+import com.siyamuddin.blog.blogappapis.Entity.AuditLog;
+import com.siyamuddin.blog.blogappapis.Repository.AuditLogRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// H2 in MySQL mode, so the ON DUPLICATE KEY upsert and backfill SQL run as on MySQL
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:auditrollup;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AuditRollupService.class, AuditRollupProperties.class, AuditRollupServiceTest.DirectExecutor.class})
+class AuditRollupServiceTest {
+
+    private static final LocalDateTime HOUR = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusDays(1);
+
+    @Autowired
+    private AuditRollupService auditRollupService;
+
+    @Autowired
+    private AuditLogRepo auditLogRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TestConfiguration
+    static class DirectExecutor {
+        @Bean(name = ExecutorConfig.AUDIT_EXECUTOR)
+        Executor auditExecutor() {
+            return Runnable::run;
+        }
+    }
+
+    @Test
+    void record_foldsBatchIntoTotalAndPerUserCounters() {
+        auditRollupService.record(List.of(
+                event(1, "LOGIN_FAILED", false, HOUR.plusMinutes(5)),
+                event(1, "LOGIN_FAILED", false, HOUR.plusMinutes(10)),
+                event(2, "LOGIN_FAILED", false, HOUR.plusMinutes(20)),
+                event(null, "LOGIN_FAILED", false, HOUR.plusMinutes(30)),
+                event(2, "LOGIN_SUCCESS", true, HOUR.plusMinutes(40)),
+                event(1, "LOGIN_FAILED", false, HOUR.plusHours(1))));
+
+        assertThat(auditRollupService.hourly(HOUR, HOUR.plusHours(2), "LOGIN_FAILED", null))
+                .containsExactly(
+                        new AuditRollupBucket(HOUR, "LOGIN_FAILED", false, 4),
+                        new AuditRollupBucket(HOUR.plusHours(1), "LOGIN_FAILED", false, 1));
+        assertThat(auditRollupService.hourly(HOUR, HOUR.plusHours(1), null, 1))
+                .containsExactly(new AuditRollupBucket(HOUR, "LOGIN_FAILED", false, 2));
+        assertThat(auditRollupService.hourly(HOUR, HOUR.plusHours(1), null, null)).hasSize(2);
+    }
+
+    @Test
+    void record_addsToExistingCounters() {
+        auditRollupService.record(List.of(event(1, "LOGIN_FAILED", false, HOUR)));
+        auditRollupService.record(List.of(event(1, "LOGIN_FAILED", false, HOUR.plusMinutes(59)),
+                event(1, "LOGIN_FAILED", false, HOUR.plusMinutes(1))));
+
+        assertThat(auditRollupService.hourly(HOUR, HOUR.plusHours(1), "LOGIN_FAILED", null))
+                .containsExactly(new AuditRollupBucket(HOUR, "LOGIN_FAILED", false, 3));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_rollup_hourly", Integer.class))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void backfill_replacesCountersWithAuditLogTotals() {
+        // Stale counter that the backfill must overwrite rather than add to
+        auditRollupService.record(List.of(event(1, "LOGIN_FAILED", false, HOUR)));
+        auditLogRepo.saveAll(List.of(
+                auditLog(1, "LOGIN_FAILED", false, HOUR.plusMinutes(1)),
+                auditLog(1, "LOGIN_FAILED", false, HOUR.plusMinutes(2)),
+                auditLog(3, "LOGIN_FAILED", false, HOUR.plusMinutes(3)),
+                auditLog(null, "LOGIN_SUCCESS", true, HOUR.plusMinutes(4)),
+                auditLog(1, "LOGIN_FAILED", false, HOUR.plusHours(2))));
+        auditLogRepo.flush();
+
+        assertThat(auditRollupService.backfill(HOUR.plusMinutes(30), HOUR.plusMinutes(90))).isEqualTo(2);
+
+        assertThat(auditRollupService.hourly(HOUR, HOUR.plusHours(3), null, null))
+                .containsExactly(
+                        new AuditRollupBucket(HOUR, "LOGIN_FAILED", false, 3),
+                        new AuditRollupBucket(HOUR, "LOGIN_SUCCESS", true, 1));
+        assertThat(auditRollupService.hourly(HOUR, HOUR.plusHours(1), null, 1))
+                .containsExactly(new AuditRollupBucket(HOUR, "LOGIN_FAILED", false, 2));
+    }
+
+    @Test
+    void startBackfill_rejectsCurrentHour() {
+        LocalDateTime currentHour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+
+        assertThatThrownBy(() -> auditRollupService.startBackfill(currentHour, currentHour.plusHours(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(auditRollupService.startBackfill(HOUR, HOUR.plusHours(1))).isTrue();
+    }
+
+    @Test
+    void hourly_rejectsOversizedRange() {
+        assertThatThrownBy(() -> auditRollupService.hourly(HOUR.minusDays(100), HOUR, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static AuditEvent event(Integer userId, String action, boolean success, LocalDateTime at) {
+        return new AuditEvent(userId, action, "AUTH", null, "127.0.0.1", null, success, null, at, 0L);
+    }
+
+    private static AuditLog auditLog(Integer userId, String action, boolean success, LocalDateTime at) {
+        return event(userId, action, success, at).toEntity();
+    }
+}
@@ -0,0 +1,53 @@
+package com.siyamuddin.blog.blogappapis.Services;
+
+import com.siyamuddin.blog.blogappapis.Services.AuditPartitionMaintenanceService.Partition;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditPartitionMaintenanceServiceTest {
+
+    private static final YearMonth NOW = YearMonth.of(2025, 3);
+
+    private final List<Partition> partitions = List.of(
+            new Partition("p_before", LocalDate.of(2024, 1, 1)),
+            new Partition("p202401", LocalDate.of(2024, 2, 1)),
+            new Partition("p202402", LocalDate.of(2024, 3, 1)),
+            new Partition("p202503", LocalDate.of(2025, 4, 1)),
+            new Partition("p202504", LocalDate.of(2025, 5, 1)),
+            new Partition(AuditPartitionMaintenanceService.FUTURE_PARTITION, null)
+    );
+
+    @Test
+    void partitionsToCreate_fillsMonthsUpToLookahead() {
+        List<Partition> toCreate = AuditPartitionMaintenanceService.partitionsToCreate(partitions, NOW, 3);
+
+        assertThat(toCreate).containsExactly(
+                new Partition("p202505", LocalDate.of(2025, 6, 1)),
+                new Partition("p202506", LocalDate.of(2025, 7, 1)));
+    }
+
+    @Test
+    void partitionsToCreate_whenAlreadyAhead_createsNothing() {
+        assertThat(AuditPartitionMaintenanceService.partitionsToCreate(partitions, NOW, 1)).isEmpty();
+    }
+
+    @Test
+    void partitionsToDrop_dropsOnlyPartitionsEntirelyBeforeRetention() {
+        assertThat(AuditPartitionMaintenanceService.partitionsToDrop(partitions, NOW, 12))
+                .containsExactly("p_before", "p202401", "p202402");
+        assertThat(AuditPartitionMaintenanceService.partitionsToDrop(partitions, NOW, 13))
+                .containsExactly("p_before", "p202401");
+    }
+
+    @Test
+    void parseBound_readsRangeColumnsDescription() {
+        assertThat(AuditPartitionMaintenanceService.parseBound("'2025-02-01 00:00:00'"))
+                .isEqualTo(LocalDate.of(2025, 2, 1));
+        assertThat(AuditPartitionMaintenanceService.parseBound("MAXVALUE")).isNull();
+    }
+}
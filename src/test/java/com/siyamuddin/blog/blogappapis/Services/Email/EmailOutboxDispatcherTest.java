@@ -0,0 +1,211 @@
+package com.siyamuddin.blog.blogappapis.Services.Email;
+
+import com.siyamuddin.blog.blogappapis.Config.Properties.EmailOutboxProperties;
+import com.siyamuddin.blog.blogappapis.Config.Properties.EmailProperties;
+import com.siyamuddin.blog.blogappapis.Entity.EmailOutbox;
+import com.siyamuddin.blog.blogappapis.Entity.EmailOutboxStatus;
+import com.siyamuddin.blog.blogappapis.Repository.EmailOutboxRepo;
+import com.siyamuddin.blog.blogappapis.Services.EmailService;
+import com.siyamuddin.blog.blogappapis.Services.Impl.EmailServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// H2 in MySQL mode, so the native claim UPDATE ... LIMIT runs as on MySQL
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:emailoutbox;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({EmailServiceImpl.class, EmailProperties.class})
+class EmailOutboxDispatcherTest {
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailOutboxRepo emailOutboxRepo;
+
+    @Autowired
+    private EmailProperties emailProperties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private FakeSmtpServer smtp;
+    private JavaMailSenderImpl mailSender;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtp = new FakeSmtpServer();
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(smtp.port());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        smtp.close();
+    }
+
+    @Test
+    void sendEmail_onlyQueuesInOutbox() {
+        emailService.sendVerificationEmail("new@test.com", "New", "token-1");
+
+        assertThat(emailOutboxRepo.findAll()).singleElement().satisfies(email -> {
+            assertThat(email.getRecipient()).isEqualTo("new@test.com");
+            assertThat(email.getStatus()).isEqualTo(EmailOutboxStatus.PENDING);
+            assertThat(email.getBody()).contains("token-1");
+        });
+        assertThat(smtp.connections()).isZero();
+    }
+
+    @Test
+    void dispatchOnce_sendsBatchOverOneConnection() {
+        for (int i = 0; i < 3; i++) {
+            emailService.sendEmail("user" + i + "@test.com", "Subject " + i, "Body " + i);
+        }
+
+        assertThat(dispatcher(outboxProperties(10, 100)).dispatchOnce()).isEqualTo(3);
+
+        assertThat(smtp.connections()).isEqualTo(1);
+        assertThat(smtp.messages()).extracting(FakeSmtpServer.Received::recipient)
+                .containsExactlyInAnyOrder("user0@test.com", "user1@test.com", "user2@test.com");
+        assertThat(outbox()).allSatisfy(email -> {
+            assertThat(email.getStatus()).isEqualTo(EmailOutboxStatus.SENT);
+            assertThat(email.getClaimToken()).isNull();
+            assertThat(email.getAttempts()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void rejectedRecipient_isRetriedWithBackoffWhileOthersAreSent() {
+        smtp.reject("bounce@test.com");
+        emailService.sendEmail("ok@test.com", "Hi", "Body");
+        emailService.sendEmail("bounce@test.com", "Hi", "Body");
+        LocalDateTime before = LocalDateTime.now();
+
+        assertThat(dispatcher(outboxProperties(10, 100)).dispatchOnce()).isEqualTo(2);
+
+        EmailOutbox bounced = byRecipient("bounce@test.com");
+        assertThat(bounced.getStatus()).isEqualTo(EmailOutboxStatus.PENDING);
+        assertThat(bounced.getAttempts()).isEqualTo(1);
+        assertThat(bounced.getLastError()).isNotBlank();
+        assertThat(bounced.getNextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(30));
+        assertThat(byRecipient("ok@test.com").getStatus()).isEqualTo(EmailOutboxStatus.SENT);
+    }
+
+    @Test
+    void smtpDown_marksFailedAfterMaxAttempts() throws IOException {
+        smtp.close();
+        emailService.sendEmail("down@test.com", "Hi", "Body");
+        EmailOutboxProperties properties = outboxProperties(10, 100);
+        properties.setMaxAttempts(2);
+        EmailOutboxDispatcher dispatcher = dispatcher(properties);
+
+        dispatcher.dispatchOnce();
+        EmailOutbox email = byRecipient("down@test.com");
+        assertThat(email.getStatus()).isEqualTo(EmailOutboxStatus.PENDING);
+        makeDue(email);
+
+        dispatcher.dispatchOnce();
+        assertThat(byRecipient("down@test.com").getStatus()).isEqualTo(EmailOutboxStatus.FAILED);
+        assertThat(byRecipient("down@test.com").getAttempts()).isEqualTo(2);
+    }
+
+    @Test
+    void throttle_capsMessagesPerDispatch() {
+        for (int i = 0; i < 5; i++) {
+            emailService.sendEmail("user" + i + "@test.com", "Subject", "Body");
+        }
+
+        assertThat(dispatcher(outboxProperties(10, 2)).dispatchOnce()).isEqualTo(2);
+
+        assertThat(smtp.messages()).hasSize(2);
+        assertThat(outbox()).filteredOn(email -> email.getStatus() == EmailOutboxStatus.PENDING)
+                .hasSize(3);
+    }
+
+    @Test
+    void dispatch_whileOneIsInFlight_submitsNothing() {
+        emailService.sendEmail("user@test.com", "Subject", "Body");
+        List<Runnable> submitted = new ArrayList<>();
+        EmailOutboxDispatcher dispatcher = dispatcher(outboxProperties(10, 100), submitted::add);
+
+        dispatcher.dispatch();
+        dispatcher.dispatch();
+        assertThat(submitted).hasSize(1);
+
+        submitted.remove(0).run();
+        assertThat(smtp.messages()).hasSize(1);
+        dispatcher.dispatch();
+        assertThat(submitted).hasSize(1);
+    }
+
+    @Test
+    void backoff_doublesUpToCap() {
+        EmailOutboxDispatcher dispatcher = dispatcher(outboxProperties(10, 100));
+
+        assertThat(dispatcher.backoff(1)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(dispatcher.backoff(3)).isEqualTo(Duration.ofSeconds(120));
+        assertThat(dispatcher.backoff(20)).isEqualTo(Duration.ofHours(1));
+    }
+
+    private EmailOutboxDispatcher dispatcher(EmailOutboxProperties properties) {
+        return dispatcher(properties, Runnable::run);
+    }
+
+    private EmailOutboxDispatcher dispatcher(EmailOutboxProperties properties, Executor mailExecutor) {
+        @SuppressWarnings("unchecked")
+        ObjectProvider<JavaMailSender> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(mailSender);
+        return new EmailOutboxDispatcher(emailOutboxRepo, provider, emailProperties, properties,
+                transactionManager, new SimpleMeterRegistry(), mailExecutor);
+    }
+
+    private static EmailOutboxProperties outboxProperties(int batchSize, int maxPerSecond) {
+        EmailOutboxProperties properties = new EmailOutboxProperties();
+        properties.setBatchSize(batchSize);
+        properties.setMaxPerSecond(maxPerSecond);
+        return properties;
+    }
+
+    private List<EmailOutbox> outbox() {
+        // Bulk updates bypass the persistence context
+        entityManager.clear();
+        return emailOutboxRepo.findAll();
+    }
+
+    private EmailOutbox byRecipient(String recipient) {
+        return outbox().stream().filter(row -> row.getRecipient().equals(recipient)).findFirst().orElseThrow();
+    }
+
+    private void makeDue(EmailOutbox email) {
+        email.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        emailOutboxRepo.saveAndFlush(email);
+    }
+}
@@ -0,0 +1,238 @@
+package com.siyamuddin.blog.blogappapis.Services;
+
+import com.siyamuddin.blog.blogappapis.Config.Properties.SecurityProperties;
+import com.siyamuddin.blog.blogappapis.Entity.Role;
+import com.siyamuddin.blog.blogappapis.Entity.User;
+import com.siyamuddin.blog.blogappapis.Repository.RefreshTokenRepo;
+import com.siyamuddin.blog.blogappapis.Repository.RoleRepo;
+import com.siyamuddin.blog.blogappapis.Repository.UserRepo;
+import com.siyamuddin.blog.blogappapis.Repository.UserSessionRepo;
+import com.siyamuddin.blog.blogappapis.Security.JwtHelper;
+import com.siyamuddin.blog.blogappapis.Services.Impl.LoginServiceImpl;
+import com.siyamuddin.blog.blogappapis.Services.Impl.SessionServiceImpl;
+import com.siyamuddin.blog.blogappapis.Services.Impl.UserServiceImpl;
+import com.siyamuddin.blog.blogappapis.Services.Session.JpaSessionStore;
+import com.siyamuddin.blog.blogappapis.Services.Session.SessionStore;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pins the SQL of a successful login: one SELECT of the user with its roles, then the
+ * refresh-token and session INSERTs (plus the login-column UPDATE when failed attempts must be
+ * cleared) committed together in one transaction.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.siyamuddin.blog.blogappapis.Services.LoginServiceSqlTest$SqlCaptor"
+})
+@Import({LoginServiceImpl.class, SessionServiceImpl.class, CustomUserDetailService.class,
+        SecurityProperties.class, LoginServiceSqlTest.Beans.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LoginServiceSqlTest {
+
+    private static final PasswordEncoder ENCODER = new BCryptPasswordEncoder(4);
+
+    @TestConfiguration
+    static class Beans {
+        @Bean
+        AuthenticationManager authenticationManager(CustomUserDetailService userDetailService) {
+            DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+            provider.setUserDetailsService(userDetailService);
+            provider.setPasswordEncoder(ENCODER);
+            return new ProviderManager(provider);
+        }
+
+        @Bean
+        SessionStore sessionStore(UserSessionRepo sessionRepo, ActivityWriteBehindService activityWriteBehindService) {
+            return new JpaSessionStore(sessionRepo, activityWriteBehindService);
+        }
+
+        @Bean
+        UserService userService(UserRepo userRepo, ActivityWriteBehindService activityWriteBehindService,
+                                PlatformTransactionManager transactionManager) {
+            return new UserServiceImpl(null, null, userRepo, null, null, null, null, activityWriteBehindService,
+                    transactionManager);
+        }
+    }
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private RoleRepo roleRepo;
+
+    @Autowired
+    private RefreshTokenRepo refreshTokenRepo;
+
+    @Autowired
+    private UserSessionRepo userSessionRepo;
+
+    @Autowired
+    private LoginService loginService;
+
+    @Autowired
+    private SecurityProperties securityProperties;
+
+    @MockBean
+    private JwtHelper jwtHelper;
+
+    @MockBean
+    private ActivityWriteBehindService activityWriteBehindService;
+
+    private TransactionTemplate tx;
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // Other test classes sharing this context may have cached roles whose rows were rolled back
+        entityManagerFactory.getCache().evictAll();
+        user = tx.execute(status -> {
+            Role normal = roleRepo.findById(2).orElseGet(() -> {
+                Role role = new Role();
+                role.setId(2);
+                role.setName("ROLE_NORMAL");
+                return roleRepo.save(role);
+            });
+            User created = new User();
+            created.setName("Login");
+            created.setEmail("login@test.com");
+            created.setPassword(ENCODER.encode("Secret-1"));
+            created.setEmailVerified(true);
+            created.getRoles().add(normal);
+            return userRepo.save(created);
+        });
+        securityProperties.setRequireEmailVerificationForLogin(true);
+
+        when(jwtHelper.generateToken(any())).thenReturn("access-token");
+        when(jwtHelper.generateRefreshTokenString()).thenAnswer(invocation -> UUID.randomUUID().toString());
+
+        // The first login allocates refresh-token and session id blocks; later logins do not
+        login();
+        clearInvocations(activityWriteBehindService);
+        SqlCaptor.STATEMENTS.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        tx.executeWithoutResult(status -> {
+            refreshTokenRepo.deleteAll();
+            userSessionRepo.deleteAll();
+            userRepo.deleteById(user.getId());
+        });
+    }
+
+    @Test
+    void login_loadsUserOnceAndWritesTokenAndSessionInOneTransaction() {
+        long transactions = statistics.getTransactionCount();
+
+        LoginService.LoginResult result = login();
+
+        assertThat(result.accessToken()).isEqualTo("access-token");
+        assertThat(result.user().getRoles()).extracting(Role::getName).containsExactly("ROLE_NORMAL");
+        // One write transaction; the read-only load of the user is not counted
+        assertThat(statistics.getTransactionCount() - transactions).isEqualTo(1);
+        List<String> statements = captured();
+        assertThat(statements).hasSize(3);
+        assertThat(statements.get(0)).startsWith("select").contains(" join ");
+        assertThat(statements.subList(1, 3))
+                .anyMatch(sql -> sql.startsWith("insert into refresh_token"))
+                .anyMatch(sql -> sql.startsWith("insert into user_session"));
+        verify(activityWriteBehindService).recordLogin(any(), any(), any());
+    }
+
+    @Test
+    void login_afterFailedAttempts_alsoClearsCounterInSameTransaction() {
+        tx.executeWithoutResult(status -> userRepo.incrementFailedLoginAttempts(user.getEmail()));
+        SqlCaptor.STATEMENTS.clear();
+
+        login();
+
+        List<String> statements = captured();
+        assertThat(statements).hasSize(4);
+        assertThat(statements.get(0)).startsWith("select");
+        assertThat(statements).filteredOn(sql -> sql.startsWith("update user ")).hasSize(1);
+    }
+
+    @Test
+    void lockedAccount_isRefusedWithoutWrites() {
+        tx.executeWithoutResult(status ->
+                userRepo.lockAccount(user.getEmail(), new Date(System.currentTimeMillis() + 60_000)));
+        SqlCaptor.STATEMENTS.clear();
+
+        assertThatThrownBy(this::login).isInstanceOf(BadCredentialsException.class);
+        assertThat(captured()).hasSize(1);
+    }
+
+    @Test
+    void unverifiedEmail_isRefusedWithoutWrites() {
+        tx.executeWithoutResult(status -> userRepo.findById(user.getId()).orElseThrow().setEmailVerified(false));
+        SqlCaptor.STATEMENTS.clear();
+
+        assertThatThrownBy(this::login).isInstanceOf(BadCredentialsException.class)
+                .hasMessageContaining("Email not verified");
+        assertThat(captured()).hasSize(1);
+    }
+
+    private LoginService.LoginResult login() {
+        return loginService.login(user.getEmail(), "Secret-1", new MockHttpServletRequest());
+    }
+
+    private List<String> captured() {
+        return new ArrayList<>(SqlCaptor.STATEMENTS);
+    }
+
+    public static class SqlCaptor implements StatementInspector {
+        static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.replace("\"", "").replace("`", "").toLowerCase(Locale.ROOT).trim());
+            return sql;
+        }
+    }
+}
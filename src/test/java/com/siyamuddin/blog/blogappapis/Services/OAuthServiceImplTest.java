@@ -0,0 +1,181 @@
+package com.siyamuddin.blog.blogappapis.Services;
+
+import com.siyamuddin.blog.blogappapis.Config.Properties.OAuthProperties;
+import com.siyamuddin.blog.blogappapis.Entity.User;
+import com.siyamuddin.blog.blogappapis.Repository.OAuthAccountRepo;
+import com.siyamuddin.blog.blogappapis.Repository.UserRepo;
+import com.siyamuddin.blog.blogappapis.Services.Impl.OAuthServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Pins the SQL of resolving an OAuth identity: a returning user costs one statement through the
+ * unique (provider, provider_id) index on a cache miss; a hit confirms the link with an index-only
+ * read of the user id before the primary-key read, so a link removed elsewhere is never honored.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:oauth;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.siyamuddin.blog.blogappapis.Services.OAuthServiceImplTest$SqlCaptor"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OAuthServiceImpl.class, OAuthProperties.class, OAuthServiceImplTest.Beans.class})
+class OAuthServiceImplTest {
+
+    @TestConfiguration
+    static class Beans {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private OAuthAccountRepo oAuthAccountRepo;
+
+    @Autowired
+    private OAuthService oAuthService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("OAuth");
+        user.setEmail("oauth@test.com");
+        user.setPassword("hash");
+        user = userRepo.saveAndFlush(user);
+    }
+
+    @Test
+    void firstLogin_linksExistingAccountByEmail_thenReturningUserIsConfirmedAndReadById() {
+        User linked = oAuthService.findOrCreateUserFromOAuth("Google", "subject-1", user.getEmail(), "OAuth");
+        assertThat(linked.getId()).isEqualTo(user.getId());
+        assertThat(oAuthAccountRepo.findUserIdByProvider("google", "subject-1")).contains(user.getId());
+
+        // Cache hit: the link is confirmed through the index, then the user is read by primary key
+        double hitsBefore = cacheHits();
+        List<String> statements = resolve("google", "subject-1");
+        assertThat(statements).hasSize(2);
+        assertThat(statements.get(0)).startsWith("select").contains("oauth_account").doesNotContain(" join ");
+        assertThat(statements.get(1)).startsWith("select").contains("where u1_0.id=");
+        assertThat(cacheHits()).isEqualTo(hitsBefore + 1);
+    }
+
+    @Test
+    void returningUser_onCacheMiss_isOneIndexedLookup() {
+        oAuthAccountRepo.link("github", "subject-2", user.getId(), LocalDateTime.now());
+
+        List<String> statements = resolve("github", "subject-2");
+
+        assertThat(statements).hasSize(1);
+        assertThat(statements.get(0)).startsWith("select").contains("oauth_account").contains(" join ");
+    }
+
+    @Test
+    void linkingTwice_keepsOneRow() {
+        oAuthService.linkOAuthAccount(user, "google", "subject-3");
+        oAuthService.linkOAuthAccount(user, "GOOGLE", "subject-3");
+
+        assertThat(oAuthAccountRepo.findProviderIds(user.getId(), "google")).containsExactly("subject-3");
+    }
+
+    @Test
+    void link_reportsExistingRowAsZero() {
+        assertThat(oAuthAccountRepo.link("google", "subject-6", user.getId(), LocalDateTime.now())).isEqualTo(1);
+        assertThat(oAuthAccountRepo.link("google", "subject-6", user.getId(), LocalDateTime.now())).isZero();
+    }
+
+    @Test
+    void identityOfAnotherUser_isNotRelinked() {
+        oAuthService.linkOAuthAccount(user, "google", "subject-4");
+        User other = new User();
+        other.setName("Other");
+        other.setEmail("other@test.com");
+        other.setPassword("hash");
+        User saved = userRepo.saveAndFlush(other);
+
+        assertThatThrownBy(() -> oAuthService.linkOAuthAccount(saved, "google", "subject-4"))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(oAuthAccountRepo.findUserIdByProvider("google", "subject-4")).contains(user.getId());
+    }
+
+    @Test
+    void unlink_dropsCachedLink() {
+        oAuthService.linkOAuthAccount(user, "google", "subject-5");
+        oAuthService.unlinkOAuthAccount(user, "google");
+        entityManager.flush();
+        entityManager.clear();
+
+        User created = oAuthService.findOrCreateUserFromOAuth("google", "subject-5", "new@test.com", "New");
+
+        assertThat(created.getId()).isNotEqualTo(user.getId());
+        assertThat(oAuthAccountRepo.findUserIdByProvider("google", "subject-5")).contains(created.getId());
+    }
+
+    @Test
+    void cachedLink_removedElsewhere_isNotHonored() {
+        oAuthService.linkOAuthAccount(user, "google", "subject-7");
+        // As another node's unlink would: the row goes, this node's cache entry stays
+        oAuthAccountRepo.unlink(user.getId(), "google");
+        entityManager.flush();
+        entityManager.clear();
+
+        User created = oAuthService.findOrCreateUserFromOAuth("google", "subject-7", "fresh@test.com", "Fresh");
+
+        assertThat(created.getId()).isNotEqualTo(user.getId());
+        assertThat(oAuthAccountRepo.findUserIdByProvider("google", "subject-7")).contains(created.getId());
+    }
+
+    private double cacheHits() {
+        return meterRegistry.get("cache.gets").tag("cache", "oauthLinks").tag("result", "hit")
+                .functionCounter().count();
+    }
+
+    private List<String> resolve(String provider, String providerId) {
+        entityManager.flush();
+        entityManager.clear();
+        SqlCaptor.STATEMENTS.clear();
+        User resolved = oAuthService.findOrCreateUserFromOAuth(provider, providerId, "unused@test.com", "Unused");
+        assertThat(resolved.getId()).isEqualTo(user.getId());
+        return new ArrayList<>(SqlCaptor.STATEMENTS);
+    }
+
+    public static class SqlCaptor implements StatementInspector {
+        static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.replace("\"", "").replace("`", "").toLowerCase(Locale.ROOT).trim());
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.siyamuddin.blog.blogappapis.Services.Password;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BreachedPasswordIndexTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void build_acceptsHashesCountsAndPlaintext_andDropsDuplicates() throws IOException {
+        String hex = HexFormat.of().withUpperCase().formatHex(BreachedPasswordIndex.sha1("P@ssw0rd"));
+        Path input = write("input.txt", List.of(
+                "password123",
+                hex + ":52256",
+                "",
+                hex.toLowerCase(),
+                "password123",
+                "Summer2024!"));
+        Path output = directory.resolve("breached.idx");
+
+        // A chunk of two forces several sorted runs and a merge
+        assertThat(BreachedPasswordIndexBuilder.build(input, output, 2)).isEqualTo(3);
+
+        try (BreachedPasswordIndex index = BreachedPasswordIndex.open(output)) {
+            assertThat(index.size()).isEqualTo(3);
+            assertThat(index.containsPassword("password123")).isTrue();
+            assertThat(index.containsPassword("P@ssw0rd")).isTrue();
+            assertThat(index.containsPassword("Summer2024!")).isTrue();
+            assertThat(index.containsPassword("Summer2024")).isFalse();
+            assertThat(index.containsPassword("")).isFalse();
+        }
+        try (var files = Files.list(directory)) {
+            assertThat(files.map(path -> path.getFileName().toString()))
+                    .containsExactlyInAnyOrder("input.txt", "breached.idx");
+        }
+    }
+
+    @Test
+    void lookup_findsEveryIndexedHashAndNoOthers() throws IOException {
+        Random random = new Random(42);
+        List<String> lines = new ArrayList<>();
+        List<byte[]> absent = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            byte[] hash = new byte[BreachedPasswordIndex.HASH_LENGTH];
+            random.nextBytes(hash);
+            if (i % 4 == 0) {
+                absent.add(hash);
+            } else {
+                lines.add(HexFormat.of().formatHex(hash));
+            }
+        }
+        Path output = directory.resolve("random.idx");
+        BreachedPasswordIndexBuilder.build(write("random.txt", lines), output, 1_000);
+
+        try (BreachedPasswordIndex index = BreachedPasswordIndex.open(output)) {
+            assertThat(index.size()).isEqualTo(lines.size());
+            assertThat(lines).allMatch(line -> index.containsHash(HexFormat.of().parseHex(line)));
+            assertThat(absent).noneMatch(index::containsHash);
+        }
+    }
+
+    @Test
+    void emptyList_buildsEmptyIndex() throws IOException {
+        Path output = directory.resolve("empty.idx");
+        BreachedPasswordIndexBuilder.build(write("empty.txt", List.of()), output, 10);
+
+        try (BreachedPasswordIndex index = BreachedPasswordIndex.open(output)) {
+            assertThat(index.size()).isZero();
+            assertThat(index.containsPassword("anything")).isFalse();
+        }
+    }
+
+    @Test
+    void open_rejectsFilesThatAreNotAnIndex() throws IOException {
+        Path text = write("not-an-index.txt", List.of("password123"));
+        assertThatThrownBy(() -> BreachedPasswordIndex.open(text)).isInstanceOf(IOException.class);
+
+        Path truncated = directory.resolve("truncated.idx");
+        Files.write(truncated, concat(BreachedPasswordIndex.MAGIC, new byte[7]));
+        assertThatThrownBy(() -> BreachedPasswordIndex.open(truncated))
+                .isInstanceOf(IOException.class).hasMessageContaining("truncated");
+    }
+
+    private Path write(String name, List<String> lines) throws IOException {
+        return Files.write(directory.resolve(name), lines, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = new byte[first.length + second.length];
+        System.arraycopy(first, 0, result, 0, first.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
@@ -0,0 +1,107 @@
+package com.siyamuddin.blog.blogappapis.Services;
+
+import com.siyamuddin.blog.blogappapis.Config.Properties.PasswordHashingProperties;
+import com.siyamuddin.blog.blogappapis.Exceptions.PasswordHashingBusyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingServiceTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void legacyHash_matchesAndIsUpgraded() {
+        PasswordHashingService service = service(5, Runnable::run);
+        String legacy = new BCryptPasswordEncoder(4).encode("Secret-1");
+
+        assertThat(service.matches("Secret-1", legacy)).isTrue();
+        assertThat(service.matches("wrong", legacy)).isFalse();
+        assertThat(service.upgradeEncoding(legacy)).isTrue();
+
+        String upgraded = service.encode("Secret-1");
+        assertThat(upgraded).startsWith("{bcrypt}$2a$05$");
+        assertThat(service.matches("Secret-1", upgraded)).isTrue();
+        assertThat(service.upgradeEncoding(upgraded)).isFalse();
+        assertThat(meterRegistry.get("app.password.hash").tag("operation", "matches").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void lowerCostOrOtherAlgorithm_isUpgraded() {
+        PasswordHashingService service = service(6, Runnable::run);
+
+        assertThat(service.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(5).encode("x"))).isTrue();
+        assertThat(service.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(7).encode("x"))).isFalse();
+        assertThat(service.upgradeEncoding(service("pbkdf2", 6, Runnable::run).encode("x"))).isTrue();
+    }
+
+    @Test
+    void saturatedExecutor_failsFastAsBusy() {
+        PasswordHashingService service = service(4, task -> {
+            throw new RejectedExecutionException("full");
+        });
+
+        assertThatThrownBy(() -> service.matches("Secret-1", "{bcrypt}x"))
+                .isInstanceOf(PasswordHashingBusyException.class);
+        assertThat(meterRegistry.get("app.password.hash.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void queuedTooLong_timesOutAndIsNotRun() throws Exception {
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            single.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            PasswordHashingProperties properties = properties("bcrypt", 4);
+            properties.setMaxWaitMs(50L);
+            PasswordHashingService service = new PasswordHashingService(properties, single, meterRegistry);
+
+            assertThatThrownBy(() -> service.encode("Secret-1")).isInstanceOf(PasswordHashingBusyException.class);
+            release.countDown();
+            single.shutdown();
+            assertThat(single.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(meterRegistry.get("app.password.hash").tag("operation", "encode").timer().count()).isZero();
+        } finally {
+            release.countDown();
+            single.shutdownNow();
+        }
+    }
+
+    @Test
+    void calibrate_staysWithinBounds() {
+        assertThat(PasswordHashingService.calibrate(4, 6, 1)).isEqualTo(4);
+        assertThat(PasswordHashingService.calibrate(4, 6, 60_000)).isEqualTo(6);
+    }
+
+    private PasswordHashingService service(int strength, Executor executor) {
+        return service("bcrypt", strength, executor);
+    }
+
+    private PasswordHashingService service(String algorithm, int strength, Executor executor) {
+        return new PasswordHashingService(properties(algorithm, strength), executor, meterRegistry);
+    }
+
+    private static PasswordHashingProperties properties(String algorithm, int strength) {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setAlgorithm(algorithm);
+        properties.setBcryptStrength(strength);
+        return properties;
+    }
+}
@@ -0,0 +1,142 @@
+package com.siyamuddin.blog.blogappapis.Services.Session;
+
+import com.siyamuddin.blog.blogappapis.Entity.User;
+import com.siyamuddin.blog.blogappapis.Entity.UserSession;
+import com.siyamuddin.blog.blogappapis.Repository.UserRepo;
+import com.siyamuddin.blog.blogappapis.Repository.UserSessionRepo;
+import com.siyamuddin.blog.blogappapis.Services.ActivityWriteBehindService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk revocation runs as one UPDATE and counts only sessions that were still active.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.siyamuddin.blog.blogappapis.Services.Session.JpaSessionStoreTest$SqlCaptor"
+})
+class JpaSessionStoreTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private UserSessionRepo sessionRepo;
+
+    @MockBean
+    private ActivityWriteBehindService activityWriteBehindService;
+
+    private JpaSessionStore store;
+    private User alice;
+    private User bob;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        store = new JpaSessionStore(sessionRepo, activityWriteBehindService);
+        now = LocalDateTime.now();
+        alice = userRepo.save(user("alice"));
+        bob = userRepo.save(user("bob"));
+        session("alice-current", alice, "10.0.0.1", true, now.plusMinutes(30));
+        session("alice-other", alice, "10.0.0.2", true, now.plusMinutes(30));
+        session("alice-expired", alice, "10.0.0.2", true, now.minusMinutes(1));
+        session("alice-revoked", alice, "10.0.0.2", false, now.plusMinutes(30));
+        session("bob-current", bob, "10.0.0.2", true, now.plusMinutes(30));
+        entityManager.flush();
+        entityManager.clear();
+        SqlCaptor.STATEMENTS.clear();
+    }
+
+    @Test
+    void findActiveByUserId_excludesExpiredAndInactive() {
+        List<UserSession> sessions = store.findActiveByUserId(alice.getId(), now);
+
+        assertThat(sessions).extracting(UserSession::getSessionId)
+                .containsExactlyInAnyOrder("alice-current", "alice-other");
+    }
+
+    @Test
+    void deactivateAllForUser_isSingleUpdateCountingActiveSessions() {
+        assertThat(store.deactivateAllForUser(alice.getId())).isEqualTo(3);
+
+        assertThat(SqlCaptor.STATEMENTS).hasSize(1);
+        assertThat(SqlCaptor.STATEMENTS.get(0)).startsWith("update user_session");
+        assertThat(isActive("bob-current")).isTrue();
+    }
+
+    @Test
+    void deactivateAllForUserExcept_keepsCurrentSession() {
+        assertThat(store.deactivateAllForUserExcept(alice.getId(), "alice-current")).isEqualTo(2);
+
+        assertThat(SqlCaptor.STATEMENTS).hasSize(1);
+        assertThat(isActive("alice-current")).isTrue();
+        assertThat(isActive("alice-other")).isFalse();
+    }
+
+    @Test
+    void deactivateAllForIp_revokesAcrossUsers() {
+        assertThat(store.deactivateAllForIp("10.0.0.2")).isEqualTo(3);
+
+        assertThat(SqlCaptor.STATEMENTS).hasSize(1);
+        assertThat(isActive("alice-current")).isTrue();
+        assertThat(isActive("bob-current")).isFalse();
+    }
+
+    @Test
+    void deactivateAllForUsers_isSingleUpdateForTheBatch() {
+        assertThat(store.deactivateAllForUsers(List.of(alice.getId(), bob.getId()))).isEqualTo(4);
+
+        assertThat(SqlCaptor.STATEMENTS).hasSize(1);
+        assertThat(store.deactivateAllForUsers(List.of())).isZero();
+    }
+
+    private boolean isActive(String sessionId) {
+        return sessionRepo.findBySessionId(sessionId).orElseThrow().getIsActive();
+    }
+
+    private static User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@sessions.test");
+        user.setPassword("hash");
+        return user;
+    }
+
+    private void session(String sessionId, User user, String ipAddress, boolean active, LocalDateTime expiresAt) {
+        UserSession session = new UserSession();
+        session.setSessionId(sessionId);
+        session.setUser(user);
+        session.setIpAddress(ipAddress);
+        session.setLoginTime(now.minusMinutes(5));
+        session.setLastActivity(now.minusMinutes(5));
+        session.setExpiresAt(expiresAt);
+        session.setIsActive(active);
+        entityManager.persist(session);
+    }
+
+    public static class SqlCaptor implements StatementInspector {
+        static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.replace("\"", "").replace("`", "").toLowerCase(Locale.ROOT).trim());
+            return sql;
+        }
+    }
+}
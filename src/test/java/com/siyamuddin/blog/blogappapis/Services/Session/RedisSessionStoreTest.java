@@ -0,0 +1,97 @@
+package com.siyamuddin.blog.blogappapis.Services.Session;
+
+import com.siyamuddin.blog.blogappapis.Entity.User;
+import com.siyamuddin.blog.blogappapis.Entity.UserSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A refresh that loses the race with a deactivate must neither recreate the session key nor
+ * leave a hash that later reads choke on.
+ */
+class RedisSessionStoreTest {
+
+    private StringRedisTemplate redis;
+    private HashOperations<String, Object, Object> hashOps;
+    private RedisSessionStore store;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redis = mock(StringRedisTemplate.class);
+        hashOps = mock(HashOperations.class);
+        when(redis.opsForHash()).thenReturn(hashOps);
+        store = new RedisSessionStore(redis, Duration.ofMinutes(30));
+    }
+
+    @Test
+    void refresh_afterDeactivate_reportsSessionGone() {
+        when(redis.execute(eq(RedisSessionStore.REFRESH_SCRIPT), anyList(), any(Object[].class))).thenReturn(0L);
+        LocalDateTime now = LocalDateTime.now();
+
+        boolean refreshed = store.refresh(activeSession(now), now, now.plusMinutes(30));
+
+        assertThat(refreshed).isFalse();
+        verify(redis).execute(eq(RedisSessionStore.REFRESH_SCRIPT),
+                eq(List.of("session:s-1", "active-sessions", "user-sessions:7", "ip-sessions:10.0.0.1")), any(Object[].class));
+    }
+
+    @Test
+    void refresh_ofLiveSession_succeeds() {
+        when(redis.execute(eq(RedisSessionStore.REFRESH_SCRIPT), anyList(), any(Object[].class))).thenReturn(1L);
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThat(store.refresh(activeSession(now), now, now.plusMinutes(30))).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void countActive_countsUnexpiredEntriesOfTheExpiryIndex() {
+        ZSetOperations<String, String> zSetOps = mock(ZSetOperations.class);
+        when(redis.opsForZSet()).thenReturn(zSetOps);
+        when(zSetOps.count(eq("active-sessions"), anyDouble(), eq(Double.POSITIVE_INFINITY))).thenReturn(3L);
+
+        assertThat(store.countActive(LocalDateTime.now())).isEqualTo(3);
+        verify(zSetOps).removeRangeByScore(eq("active-sessions"), eq(Double.NEGATIVE_INFINITY), anyDouble());
+        verify(redis, never()).scan(any());
+    }
+
+    @Test
+    void findBySessionId_withoutUserId_isAbsent() {
+        LocalDateTime now = LocalDateTime.now();
+        when(hashOps.entries("session:s-1")).thenReturn(Map.of(
+                "lastActivity", now.toString(), "expiresAt", now.plusMinutes(30).toString()));
+
+        assertThat(store.findBySessionId("s-1")).isEmpty();
+    }
+
+    private static UserSession activeSession(LocalDateTime now) {
+        User user = new User();
+        user.setId(7);
+        UserSession session = new UserSession();
+        session.setSessionId("s-1");
+        session.setUser(user);
+        session.setIpAddress("10.0.0.1");
+        session.setIsActive(true);
+        session.setExpiresAt(now.plusMinutes(5));
+        return session;
+    }
+}
@@ -0,0 +1,116 @@
+package com.siyamuddin.blog.blogappapis.Services;
+
+import com.siyamuddin.blog.blogappapis.Config.ExecutorConfig;
+import com.siyamuddin.blog.blogappapis.Config.MetricsConfig;
+import com.siyamuddin.blog.blogappapis.Repository.UserRepo;
+import com.siyamuddin.blog.blogappapis.Services.Session.SessionStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StateGaugeRefresherTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SessionStore sessionStore = mock(SessionStore.class);
+    private final UserRepo userRepo = mock(UserRepo.class);
+
+    private StateGaugeRefresher refresher;
+
+    @BeforeEach
+    void setUp() {
+        refresher = new StateGaugeRefresher(sessionStore, userRepo, new MetricsConfig.BusinessMetrics(meterRegistry));
+    }
+
+    @Test
+    void refresh_setsGaugesFromAggregateCounts() {
+        when(sessionStore.countActive(any(LocalDateTime.class))).thenReturn(42L);
+        when(userRepo.countByAccountLockedUntilAfter(any(Date.class))).thenReturn(3L);
+
+        refresher.refresh();
+
+        assertThat(gauge("app.sessions.active")).isEqualTo(42.0);
+        assertThat(gauge("app.accounts.locked")).isEqualTo(3.0);
+    }
+
+    @Test
+    void refresh_whenCountFails_keepsPreviousValues() {
+        when(sessionStore.countActive(any(LocalDateTime.class))).thenReturn(7L);
+        when(userRepo.countByAccountLockedUntilAfter(any(Date.class))).thenReturn(1L);
+        refresher.refresh();
+
+        when(sessionStore.countActive(any(LocalDateTime.class))).thenThrow(new IllegalStateException("down"));
+        refresher.refresh();
+
+        assertThat(gauge("app.sessions.active")).isEqualTo(7.0);
+        assertThat(gauge("app.accounts.locked")).isEqualTo(1.0);
+    }
+
+    @Test
+    void startupRefresh_runsThroughProxyOnCacheExecutorInReadOnlyTransaction() {
+        Set<String> countingThreads = ConcurrentHashMap.newKeySet();
+        when(sessionStore.countActive(any(LocalDateTime.class))).thenAnswer(invocation -> {
+            countingThreads.add(Thread.currentThread().getName());
+            return 5L;
+        });
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.register(ProxyConfig.class, StateGaugeRefresher.class);
+            context.registerBean(SessionStore.class, () -> sessionStore);
+            context.registerBean(UserRepo.class, () -> userRepo);
+            context.registerBean(MetricsConfig.BusinessMetrics.class, () -> new MetricsConfig.BusinessMetrics(meterRegistry));
+            context.registerBean(PlatformTransactionManager.class, () -> transactionManager);
+            context.refresh();
+
+            context.publishEvent(new ApplicationReadyEvent(new SpringApplication(), new String[0], context, Duration.ZERO));
+
+            verify(sessionStore, timeout(5000)).countActive(any(LocalDateTime.class));
+            assertThat(countingThreads).singleElement().asString().startsWith("cache-test-");
+            ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+            verify(transactionManager, timeout(5000)).getTransaction(definition.capture());
+            assertThat(definition.getValue().isReadOnly()).isTrue();
+        }
+    }
+
+    @Configuration
+    @EnableAsync
+    @EnableTransactionManagement
+    static class ProxyConfig {
+        @Bean(name = ExecutorConfig.CACHE_EXECUTOR)
+        ThreadPoolTaskExecutor cacheExecutor() {
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setThreadNamePrefix("cache-test-");
+            executor.setCorePoolSize(1);
+            return executor;
+        }
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+}
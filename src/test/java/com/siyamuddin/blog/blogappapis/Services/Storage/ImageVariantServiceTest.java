@@ -0,0 +1,161 @@
+package com.siyamuddin.blog.blogappapis.Services.Storage;
+
+import com.siyamuddin.blog.blogappapis.Config.Properties.FileStorageProperties;
+import com.siyamuddin.blog.blogappapis.Config.Properties.ImageVariantProperties;
+import com.siyamuddin.blog.blogappapis.Repository.UserRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImageVariantServiceTest {
+
+    private static final String DIRECTORY = "users/1/profile";
+
+    @TempDir
+    Path baseDir;
+
+    private final UserRepo userRepo = mock(UserRepo.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private LocalFileStorageService storage;
+
+    @BeforeEach
+    void setUp() {
+        FileStorageProperties properties = new FileStorageProperties();
+        properties.getLocal().setBasePath(baseDir.toString());
+        storage = new LocalFileStorageService(properties);
+    }
+
+    @Test
+    void opaquePhoto_getsJpegVariantsBelowItsSize_andKeysAreRecorded() throws IOException {
+        StoredFile original = store(png(new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_RGB)), "image/png");
+        when(userRepo.setProfileImageVariants(eq(1), eq(original.getKey()), anyString())).thenReturn(1);
+
+        service(Runnable::run).scheduleVariants(1, original, DIRECTORY);
+
+        ArgumentCaptor<String> recorded = ArgumentCaptor.forClass(String.class);
+        verify(userRepo).setProfileImageVariants(eq(1), eq(original.getKey()), recorded.capture());
+        Map<Integer, String> keys = ImageVariantService.decodeKeys(recorded.getValue());
+        assertThat(keys).containsOnlyKeys(64, 256, 1024);
+        assertThat(ImageVariantService.encodeKeys(keys)).isEqualTo(recorded.getValue());
+
+        BufferedImage large = read(keys.get(1024));
+        assertThat(large.getWidth()).isEqualTo(1024);
+        assertThat(large.getHeight()).isEqualTo(512);
+        BufferedImage small = read(keys.get(64));
+        assertThat(small.getWidth()).isEqualTo(64);
+        assertThat(small.getHeight()).isEqualTo(32);
+        assertThat(keys.get(64)).endsWith("-64.jpg");
+        assertThat(outcome("generated")).isEqualTo(1);
+    }
+
+    @Test
+    void smallTransparentPhoto_getsOnlySmallerVariants_asPng() throws IOException {
+        StoredFile original = store(png(new BufferedImage(100, 80, BufferedImage.TYPE_INT_ARGB)), "image/png");
+        when(userRepo.setProfileImageVariants(eq(1), eq(original.getKey()), anyString())).thenReturn(1);
+
+        Map<Integer, String> keys = service(Runnable::run).generate(original.getKey(), DIRECTORY);
+
+        assertThat(keys).containsOnlyKeys(64);
+        assertThat(keys.get(64)).endsWith("-64.png");
+        assertThat(read(keys.get(64)).getColorModel().hasAlpha()).isTrue();
+    }
+
+    @Test
+    void photoReplacedWhileGenerating_deletesTheVariants() throws IOException {
+        StoredFile original = store(png(new BufferedImage(600, 600, BufferedImage.TYPE_INT_RGB)), "image/png");
+        when(userRepo.setProfileImageVariants(anyInt(), anyString(), anyString())).thenReturn(0);
+
+        service(Runnable::run).scheduleVariants(1, original, DIRECTORY);
+
+        assertThat(storedFiles()).containsExactly(baseDir.resolve(original.getKey()));
+        assertThat(outcome("stale")).isEqualTo(1);
+    }
+
+    @Test
+    void undecodableOrNonImageContent_isSkipped() throws IOException {
+        StoredFile webp = store("RIFF....WEBPVP8 ".getBytes(StandardCharsets.US_ASCII), "image/webp");
+        StoredFile pdf = store("%PDF-1.7".getBytes(StandardCharsets.US_ASCII), "application/pdf");
+
+        ImageVariantService service = service(Runnable::run);
+        service.scheduleVariants(1, webp, DIRECTORY);
+        service.scheduleVariants(1, pdf, DIRECTORY);
+
+        verify(userRepo, never()).setProfileImageVariants(anyInt(), anyString(), anyString());
+        assertThat(outcome("skipped")).isEqualTo(2);
+    }
+
+    @Test
+    void fullExecutor_dropsTheJob() throws IOException {
+        StoredFile original = store(png(new BufferedImage(600, 600, BufferedImage.TYPE_INT_RGB)), "image/png");
+
+        service(task -> {
+            throw new RejectedExecutionException("full");
+        }).scheduleVariants(1, original, DIRECTORY);
+
+        assertThat(outcome("dropped")).isEqualTo(1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ImageVariantService service(Executor executor) {
+        ObjectProvider<CacheManager> cacheManager = mock(ObjectProvider.class);
+        return new ImageVariantService(storage, userRepo, new ImageVariantProperties(), executor,
+                mock(PlatformTransactionManager.class), cacheManager, meterRegistry);
+    }
+
+    private StoredFile store(byte[] content, String contentType) {
+        return storage.store(FileUploadRequest.builder()
+                .content(new ByteArrayInputStream(content))
+                .contentType(contentType)
+                .subDirectory(DIRECTORY)
+                .preferredFileName("profile-1-original")
+                .build());
+    }
+
+    private BufferedImage read(String key) throws IOException {
+        return ImageIO.read(baseDir.resolve(key).toFile());
+    }
+
+    private Stream<Path> storedFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(baseDir)) {
+            return files.filter(Files::isRegularFile).toList().stream();
+        }
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.get("app.image.variants").tag("outcome", outcome).counter().count();
+    }
+
+    private static byte[] png(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
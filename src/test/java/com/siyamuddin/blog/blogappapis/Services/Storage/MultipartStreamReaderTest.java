@@ -0,0 +1,106 @@
+package com.siyamuddin.blog.blogappapis.Services.Storage;
+
+import com.siyamuddin.blog.blogappapis.Exceptions.InvalidFileException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MultipartStreamReaderTest {
+
+    private static final String BOUNDARY = "----formBoundary7MA4YWxkTrZu0gW";
+
+    @Test
+    void readsFieldsAndFile_evenWhenTheStreamTricklesInOneByteAtATime() throws IOException {
+        // Content that contains CRLF and a near-miss of the delimiter must come through untouched
+        byte[] file = ("line one\r\n--" + BOUNDARY.substring(0, 10) + "\r\nend").getBytes(StandardCharsets.ISO_8859_1);
+        byte[] body = body(file);
+
+        MultipartStreamReader reader = new MultipartStreamReader(new OneByteInputStream(body), BOUNDARY);
+
+        MultipartStreamReader.Part field = reader.next();
+        assertThat(field.name()).isEqualTo("note");
+        assertThat(field.fileName()).isNull();
+        assertThat(new String(field.content().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("hello");
+
+        MultipartStreamReader.Part part = reader.next();
+        assertThat(part.name()).isEqualTo("file");
+        assertThat(part.fileName()).isEqualTo("photo.png");
+        assertThat(part.contentType()).isEqualTo("image/png");
+        assertThat(part.content().readAllBytes()).isEqualTo(file);
+
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void largeBinaryPart_roundTrips_andUnreadPartsAreSkipped() throws IOException {
+        byte[] file = new byte[1_000_003];
+        new Random(7).nextBytes(file);
+
+        MultipartStreamReader reader = new MultipartStreamReader(new ByteArrayInputStream(body(file)), BOUNDARY);
+        // "note" is never read; next() must skip it
+        reader.next();
+        MultipartStreamReader.Part part = reader.next();
+
+        assertThat(part.content().readAllBytes()).isEqualTo(file);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void truncatedBody_isRejected() throws IOException {
+        byte[] body = body("abc".getBytes(StandardCharsets.US_ASCII));
+        byte[] truncated = Arrays.copyOf(body, body.length - BOUNDARY.length() - 8);
+
+        MultipartStreamReader reader = new MultipartStreamReader(new ByteArrayInputStream(truncated), BOUNDARY);
+        reader.next();
+        MultipartStreamReader.Part part = reader.next();
+
+        assertThatThrownBy(() -> part.content().readAllBytes()).isInstanceOf(InvalidFileException.class);
+    }
+
+    @Test
+    void boundary_isParsedFromContentType() {
+        assertThat(MultipartStreamReader.boundary("multipart/form-data; boundary=\"abc def\"")).isEqualTo("abc def");
+        assertThat(MultipartStreamReader.boundary("multipart/form-data;charset=UTF-8;BOUNDARY=xyz")).isEqualTo("xyz");
+        assertThatThrownBy(() -> MultipartStreamReader.boundary("multipart/form-data"))
+                .isInstanceOf(InvalidFileException.class);
+    }
+
+    static byte[] body(byte[] file) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(("preamble\r\n--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"note\"\r\n\r\n"
+                + "hello\r\n--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"photo.png\"\r\n"
+                + "Content-Type: image/png\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        out.write(file);
+        out.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return out.toByteArray();
+    }
+
+    private static class OneByteInputStream extends InputStream {
+        private final ByteArrayInputStream delegate;
+
+        OneByteInputStream(byte[] bytes) {
+            this.delegate = new ByteArrayInputStream(bytes);
+        }
+
+        @Override
+        public int read() {
+            return delegate.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            return delegate.read(b, off, Math.min(len, 1));
+        }
+    }
+}
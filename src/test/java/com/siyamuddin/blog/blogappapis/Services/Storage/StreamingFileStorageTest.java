@@ -0,0 +1,183 @@
+package com.siyamuddin.blog.blogappapis.Services.Storage;
+
+import com.siyamuddin.blog.blogappapis.Config.Properties.FileStorageProperties;
+import com.siyamuddin.blog.blogappapis.Exceptions.FileTooLargeException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StreamingFileStorageTest {
+
+    private static final int MB = 1024 * 1024;
+
+    @TempDir
+    Path baseDir;
+
+    @Test
+    void local_streamsToFinalKeyAndReportsSize() throws IOException {
+        byte[] data = random(3 * MB + 17);
+
+        StoredFile stored = local().store(streamed(data, 0));
+
+        assertThat(stored.getSize()).isEqualTo(data.length);
+        assertThat(Files.readAllBytes(baseDir.resolve(stored.getKey()))).isEqualTo(data);
+        assertThat(partialFiles()).isEmpty();
+    }
+
+    @Test
+    void local_oversizedUpload_isRefusedAndLeavesNothingBehind() throws IOException {
+        assertThatThrownBy(() -> local().store(streamed(random(2 * MB), MB)))
+                .isInstanceOf(FileTooLargeException.class);
+
+        try (Stream<Path> files = Files.walk(baseDir)) {
+            assertThat(files.filter(Files::isRegularFile)).isEmpty();
+        }
+    }
+
+    @Test
+    void s3_smallFile_isOnePut() {
+        S3Client s3 = mock(S3Client.class);
+
+        StoredFile stored = s3(s3, Runnable::run).store(streamed(random(MB), 0));
+
+        assertThat(stored.getSize()).isEqualTo(MB);
+        verify(s3).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(s3, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+    }
+
+    @Test
+    void s3_smallMultipartFile_streamsIntoPutWithKnownLength() {
+        S3Client s3 = mock(S3Client.class);
+        byte[] data = random(64 * 1024);
+
+        StoredFile stored = s3(s3, Runnable::run).store(FileUploadRequest.builder()
+                .file(new MockMultipartFile("file", "photo.png", "image/png", data))
+                .maxSize(MB)
+                .build());
+
+        assertThat(stored.getSize()).isEqualTo(data.length);
+        ArgumentCaptor<RequestBody> body = ArgumentCaptor.forClass(RequestBody.class);
+        verify(s3).putObject(any(PutObjectRequest.class), body.capture());
+        assertThat(body.getValue().optionalContentLength()).contains((long) data.length);
+    }
+
+    @Test
+    void s3_oversizedMultipartFile_isRefusedBeforeUpload() {
+        S3Client s3 = mock(S3Client.class);
+
+        assertThatThrownBy(() -> s3(s3, Runnable::run).store(FileUploadRequest.builder()
+                .file(new MockMultipartFile("file", "photo.png", "image/png", random(2 * MB)))
+                .maxSize(MB)
+                .build()))
+                .isInstanceOf(FileTooLargeException.class);
+
+        verify(s3, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
+
+    @Test
+    void s3_largeFile_uploadsPartsInParallelAndCompletes() {
+        S3Client s3 = multipartClient();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            StoredFile stored = s3(s3, executor).store(streamed(random(12 * MB + 1), 0));
+
+            assertThat(stored.getSize()).isEqualTo(12 * MB + 1);
+            // 5MB parts: 5MB, 5MB, then 2MB and one byte
+            verify(s3, times(3)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+            verify(s3).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+            verify(s3, never()).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void s3_oversizedUpload_abortsMultipart() {
+        S3Client s3 = multipartClient();
+
+        assertThatThrownBy(() -> s3(s3, Runnable::run).store(streamed(random(12 * MB), 11 * MB)))
+                .isInstanceOf(FileTooLargeException.class);
+
+        verify(s3).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    private LocalFileStorageService local() {
+        FileStorageProperties properties = new FileStorageProperties();
+        properties.getLocal().setBasePath(baseDir.toString());
+        return new LocalFileStorageService(properties);
+    }
+
+    private S3FileStorageService s3(S3Client client, Executor executor) {
+        FileStorageProperties properties = new FileStorageProperties();
+        properties.getS3().setBucketName("bucket");
+        properties.getS3().setRegion("us-east-1");
+        properties.getS3().setPartSize(DataSize.ofMegabytes(5));
+        properties.getS3().setUploadConcurrency(2);
+        return new S3FileStorageService(client, properties, executor);
+    }
+
+    private static S3Client multipartClient() {
+        S3Client s3 = mock(S3Client.class);
+        when(s3.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenAnswer(invocation -> UploadPartResponse.builder()
+                        .eTag("etag-" + invocation.getArgument(0, UploadPartRequest.class).partNumber())
+                        .build());
+        return s3;
+    }
+
+    private static FileUploadRequest streamed(byte[] data, long maxSize) {
+        return FileUploadRequest.builder()
+                .content(new ByteArrayInputStream(data))
+                .contentType("image/png")
+                .originalFileName("photo.png")
+                .maxSize(maxSize)
+                .subDirectory("users/1/profile")
+                .build();
+    }
+
+    private List<Path> partialFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(baseDir)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".part")).toList();
+        }
+    }
+
+    private static byte[] random(int size) {
+        byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        return data;
+    }
+}
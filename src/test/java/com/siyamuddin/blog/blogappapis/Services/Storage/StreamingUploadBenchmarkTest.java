@@ -0,0 +1,121 @@
+package com.siyamuddin.blog.blogappapis.Services.Storage;
+
+import com.siyamuddin.blog.blogappapis.Config.Properties.FileStorageProperties;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Large-file upload throughput: the container-style path (whole body spooled to a temp file,
+ * then copied into storage) against the streaming path (multipart body parsed and copied to
+ * storage as it arrives). Excluded from the default build; run with {@code mvn -Pbenchmark test}
+ * and size it with {@code -Dbenchmark.upload.mb=2048}.
+ */
+@Tag("benchmark")
+class StreamingUploadBenchmarkTest {
+
+    private static final String BOUNDARY = "benchmarkBoundary";
+    private static final long SIZE = Long.getLong("benchmark.upload.mb", 512) * 1024 * 1024;
+
+    @TempDir
+    Path baseDir;
+
+    @Test
+    void bufferedThenCopied() throws IOException {
+        long started = System.nanoTime();
+        // What Tomcat does before the controller runs: spool the request body to disk
+        Path spooled = Files.createTempFile(baseDir, "spool-", ".tmp");
+        Files.copy(body(), spooled, StandardCopyOption.REPLACE_EXISTING);
+        // Then the storage service copies the part into place
+        Path destination = baseDir.resolve("buffered.bin");
+        try (InputStream in = Files.newInputStream(spooled)) {
+            MultipartStreamReader.Part part = new MultipartStreamReader(in, BOUNDARY).next();
+            Files.copy(part.content(), destination);
+        }
+        report("buffered", started, Files.size(destination), 2 * SIZE);
+    }
+
+    @Test
+    void streamed() throws IOException {
+        long started = System.nanoTime();
+        MultipartStreamReader.Part part = new MultipartStreamReader(body(), BOUNDARY).next();
+        StoredFile stored = storage().store(FileUploadRequest.builder()
+                .content(part.content())
+                .contentType("application/octet-stream")
+                .originalFileName(part.fileName())
+                .preferredFileName("streamed.bin")
+                .build());
+        report("streamed", started, stored.getSize(), SIZE);
+    }
+
+    private LocalFileStorageService storage() {
+        FileStorageProperties properties = new FileStorageProperties();
+        properties.getLocal().setBasePath(baseDir.toString());
+        return new LocalFileStorageService(properties);
+    }
+
+    private static void report(String path, long startedNanos, long size, long bytesWritten) {
+        double seconds = (System.nanoTime() - startedNanos) / 1_000_000_000.0;
+        System.out.printf("%s: %d MB in %.3fs (%.0f MB/s), %d MB written to disk%n",
+                path, size >> 20, seconds, (size >> 20) / seconds, bytesWritten >> 20);
+        assertThat(size).isEqualTo(SIZE);
+    }
+
+    private static InputStream body() {
+        String head = "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"large.bin\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n";
+        String tail = "\r\n--" + BOUNDARY + "--\r\n";
+        return new SequenceInputStream(Collections.enumeration(List.of(
+                new ByteArrayInputStream(head.getBytes(StandardCharsets.US_ASCII)),
+                new GeneratedInputStream(SIZE),
+                new ByteArrayInputStream(tail.getBytes(StandardCharsets.US_ASCII)))));
+    }
+
+    /**
+     * {@code size} bytes of a repeating pattern that never contains a CR, generated on the fly
+     * so the benchmark does not need the file in memory.
+     */
+    private static class GeneratedInputStream extends InputStream {
+        private long remaining;
+
+        GeneratedInputStream(long size) {
+            this.remaining = size;
+        }
+
+        @Override
+        public int read() {
+            if (remaining <= 0) {
+                return -1;
+            }
+            remaining--;
+            return 'a' + (int) (remaining % 26);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = (int) Math.min(len, remaining);
+            for (int i = 0; i < n; i++) {
+                b[off + i] = (byte) ('a' + (int) ((remaining - i - 1) % 26));
+            }
+            remaining -= n;
+            return n;
+        }
+    }
+}
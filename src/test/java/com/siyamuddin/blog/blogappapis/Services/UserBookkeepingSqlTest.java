@@ -0,0 +1,267 @@
+package com.siyamuddin.blog.blogappapis.Services;
+
+import com.siyamuddin.blog.blogappapis.Config.Properties.SecurityProperties;
+import com.siyamuddin.blog.blogappapis.Entity.OneTimeTokenPurpose;
+import com.siyamuddin.blog.blogappapis.Entity.User;
+import com.siyamuddin.blog.blogappapis.Exceptions.ResourceNotFoundException;
+import com.siyamuddin.blog.blogappapis.Repository.UserRepo;
+import com.siyamuddin.blog.blogappapis.Services.Impl.AccountSecurityServiceImpl;
+import com.siyamuddin.blog.blogappapis.Services.Impl.EmailVerificationServiceImpl;
+import com.siyamuddin.blog.blogappapis.Services.Impl.PasswordResetServiceImpl;
+import com.siyamuddin.blog.blogappapis.Services.Impl.UserServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Asserts the exact SQL issued by login bookkeeping, lock state and token flows:
+ * one narrow UPDATE per change, no full-row UPDATE from dirty checking, and token
+ * issue/consume confined to the one_time_token table.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.siyamuddin.blog.blogappapis.Services.UserBookkeepingSqlTest$SqlCaptor"
+})
+@Import({AccountSecurityServiceImpl.class, PasswordResetServiceImpl.class, EmailVerificationServiceImpl.class,
+        OneTimeTokenService.class, CustomUserDetailService.class, SecurityProperties.class})
+class UserBookkeepingSqlTest {
+
+    private static final Pattern UPDATE_USER = Pattern.compile("^update user (?:\\w+ )?set (.+?) where ");
+    private static final Pattern ASSIGNED_COLUMN = Pattern.compile("([a-z_0-9]+)\\s*=");
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AccountSecurityService accountSecurityService;
+
+    @Autowired
+    private PasswordResetService passwordResetService;
+
+    @Autowired
+    private EmailVerificationService emailVerificationService;
+
+    @Autowired
+    private CustomUserDetailService customUserDetailService;
+
+    @MockBean
+    private EmailService emailService;
+
+    @MockBean
+    private AuditService auditService;
+
+    @MockBean
+    private PasswordValidationService passwordValidationService;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private OneTimeTokenService oneTimeTokenService;
+
+    private User user;
+    private String resetToken;
+    private String verifyToken;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Bookkeeping");
+        user.setEmail("bookkeeping@test.com");
+        user.setPassword("hash");
+        userRepo.saveAndFlush(user);
+        resetToken = oneTimeTokenService.issue(user.getId(), OneTimeTokenPurpose.PASSWORD_RESET, Duration.ofHours(1));
+        verifyToken = oneTimeTokenService.issue(user.getId(), OneTimeTokenPurpose.EMAIL_VERIFICATION, Duration.ofHours(1));
+        entityManager.flush();
+        when(passwordEncoder.encode(anyString())).thenReturn("new-hash");
+        SqlCaptor.STATEMENTS.clear();
+    }
+
+    @Test
+    void updateUserLastLogin_afterFailedAttempts_writesLoginColumnsOnly() {
+        entityManager.detach(user);
+        user.setFailedLoginAttempts(2);
+        new UserServiceImpl(null, null, userRepo, null, null, null, null, null, transactionManager)
+                .updateUserLastLogin(user);
+
+        assertThat(captured()).hasSize(1);
+        assertThat(updatedColumns()).containsExactlyInAnyOrder("last_login_date", "failed_login_attempts");
+    }
+
+    @Test
+    void lockAccount_writesLockColumnAndReadsContact() {
+        accountSecurityService.lockAccount(user.getEmail(), 30);
+
+        assertThat(captured()).hasSize(2);
+        assertThat(updatedColumns()).containsExactly("account_locked_until");
+    }
+
+    @Test
+    void unlockAccount_writesLockStateOnly() {
+        accountSecurityService.unlockAccount(user.getEmail());
+
+        assertThat(captured()).hasSize(2);
+        assertThat(updatedColumns()).containsExactlyInAnyOrder("account_locked_until", "failed_login_attempts");
+    }
+
+    @Test
+    void resetFailedLoginAttempts_isSingleUpdate() {
+        accountSecurityService.resetFailedLoginAttempts(user.getEmail());
+
+        assertThat(captured()).hasSize(1);
+        assertThat(updatedColumns()).containsExactly("failed_login_attempts");
+    }
+
+    @Test
+    void requestPasswordReset_replacesTokenRowWithoutTouchingUser() {
+        passwordResetService.requestPasswordReset(user.getEmail());
+
+        assertThat(captured()).hasSize(3);
+        assertTokenRowReplaced();
+    }
+
+    @Test
+    void resetPassword_consumesTokenAndWritesPasswordAndLockOnly() {
+        passwordResetService.resetPassword(resetToken, "N3w-Passw0rd!");
+
+        assertThat(captured()).hasSize(3);
+        assertThat(captured()).filteredOn(sql -> sql.startsWith("delete from one_time_token")).hasSize(1);
+        assertThat(updatedColumns()).containsExactlyInAnyOrder("password", "failed_login_attempts",
+                "account_locked_until");
+    }
+
+    @Test
+    void resetPassword_tokenIsSingleUse() {
+        passwordResetService.resetPassword(resetToken, "N3w-Passw0rd!");
+
+        assertThat(passwordResetService.validateResetToken(resetToken)).isFalse();
+        assertThatThrownBy(() -> passwordResetService.resetPassword(resetToken, "N3w-Passw0rd!"))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void resendVerificationEmail_replacesTokenRowWithoutTouchingUser() {
+        emailVerificationService.resendVerificationEmail(user.getEmail());
+
+        assertThat(captured()).hasSize(3);
+        assertTokenRowReplaced();
+        assertThat(emailVerificationService.verifyEmail(capturedVerificationToken())).isTrue();
+        assertThatThrownBy(() -> emailVerificationService.verifyEmail(verifyToken))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void verifyEmail_consumesTokenAndWritesVerifiedFlagOnly() {
+        assertThat(emailVerificationService.verifyEmail(verifyToken)).isTrue();
+
+        assertThat(captured()).hasSize(3);
+        assertThat(updatedColumns()).containsExactly("email_verified");
+        assertThatThrownBy(() -> emailVerificationService.verifyEmail(verifyToken))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void verifyEmail_expiredTokenIsRefused() {
+        String expired = oneTimeTokenService.issue(user.getId(), OneTimeTokenPurpose.EMAIL_VERIFICATION,
+                Duration.ofSeconds(-1));
+
+        assertThat(emailVerificationService.verifyEmail(expired)).isFalse();
+        entityManager.clear();
+        assertThat(userRepo.findById(user.getId()).orElseThrow().getEmailVerified()).isFalse();
+    }
+
+    @Test
+    void upgradePasswordHash_writesPasswordOnly() {
+        entityManager.detach(user);
+        customUserDetailService.updatePassword(user, "{bcrypt}upgraded-hash");
+
+        assertThat(captured()).hasSize(1);
+        assertThat(updatedColumns()).containsExactly("password");
+        assertThat(user.getPassword()).isEqualTo("{bcrypt}upgraded-hash");
+    }
+
+    @Test
+    void upgradePasswordHash_afterConcurrentChange_keepsNewPassword() {
+        entityManager.detach(user);
+        userRepo.completePasswordReset(user.getId(), "changed-hash");
+        SqlCaptor.STATEMENTS.clear();
+
+        customUserDetailService.updatePassword(user, "{bcrypt}upgraded-hash");
+
+        entityManager.clear();
+        assertThat(userRepo.findById(user.getId()).orElseThrow().getPassword()).isEqualTo("changed-hash");
+    }
+
+    /**
+     * Flushes so that any dirty-checking UPDATE would show up, then returns the captured SQL.
+     */
+    private List<String> captured() {
+        entityManager.flush();
+        return new ArrayList<>(SqlCaptor.STATEMENTS);
+    }
+
+    private void assertTokenRowReplaced() {
+        List<String> statements = captured();
+        assertThat(statements).noneMatch(sql -> sql.startsWith("update"));
+        assertThat(statements).filteredOn(sql -> sql.startsWith("delete from one_time_token")).hasSize(1);
+        assertThat(statements).filteredOn(sql -> sql.startsWith("insert into one_time_token")).hasSize(1);
+    }
+
+    private String capturedVerificationToken() {
+        ArgumentCaptor<String> token = ArgumentCaptor.forClass(String.class);
+        verify(emailService).sendVerificationEmail(eq(user.getEmail()), eq(user.getName()), token.capture());
+        return token.getValue();
+    }
+
+    private List<String> updatedColumns() {
+        List<String> updates = captured().stream().filter(sql -> sql.startsWith("update")).toList();
+        assertThat(updates).hasSize(1);
+        Matcher matcher = UPDATE_USER.matcher(updates.get(0));
+        assertThat(matcher.find()).as("UPDATE of the user table: %s", updates.get(0)).isTrue();
+        List<String> columns = new ArrayList<>();
+        Matcher column = ASSIGNED_COLUMN.matcher(matcher.group(1));
+        while (column.find()) {
+            columns.add(column.group(1));
+        }
+        return columns;
+    }
+
+    public static class SqlCaptor implements StatementInspector {
+        static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.replace("\"", "").replace("`", "").toLowerCase(Locale.ROOT).trim());
+            return sql;
+        }
+    }
+}
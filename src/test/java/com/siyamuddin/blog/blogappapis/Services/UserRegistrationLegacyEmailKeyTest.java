@@ -0,0 +1,108 @@
+package com.siyamuddin.blog.blogappapis.Services;
+
+import com.siyamuddin.blog.blogappapis.Config.Properties.RoleProperties;
+import com.siyamuddin.blog.blogappapis.Entity.Role;
+import com.siyamuddin.blog.blogappapis.Exceptions.UserAlreadyExists;
+import com.siyamuddin.blog.blogappapis.Payloads.UserPayload.UserDto;
+import com.siyamuddin.blog.blogappapis.Repository.RoleRepo;
+import com.siyamuddin.blog.blogappapis.Repository.UserRepo;
+import com.siyamuddin.blog.blogappapis.Services.Impl.UserServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * A database whose email unique key still has Hibernate's generated name (installs that predate
+ * V1_1 and have not run V14) must still answer a duplicate sign-up with UserAlreadyExists.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:legacyemailkey;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({UserServiceImpl.class, RoleProperties.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserRegistrationLegacyEmailKeyTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private RoleRepo roleRepo;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockBean
+    private RoleCacheService roleCacheService;
+
+    @MockBean
+    private AdminBootstrapService adminBootstrapService;
+
+    @MockBean
+    private EmailVerificationService emailVerificationService;
+
+    @MockBean
+    private ActivityWriteBehindService activityWriteBehindService;
+
+    @BeforeEach
+    void setUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userRepo.deleteAll();
+            // The key as ddl-auto=update named it before the entity declared uk_user_email
+            entityManager.createNativeQuery("ALTER TABLE `user` DROP CONSTRAINT IF EXISTS uk_user_email")
+                    .executeUpdate();
+            entityManager.createNativeQuery("ALTER TABLE `user` DROP CONSTRAINT IF EXISTS uk_ob8kqyqqgmefl0aco34akdtpe")
+                    .executeUpdate();
+            entityManager.createNativeQuery("ALTER TABLE `user` ADD CONSTRAINT uk_ob8kqyqqgmefl0aco34akdtpe UNIQUE (email)")
+                    .executeUpdate();
+        });
+        Role normal = new Role();
+        normal.setId(new RoleProperties().getNormalUser());
+        normal.setName("ROLE_NORMAL");
+        Role saved = roleRepo.save(normal);
+        when(roleCacheService.getRole(saved.getId())).thenReturn(saved);
+        when(passwordEncoder.encode(anyString())).thenReturn("hashed");
+    }
+
+    @Test
+    void duplicateSignUp_againstLegacyEmailKey_isUserAlreadyExists() {
+        userService.registerNewUser(newUserDto());
+
+        assertThatThrownBy(() -> userService.registerNewUser(newUserDto()))
+                .isInstanceOf(UserAlreadyExists.class);
+        assertThat(userRepo.count()).isEqualTo(1);
+    }
+
+    private static UserDto newUserDto() {
+        UserDto dto = new UserDto();
+        dto.setName("New User");
+        dto.setEmail("legacy@user.test");
+        dto.setPassword("Password1@");
+        return dto;
+    }
+}
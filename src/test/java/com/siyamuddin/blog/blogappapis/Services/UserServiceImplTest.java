@@ -0,0 +1,160 @@
+package com.siyamuddin.blog.blogappapis.Services;
+
+import com.siyamuddin.blog.blogappapis.Config.Properties.RoleProperties;
+import com.siyamuddin.blog.blogappapis.Entity.Role;
+import com.siyamuddin.blog.blogappapis.Entity.User;
+import com.siyamuddin.blog.blogappapis.Exceptions.UserAlreadyExists;
+import com.siyamuddin.blog.blogappapis.Payloads.UserPayload.UserDto;
+import com.siyamuddin.blog.blogappapis.Repository.UserRepo;
+import com.siyamuddin.blog.blogappapis.Services.Impl.UserServiceImpl;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.modelmapper.ModelMapper;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceImplTest {
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+    @Mock
+    private UserRepo userRepo;
+    @Mock
+    private RoleCacheService roleCacheService;
+    @Mock
+    private AdminBootstrapService adminBootstrapService;
+    @Mock
+    private EmailVerificationService emailVerificationService;
+    @Mock
+    private ActivityWriteBehindService activityWriteBehindService;
+
+    private UserServiceImpl userService;
+
+    private Role adminRole;
+    private Role normalRole;
+
+    @BeforeEach
+    void setup() {
+        userService = new UserServiceImpl(new ModelMapper(), passwordEncoder, userRepo,
+                new RoleProperties(), roleCacheService, adminBootstrapService, emailVerificationService,
+                activityWriteBehindService, mock(PlatformTransactionManager.class));
+
+        adminRole = new Role();
+        adminRole.setId(1);
+        adminRole.setName("ROLE_ADMIN");
+        normalRole = new Role();
+        normalRole.setId(2);
+        normalRole.setName("ROLE_NORMAL");
+        lenient().when(passwordEncoder.encode(anyString())).thenReturn("hashed");
+    }
+
+    @Test
+    void registerNewUserShouldInsertWithoutLookupsAndSendVerification() {
+        when(adminBootstrapService.claimFirstAdmin()).thenReturn(false);
+        when(roleCacheService.getRole(2)).thenReturn(normalRole);
+        when(userRepo.saveAndFlush(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        UserDto result = userService.registerNewUser(newUserDto());
+
+        assertThat(result.getRoles()).containsExactly(normalRole);
+        verify(emailVerificationService).sendVerificationEmail(any(User.class));
+        verify(userRepo, never()).findByEmail(anyString());
+        verify(userRepo, never()).count();
+    }
+
+    @Test
+    void registerNewUserShouldGrantAdminToBootstrapWinner() {
+        when(adminBootstrapService.claimFirstAdmin()).thenReturn(true);
+        when(roleCacheService.getRole(1)).thenReturn(adminRole);
+        when(userRepo.saveAndFlush(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        UserDto result = userService.registerNewUser(newUserDto());
+
+        assertThat(result.getRoles()).containsExactly(adminRole);
+    }
+
+    @Test
+    void registerNewUserShouldIgnoreClientSuppliedRoles() {
+        UserDto dto = newUserDto();
+        dto.getRoles().add(adminRole);
+        when(adminBootstrapService.claimFirstAdmin()).thenReturn(false);
+        when(roleCacheService.getRole(2)).thenReturn(normalRole);
+        when(userRepo.saveAndFlush(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        UserDto result = userService.registerNewUser(dto);
+
+        assertThat(result.getRoles()).containsExactly(normalRole);
+    }
+
+    @Test
+    void registerNewUserShouldMapUniqueViolationToUserAlreadyExists() {
+        when(adminBootstrapService.claimFirstAdmin()).thenReturn(false);
+        when(roleCacheService.getRole(2)).thenReturn(normalRole);
+        when(userRepo.saveAndFlush(any(User.class))).thenThrow(violation("PUBLIC.UK_USER_EMAIL_INDEX_3"));
+
+        assertThatThrownBy(() -> userService.registerNewUser(newUserDto()))
+                .isInstanceOf(UserAlreadyExists.class);
+        verify(emailVerificationService, never()).sendVerificationEmail(any(User.class));
+    }
+
+    @Test
+    void registerNewUserShouldMapMySqlDuplicateEmailKey() {
+        when(adminBootstrapService.claimFirstAdmin()).thenReturn(false);
+        when(roleCacheService.getRole(2)).thenReturn(normalRole);
+        SQLException duplicate = new SQLException(
+                "Duplicate entry 'new@user.test' for key 'user.uk_user_email'", "23000", 1062);
+        when(userRepo.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate", duplicate));
+
+        assertThatThrownBy(() -> userService.registerNewUser(newUserDto()))
+                .isInstanceOf(UserAlreadyExists.class);
+    }
+
+    @Test
+    void registerNewUserShouldMapViolationOfLegacyEmailKeyWhenEmailIsTaken() {
+        when(adminBootstrapService.claimFirstAdmin()).thenReturn(false);
+        when(roleCacheService.getRole(2)).thenReturn(normalRole);
+        when(userRepo.saveAndFlush(any(User.class))).thenThrow(violation("UK_OB8KQYQQGMEFL0ACO34AKDTPE"));
+        when(userRepo.existsByEmail("new@user.test")).thenReturn(true);
+
+        assertThatThrownBy(() -> userService.registerNewUser(newUserDto()))
+                .isInstanceOf(UserAlreadyExists.class);
+    }
+
+    @Test
+    void registerNewUserShouldRethrowOtherIntegrityViolations() {
+        when(adminBootstrapService.claimFirstAdmin()).thenReturn(false);
+        when(roleCacheService.getRole(2)).thenReturn(normalRole);
+        DataIntegrityViolationException notNull = violation(null);
+        when(userRepo.saveAndFlush(any(User.class))).thenThrow(notNull);
+
+        assertThatThrownBy(() -> userService.registerNewUser(newUserDto())).isSameAs(notNull);
+    }
+
+    private static DataIntegrityViolationException violation(String constraintName) {
+        SQLException sql = new SQLException("constraint violated", "23505");
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", sql, constraintName));
+    }
+
+    private UserDto newUserDto() {
+        UserDto dto = new UserDto();
+        dto.setName("New User");
+        dto.setEmail("new@user.test");
+        dto.setPassword("Password1@");
+        return dto;
+    }
+}